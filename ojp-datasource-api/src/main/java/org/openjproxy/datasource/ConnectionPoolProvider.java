@@ -1,6 +1,7 @@
 package org.openjproxy.datasource;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Map;
 
@@ -108,6 +109,23 @@ public interface ConnectionPoolProvider {
      */
     Map<String, Object> getStatistics(DataSource dataSource);
 
+    /**
+     * Removes a connection borrowed from the DataSource from its pool, so it is closed instead of being
+     * reused once returned.
+     * 
+     * <p>Used when the connection was found broken by work done on its physical
+     * connection, such as statements prepared with {@link Connection#unwrap(Class)},
+     * which the pool does not see and so cannot evict the connection itself.</p>
+     * 
+     * @param dataSource the DataSource the connection was borrowed from
+     * @param connection the pooled connection, as returned by the DataSource
+     * @return true if the connection was evicted, false if the DataSource is not
+     *         recognized or the pool cannot evict a connection
+     */
+    default boolean evictConnection(DataSource dataSource, Connection connection) {
+        return false;
+    }
+
     /**
      * Returns the priority of this provider for auto-selection.
      * 
@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Comparator;
 import java.util.Map;
@@ -201,6 +202,24 @@ public final class ConnectionPoolProviderRegistry {
                 .orElse(Map.of());
     }
     
+    /**
+     * Evicts a connection from its pool using the provider that recognizes the DataSource.
+     * 
+     * @param dataSource the DataSource the connection was borrowed from
+     * @param connection the pooled connection
+     * @return true if a provider evicted the connection
+     * @see ConnectionPoolProvider#evictConnection(DataSource, Connection)
+     */
+    public static boolean evictConnection(DataSource dataSource, Connection connection) {
+        initialize();
+        for (ConnectionPoolProvider provider : providers.values()) {
+            if (provider.evictConnection(dataSource, connection)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     /**
      * Gets a list of available provider IDs.
      * 
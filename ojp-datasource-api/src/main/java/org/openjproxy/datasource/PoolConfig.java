@@ -48,6 +48,7 @@ public final class PoolConfig {
     private final String validationQuery;
     private final boolean autoCommit;
     private final Integer defaultTransactionIsolation;
+    private final int preparedStatementCacheSize;
     
     // Additional properties
     private final Map<String, String> properties;
@@ -77,6 +78,7 @@ public final class PoolConfig {
         this.validationQuery = builder.validationQuery;
         this.autoCommit = builder.autoCommit;
         this.defaultTransactionIsolation = builder.defaultTransactionIsolation;
+        this.preparedStatementCacheSize = builder.preparedStatementCacheSize;
         this.properties = builder.properties != null 
             ? Collections.unmodifiableMap(new HashMap<>(builder.properties))
             : Collections.emptyMap();
@@ -227,6 +229,15 @@ public final class PoolConfig {
         return defaultTransactionIsolation;
     }
 
+    /**
+     * Gets the number of prepared statements the pool may cache per connection.
+     * 
+     * @return the statements cached per connection, 0 if the pool should not cache statements
+     */
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
     /**
      * Gets the additional properties map.
      * 
@@ -270,6 +281,7 @@ public final class PoolConfig {
                 ", validationQuery='" + validationQuery + '\'' +
                 ", autoCommit=" + autoCommit +
                 ", defaultTransactionIsolation=" + defaultTransactionIsolation +
+                ", preparedStatementCacheSize=" + preparedStatementCacheSize +
                 ", metricsPrefix='" + metricsPrefix + '\'' +
                 ", properties=" + properties.keySet() +
                 '}';
@@ -292,6 +304,7 @@ public final class PoolConfig {
         private String validationQuery;
         private boolean autoCommit = DEFAULT_AUTO_COMMIT;
         private Integer defaultTransactionIsolation;
+        private int preparedStatementCacheSize;
         private Map<String, String> properties;
         private String metricsPrefix;
 
@@ -485,6 +498,23 @@ public final class PoolConfig {
             return this;
         }
 
+        /**
+         * Sets the number of prepared statements the pool may cache per connection.
+         * Pools whose statements are not cached by the caller on the physical connection
+         * use it to cache the statements prepared on their connections.
+         * 
+         * @param preparedStatementCacheSize the statements cached per connection, 0 to disable
+         * @return this builder
+         * @throws IllegalArgumentException if preparedStatementCacheSize is negative
+         */
+        public Builder preparedStatementCacheSize(int preparedStatementCacheSize) {
+            if (preparedStatementCacheSize < 0) {
+                throw new IllegalArgumentException("preparedStatementCacheSize cannot be negative");
+            }
+            this.preparedStatementCacheSize = preparedStatementCacheSize;
+            return this;
+        }
+
         /**
          * Sets additional properties.
          * 
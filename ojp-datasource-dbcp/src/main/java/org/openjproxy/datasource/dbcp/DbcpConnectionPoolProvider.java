@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.util.HashMap;
@@ -30,6 +31,7 @@ import java.util.Map;
  *   <li>{@code maxLifetimeMs} → {@code maxConnLifetimeMillis}</li>
  *   <li>{@code validationQuery} → {@code validationQuery}</li>
  *   <li>{@code autoCommit} → {@code defaultAutoCommit}</li>
+ *   <li>{@code preparedStatementCacheSize} → {@code poolPreparedStatements} and {@code maxOpenPreparedStatements}</li>
  * </ul>
  */
 public class DbcpConnectionPoolProvider implements ConnectionPoolProvider {
@@ -93,6 +95,12 @@ public class DbcpConnectionPoolProvider implements ConnectionPoolProvider {
             log.info("Configured default transaction isolation: {}", config.getDefaultTransactionIsolation());
         }
 
+        // Statement caching - the physical connection is not exposed, so DBCP caches the statements itself
+        if (config.getPreparedStatementCacheSize() > 0) {
+            dataSource.setPoolPreparedStatements(true);
+            dataSource.setMaxOpenPreparedStatements(config.getPreparedStatementCacheSize());
+        }
+
         // Connection properties
         for (Map.Entry<String, String> entry : config.getProperties().entrySet()) {
             dataSource.addConnectionProperty(entry.getKey(), entry.getValue());
@@ -147,6 +155,20 @@ public class DbcpConnectionPoolProvider implements ConnectionPoolProvider {
         return stats;
     }
 
+    @Override
+    public boolean evictConnection(DataSource dataSource, Connection connection) {
+        if (!(dataSource instanceof BasicDataSource)) {
+            return false;
+        }
+        try {
+            ((BasicDataSource) dataSource).invalidateConnection(connection);
+            return true;
+        } catch (IllegalStateException e) {
+            log.warn("Cannot evict connection from DBCP DataSource: {}", e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public int getPriority() {
         return PRIORITY;
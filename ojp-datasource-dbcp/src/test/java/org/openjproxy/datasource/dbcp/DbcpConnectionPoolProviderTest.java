@@ -197,6 +197,40 @@ class DbcpConnectionPoolProviderTest {
         assertNotNull(createdDataSource);
     }
 
+    @Test
+    @DisplayName("createDataSource should let DBCP cache prepared statements")
+    void testPreparedStatementCache() throws SQLException {
+        PoolConfig config = PoolConfig.builder()
+                .url("jdbc:h2:mem:pstmtcache;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .preparedStatementCacheSize(25)
+                .build();
+
+        createdDataSource = provider.createDataSource(config);
+        BasicDataSource basicDs = (BasicDataSource) createdDataSource;
+
+        assertTrue(basicDs.isPoolPreparedStatements());
+        assertEquals(25, basicDs.getMaxOpenPreparedStatements());
+    }
+
+    @Test
+    @DisplayName("evictConnection should remove the connection from the pool")
+    void testEvictConnection() throws SQLException {
+        PoolConfig config = PoolConfig.builder()
+                .url("jdbc:h2:mem:evicttest;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+
+        createdDataSource = provider.createDataSource(config);
+        Connection conn = createdDataSource.getConnection();
+
+        assertTrue(provider.evictConnection(createdDataSource, conn));
+        assertEquals(0, ((BasicDataSource) createdDataSource).getNumActive());
+        assertFalse(provider.evictConnection(null, conn));
+    }
+
     @Test
     @DisplayName("createDataSource should throw for null config")
     void testNullConfig() {
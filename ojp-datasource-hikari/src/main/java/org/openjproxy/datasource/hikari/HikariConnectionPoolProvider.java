@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
@@ -170,6 +171,16 @@ public class HikariConnectionPoolProvider implements ConnectionPoolProvider {
         return stats;
     }
 
+    @Override
+    public boolean evictConnection(DataSource dataSource, Connection connection) {
+        if (!(dataSource instanceof HikariDataSource)) {
+            return false;
+        }
+        // A connection in use is closed by the pool once returned
+        ((HikariDataSource) dataSource).evictConnection(connection);
+        return true;
+    }
+
     @Override
     public int getPriority() {
         return PRIORITY;
@@ -202,6 +202,30 @@ class HikariConnectionPoolProviderTest {
         assertTrue(((HikariDataSource) ds).isClosed());
     }
 
+    @Test
+    @DisplayName("evictConnection should close the connection instead of reusing it")
+    void testEvictConnection() throws SQLException {
+        PoolConfig config = PoolConfig.builder()
+                .url("jdbc:h2:mem:evicttest;DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .maxPoolSize(1)
+                .minIdle(0)
+                .build();
+
+        createdDataSource = provider.createDataSource(config);
+        Connection conn = createdDataSource.getConnection();
+        Connection physical = conn.unwrap(Connection.class);
+
+        assertTrue(provider.evictConnection(createdDataSource, conn));
+        conn.close();
+
+        try (Connection next = createdDataSource.getConnection()) {
+            assertNotSame(physical, next.unwrap(Connection.class));
+        }
+        assertFalse(provider.evictConnection(null, conn));
+    }
+
     @Test
     @DisplayName("closeDataSource should handle null gracefully")
     void testCloseNullDataSource() {
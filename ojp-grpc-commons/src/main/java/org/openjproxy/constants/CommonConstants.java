@@ -4,8 +4,9 @@ package org.openjproxy.constants;
  * Holds common constants used in both the JDBC driver and the OJP proxy server.
  */
 public class CommonConstants {
-    public static final int ROWS_PER_RESULT_SET_DATA_BLOCK = 100;
-    public static final int MAX_LOB_DATA_BLOCK_SIZE = 1024;//1KB per block
+    public static final int DEFAULT_LOB_DATA_BLOCK_SIZE = 256 * 1024;//256KB per block unless configured with ojp.lob.blockSize
+    public static final int MIN_LOB_DATA_BLOCK_SIZE = 1024;//1KB per block
+    public static final int MAX_LOB_DATA_BLOCK_SIZE = 1024 * 1024;//1MB per block, a quarter of the server default max request size
     public static final int PREPARED_STATEMENT_BINARY_STREAM_INDEX = 1;
     public static final int PREPARED_STATEMENT_BINARY_STREAM_LENGTH = 2;
     public static final int PREPARED_STATEMENT_BINARY_STREAM_SQL = 3;
@@ -13,6 +14,7 @@ public class CommonConstants {
     public static final String PREPARED_STATEMENT_SQL_KEY = "PREPARED_STATEMENT_SQL_KEY";
     public static final String PREPARED_STATEMENT_ADD_BATCH_FLAG = "PREPARED_STATEMENT_ADD_BATCH_FLAG";
     public static final String PREPARED_STATEMENT_EXECUTE_BATCH_FLAG = "PREPARED_STATEMENT_EXECUTE_BATCH_FLAG";
+    public static final int MAX_BATCH_REQUEST_SIZE = 2 * 1024 * 1024;//2MB of parameter rows per executeBatch request, half the server default max request size
     public static final String STATEMENT_RESULT_SET_TYPE_KEY = "STATEMENT_RESULT_SET_TYPE_KEY";
     public static final String STATEMENT_RESULT_SET_CONCURRENCY_KEY = "STATEMENT_RESULT_SET_CONCURRENCY_KEY";
     public static final String STATEMENT_RESULT_SET_HOLDABILITY_KEY = "STATEMENT_RESULT_SET_HOLDABILITY_KEY";
@@ -20,6 +22,13 @@ public class CommonConstants {
     public static final String STATEMENT_COLUMN_INDEXES_KEY = "STATEMENT_COLUMN_INDEXES_KEY";
     public static final String STATEMENT_COLUMN_NAMES_KEY = "STATEMENT_COLUMN_NAMES_KEY";
     public static final String RESULT_SET_ROW_BY_ROW_MODE = "RESULT_SET_ROW_BY_ROW_MODE";
+    // Keys of the connection state shadowed by the driver (SessionInfo.connectionState and connection defaults)
+    public static final String CONNECTION_CATALOG_KEY = "CONNECTION_CATALOG_KEY";
+    public static final String CONNECTION_SCHEMA_KEY = "CONNECTION_SCHEMA_KEY";
+    public static final String CONNECTION_TRANSACTION_ISOLATION_KEY = "CONNECTION_TRANSACTION_ISOLATION_KEY";
+    public static final String CONNECTION_HOLDABILITY_KEY = "CONNECTION_HOLDABILITY_KEY";
+    public static final String CONNECTION_CLIENT_INFO_KEY_PREFIX = "CONNECTION_CLIENT_INFO_KEY:";
+    public static final String CONNECTION_AUTO_COMMIT_KEY = "CONNECTION_AUTO_COMMIT_KEY";
     public static final int DEFAULT_PORT_NUMBER = 1059;
     public static final String OJP_REGEX_PATTERN = "ojp\\[([^\\]]+)\\]";
     public static final String OJP_CLOB_PREFIX = "OJP_CLOB_PREFIX:";
@@ -50,6 +59,14 @@ public class CommonConstants {
     public static final String MULTINODE_RETRY_ATTEMPTS_PROPERTY = "ojp.multinode.retryAttempts";
     public static final String MULTINODE_RETRY_DELAY_PROPERTY = "ojp.multinode.retryDelayMs";
     
+    // Result set configuration property keys (driver side)
+    public static final String RESULT_SET_COLUMNAR_PROPERTY = "ojp.resultset.columnar";
+    public static final String RESULT_SET_PREFETCH_BLOCKS_PROPERTY = "ojp.resultset.prefetchBlocks";
+    public static final String RESULT_SET_PREFETCH_BYTES_PROPERTY = "ojp.resultset.prefetchBytes";
+
+    // LOB configuration property keys (driver side)
+    public static final String LOB_BLOCK_SIZE_PROPERTY = "ojp.lob.blockSize";
+
     // Transaction isolation configuration property key
     public static final String DEFAULT_TRANSACTION_ISOLATION_PROPERTY = "ojp.connection.pool.defaultTransactionIsolation";
     public static final String XA_DEFAULT_TRANSACTION_ISOLATION_PROPERTY = "ojp.xa.connection.pool.defaultTransactionIsolation";
@@ -74,6 +91,10 @@ public class CommonConstants {
     public static final int DEFAULT_MULTINODE_RETRY_ATTEMPTS = -1;  // -1 = retry indefinitely
     public static final long DEFAULT_MULTINODE_RETRY_DELAY_MS = 5000;  // 5 seconds between retries
     
+    // Result set read-ahead defaults (driver side)
+    public static final int DEFAULT_RESULT_SET_PREFETCH_BLOCKS = 0;  // 0 = blocks are only read when the application needs them
+    public static final long DEFAULT_RESULT_SET_PREFETCH_BYTES = 8 * 1024 * 1024;  // 8MB of blocks read ahead per result set
+
     // XA pool evictor defaults (Apache Commons Pool 2)
     public static final long DEFAULT_XA_TIME_BETWEEN_EVICTION_RUNS_MS = 30000;  // 30 seconds
     public static final int DEFAULT_XA_NUM_TESTS_PER_EVICTION_RUN = 10;  // Check 10 idle connections per run
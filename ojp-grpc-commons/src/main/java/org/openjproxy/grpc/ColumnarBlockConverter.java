@@ -0,0 +1,201 @@
+package org.openjproxy.grpc;
+
+import com.google.protobuf.ByteString;
+import com.openjproxy.grpc.ColumnVector;
+import com.openjproxy.grpc.ColumnVectorType;
+import com.openjproxy.grpc.ColumnarBlockProto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converter between a block of result set rows and its column oriented protocol buffer encoding.
+ * Columns holding only integers, longs, doubles, floats, booleans or strings are sent as packed typed arrays,
+ * any other column falls back to one ParameterValue per non null value.
+ */
+public class ColumnarBlockConverter {
+
+    private ColumnarBlockConverter() {
+    }
+
+    /**
+     * Convert a block of rows to a ColumnarBlockProto message.
+     *
+     * @param rows        rows of the block, each one with columnCount values
+     * @param columnCount number of columns of the result set
+     * @return ColumnarBlockProto
+     */
+    public static ColumnarBlockProto toProto(List<Object[]> rows, int columnCount) {
+        ColumnarBlockProto.Builder builder = ColumnarBlockProto.newBuilder().setRowCount(rows.size());
+        for (int col = 0; col < columnCount; col++) {
+            builder.addColumns(toColumnVector(rows, col));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Convert a ColumnarBlockProto message back to a block of rows.
+     *
+     * @param proto ColumnarBlockProto
+     * @return rows of the block
+     */
+    public static List<Object[]> fromProto(ColumnarBlockProto proto) {
+        int rowCount = proto.getRowCount();
+        int columnCount = proto.getColumnsCount();
+        List<Object[]> rows = new ArrayList<>(rowCount);
+        for (int row = 0; row < rowCount; row++) {
+            rows.add(new Object[columnCount]);
+        }
+        for (int col = 0; col < columnCount; col++) {
+            ColumnVector vector = proto.getColumns(col);
+            byte[] nullBitmap = vector.getNullBitmap().toByteArray();
+            int valueIdx = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (isNull(nullBitmap, row)) {
+                    continue;
+                }
+                rows.get(row)[col] = valueAt(vector, valueIdx++);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Convert a ColumnarBlockProto message to a DataBlock, typed columns are copied to primitive arrays without
+     * boxing their values.
+     *
+     * @param proto ColumnarBlockProto
+     * @return DataBlock
+     */
+    public static DataBlock toDataBlock(ColumnarBlockProto proto) {
+        int rowCount = proto.getRowCount();
+        DataBlock.Builder builder = new DataBlock.Builder(rowCount, proto.getColumnsCount());
+        for (int col = 0; col < proto.getColumnsCount(); col++) {
+            ColumnVector vector = proto.getColumns(col);
+            byte[] nullBitmap = vector.getNullBitmap().toByteArray();
+            DataBlock.ColumnType type = toColumnType(vector.getType());
+            builder.column(col, type);
+            if (type != DataBlock.ColumnType.OBJECT && nullBitmap.length > 0) {
+                builder.nullBitmap(col, nullBitmap);
+            }
+            Object values = builder.values(col);
+            int valueIdx = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (isNull(nullBitmap, row)) {
+                    continue;
+                }
+                switch (type) {
+                    case INT: ((int[]) values)[row] = vector.getInt32Values(valueIdx++); break;
+                    case LONG: ((long[]) values)[row] = vector.getInt64Values(valueIdx++); break;
+                    case DOUBLE: ((double[]) values)[row] = vector.getDoubleValues(valueIdx++); break;
+                    case FLOAT: ((float[]) values)[row] = vector.getFloatValues(valueIdx++); break;
+                    case BOOLEAN: ((boolean[]) values)[row] = vector.getBoolValues(valueIdx++); break;
+                    default: ((Object[]) values)[row] = valueAt(vector, valueIdx++);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static DataBlock.ColumnType toColumnType(ColumnVectorType type) {
+        switch (type) {
+            case CV_INT32: return DataBlock.ColumnType.INT;
+            case CV_INT64: return DataBlock.ColumnType.LONG;
+            case CV_DOUBLE: return DataBlock.ColumnType.DOUBLE;
+            case CV_FLOAT: return DataBlock.ColumnType.FLOAT;
+            case CV_BOOL: return DataBlock.ColumnType.BOOLEAN;
+            default: return DataBlock.ColumnType.OBJECT;
+        }
+    }
+
+    /**
+     * Checks if the value of a row is flagged as null in the bitmap of a ColumnVector.
+     *
+     * @param nullBitmap null bitmap of the column
+     * @param row        zero based row index within the block
+     * @return true if the value is null
+     */
+    public static boolean isNull(byte[] nullBitmap, int row) {
+        int byteIdx = row >> 3;
+        return byteIdx < nullBitmap.length && (nullBitmap[byteIdx] & (1 << (row & 7))) != 0;
+    }
+
+    private static Object valueAt(ColumnVector vector, int valueIdx) {
+        switch (vector.getType()) {
+            case CV_INT32: return vector.getInt32Values(valueIdx);
+            case CV_INT64: return vector.getInt64Values(valueIdx);
+            case CV_DOUBLE: return vector.getDoubleValues(valueIdx);
+            case CV_FLOAT: return vector.getFloatValues(valueIdx);
+            case CV_BOOL: return vector.getBoolValues(valueIdx);
+            case CV_STRING: return vector.getStringValues(valueIdx);
+            default: return ProtoConverter.fromParameterValue(vector.getValues(valueIdx));
+        }
+    }
+
+    private static ColumnVector toColumnVector(List<Object[]> rows, int col) {
+        ColumnVectorType type = resolveType(rows, col);
+        ColumnVector.Builder builder = ColumnVector.newBuilder().setType(type);
+        byte[] nullBitmap = null;
+        for (int row = 0; row < rows.size(); row++) {
+            Object value = rows.get(row)[col];
+            if (value == null) {
+                if (nullBitmap == null) {
+                    nullBitmap = new byte[(rows.size() + 7) >> 3];
+                }
+                nullBitmap[row >> 3] |= (byte) (1 << (row & 7));
+                continue;
+            }
+            switch (type) {
+                case CV_INT32: builder.addInt32Values(((Number) value).intValue()); break;
+                case CV_INT64: builder.addInt64Values((Long) value); break;
+                case CV_DOUBLE: builder.addDoubleValues((Double) value); break;
+                case CV_FLOAT: builder.addFloatValues((Float) value); break;
+                case CV_BOOL: builder.addBoolValues((Boolean) value); break;
+                case CV_STRING: builder.addStringValues((String) value); break;
+                default: builder.addValues(ProtoConverter.toParameterValue(value));
+            }
+        }
+        if (nullBitmap != null) {
+            builder.setNullBitmap(ByteString.copyFrom(nullBitmap));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolves the typed encoding of a column, only possible when all its non null values share one supported type.
+     * Byte and Short are widened to int32 as done by ProtoConverter.toParameterValue.
+     */
+    private static ColumnVectorType resolveType(List<Object[]> rows, int col) {
+        ColumnVectorType type = null;
+        for (Object[] row : rows) {
+            Object value = row[col];
+            if (value == null) {
+                continue;
+            }
+            ColumnVectorType valueType = typeOf(value);
+            if (type == null) {
+                type = valueType;
+            } else if (type != valueType) {
+                return ColumnVectorType.CV_VALUES;
+            }
+        }
+        return type != null ? type : ColumnVectorType.CV_VALUES;
+    }
+
+    private static ColumnVectorType typeOf(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ColumnVectorType.CV_INT32;
+        } else if (value instanceof Long) {
+            return ColumnVectorType.CV_INT64;
+        } else if (value instanceof Double) {
+            return ColumnVectorType.CV_DOUBLE;
+        } else if (value instanceof Float) {
+            return ColumnVectorType.CV_FLOAT;
+        } else if (value instanceof Boolean) {
+            return ColumnVectorType.CV_BOOL;
+        } else if (value instanceof String) {
+            return ColumnVectorType.CV_STRING;
+        }
+        return ColumnVectorType.CV_VALUES;
+    }
+}
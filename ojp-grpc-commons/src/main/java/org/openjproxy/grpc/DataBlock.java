@@ -0,0 +1,247 @@
+package org.openjproxy.grpc;
+
+import java.util.List;
+
+/**
+ * Block of result set rows stored column by column. Columns holding only ints, longs, doubles, floats or booleans
+ * are kept in primitive arrays with a null bitmap, so reading them does not box; any other column keeps its values
+ * as objects.
+ */
+public final class DataBlock {
+
+    /**
+     * Storage of the values of a column.
+     */
+    public enum ColumnType {
+        OBJECT, INT, LONG, DOUBLE, FLOAT, BOOLEAN
+    }
+
+    private static final byte[] NO_NULLS = new byte[0];
+
+    private final int rowCount;
+    private final ColumnType[] types;
+    // int[], long[], double[], float[], boolean[] or Object[] depending on the column type
+    private final Object[] values;
+    private final byte[][] nullBitmaps;
+
+    DataBlock(int rowCount, ColumnType[] types, Object[] values, byte[][] nullBitmaps) {
+        this.rowCount = rowCount;
+        this.types = types;
+        this.values = values;
+        this.nullBitmaps = nullBitmaps;
+    }
+
+    /**
+     * Creates a block from rows of values, columns whose non null values share one primitive wrapper type are
+     * stored as primitive arrays.
+     *
+     * @param rows        rows of the block
+     * @param columnCount number of columns of the result set
+     * @return DataBlock
+     */
+    public static DataBlock fromRows(List<Object[]> rows, int columnCount) {
+        Builder builder = new Builder(rows.size(), columnCount);
+        for (int col = 0; col < columnCount; col++) {
+            ColumnType type = null;
+            for (Object[] row : rows) {
+                Object value = row[col];
+                if (value == null) {
+                    continue;
+                }
+                ColumnType valueType = typeOf(value);
+                if (type == null) {
+                    type = valueType;
+                } else if (type != valueType) {
+                    type = ColumnType.OBJECT;
+                    break;
+                }
+            }
+            builder.column(col, type != null ? type : ColumnType.OBJECT);
+            for (int row = 0; row < rows.size(); row++) {
+                builder.set(col, row, rows.get(row)[col]);
+            }
+        }
+        return builder.build();
+    }
+
+    private static ColumnType typeOf(Object value) {
+        if (value instanceof Integer) {
+            return ColumnType.INT;
+        } else if (value instanceof Long) {
+            return ColumnType.LONG;
+        } else if (value instanceof Double) {
+            return ColumnType.DOUBLE;
+        } else if (value instanceof Float) {
+            return ColumnType.FLOAT;
+        } else if (value instanceof Boolean) {
+            return ColumnType.BOOLEAN;
+        }
+        return ColumnType.OBJECT;
+    }
+
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    public int getColumnCount() {
+        return this.types.length;
+    }
+
+    public ColumnType getColumnType(int col) {
+        return this.types[col];
+    }
+
+    /**
+     * Tells if the column is stored as a primitive numeric array, so getInt, getLong, getDouble and getFloat can be
+     * used on it.
+     */
+    public boolean isNumeric(int col) {
+        ColumnType type = this.types[col];
+        return type != ColumnType.OBJECT && type != ColumnType.BOOLEAN;
+    }
+
+    public boolean isNull(int row, int col) {
+        if (this.types[col] == ColumnType.OBJECT) {
+            return ((Object[]) this.values[col])[row] == null;
+        }
+        return ColumnarBlockConverter.isNull(this.nullBitmaps[col], row);
+    }
+
+    /**
+     * Returns the value of a cell, boxing it if the column is stored as a primitive array.
+     */
+    public Object getObject(int row, int col) {
+        if (this.types[col] != ColumnType.OBJECT && this.isNull(row, col)) {
+            return null;
+        }
+        switch (this.types[col]) {
+            case INT: return ((int[]) this.values[col])[row];
+            case LONG: return ((long[]) this.values[col])[row];
+            case DOUBLE: return ((double[]) this.values[col])[row];
+            case FLOAT: return ((float[]) this.values[col])[row];
+            case BOOLEAN: return ((boolean[]) this.values[col])[row];
+            default: return ((Object[]) this.values[col])[row];
+        }
+    }
+
+    public int getInt(int row, int col) {
+        switch (this.types[col]) {
+            case INT: return ((int[]) this.values[col])[row];
+            case LONG: return (int) ((long[]) this.values[col])[row];
+            case DOUBLE: return (int) ((double[]) this.values[col])[row];
+            case FLOAT: return (int) ((float[]) this.values[col])[row];
+            default: throw notNumeric(col);
+        }
+    }
+
+    public long getLong(int row, int col) {
+        switch (this.types[col]) {
+            case INT: return ((int[]) this.values[col])[row];
+            case LONG: return ((long[]) this.values[col])[row];
+            case DOUBLE: return (long) ((double[]) this.values[col])[row];
+            case FLOAT: return (long) ((float[]) this.values[col])[row];
+            default: throw notNumeric(col);
+        }
+    }
+
+    public double getDouble(int row, int col) {
+        switch (this.types[col]) {
+            case INT: return ((int[]) this.values[col])[row];
+            case LONG: return ((long[]) this.values[col])[row];
+            case DOUBLE: return ((double[]) this.values[col])[row];
+            case FLOAT: return ((float[]) this.values[col])[row];
+            default: throw notNumeric(col);
+        }
+    }
+
+    public float getFloat(int row, int col) {
+        switch (this.types[col]) {
+            case INT: return ((int[]) this.values[col])[row];
+            case LONG: return ((long[]) this.values[col])[row];
+            case DOUBLE: return (float) ((double[]) this.values[col])[row];
+            case FLOAT: return ((float[]) this.values[col])[row];
+            default: throw notNumeric(col);
+        }
+    }
+
+    public boolean getBoolean(int row, int col) {
+        if (this.types[col] != ColumnType.BOOLEAN) {
+            throw new IllegalStateException("Column " + col + " is not a boolean column.");
+        }
+        return ((boolean[]) this.values[col])[row];
+    }
+
+    private IllegalStateException notNumeric(int col) {
+        return new IllegalStateException("Column " + col + " is not a numeric column.");
+    }
+
+    /**
+     * Fills the columns of a block one value at a time, used by the decoders of the row and columnar encodings.
+     */
+    static final class Builder {
+        private final int rowCount;
+        private final ColumnType[] types;
+        private final Object[] values;
+        private final byte[][] nullBitmaps;
+
+        Builder(int rowCount, int columnCount) {
+            this.rowCount = rowCount;
+            this.types = new ColumnType[columnCount];
+            this.values = new Object[columnCount];
+            this.nullBitmaps = new byte[columnCount][];
+        }
+
+        void column(int col, ColumnType type) {
+            this.types[col] = type;
+            this.nullBitmaps[col] = NO_NULLS;
+            switch (type) {
+                case INT: this.values[col] = new int[this.rowCount]; break;
+                case LONG: this.values[col] = new long[this.rowCount]; break;
+                case DOUBLE: this.values[col] = new double[this.rowCount]; break;
+                case FLOAT: this.values[col] = new float[this.rowCount]; break;
+                case BOOLEAN: this.values[col] = new boolean[this.rowCount]; break;
+                default: this.values[col] = new Object[this.rowCount];
+            }
+        }
+
+        /**
+         * Sets the null bitmap of a primitive column, bit (row % 8) of byte (row / 8) is set when the row is null.
+         */
+        void nullBitmap(int col, byte[] nullBitmap) {
+            this.nullBitmaps[col] = nullBitmap;
+        }
+
+        Object values(int col) {
+            return this.values[col];
+        }
+
+        void setNull(int col, int row) {
+            if (this.types[col] == ColumnType.OBJECT) {
+                return;
+            }
+            if (this.nullBitmaps[col] == NO_NULLS) {
+                this.nullBitmaps[col] = new byte[(this.rowCount + 7) >> 3];
+            }
+            this.nullBitmaps[col][row >> 3] |= (byte) (1 << (row & 7));
+        }
+
+        void set(int col, int row, Object value) {
+            if (value == null) {
+                this.setNull(col, row);
+                return;
+            }
+            switch (this.types[col]) {
+                case INT: ((int[]) this.values[col])[row] = (Integer) value; break;
+                case LONG: ((long[]) this.values[col])[row] = (Long) value; break;
+                case DOUBLE: ((double[]) this.values[col])[row] = (Double) value; break;
+                case FLOAT: ((float[]) this.values[col])[row] = (Float) value; break;
+                case BOOLEAN: ((boolean[]) this.values[col])[row] = (Boolean) value; break;
+                default: ((Object[]) this.values[col])[row] = value;
+            }
+        }
+
+        DataBlock build() {
+            return new DataBlock(this.rowCount, this.types, this.values, this.nullBitmaps);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.google.protobuf.StringValue;
 import com.openjproxy.grpc.IntArray;
 import com.openjproxy.grpc.LongArray;
 import com.openjproxy.grpc.StringArray;
+import com.openjproxy.grpc.ColumnMetadataProto;
 import com.openjproxy.grpc.OpQueryResultProto;
 import com.openjproxy.grpc.ParameterProto;
 import com.openjproxy.grpc.ParameterTypeProto;
@@ -12,6 +13,7 @@ import com.openjproxy.grpc.ParameterValue;
 import com.openjproxy.grpc.PropertyEntry;
 import com.openjproxy.grpc.ResultRow;
 import com.openjproxy.grpc.TimestampWithZone;
+import org.openjproxy.grpc.dto.ColumnMetadata;
 import org.openjproxy.grpc.dto.OpQueryResult;
 import org.openjproxy.grpc.dto.Parameter;
 import org.openjproxy.grpc.dto.ParameterType;
@@ -665,6 +667,12 @@ public class ProtoConverter {
             builder.addAllLabels(result.getLabels());
         }
 
+        if (result.getColumnMetadata() != null) {
+            for (ColumnMetadata columnMetadata : result.getColumnMetadata()) {
+                builder.addColumnMetadata(toProto(columnMetadata));
+            }
+        }
+
         if (result.getRows() != null) {
             for (Object[] row : result.getRows()) {
                 ResultRow.Builder rowBuilder = ResultRow.newBuilder();
@@ -680,30 +688,236 @@ public class ProtoConverter {
         return builder.build();
     }
 
+    /**
+     * Convert OpQueryResult DTO to OpQueryResultProto message with the rows encoded column by column.
+     */
+    public static OpQueryResultProto toColumnarProto(OpQueryResult result) {
+        if (result == null) {
+            return null;
+        }
+
+        OpQueryResultProto.Builder builder = OpQueryResultProto.newBuilder()
+                .setResultSetUUID(result.getResultSetUUID() != null ? result.getResultSetUUID() : "");
+
+        if (result.getLabels() != null) {
+            builder.addAllLabels(result.getLabels());
+        }
+
+        if (result.getColumnMetadata() != null) {
+            for (ColumnMetadata columnMetadata : result.getColumnMetadata()) {
+                builder.addColumnMetadata(toProto(columnMetadata));
+            }
+        }
+
+        List<Object[]> rows = result.getRows() != null ? result.getRows() : new ArrayList<>();
+        int columnCount = !rows.isEmpty() ? rows.get(0).length : builder.getLabelsCount();
+        builder.setColumnarRows(ColumnarBlockConverter.toProto(rows, columnCount));
+
+        return builder.build();
+    }
+
     /**
      * Convert OpQueryResultProto message to OpQueryResult DTO.
+     * Accepts both row and columnar encoded blocks.
      */
     public static OpQueryResult fromProto(OpQueryResultProto proto) {
         if (proto == null) {
             return null;
         }
+        return fromProto(proto, true);
+    }
+
+    /**
+     * Convert OpQueryResultProto message to OpQueryResult DTO without decoding its rows, for readers that decode
+     * the rows with toDataBlock.
+     */
+    public static OpQueryResult fromProtoWithoutRows(OpQueryResultProto proto) {
+        if (proto == null) {
+            return null;
+        }
+        return fromProto(proto, false);
+    }
+
+    private static OpQueryResult fromProto(OpQueryResultProto proto, boolean decodeRows) {
+        List<Object[]> rows = null;
+        if (decodeRows && proto.hasColumnarRows()) {
+            rows = ColumnarBlockConverter.fromProto(proto.getColumnarRows());
+        } else if (decodeRows) {
+            rows = new ArrayList<>();
+            for (ResultRow row : proto.getRowsList()) {
+                Object[] rowData = new Object[row.getColumnsCount()];
+                for (int i = 0; i < row.getColumnsCount(); i++) {
+                    rowData[i] = fromParameterValue(row.getColumns(i));
+                }
+                rows.add(rowData);
+            }
+        }
 
-        List<Object[]> rows = new ArrayList<>();
-        for (ResultRow row : proto.getRowsList()) {
-            Object[] rowData = new Object[row.getColumnsCount()];
-            for (int i = 0; i < row.getColumnsCount(); i++) {
-                rowData[i] = fromParameterValue(row.getColumns(i));
+        List<ColumnMetadata> columnMetadata = null;
+        if (proto.getColumnMetadataCount() > 0) {
+            columnMetadata = new ArrayList<>(proto.getColumnMetadataCount());
+            for (ColumnMetadataProto columnMetadataProto : proto.getColumnMetadataList()) {
+                columnMetadata.add(fromProto(columnMetadataProto));
             }
-            rows.add(rowData);
         }
 
         return OpQueryResult.builder()
                 .resultSetUUID(proto.getResultSetUUID())
                 .labels(new ArrayList<>(proto.getLabelsList()))
+                .columnMetadata(columnMetadata)
                 .rows(rows)
                 .build();
     }
 
+    /**
+     * Convert the rows of an OpQueryResultProto message to a DataBlock. Accepts both row and columnar encoded
+     * blocks, columns whose values are all ints, longs, doubles, floats or booleans are decoded to primitive arrays
+     * without boxing.
+     */
+    public static DataBlock toDataBlock(OpQueryResultProto proto) {
+        if (proto.hasColumnarRows()) {
+            return ColumnarBlockConverter.toDataBlock(proto.getColumnarRows());
+        }
+        List<ResultRow> rows = proto.getRowsList();
+        int columnCount = rows.isEmpty() ? proto.getLabelsCount() : rows.get(0).getColumnsCount();
+        DataBlock.Builder builder = new DataBlock.Builder(rows.size(), columnCount);
+        for (int col = 0; col < columnCount; col++) {
+            DataBlock.ColumnType type = resolveColumnType(rows, col);
+            builder.column(col, type);
+            Object values = builder.values(col);
+            for (int row = 0; row < rows.size(); row++) {
+                ParameterValue value = rows.get(row).getColumns(col);
+                switch (type) {
+                    case INT:
+                        if (value.getValueCase() == ParameterValue.ValueCase.INT_VALUE) {
+                            ((int[]) values)[row] = value.getIntValue();
+                        } else {
+                            builder.setNull(col, row);
+                        }
+                        break;
+                    case LONG:
+                        if (value.getValueCase() == ParameterValue.ValueCase.LONG_VALUE) {
+                            ((long[]) values)[row] = value.getLongValue();
+                        } else {
+                            builder.setNull(col, row);
+                        }
+                        break;
+                    case DOUBLE:
+                        if (value.getValueCase() == ParameterValue.ValueCase.DOUBLE_VALUE) {
+                            ((double[]) values)[row] = value.getDoubleValue();
+                        } else {
+                            builder.setNull(col, row);
+                        }
+                        break;
+                    case FLOAT:
+                        if (value.getValueCase() == ParameterValue.ValueCase.FLOAT_VALUE) {
+                            ((float[]) values)[row] = value.getFloatValue();
+                        } else {
+                            builder.setNull(col, row);
+                        }
+                        break;
+                    case BOOLEAN:
+                        if (value.getValueCase() == ParameterValue.ValueCase.BOOL_VALUE) {
+                            ((boolean[]) values)[row] = value.getBoolValue();
+                        } else {
+                            builder.setNull(col, row);
+                        }
+                        break;
+                    default:
+                        ((Object[]) values)[row] = fromParameterValue(value);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolves the storage of a row encoded column, only primitive when all its non null values share one type.
+     */
+    private static DataBlock.ColumnType resolveColumnType(List<ResultRow> rows, int col) {
+        DataBlock.ColumnType type = null;
+        for (ResultRow row : rows) {
+            DataBlock.ColumnType valueType;
+            switch (row.getColumns(col).getValueCase()) {
+                case IS_NULL:
+                case VALUE_NOT_SET:
+                    continue;
+                case INT_VALUE: valueType = DataBlock.ColumnType.INT; break;
+                case LONG_VALUE: valueType = DataBlock.ColumnType.LONG; break;
+                case DOUBLE_VALUE: valueType = DataBlock.ColumnType.DOUBLE; break;
+                case FLOAT_VALUE: valueType = DataBlock.ColumnType.FLOAT; break;
+                case BOOL_VALUE: valueType = DataBlock.ColumnType.BOOLEAN; break;
+                default: return DataBlock.ColumnType.OBJECT;
+            }
+            if (type == null) {
+                type = valueType;
+            } else if (type != valueType) {
+                return DataBlock.ColumnType.OBJECT;
+            }
+        }
+        return type != null ? type : DataBlock.ColumnType.OBJECT;
+    }
+
+    /**
+     * Convert ColumnMetadata DTO to ColumnMetadataProto message. Null strings are sent as empty strings.
+     */
+    public static ColumnMetadataProto toProto(ColumnMetadata columnMetadata) {
+        return ColumnMetadataProto.newBuilder()
+                .setColumnType(columnMetadata.getColumnType())
+                .setColumnTypeName(nullToEmpty(columnMetadata.getColumnTypeName()))
+                .setColumnLabel(nullToEmpty(columnMetadata.getColumnLabel()))
+                .setColumnName(nullToEmpty(columnMetadata.getColumnName()))
+                .setSchemaName(nullToEmpty(columnMetadata.getSchemaName()))
+                .setTableName(nullToEmpty(columnMetadata.getTableName()))
+                .setCatalogName(nullToEmpty(columnMetadata.getCatalogName()))
+                .setColumnDisplaySize(columnMetadata.getColumnDisplaySize())
+                .setPrecision(columnMetadata.getPrecision())
+                .setScale(columnMetadata.getScale())
+                .setNullable(columnMetadata.getNullable())
+                .setAutoIncrement(columnMetadata.isAutoIncrement())
+                .setCaseSensitive(columnMetadata.isCaseSensitive())
+                .setSearchable(columnMetadata.isSearchable())
+                .setCurrency(columnMetadata.isCurrency())
+                .setSigned(columnMetadata.isSigned())
+                .setReadOnly(columnMetadata.isReadOnly())
+                .setWritable(columnMetadata.isWritable())
+                .setDefinitelyWritable(columnMetadata.isDefinitelyWritable())
+                .setColumnClassName(nullToEmpty(columnMetadata.getColumnClassName()))
+                .build();
+    }
+
+    /**
+     * Convert ColumnMetadataProto message to ColumnMetadata DTO.
+     */
+    public static ColumnMetadata fromProto(ColumnMetadataProto proto) {
+        return ColumnMetadata.builder()
+                .columnType(proto.getColumnType())
+                .columnTypeName(proto.getColumnTypeName())
+                .columnLabel(proto.getColumnLabel())
+                .columnName(proto.getColumnName())
+                .schemaName(proto.getSchemaName())
+                .tableName(proto.getTableName())
+                .catalogName(proto.getCatalogName())
+                .columnDisplaySize(proto.getColumnDisplaySize())
+                .precision(proto.getPrecision())
+                .scale(proto.getScale())
+                .nullable(proto.getNullable())
+                .autoIncrement(proto.getAutoIncrement())
+                .caseSensitive(proto.getCaseSensitive())
+                .searchable(proto.getSearchable())
+                .currency(proto.getCurrency())
+                .signed(proto.getSigned())
+                .readOnly(proto.getReadOnly())
+                .writable(proto.getWritable())
+                .definitelyWritable(proto.getDefinitelyWritable())
+                .columnClassName(proto.getColumnClassName())
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     /**
      * Convert a Map of properties to a list of PropertyEntry messages.
      */
@@ -0,0 +1,34 @@
+package org.openjproxy.grpc.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * Metadata of a result set column, as returned by java.sql.ResultSetMetaData.
+ */
+@Builder
+@Getter
+public class ColumnMetadata implements Serializable {
+    int columnType;
+    String columnTypeName;
+    String columnLabel;
+    String columnName;
+    String schemaName;
+    String tableName;
+    String catalogName;
+    int columnDisplaySize;
+    int precision;
+    int scale;
+    int nullable;
+    boolean autoIncrement;
+    boolean caseSensitive;
+    boolean searchable;
+    boolean currency;
+    boolean signed;
+    boolean readOnly;
+    boolean writable;
+    boolean definitelyWritable;
+    String columnClassName;
+}
@@ -17,6 +17,10 @@ public class OpQueryResult implements Serializable {
      * Labels for each column returned, only populated in the first block of data returned.
      */
     List<String> labels;
+    /**
+     * Metadata of each column returned, only populated in the first block of data returned.
+     */
+    List<ColumnMetadata> columnMetadata;
     /**
      * List of rows, each row is an array of objects, each array element is a column of the result set.
      */
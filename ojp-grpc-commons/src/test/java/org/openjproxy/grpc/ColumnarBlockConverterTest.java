@@ -0,0 +1,113 @@
+package org.openjproxy.grpc;
+
+import com.openjproxy.grpc.ColumnVectorType;
+import com.openjproxy.grpc.ColumnarBlockProto;
+import com.openjproxy.grpc.OpQueryResultProto;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.dto.OpQueryResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ColumnarBlockConverter round trips and typed column selection.
+ */
+public class ColumnarBlockConverterTest {
+
+    @Test
+    void testTypedColumnsRoundTrip() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1, 10L, 1.5d, 2.5f, true, "a"});
+        rows.add(new Object[]{null, null, null, null, null, null});
+        rows.add(new Object[]{-3, Long.MAX_VALUE, -0.5d, 0f, false, ""});
+
+        ColumnarBlockProto proto = ColumnarBlockConverter.toProto(rows, 6);
+
+        assertEquals(3, proto.getRowCount());
+        assertEquals(ColumnVectorType.CV_INT32, proto.getColumns(0).getType());
+        assertEquals(ColumnVectorType.CV_INT64, proto.getColumns(1).getType());
+        assertEquals(ColumnVectorType.CV_DOUBLE, proto.getColumns(2).getType());
+        assertEquals(ColumnVectorType.CV_FLOAT, proto.getColumns(3).getType());
+        assertEquals(ColumnVectorType.CV_BOOL, proto.getColumns(4).getType());
+        assertEquals(ColumnVectorType.CV_STRING, proto.getColumns(5).getType());
+        // Null values are only flagged in the bitmap
+        assertEquals(2, proto.getColumns(0).getInt32ValuesCount());
+
+        List<Object[]> decoded = ColumnarBlockConverter.fromProto(proto);
+        assertEquals(3, decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertArrayEquals(rows.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void testMixedAndUnsupportedTypesFallBackToValues() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1, new BigDecimal("12.34")});
+        rows.add(new Object[]{2L, null});
+
+        ColumnarBlockProto proto = ColumnarBlockConverter.toProto(rows, 2);
+
+        assertEquals(ColumnVectorType.CV_VALUES, proto.getColumns(0).getType());
+        assertEquals(ColumnVectorType.CV_VALUES, proto.getColumns(1).getType());
+
+        List<Object[]> decoded = ColumnarBlockConverter.fromProto(proto);
+        assertEquals(1, decoded.get(0)[0]);
+        assertEquals(2L, decoded.get(1)[0]);
+        assertEquals(new BigDecimal("12.34"), decoded.get(0)[1]);
+        assertNull(decoded.get(1)[1]);
+    }
+
+    @Test
+    void testNullBitmapSpanningSeveralBytes() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(new Object[]{i % 3 == 0 ? null : "row" + i});
+        }
+
+        List<Object[]> decoded = ColumnarBlockConverter.fromProto(ColumnarBlockConverter.toProto(rows, 1));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(rows.get(i)[0], decoded.get(i)[0]);
+        }
+    }
+
+    @Test
+    void testOpQueryResultColumnarRoundTrip() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1, "x"});
+        OpQueryResult result = OpQueryResult.builder()
+                .resultSetUUID("uuid")
+                .labels(Arrays.asList("ID", "NAME"))
+                .rows(rows)
+                .build();
+
+        OpQueryResultProto proto = ProtoConverter.toColumnarProto(result);
+        assertTrue(proto.hasColumnarRows());
+        assertEquals(0, proto.getRowsCount());
+
+        OpQueryResult decoded = ProtoConverter.fromProto(proto);
+        assertEquals("uuid", decoded.getResultSetUUID());
+        assertEquals(Arrays.asList("ID", "NAME"), decoded.getLabels());
+        assertArrayEquals(rows.get(0), decoded.getRows().get(0));
+    }
+
+    @Test
+    void testEmptyBlockKeepsColumnCountFromLabels() {
+        OpQueryResult result = OpQueryResult.builder()
+                .resultSetUUID("uuid")
+                .labels(Arrays.asList("ID", "NAME"))
+                .rows(new ArrayList<>())
+                .build();
+
+        OpQueryResultProto proto = ProtoConverter.toColumnarProto(result);
+
+        assertEquals(0, proto.getColumnarRows().getRowCount());
+        assertEquals(2, proto.getColumnarRows().getColumnsCount());
+        assertTrue(ProtoConverter.fromProto(proto).getRows().isEmpty());
+    }
+}
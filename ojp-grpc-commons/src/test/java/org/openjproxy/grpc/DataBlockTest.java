@@ -0,0 +1,102 @@
+package org.openjproxy.grpc;
+
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.dto.OpQueryResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for DataBlock decoding of row and columnar encoded blocks.
+ */
+public class DataBlockTest {
+
+    @Test
+    void testRowEncodedBlockUsesPrimitiveColumns() {
+        DataBlock block = ProtoConverter.toDataBlock(ProtoConverter.toProto(queryResult(rows())));
+        assertTypedColumns(block);
+    }
+
+    @Test
+    void testColumnarEncodedBlockUsesPrimitiveColumns() {
+        DataBlock block = ProtoConverter.toDataBlock(ProtoConverter.toColumnarProto(queryResult(rows())));
+        assertTypedColumns(block);
+    }
+
+    @Test
+    void testFromRowsUsesPrimitiveColumns() {
+        assertTypedColumns(DataBlock.fromRows(rows(), 5));
+    }
+
+    @Test
+    void testMixedTypesKeepObjects() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1});
+        rows.add(new Object[]{2L});
+
+        DataBlock block = ProtoConverter.toDataBlock(ProtoConverter.toProto(queryResult(rows)));
+
+        assertEquals(DataBlock.ColumnType.OBJECT, block.getColumnType(0));
+        assertFalse(block.isNumeric(0));
+        assertEquals(1, block.getObject(0, 0));
+        assertEquals(2L, block.getObject(1, 0));
+        assertThrows(IllegalStateException.class, () -> block.getInt(0, 0));
+    }
+
+    @Test
+    void testEmptyBlockKeepsColumnCount() {
+        OpQueryResult result = OpQueryResult.builder()
+                .resultSetUUID("rs")
+                .labels(Arrays.asList("A", "B"))
+                .rows(new ArrayList<>())
+                .build();
+
+        DataBlock block = ProtoConverter.toDataBlock(ProtoConverter.toProto(result));
+
+        assertEquals(0, block.getRowCount());
+        assertEquals(2, block.getColumnCount());
+    }
+
+    private static void assertTypedColumns(DataBlock block) {
+        assertEquals(3, block.getRowCount());
+        assertEquals(DataBlock.ColumnType.INT, block.getColumnType(0));
+        assertEquals(DataBlock.ColumnType.LONG, block.getColumnType(1));
+        assertEquals(DataBlock.ColumnType.DOUBLE, block.getColumnType(2));
+        assertEquals(DataBlock.ColumnType.BOOLEAN, block.getColumnType(3));
+        assertEquals(DataBlock.ColumnType.OBJECT, block.getColumnType(4));
+
+        assertEquals(7, block.getInt(0, 0));
+        assertEquals(7L, block.getLong(0, 0));
+        assertEquals(Long.MAX_VALUE, block.getLong(2, 1));
+        assertEquals(2.5d, block.getDouble(0, 2));
+        assertTrue(block.getBoolean(0, 3));
+        assertEquals(new BigDecimal("1.10"), block.getObject(0, 4));
+
+        assertTrue(block.isNull(1, 0));
+        assertTrue(block.isNull(1, 1));
+        assertTrue(block.isNull(1, 4));
+        assertFalse(block.isNull(2, 0));
+        assertNull(block.getObject(1, 0));
+        assertEquals(-1, block.getObject(2, 0));
+    }
+
+    private static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{7, 10L, 2.5d, true, new BigDecimal("1.10")});
+        rows.add(new Object[]{null, null, null, null, null});
+        rows.add(new Object[]{-1, Long.MAX_VALUE, -0.5d, false, new BigDecimal("2")});
+        return rows;
+    }
+
+    private static OpQueryResult queryResult(List<Object[]> rows) {
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < rows.get(0).length; i++) {
+            labels.add("C" + i);
+        }
+        return OpQueryResult.builder().resultSetUUID("rs").labels(labels).rows(rows).build();
+    }
+}
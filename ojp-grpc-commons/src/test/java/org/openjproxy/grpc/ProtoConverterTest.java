@@ -2,9 +2,12 @@ package org.openjproxy.grpc;
 
 import com.openjproxy.grpc.ParameterValue;
 import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.dto.ColumnMetadata;
 import org.openjproxy.grpc.dto.ParameterType;
 
 import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -246,4 +249,37 @@ public class ProtoConverterTest {
         Object result = ProtoConverter.fromParameterValue(pv, null);
         assertNull(result);
     }
+
+    @Test
+    void testColumnMetadataRoundTrip() {
+        ColumnMetadata column = ColumnMetadata.builder()
+                .columnType(Types.NUMERIC)
+                .columnTypeName("NUMERIC")
+                .columnLabel("SALARY")
+                .columnName("SALARY")
+                .tableName("EMPLOYEE")
+                .precision(10)
+                .scale(2)
+                .nullable(ResultSetMetaData.columnNoNulls)
+                .searchable(true)
+                .signed(true)
+                .columnClassName("java.math.BigDecimal")
+                .build();
+
+        ColumnMetadata result = ProtoConverter.fromProto(ProtoConverter.toProto(column));
+
+        assertEquals(Types.NUMERIC, result.getColumnType());
+        assertEquals("NUMERIC", result.getColumnTypeName());
+        assertEquals("SALARY", result.getColumnLabel());
+        assertEquals("EMPLOYEE", result.getTableName());
+        assertEquals(10, result.getPrecision());
+        assertEquals(2, result.getScale());
+        assertEquals(ResultSetMetaData.columnNoNulls, result.getNullable());
+        assertTrue(result.isSearchable());
+        assertTrue(result.isSigned());
+        assertFalse(result.isAutoIncrement());
+        assertEquals("java.math.BigDecimal", result.getColumnClassName());
+        // Null names from the JDBC driver are sent as empty strings
+        assertEquals("", result.getSchemaName());
+    }
 }
@@ -24,11 +24,21 @@ public class GrpcExceptionHandler {
         if (errorResponse == null) {
             return sre;
         }
+        throw toSQLException(errorResponse);
+    }
+
+    /**
+     * Converts an error sent by the server, in the metadata of a failed call or within a response, to a SQLException.
+     *
+     * @param errorResponse error sent by the server
+     * @return SQLException, SQLDataException if the server reported a data error.
+     */
+    public static SQLException toSQLException(SqlErrorResponse errorResponse) {
         if (SqlErrorType.SQL_DATA_EXCEPTION.equals(errorResponse.getSqlErrorType())) {
-            throw new SQLDataException(errorResponse.getReason(), errorResponse.getSqlState(),
+            return new SQLDataException(errorResponse.getReason(), errorResponse.getSqlState(),
                     errorResponse.getVendorCode());
         } else {
-            throw new SQLException(errorResponse.getReason(), errorResponse.getSqlState(),
+            return new SQLException(errorResponse.getReason(), errorResponse.getSqlState(),
                     errorResponse.getVendorCode());
         }
     }
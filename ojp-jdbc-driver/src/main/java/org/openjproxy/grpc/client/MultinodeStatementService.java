@@ -3,9 +3,13 @@ package org.openjproxy.grpc.client;
 import com.openjproxy.grpc.CallResourceRequest;
 import com.openjproxy.grpc.CallResourceResponse;
 import com.openjproxy.grpc.ConnectionDetails;
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
 import com.openjproxy.grpc.LobDataBlock;
 import com.openjproxy.grpc.LobReference;
 import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.PipelineRequest;
+import com.openjproxy.grpc.PipelineResponse;
+import com.openjproxy.grpc.ResultSetOptions;
 import com.openjproxy.grpc.SessionInfo;
 import com.openjproxy.grpc.StatementServiceGrpc;
 import io.grpc.StatusRuntimeException;
@@ -18,7 +22,11 @@ import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 /**
  * Multinode implementation of StatementService that provides:
@@ -330,7 +338,7 @@ public class MultinodeStatementService implements StatementService {
             Iterator<OpResult> resultIterator = operation.apply(client);
             
             // Wrap the iterator to check and bind session from the first result
-            return new Iterator<OpResult>() {
+            return new SessionBindingIterator(resultIterator) {
                 private boolean firstResultProcessed = false;
                 
                 @Override
@@ -473,6 +481,24 @@ public class MultinodeStatementService implements StatementService {
         );
     }
     
+    @Override
+    public OpResult executeBatch(SessionInfo sessionInfo, String sql, List<List<Parameter>> rows,
+                                 String statementUUID, Map<String, Object> properties) throws SQLException {
+        SessionInfo enhancedSessionInfo = withClusterHealth(sessionInfo);
+        return executeOpResultWithSessionStickinessAndBinding(enhancedSessionInfo, client ->
+            client.executeBatch(enhancedSessionInfo, sql, rows, statementUUID, properties)
+        );
+    }
+
+    @Override
+    public OpResult executeStatementBatch(SessionInfo sessionInfo, List<String> statements, String statementUUID,
+                                          Map<String, Object> properties) throws SQLException {
+        SessionInfo enhancedSessionInfo = withClusterHealth(sessionInfo);
+        return executeOpResultWithSessionStickinessAndBinding(enhancedSessionInfo, client ->
+            client.executeStatementBatch(enhancedSessionInfo, statements, statementUUID, properties)
+        );
+    }
+    
     @Override
     public Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, 
                                            Map<String, Object> properties) throws SQLException {
@@ -482,10 +508,17 @@ public class MultinodeStatementService implements StatementService {
     @Override
     public Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, 
                                            String statementUUID, Map<String, Object> properties) throws SQLException {
+        return executeQuery(sessionInfo, sql, params, statementUUID, properties, ResultSetOptions.getDefaultInstance());
+    }
+    
+    @Override
+    public Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, 
+                                           String statementUUID, Map<String, Object> properties,
+                                           ResultSetOptions resultSetOptions) throws SQLException {
         // For executeQuery, we execute with binding check and wrap the iterator to check subsequent results
         SessionInfo enhancedSessionInfo = withClusterHealth(sessionInfo);
         return executeIteratorWithSessionStickinessAndBinding(enhancedSessionInfo, client -> 
-            client.executeQuery(enhancedSessionInfo, sql, params, statementUUID, properties)
+            client.executeQuery(enhancedSessionInfo, sql, params, statementUUID, properties, resultSetOptions)
         );
     }
     
@@ -497,6 +530,38 @@ public class MultinodeStatementService implements StatementService {
         );
     }
     
+    @Override
+    public PipelineResponse executePipeline(PipelineRequest request) throws SQLException {
+        SessionInfo enhancedSessionInfo = withClusterHealth(request.getSession());
+        PipelineRequest enhancedRequest = PipelineRequest.newBuilder(request)
+                .setSession(enhancedSessionInfo)
+                .build();
+        // A session started by the pipeline is bound to the server that executed it
+        AtomicReference<PipelineResponse> response = new AtomicReference<>();
+        executeWithSessionStickinessAndBinding(enhancedSessionInfo, client -> {
+            response.set(client.executePipeline(enhancedRequest));
+            return response.get().getSession();
+        });
+        return response.get();
+    }
+    
+    @Override
+    public CompletableFuture<PipelineResponse> executePipelineAsync(PipelineRequest request) {
+        SessionInfo enhancedSessionInfo = withClusterHealth(request.getSession());
+        PipelineRequest enhancedRequest = PipelineRequest.newBuilder(request)
+                .setSession(enhancedSessionInfo)
+                .build();
+        return executeWithSessionStickinessAsync(enhancedSessionInfo,
+                client -> client.executePipelineAsync(enhancedRequest), PipelineResponse::getSession);
+    }
+
+    @Override
+    public CompletableFuture<OpResult> fetchNextRowsAsync(SessionInfo sessionInfo, String resultSetUUID, int size) {
+        SessionInfo enhancedSessionInfo = withClusterHealth(sessionInfo);
+        return executeWithSessionStickinessAsync(enhancedSessionInfo,
+                client -> client.fetchNextRowsAsync(enhancedSessionInfo, resultSetUUID, size), null);
+    }
+
     @Override
     public LobReference createLob(Connection connection, Iterator<LobDataBlock> lobDataBlock) throws SQLException {
         SessionInfo sessionInfo = connection.getSession();
@@ -506,10 +571,10 @@ public class MultinodeStatementService implements StatementService {
     }
     
     @Override
-    public Iterator<LobDataBlock> readLob(LobReference lobReference, long pos, int length) throws SQLException {
+    public Iterator<LobDataBlock> readLob(LobReference lobReference, long pos, int length, int blockSize) throws SQLException {
         SessionInfo sessionInfo = lobReference.getSession();
         return executeWithSessionStickiness(sessionInfo, client -> 
-            client.readLob(lobReference, pos, length)
+            client.readLob(lobReference, pos, length, blockSize)
         );
     }
     
@@ -579,6 +644,21 @@ public class MultinodeStatementService implements StatementService {
         }
     }
     
+    @Override
+    public boolean isServerReachable(SessionInfo session, int timeoutSeconds) {
+        String sessionKey = (session != null && session.getSessionUUID() != null && !session.getSessionUUID().isEmpty())
+                ? session.getSessionUUID() : null;
+        try {
+            ServerEndpoint server = connectionManager.affinityServer(sessionKey);
+            MultinodeConnectionManager.ChannelAndStub channelAndStub = connectionManager.getChannelAndStub(server);
+            return channelAndStub != null &&
+                    StatementServiceGrpcClient.isChannelReady(channelAndStub.channel, timeoutSeconds);
+        } catch (SQLException e) {
+            log.debug("No server reachable for session {}: {}", sessionKey, e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public SessionInfo startTransaction(SessionInfo session) throws SQLException {
         SessionInfo enhancedSessionInfo = withClusterHealth(session);
@@ -615,6 +695,14 @@ public class MultinodeStatementService implements StatementService {
         );
     }
     
+    @Override
+    public DatabaseMetaDataResponse getDatabaseMetaData(SessionInfo session) throws SQLException {
+        SessionInfo enhancedSessionInfo = withClusterHealth(session);
+        return executeWithSessionStickiness(enhancedSessionInfo, client -> 
+            client.getDatabaseMetaData(enhancedSessionInfo)
+        );
+    }
+    
     // XA Transaction Operations
     @Override
     public com.openjproxy.grpc.XaResponse xaStart(com.openjproxy.grpc.XaStartRequest request) throws SQLException {
@@ -808,6 +896,56 @@ public class MultinodeStatementService implements StatementService {
         }
     }
 
+    /**
+     * Asynchronous version of executeWithSessionStickiness. The server is selected when called, a session started by
+     * the call is bound to it once the response is received.
+     *
+     * @param responseSession gets the session of the response, null if the call can not start a session
+     */
+    private <T> CompletableFuture<T> executeWithSessionStickinessAsync(SessionInfo sessionInfo,
+            Function<StatementServiceGrpcClient, CompletableFuture<T>> operation,
+            Function<T, SessionInfo> responseSession) {
+        String sessionKey = (sessionInfo != null && sessionInfo.getSessionUUID() != null && !sessionInfo.getSessionUUID().isEmpty())
+                ? sessionInfo.getSessionUUID() : null;
+        ServerEndpoint server;
+        try {
+            server = connectionManager.affinityServer(sessionKey);
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        log.debug("executeWithSessionStickinessAsync: session={}, server={}",
+            sessionKey, server != null ? server.getAddress() : "null");
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            if (connectionManager.getChannelAndStub(server) == null) {
+                throw new SQLException("Unable to get channel for server: " + server.getAddress());
+            }
+            operation.apply(getClient(server)).whenComplete((result, error) -> {
+                if (error == null) {
+                    if (responseSession != null) {
+                        checkAndBindSession(sessionInfo, responseSession.apply(result), server);
+                    }
+                    future.complete(result);
+                    return;
+                }
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                        error.getCause() : error;
+                if (cause instanceof StatusRuntimeException) {
+                    invalidateSessionIfConnectionLevelError(sessionInfo, (StatusRuntimeException) cause, server);
+                }
+                future.completeExceptionally(cause);
+            });
+        } catch (SQLException e) {
+            future.completeExceptionally(e);
+        } catch (Exception e) {
+            future.completeExceptionally(new SQLException("Unexpected error executing operation on server " +
+                    (server != null ? server.getAddress() : "null") + ": " + e.getMessage(), e));
+        }
+        return future;
+    }
+
     private void invalidateSessionIfConnectionLevelError(SessionInfo sessionInfo, StatusRuntimeException e, ServerEndpoint server) {
         // Only mark server unhealthy for connection-level errors
         // Database-level errors (e.g., syntax errors, constraint violations) should not affect server health
@@ -829,7 +967,25 @@ public class MultinodeStatementService implements StatementService {
     private interface ThrowingFunction<T, R> {
         R apply(T t) throws SQLException;
     }
-    
+
+    /**
+     * Base of the iterator wrapping query results, forwards close so the result stream can be cancelled.
+     */
+    private abstract static class SessionBindingIterator implements Iterator<OpResult>, AutoCloseable {
+        private final Iterator<OpResult> resultIterator;
+
+        SessionBindingIterator(Iterator<OpResult> resultIterator) {
+            this.resultIterator = resultIterator;
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (this.resultIterator instanceof AutoCloseable) {
+                ((AutoCloseable) this.resultIterator).close();
+            }
+        }
+    }
+
     /**
      * Phase 2: Gets the connection manager for registering health listeners.
      * 
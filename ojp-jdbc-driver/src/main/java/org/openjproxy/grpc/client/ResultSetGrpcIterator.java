@@ -0,0 +1,96 @@
+package org.openjproxy.grpc.client;
+
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.StatementRequest;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Iterator over the blocks of a result set streamed by the server. Automatic flow control is disabled, a block is
+ * only requested from the server when the previous one is handed to the result set, so the server does not read
+ * the cursor ahead of the application. Closing the iterator cancels the stream if it was not fully consumed.
+ */
+public class ResultSetGrpcIterator implements Iterator<OpResult>, ClientResponseObserver<StatementRequest, OpResult>,
+        AutoCloseable {
+
+    private static final Object END_OF_STREAM = new Object();
+
+    private final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+    private ClientCallStreamObserver<StatementRequest> requestStream;
+    private Object nextElement;
+    private boolean finished;
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<StatementRequest> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.disableAutoRequestWithInitial(1);
+    }
+
+    @Override
+    public void onNext(OpResult opResult) {
+        this.received.add(opResult);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.received.add(throwable);
+    }
+
+    @Override
+    public void onCompleted() {
+        this.received.add(END_OF_STREAM);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextElement == null) {
+            try {
+                this.nextElement = this.received.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.close();
+                throw Status.CANCELLED.withDescription("Interrupted while waiting for result set data")
+                        .withCause(e).asRuntimeException();
+            }
+        }
+        if (this.nextElement instanceof Throwable) {
+            this.finished = true;
+            Throwable error = (Throwable) this.nextElement;
+            if (error instanceof StatusRuntimeException) {
+                throw (StatusRuntimeException) error;
+            }
+            throw Status.fromThrowable(error).asRuntimeException(Status.trailersFromThrowable(error));
+        }
+        if (this.nextElement == END_OF_STREAM) {
+            this.finished = true;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public OpResult next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        OpResult opResult = (OpResult) this.nextElement;
+        this.nextElement = null;
+        this.requestStream.request(1);
+        return opResult;
+    }
+
+    @Override
+    public void close() {
+        if (!this.finished && this.requestStream != null) {
+            this.finished = true;
+            this.requestStream.cancel("Result set closed before reading all rows", null);
+        }
+    }
+}
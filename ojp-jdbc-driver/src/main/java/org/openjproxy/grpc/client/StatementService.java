@@ -3,9 +3,13 @@ package org.openjproxy.grpc.client;
 import com.openjproxy.grpc.CallResourceRequest;
 import com.openjproxy.grpc.CallResourceResponse;
 import com.openjproxy.grpc.ConnectionDetails;
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
 import com.openjproxy.grpc.LobDataBlock;
 import com.openjproxy.grpc.LobReference;
 import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.PipelineRequest;
+import com.openjproxy.grpc.PipelineResponse;
+import com.openjproxy.grpc.ResultSetOptions;
 import com.openjproxy.grpc.SessionInfo;
 import org.openjproxy.grpc.dto.Parameter;
 import org.openjproxy.jdbc.Connection;
@@ -14,6 +18,7 @@ import java.sql.SQLException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Proxy Server interface to handle the Jdbc requests.
@@ -32,21 +37,70 @@ public interface StatementService {
     OpResult executeUpdate(SessionInfo sessionInfo, String sql, List<Parameter> params, String statementUUID,
                            Map<String, Object> properties) throws SQLException;
 
+    /**
+     * Executes all the parameter rows accumulated by PreparedStatement.addBatch() as a single JDBC batch.
+     * Rows are shipped in as few requests as the maximum request size allows and the update counts of all the
+     * requests are returned, in order, in the update_counts field of the OpResult.
+     */
+    OpResult executeBatch(SessionInfo sessionInfo, String sql, List<List<Parameter>> rows, String statementUUID,
+                          Map<String, Object> properties) throws SQLException;
+
+    /**
+     * Executes all the SQL accumulated by Statement.addBatch(String) as a single JDBC batch. The SQL is shipped in
+     * as few requests as the maximum request size allows and the update counts of all the requests are returned, in
+     * order, in the update_counts field of the OpResult.
+     */
+    OpResult executeStatementBatch(SessionInfo sessionInfo, List<String> statements, String statementUUID,
+                                   Map<String, Object> properties) throws SQLException;
+
     Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, String statementUUID,
                                     Map<String, Object> properties) throws SQLException;
 
     Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, Map<String, Object> properties) throws SQLException;
 
+    /**
+     * Executes a query asking the server to produce the result set blocks as described by the result set options.
+     */
+    Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, String statementUUID,
+                                    Map<String, Object> properties, ResultSetOptions resultSetOptions)
+            throws SQLException;
+
     OpResult fetchNextRows(SessionInfo sessionInfo, String resultSetUUID, int size) throws SQLException;
 
+    /**
+     * Executes the operations of a pipeline in order, in the session of the request, with a single round trip. The
+     * server stops at the first failure and reports it in the error of the response, along with the results of the
+     * operations executed before and the session they left.
+     */
+    PipelineResponse executePipeline(PipelineRequest request) throws SQLException;
+
+    /**
+     * Same as {@link #executePipeline(PipelineRequest)} without blocking the calling thread. The future completes in
+     * a gRPC thread, exceptionally with a SQLException if the call fails.
+     */
+    CompletableFuture<PipelineResponse> executePipelineAsync(PipelineRequest request);
+
+    /**
+     * Same as {@link #fetchNextRows(SessionInfo, String, int)} without blocking the calling thread. The future
+     * completes in a gRPC thread, exceptionally with a SQLException if the call fails.
+     */
+    CompletableFuture<OpResult> fetchNextRowsAsync(SessionInfo sessionInfo, String resultSetUUID, int size);
+
     //LOB (Large objects) management.
     LobReference createLob(Connection connection, Iterator<LobDataBlock> lobDataBlock) throws SQLException;
 
-    Iterator<LobDataBlock> readLob(LobReference lobReference, long pos, int length) throws SQLException;
+    Iterator<LobDataBlock> readLob(LobReference lobReference, long pos, int length, int blockSize) throws SQLException;
 
     //Session management.
     void terminateSession(SessionInfo session);
 
+    /**
+     * Tells if the server the session is sent to can be reached, waiting up to the given number of seconds (0 waits
+     * with no time limit) for the channel to that server to connect. Used to validate connections not holding a
+     * connection on the server, the database connections lent by the server pool are validated by the pool.
+     */
+    boolean isServerReachable(SessionInfo session, int timeoutSeconds);
+
     //Transaction management.
     SessionInfo startTransaction(SessionInfo session) throws SQLException;
 
@@ -56,6 +110,8 @@ public interface StatementService {
 
     CallResourceResponse callResource(CallResourceRequest request) throws SQLException;
 
+    DatabaseMetaDataResponse getDatabaseMetaData(SessionInfo session) throws SQLException;
+
     // XA Transaction Operations
     com.openjproxy.grpc.XaResponse xaStart(com.openjproxy.grpc.XaStartRequest request) throws SQLException;
     
@@ -2,34 +2,53 @@ package org.openjproxy.grpc.client;
 
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.openjproxy.grpc.BatchStatementRequest;
 import com.openjproxy.grpc.CallResourceRequest;
 import com.openjproxy.grpc.CallResourceResponse;
 import com.openjproxy.grpc.ConnectionDetails;
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.IntArray;
 import com.openjproxy.grpc.LobDataBlock;
 import com.openjproxy.grpc.LobReference;
+import com.openjproxy.grpc.OpQueryResultProto;
 import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ParameterRow;
+import com.openjproxy.grpc.PipelineRequest;
+import com.openjproxy.grpc.PipelineResponse;
 import com.openjproxy.grpc.ReadLobRequest;
 import com.openjproxy.grpc.ResultSetFetchRequest;
+import com.openjproxy.grpc.ResultSetOptions;
+import com.openjproxy.grpc.ResultType;
 import com.openjproxy.grpc.SessionInfo;
 import com.openjproxy.grpc.SessionTerminationStatus;
 import com.openjproxy.grpc.StatementRequest;
 import com.openjproxy.grpc.StatementServiceGrpc;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.constants.CommonConstants;
 import org.openjproxy.grpc.dto.Parameter;
 import org.openjproxy.grpc.GrpcChannelFactory;
 import org.openjproxy.jdbc.Connection;
 import org.openjproxy.jdbc.LobGrpcIterator;
 
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -51,6 +70,7 @@ public class StatementServiceGrpcClient implements StatementService {
 
     private StatementServiceGrpc.StatementServiceBlockingStub statemetServiceBlockingStub;
     private StatementServiceGrpc.StatementServiceStub statemetServiceStub;
+    private ManagedChannel channel;
 
     public StatementServiceGrpcClient() {
     }
@@ -82,10 +102,10 @@ public class StatementServiceGrpcClient implements StatementService {
 
             //Once channel is open it remains open and is shared among all requests.
             String target = DNS_PREFIX + host + COLON + port;
-            ManagedChannel channel = GrpcChannelFactory.createChannel(target);
+            this.channel = GrpcChannelFactory.createChannel(target);
 
-            this.statemetServiceBlockingStub = StatementServiceGrpc.newBlockingStub(channel);
-            this.statemetServiceStub = StatementServiceGrpc.newStub(channel);
+            this.statemetServiceBlockingStub = StatementServiceGrpc.newBlockingStub(this.channel);
+            this.statemetServiceStub = StatementServiceGrpc.newStub(this.channel);
         }
     }
 
@@ -119,6 +139,121 @@ public class StatementServiceGrpcClient implements StatementService {
         }
     }
 
+    @Override
+    public OpResult executeBatch(SessionInfo sessionInfo, String sql, List<List<Parameter>> rows, String statementUUID,
+                                 Map<String, Object> properties) throws SQLException {
+        List<BatchStatementRequest.Builder> chunks = new ArrayList<>();
+        BatchStatementRequest.Builder chunk = this.newBatchRequest(properties).setSql(sql);
+        int chunkSize = 0;
+        for (List<Parameter> row : rows) {
+            ParameterRow rowProto = ParameterRow.newBuilder().addAllParameters(toProtoList(row)).build();
+            // Split the batch if it would not fit within a single request, always sending at least one row.
+            if (chunk.getRowsCount() > 0 && chunkSize + rowProto.getSerializedSize() > CommonConstants.MAX_BATCH_REQUEST_SIZE) {
+                chunks.add(chunk);
+                chunk = this.newBatchRequest(properties).setSql(sql);
+                chunkSize = 0;
+            }
+            chunk.addRows(rowProto);
+            chunkSize += rowProto.getSerializedSize();
+        }
+        chunks.add(chunk);
+        return this.sendBatchChunks(sessionInfo, statementUUID, chunks);
+    }
+
+    @Override
+    public OpResult executeStatementBatch(SessionInfo sessionInfo, List<String> statements, String statementUUID,
+                                          Map<String, Object> properties) throws SQLException {
+        List<BatchStatementRequest.Builder> chunks = new ArrayList<>();
+        BatchStatementRequest.Builder chunk = this.newBatchRequest(properties);
+        int chunkSize = 0;
+        for (String sql : statements) {
+            // Split the batch if it would not fit within a single request, always sending at least one statement.
+            int sqlSize = CodedOutputStream.computeStringSizeNoTag(sql);
+            if (chunk.getStatementsCount() > 0 && chunkSize + sqlSize > CommonConstants.MAX_BATCH_REQUEST_SIZE) {
+                chunks.add(chunk);
+                chunk = this.newBatchRequest(properties);
+                chunkSize = 0;
+            }
+            chunk.addStatements(sql);
+            chunkSize += sqlSize;
+        }
+        chunks.add(chunk);
+        return this.sendBatchChunks(sessionInfo, statementUUID, chunks);
+    }
+
+    private BatchStatementRequest.Builder newBatchRequest(Map<String, Object> properties) {
+        BatchStatementRequest.Builder builder = BatchStatementRequest.newBuilder();
+        if (properties != null) {
+            builder.addAllProperties(propertiesToProto(properties));
+        }
+        return builder;
+    }
+
+    /**
+     * Sends the requests of a batch one after the other, each with the session and statement returned by the
+     * previous one. A batch split in several requests without a session has the server start one, so all of them run
+     * on the same connection.
+     *
+     * @return the update counts and generated keys of all the requests, with the session and statement of the last
+     * @throws BatchUpdateException if a request fails, with the update counts of the requests executed before it.
+     *                              A session started for the batch is then ended.
+     */
+    private OpResult sendBatchChunks(SessionInfo sessionInfo, String statementUUID,
+                                     List<BatchStatementRequest.Builder> chunks) throws SQLException {
+        SessionInfo currentSession = sessionInfo;
+        String currentStatementUUID = statementUUID != null ? statementUUID : "";
+        boolean startSession = chunks.size() > 1 && StringUtils.isBlank(sessionInfo.getSessionUUID());
+        IntArray.Builder updateCounts = IntArray.newBuilder();
+        OpQueryResultProto.Builder generatedKeys = null;
+        OpResult result = null;
+        for (BatchStatementRequest.Builder chunk : chunks) {
+            chunk.setSession(currentSession)
+                    .setStatementUUID(currentStatementUUID)
+                    .setStartSession(startSession && StringUtils.isBlank(currentSession.getSessionUUID()));
+            try {
+                result = this.sendBatch(chunk.build());
+            } catch (StatusRuntimeException e) {
+                if (startSession && StringUtils.isNotBlank(currentSession.getSessionUUID())) {
+                    this.terminateSession(currentSession);
+                }
+                SQLException failure;
+                try {
+                    failure = new SQLException(handle(e));
+                } catch (SQLException sqlException) {
+                    failure = sqlException;
+                }
+                int[] executed = updateCounts.getValuesList().stream().mapToInt(Integer::intValue).toArray();
+                throw new BatchUpdateException(failure.getMessage(), failure.getSQLState(), failure.getErrorCode(),
+                        executed, failure);
+            }
+            updateCounts.addAllValues(result.getUpdateCounts().getValuesList());
+            if (result.hasGeneratedKeys()) {
+                if (generatedKeys == null) {
+                    generatedKeys = result.getGeneratedKeys().toBuilder();
+                } else {
+                    generatedKeys.addAllRows(result.getGeneratedKeys().getRowsList());
+                }
+            }
+            currentSession = result.getSession();
+            if (!result.getUuid().isEmpty()) {
+                currentStatementUUID = result.getUuid();
+            }
+        }
+
+        OpResult.Builder batchResult = OpResult.newBuilder(result)
+                .setType(ResultType.BATCH_UPDATE_COUNTS)
+                .setUpdateCounts(updateCounts.build())
+                .setUuid(currentStatementUUID);
+        if (generatedKeys != null) {
+            batchResult.setGeneratedKeys(generatedKeys);
+        }
+        return batchResult.build();
+    }
+
+    OpResult sendBatch(BatchStatementRequest request) {
+        return this.statemetServiceBlockingStub.executeBatch(request);
+    }
+
     @Override
     public Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params,
                                            Map<String, Object> properties) throws SQLException {
@@ -128,11 +263,20 @@ public class StatementServiceGrpcClient implements StatementService {
     @Override
     public Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, String statementUUID,
                                            Map<String, Object> properties) throws SQLException {
+        return this.executeQuery(sessionInfo, sql, params, statementUUID, properties,
+                ResultSetOptions.getDefaultInstance());
+    }
+
+    @Override
+    public Iterator<OpResult> executeQuery(SessionInfo sessionInfo, String sql, List<Parameter> params, String statementUUID,
+                                           Map<String, Object> properties, ResultSetOptions resultSetOptions)
+            throws SQLException {
         try {
             StatementRequest.Builder builder = StatementRequest.newBuilder()
                     .setStatementUUID(statementUUID != null ? statementUUID : "")
                     .setSession(sessionInfo)
-                    .setSql(sql);
+                    .setSql(sql)
+                    .setResultSetOptions(resultSetOptions);
             
             if (params != null) {
                 builder.addAllParameters(toProtoList(params));
@@ -142,7 +286,9 @@ public class StatementServiceGrpcClient implements StatementService {
                 builder.addAllProperties(propertiesToProto(properties));
             }
             
-            return this.statemetServiceBlockingStub.executeQuery(builder.build());
+            ResultSetGrpcIterator resultSetGrpcIterator = new ResultSetGrpcIterator();
+            this.statemetServiceStub.executeQuery(builder.build(), resultSetGrpcIterator);
+            return resultSetGrpcIterator;
         } catch (StatusRuntimeException e) {
             throw handle(e);
         }
@@ -164,57 +310,89 @@ public class StatementServiceGrpcClient implements StatementService {
     }
 
     @Override
-    public LobReference createLob(Connection connection, Iterator<LobDataBlock> lobDataBlock) throws SQLException {
+    public PipelineResponse executePipeline(PipelineRequest request) throws SQLException {
         try {
-            log.info("Creating new lob");
-            //Indicates that the server acquired a connection to the DB and wrote the first block successfully.
-            SettableFuture<LobReference> sfFirstLobReference = SettableFuture.create();
-            //Indicates that the server has finished writing the last block successfully.
-            SettableFuture<LobReference> sfFinalLobReference = SettableFuture.create();
-
-            StreamObserver<LobDataBlock> lobDataBlockStream = this.statemetServiceStub.createLob(
-                    new ServerCallStreamObserver<>() {
-                        private final AtomicBoolean abFirstResponseReceived = new AtomicBoolean(true);
-                        private LobReference lobReference;
-
-                        @Override
-                        public boolean isCancelled() {
-                            return false;
-                        }
-
-                        @Override
-                        public void setOnCancelHandler(Runnable runnable) {
+            return this.statemetServiceBlockingStub.executePipeline(request);
+        } catch (StatusRuntimeException e) {
+            throw handle(e);
+        }
+    }
 
-                        }
+    @Override
+    public CompletableFuture<PipelineResponse> executePipelineAsync(PipelineRequest request) {
+        CompletableFuture<PipelineResponse> future = new CompletableFuture<>();
+        this.statemetServiceStub.executePipeline(request, new UnaryResponseObserver<>(future));
+        return future;
+    }
 
-                        @Override
-                        public void setCompression(String s) {
+    @Override
+    public CompletableFuture<OpResult> fetchNextRowsAsync(SessionInfo sessionInfo, String resultSetUUID, int size) {
+        CompletableFuture<OpResult> future = new CompletableFuture<>();
+        this.statemetServiceStub.fetchNextRows(
+                ResultSetFetchRequest.newBuilder()
+                        .setSession(sessionInfo)
+                        .setResultSetUUID(resultSetUUID)
+                        .setSize(size)
+                        .build(),
+                new UnaryResponseObserver<>(future));
+        return future;
+    }
 
-                        }
+    /**
+     * Completes a future with the response of a unary call made with the async stub. Failures carrying SQL metadata
+     * complete it with the SQLException sent by the server, the others with the StatusRuntimeException received.
+     */
+    private static class UnaryResponseObserver<T> implements StreamObserver<T> {
+        private final CompletableFuture<T> future;
+        private T response;
 
-                        @Override
-                        public boolean isReady() {
-                            return false;
-                        }
+        UnaryResponseObserver(CompletableFuture<T> future) {
+            this.future = future;
+        }
 
-                        @Override
-                        public void setOnReadyHandler(Runnable runnable) {
+        @Override
+        public void onNext(T response) {
+            this.response = response;
+        }
 
-                        }
+        @Override
+        public void onError(Throwable t) {
+            if (t instanceof StatusRuntimeException) {
+                try {
+                    t = handle((StatusRuntimeException) t);
+                } catch (SQLException e) {
+                    t = e;
+                }
+            }
+            this.future.completeExceptionally(t);
+        }
 
-                        @Override
-                        public void request(int i) {
+        @Override
+        public void onCompleted() {
+            this.future.complete(this.response);
+        }
+    }
 
-                        }
+    @Override
+    public LobReference createLob(Connection connection, Iterator<LobDataBlock> lobDataBlock) throws SQLException {
+        try {
+            log.info("Creating new lob");
+            //Indicates that the server acquired a connection to the DB and wrote the first block successfully.
+            SettableFuture<LobReference> sfFirstLobReference = SettableFuture.create();
+            //Indicates that the server has finished writing the last block successfully.
+            SettableFuture<LobReference> sfFinalLobReference = SettableFuture.create();
 
-                        @Override
-                        public void setMessageCompression(boolean b) {
+            //Signalled when the server can take more blocks or the call ended.
+            Object readySignal = new Object();
 
-                        }
+            StreamObserver<LobDataBlock> lobDataBlockStream = this.statemetServiceStub.createLob(
+                    new ClientResponseObserver<LobDataBlock, LobReference>() {
+                        private final AtomicBoolean abFirstResponseReceived = new AtomicBoolean(true);
+                        private LobReference lobReference;
 
                         @Override
-                        public void disableAutoInboundFlowControl() {
-
+                        public void beforeStart(ClientCallStreamObserver<LobDataBlock> requestStream) {
+                            requestStream.setOnReadyHandler(() -> signal(readySignal));
                         }
 
                         @Override
@@ -245,6 +423,7 @@ public class StatementServiceGrpcClient implements StatementService {
                                 sfFirstLobReference.setException(throwable);
                                 sfFinalLobReference.setException(throwable);
                             }
+                            signal(readySignal);
                         }
 
                         @Override
@@ -252,6 +431,7 @@ public class StatementServiceGrpcClient implements StatementService {
                             log.debug("Final lob reference received");
                             sfFinalLobReference.set(this.lobReference);
                             log.debug("Final lob reference notified");
+                            signal(readySignal);
                         }
                     }
             );
@@ -259,7 +439,20 @@ public class StatementServiceGrpcClient implements StatementService {
             //Send all data blocks one by one only after server finished consuming the previous block
             boolean firstBlockProcessedSuccessfully = false;
             while (lobDataBlock.hasNext()) {
-                lobDataBlockStream.onNext(lobDataBlock.next());
+                LobDataBlock nextBlock;
+                try {
+                    nextBlock = lobDataBlock.next();
+                } catch (RuntimeException e) {
+                    //The data could not be read, the server discards what it received so far.
+                    lobDataBlockStream.onError(e);
+                    throw e;
+                }
+                //Holds the blocks back while the server does not take more, instead of buffering them in memory.
+                awaitReady(lobDataBlockStream, readySignal, sfFinalLobReference);
+                if (sfFinalLobReference.isDone()) {
+                    break;
+                }
+                lobDataBlockStream.onNext(nextBlock);
                 if (!firstBlockProcessedSuccessfully) {
                     //Wait first block to be processed by the server to avoid sending more data before the server actually acquired a connection and wrote the first block.
                     log.debug("Waiting first lob reference arrival");
@@ -282,8 +475,30 @@ public class StatementServiceGrpcClient implements StatementService {
 
     }
 
+    private static void signal(Object readySignal) {
+        synchronized (readySignal) {
+            readySignal.notifyAll();
+        }
+    }
+
+    /**
+     * Waits until the request stream of a call can take more messages without buffering them or the call ended.
+     */
+    private static void awaitReady(StreamObserver<?> requestStream, Object readySignal,
+                                   SettableFuture<?> callEnded) throws InterruptedException {
+        if (!(requestStream instanceof ClientCallStreamObserver)) {
+            return;
+        }
+        ClientCallStreamObserver<?> clientCallStreamObserver = (ClientCallStreamObserver<?>) requestStream;
+        synchronized (readySignal) {
+            while (!clientCallStreamObserver.isReady() && !callEnded.isDone()) {
+                readySignal.wait();
+            }
+        }
+    }
+
     @Override
-    public Iterator<LobDataBlock> readLob(LobReference lobReference, long pos, int length) throws SQLException {
+    public Iterator<LobDataBlock> readLob(LobReference lobReference, long pos, int length, int blockSize) throws SQLException {
         try {
             LobGrpcIterator lobGrpcIterator = new LobGrpcIterator();
             SettableFuture<Boolean> sfFirstBlockReceived = SettableFuture.create();
@@ -291,6 +506,7 @@ public class StatementServiceGrpcClient implements StatementService {
                     .setLobReference(lobReference)
                     .setPosition(pos)
                     .setLength(length)
+                    .setBlockSize(blockSize)
                     .build();
 
             final Throwable[] errorReceived = {null};
@@ -377,8 +593,48 @@ public class StatementServiceGrpcClient implements StatementService {
         }
     }
 
+    @Override
+    public boolean isServerReachable(SessionInfo session, int timeoutSeconds) {
+        return this.channel != null && isChannelReady(this.channel, timeoutSeconds);
+    }
+
+    /**
+     * Waits for the channel to be connected to the server, asking an idle channel to connect. The channel is not
+     * ready if it failed to connect or does not connect before the timeout, 0 meaning no timeout.
+     */
+    static boolean isChannelReady(ManagedChannel channel, int timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        try {
+            while (true) {
+                ConnectivityState state = channel.getState(true);
+                if (state == ConnectivityState.READY) {
+                    return true;
+                }
+                if (state == ConnectivityState.TRANSIENT_FAILURE || state == ConnectivityState.SHUTDOWN) {
+                    return false;
+                }
+                // Idle or connecting, a connecting channel ends up ready or failed
+                CountDownLatch changed = new CountDownLatch(1);
+                channel.notifyWhenStateChanged(state, changed::countDown);
+                if (timeoutSeconds == 0) {
+                    changed.await();
+                } else if (!changed.await(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     @Override
     public void terminateSession(SessionInfo session) {
+        if (StringUtils.isEmpty(session.getSessionUUID()) && !session.getIsXA()) {
+            // Nothing is held on the server for a connection that never started a session, e.g. one only running
+            // autocommit queries answered in their first block
+            return;
+        }
         //Fire and forget - done async intentionally to improve client performance.
         this.statemetServiceStub.terminateSession(session, new ServerCallStreamObserver<>() {
             @Override
@@ -488,6 +744,17 @@ public class StatementServiceGrpcClient implements StatementService {
         }
     }
 
+    @Override
+    public DatabaseMetaDataResponse getDatabaseMetaData(SessionInfo session) throws SQLException {
+        try {
+            return this.statemetServiceBlockingStub.getDatabaseMetaData(session);
+        } catch (StatusRuntimeException e) {
+            throw handle(e);
+        } catch (Exception e) {
+            throw new SQLException("Unable to read database metadata: " + e.getMessage(), e);
+        }
+    }
+
     // XA Transaction Operations
     @Override
     public com.openjproxy.grpc.XaResponse xaStart(com.openjproxy.grpc.XaStartRequest request) throws SQLException {
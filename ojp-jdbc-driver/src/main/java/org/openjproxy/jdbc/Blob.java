@@ -9,7 +9,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.openjproxy.grpc.client.StatementService;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -30,7 +29,8 @@ public class Blob extends Lob implements java.sql.Blob {
         log.debug("getBytes: pos={}, length={}", pos, length);
         try {
             this.haveLobReferenceValidation();
-            Iterator<LobDataBlock> dataBlocks = this.statementService.readLob(this.lobReference.get(), pos, length);
+            Iterator<LobDataBlock> dataBlocks = this.statementService.readLob(this.lobReference.get(), pos, length,
+                    this.connection.getLobBlockSize());
             InputStream is = this.lobService.parseReceivedBlocks(dataBlocks);
             BufferedInputStream bis = new BufferedInputStream(is);
             return bis.readAllBytes();
@@ -65,17 +65,11 @@ public class Blob extends Lob implements java.sql.Blob {
     @Override
     public int setBytes(long pos, byte[] bytes) throws SQLException {
         log.debug("setBytes: {}, <byte[]>", pos);
-        InputStream is = new ByteArrayInputStream(bytes);
         OutputStream os = this.setBinaryStream(pos);
-        int byteRead;
-        int writtenCount = 0;
         try {
-            while ((byteRead = is.read()) != -1) {
-                os.write(byteRead);
-                writtenCount++;
-            }
+            os.write(bytes);
             os.close();
-            return writtenCount;
+            return bytes.length;
         } catch (IOException e) {
             throw new SQLException("Unable to write bytes: " + e.getMessage(), e);
         }
@@ -727,8 +727,7 @@ public class CallableStatement implements java.sql.CallableStatement {
     @Override
     public ResultSet executeQuery() throws SQLException {
         log.debug("executeQuery called");
-        String resultSetUUID = this.callProxy(CallType.CALL_EXECUTE, "Query", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, null);
+        return this.callForResultSet(CallType.CALL_EXECUTE, "Query", Constants.EMPTY_OBJECT_LIST);
     }
 
     @Override
@@ -1058,7 +1057,7 @@ public class CallableStatement implements java.sql.CallableStatement {
     @Override
     public ResultSet executeQuery(String sql) throws SQLException {
         log.debug("executeQuery: {}", sql);
-        return this.callProxy(CallType.CALL_EXECUTE, "Query", ResultSet.class, List.of(sql));
+        return this.callForResultSet(CallType.CALL_EXECUTE, "Query", List.of(sql));
     }
 
     @Override
@@ -1148,7 +1147,7 @@ public class CallableStatement implements java.sql.CallableStatement {
     @Override
     public ResultSet getResultSet() throws SQLException {
         log.debug("getResultSet called");
-        return this.callProxy(CallType.CALL_GET, "ResultSet", ResultSet.class);
+        return this.callForResultSet(CallType.CALL_GET, "ResultSet", Constants.EMPTY_OBJECT_LIST);
     }
 
     @Override
@@ -1232,7 +1231,7 @@ public class CallableStatement implements java.sql.CallableStatement {
     @Override
     public ResultSet getGeneratedKeys() throws SQLException {
         log.debug("getGeneratedKeys called");
-        return this.callProxy(CallType.CALL_GET, "GeneratedKeys", ResultSet.class);
+        return this.callForResultSet(CallType.CALL_GET, "GeneratedKeys", Constants.EMPTY_OBJECT_LIST);
     }
 
     @Override
@@ -1322,7 +1321,7 @@ public class CallableStatement implements java.sql.CallableStatement {
     private CallResourceRequest.Builder newCallBuilder() {
         log.debug("newCallBuilder called");
         return CallResourceRequest.newBuilder()
-                .setSession(this.connection.getSession())
+                .setSession(this.connection.sessionWithConnectionState())
                 .setResourceType(ResourceType.RES_CALLABLE_STATEMENT)
                 .setResourceUUID(this.remoteCallableStatementUUID);
     }
@@ -1334,6 +1333,22 @@ public class CallableStatement implements java.sql.CallableStatement {
 
     private <T> T callProxy(CallType callType, String targetName, Class returnType, List<Object> params) throws SQLException {
         log.debug("callProxy: {}, {}, {}, <params>", callType, targetName, returnType);
+        CallResourceResponse response = this.callResource(callType, targetName, params);
+        if (Void.class.equals(returnType)) {
+            return null;
+        }
+
+        List<ParameterValue> values = response.getValuesList();
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        Object result = ProtoConverter.fromParameterValue(values.get(0));
+        return (T) result;
+    }
+
+    private CallResourceResponse callResource(CallType callType, String targetName, List<Object> params)
+            throws SQLException {
         CallResourceRequest.Builder reqBuilder = this.newCallBuilder();
         reqBuilder.setTarget(
                 TargetCall.newBuilder()
@@ -1345,19 +1360,19 @@ public class CallableStatement implements java.sql.CallableStatement {
         try {
             CallResourceResponse response = this.statementService.callResource(reqBuilder.build());
             this.connection.setSession(response.getSession());
-            if (Void.class.equals(returnType)) {
-                return null;
-            }
-            
-            List<ParameterValue> values = response.getValuesList();
-            if (values.isEmpty()) {
-                return null;
-            }
-            
-            Object result = ProtoConverter.fromParameterValue(values.get(0));
-            return (T) result;
+            return response;
         } catch (StatusRuntimeException sre) {
             throw GrpcExceptionHandler.handle(sre);
         }
     }
+
+    /**
+     * Calls a method of the server callable statement returning a result set, read locally in blocks unless the
+     * server proxies it.
+     */
+    private ResultSet callForResultSet(CallType callType, String targetName, List<Object> params)
+            throws SQLException {
+        return org.openjproxy.jdbc.ResultSet.fromCallResponse(this.callResource(callType, targetName, params),
+                this.statementService, this.connection, null);
+    }
 }
\ No newline at end of file
@@ -68,14 +68,10 @@ public class Clob extends Lob implements java.sql.Clob {
     @Override
     public int setString(long pos, String str, int offset, int len) throws SQLException {
         log.debug("setString: {}, {}, {}, {}", pos, str, offset, len);
-        int writtenCount = 0;
         try (Writer writer = this.setCharacterStream(pos)) {
-            for (int i  = offset; i < len; i++) {
-                writer.write(str.charAt(i));
-                writtenCount++;
-            }
+            writer.write(str, offset, len);
         }
-        return writtenCount;
+        return len;
     }
 
     @Override
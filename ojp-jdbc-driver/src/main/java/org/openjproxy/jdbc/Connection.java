@@ -7,9 +7,9 @@ import com.openjproxy.grpc.CallType;
 import com.openjproxy.grpc.DbName;
 import com.openjproxy.grpc.ParameterValue;
 import com.openjproxy.grpc.ResourceType;
+import com.openjproxy.grpc.ResultSetOptions;
 import com.openjproxy.grpc.SessionInfo;
 import com.openjproxy.grpc.TargetCall;
-import com.openjproxy.grpc.TransactionStatus;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.SneakyThrows;
@@ -19,6 +19,7 @@ import org.openjproxy.constants.CommonConstants;
 import org.openjproxy.grpc.ProtoConverter;
 import org.openjproxy.grpc.client.StatementService;
 
+import java.sql.BatchUpdateException;
 import java.sql.SQLClientInfoException;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
@@ -28,13 +29,18 @@ import java.sql.Struct;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 @Slf4j
-public class Connection implements java.sql.Connection {
+public class Connection implements java.sql.Connection, OjpConnection {
 
     @Getter
     @Setter
@@ -45,17 +51,81 @@ public class Connection implements java.sql.Connection {
     private boolean autoCommit = true;
     private boolean readOnly = false;
     private boolean closed;
+    @Getter
+    private ResultSetOptions resultSetOptions = ResultSetOptions.getDefaultInstance();
+    @Getter
+    private int resultSetPrefetchBlocks = CommonConstants.DEFAULT_RESULT_SET_PREFETCH_BLOCKS;
+    @Getter
+    private long resultSetPrefetchBytes = CommonConstants.DEFAULT_RESULT_SET_PREFETCH_BYTES;
+    @Getter
+    private int lobBlockSize = CommonConstants.DEFAULT_LOB_DATA_BLOCK_SIZE;
     
     // For server recovery and connection redistribution
     private volatile boolean forceInvalid = false;
 
+    // Connection state shadowed locally, keyed by the CommonConstants.CONNECTION_*_KEY constants: the values known
+    // for this connection, the values known on the connection of the session on the server and the changes not sent
+    // yet to the server, in the order they were made.
+    private final Map<String, Object> connectionState = new HashMap<>();
+    private final Map<String, Object> serverConnectionState = new HashMap<>();
+    private final Map<String, Object> pendingConnectionState = new LinkedHashMap<>();
+    // Changes sent while the connection held no session on the server, with the values known on the server before
+    private final Map<String, Object> sentConnectionState = new HashMap<>();
+    private final Map<String, Object> sentOverConnectionState = new HashMap<>();
+    private boolean connectionDefaultsLoaded;
+    // Tells if a request used the connection of the session since the transaction began or last ended
+    private boolean transactionWork;
+    private boolean clientInfoLoaded;
+    private Map<String, Class<?>> typeMap;
+    // Last asynchronous call made, the next one is sent once it completes
+    private CompletableFuture<?> lastAsyncCall = CompletableFuture.completedFuture(null);
+
     public Connection(SessionInfo session, StatementService statementService, DbName dbName) {
         this.session = session;
         this.statementService = statementService;
         this.closed = false;
         this.dbName = dbName;
+        // Connections are lent by the server in auto commit mode
+        this.connectionState.put(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, true);
+        this.serverConnectionState.put(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, true);
     }
     
+    /**
+     * Applies the result set preferences (ojp.resultset.*) configured for the datasource of this connection.
+     *
+     * @param ojpProperties datasource properties loaded from ojp.properties, may be null
+     */
+    public void applyResultSetProperties(Properties ojpProperties) {
+        if (ojpProperties == null) {
+            return;
+        }
+        this.resultSetOptions = ResultSetOptions.newBuilder()
+                .setColumnar(Boolean.parseBoolean(
+                        ojpProperties.getProperty(CommonConstants.RESULT_SET_COLUMNAR_PROPERTY, "false")))
+                .build();
+        this.resultSetPrefetchBlocks = Integer.parseInt(ojpProperties.getProperty(
+                CommonConstants.RESULT_SET_PREFETCH_BLOCKS_PROPERTY,
+                String.valueOf(CommonConstants.DEFAULT_RESULT_SET_PREFETCH_BLOCKS)));
+        this.resultSetPrefetchBytes = Long.parseLong(ojpProperties.getProperty(
+                CommonConstants.RESULT_SET_PREFETCH_BYTES_PROPERTY,
+                String.valueOf(CommonConstants.DEFAULT_RESULT_SET_PREFETCH_BYTES)));
+    }
+
+    /**
+     * Applies the LOB preferences (ojp.lob.*) configured for the datasource of this connection.
+     *
+     * @param ojpProperties datasource properties loaded from ojp.properties, may be null
+     */
+    public void applyLobProperties(Properties ojpProperties) {
+        if (ojpProperties == null) {
+            return;
+        }
+        int blockSize = Integer.parseInt(ojpProperties.getProperty(CommonConstants.LOB_BLOCK_SIZE_PROPERTY,
+                String.valueOf(CommonConstants.DEFAULT_LOB_DATA_BLOCK_SIZE)));
+        this.lobBlockSize = Math.max(CommonConstants.MIN_LOB_DATA_BLOCK_SIZE,
+                Math.min(blockSize, CommonConstants.MAX_LOB_DATA_BLOCK_SIZE));
+    }
+
     /**
      * Marks this connection as invalid for forced removal from connection pool.
      * After marking, isValid() will return false and all operations will throw
@@ -95,6 +165,131 @@ public class Connection implements java.sql.Connection {
         }
     }
 
+    /**
+     * Gets the session to send with a request resolving the connection of the session on the server, carrying the
+     * connection state changes not sent yet. The server applies them to the connection of the session, starting one
+     * if needed, before executing the request. Once attached, the changes are considered applied.
+     * <p>
+     * A transaction begun by switching auto commit off is started on the server by the first such request.
+     * </p>
+     *
+     * @return the session of this connection, with the pending connection state changes if any
+     */
+    SessionInfo sessionWithConnectionState() {
+        this.recoverUnappliedConnectionState();
+        this.transactionWork = true;
+        if (this.pendingConnectionState.isEmpty()) {
+            return this.session;
+        }
+        log.debug("Sending connection state changes {}", this.pendingConnectionState.keySet());
+        SessionInfo sessionWithState = this.session.toBuilder()
+                .addAllConnectionState(ProtoConverter.propertiesToProto(this.pendingConnectionState))
+                .build();
+        if (StringUtils.isBlank(this.session.getSessionUUID())) {
+            for (String key : this.pendingConnectionState.keySet()) {
+                this.sentOverConnectionState.put(key, this.serverConnectionState.get(key));
+            }
+            this.sentConnectionState.putAll(this.pendingConnectionState);
+        }
+        this.serverConnectionState.putAll(this.pendingConnectionState);
+        this.pendingConnectionState.clear();
+        return sessionWithState;
+    }
+
+    /**
+     * Records again as pending the connection state changes sent with a request that failed before the server started
+     * a session to keep them on, which is the case when the connection still holds no session. The server does not
+     * keep the session of such a request, so a transaction begun with it did not begin either.
+     */
+    private void recoverUnappliedConnectionState() {
+        if (this.sentConnectionState.isEmpty()) {
+            return;
+        }
+        if (StringUtils.isBlank(this.session.getSessionUUID())) {
+            log.debug("Connection state changes {} not applied, sending them again", this.sentConnectionState.keySet());
+            for (Map.Entry<String, Object> entry : this.sentOverConnectionState.entrySet()) {
+                if (entry.getValue() == null) {
+                    this.serverConnectionState.remove(entry.getKey());
+                } else {
+                    this.serverConnectionState.put(entry.getKey(), entry.getValue());
+                }
+            }
+            // Changes made since are newer
+            for (Map.Entry<String, Object> entry : this.sentConnectionState.entrySet()) {
+                if (!this.pendingConnectionState.containsKey(entry.getKey())) {
+                    this.setConnectionState(entry.getKey(), this.connectionState.get(entry.getKey()));
+                }
+            }
+            if (Boolean.FALSE.equals(this.sentConnectionState.get(CommonConstants.CONNECTION_AUTO_COMMIT_KEY))) {
+                this.transactionWork = false;
+            }
+        }
+        this.sentConnectionState.clear();
+        this.sentOverConnectionState.clear();
+    }
+
+    /**
+     * Gets the value of the connection state from the local copy. The initial state of the connections of the
+     * datasource is read once per datasource, a value missing from it is read once from the server.
+     */
+    private <T> T getConnectionState(String key, String targetName, Class<?> returnType) throws SQLException {
+        this.loadConnectionDefaults();
+        if (!this.connectionState.containsKey(key)) {
+            T value = this.callProxy(CallType.CALL_GET, targetName, returnType);
+            if (value == null) {
+                return null;
+            }
+            this.connectionState.put(key, value);
+            this.serverConnectionState.put(key, value);
+        }
+        return (T) this.connectionState.get(key);
+    }
+
+    /**
+     * Changes the connection state in the local copy and records the change to be sent with the next request
+     * resolving the connection of the session. Changes are coalesced: only the last value of a state is sent, and
+     * none if it is the value known on the server.
+     */
+    private void setConnectionState(String key, Object value) {
+        this.loadConnectionDefaults();
+        this.connectionState.put(key, value);
+        if (this.serverConnectionState.containsKey(key) && Objects.equals(this.serverConnectionState.get(key), value)) {
+            this.pendingConnectionState.remove(key);
+        } else {
+            this.pendingConnectionState.put(key, value);
+        }
+    }
+
+    private void loadConnectionDefaults() {
+        if (this.connectionDefaultsLoaded) {
+            return;
+        }
+        this.connectionDefaultsLoaded = true;
+        // The connection of a new session is at the defaults of the datasource, those changed by this connection
+        // having been recorded before
+        Map<String, Object> defaults = DatabaseMetaDataCache.connectionDefaults(this.statementService, this.session);
+        for (Map.Entry<String, Object> entry : defaults.entrySet()) {
+            this.connectionState.putIfAbsent(entry.getKey(), entry.getValue());
+            this.serverConnectionState.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void loadClientInfo() throws SQLException {
+        if (this.clientInfoLoaded) {
+            return;
+        }
+        Properties properties = this.callProxy(CallType.CALL_GET, "ClientInfo", Properties.class);
+        if (properties == null) {
+            return;
+        }
+        this.clientInfoLoaded = true;
+        for (String name : properties.stringPropertyNames()) {
+            String key = CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX + name;
+            this.connectionState.putIfAbsent(key, properties.getProperty(name));
+            this.serverConnectionState.putIfAbsent(key, properties.getProperty(name));
+        }
+    }
+
     @Override
     public java.sql.Statement createStatement() throws SQLException {
         log.debug("createStatement called");
@@ -132,14 +327,18 @@ public class Connection implements java.sql.Connection {
         log.debug("setAutoCommit: {}", autoCommit);
         checkValid();
         checkValid();
-        //if switching on autocommit with active transaction, commit current transaction.
-        if (!this.autoCommit && autoCommit &&
-                TransactionStatus.TRX_ACTIVE.equals(session.getTransactionInfo().getTransactionStatus())) {
-            this.session = this.statementService.commitTransaction(this.session);
-            //If switching autocommit off, start a new transaction
-        } else if (this.autoCommit && !autoCommit) {
-            this.session = this.statementService.startTransaction(this.session);
+        if (this.autoCommit == autoCommit) {
+            return;
         }
+        this.recoverUnappliedConnectionState();
+        // Sent with the next request: switching auto commit off begins the transaction with its first request,
+        // switching it back on before any request leaves nothing to send
+        this.setConnectionState(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, autoCommit);
+        //if switching on autocommit with work in the current transaction, commit it along.
+        if (autoCommit && this.transactionWork) {
+            this.session = this.statementService.commitTransaction(this.sessionWithConnectionState());
+        }
+        this.transactionWork = false;
         this.autoCommit = autoCommit;
     }
 
@@ -156,9 +355,12 @@ public class Connection implements java.sql.Connection {
         log.debug("commit called");
         checkValid();
         checkValid();
-        if (!this.autoCommit) {
-            this.session = this.statementService.commitTransaction(this.session);
+        this.recoverUnappliedConnectionState();
+        // Nothing to commit if no request was sent since the transaction began or ended
+        if (!this.autoCommit && this.transactionWork) {
+            this.session = this.statementService.commitTransaction(this.sessionWithConnectionState());
         }
+        this.transactionWork = false;
     }
 
     @Override
@@ -166,9 +368,12 @@ public class Connection implements java.sql.Connection {
         log.debug("rollback called");
         checkValid();
         checkValid();
-        if (!this.autoCommit) {
-            this.session = this.statementService.rollbackTransaction(this.session);
+        this.recoverUnappliedConnectionState();
+        // Nothing to roll back if no request was sent since the transaction began or ended
+        if (!this.autoCommit && this.transactionWork) {
+            this.session = this.statementService.rollbackTransaction(this.sessionWithConnectionState());
         }
+        this.transactionWork = false;
     }
 
     /**
@@ -223,28 +428,29 @@ public class Connection implements java.sql.Connection {
     public void setCatalog(String catalog) throws SQLException {
         log.debug("setCatalog: {}", catalog);
         checkValid();
-        this.callProxy(CallType.CALL_SET, "Catalog", Void.class, Arrays.asList(catalog));
+        this.setConnectionState(CommonConstants.CONNECTION_CATALOG_KEY, catalog);
     }
 
     @Override
     public String getCatalog() throws SQLException {
         log.debug("getCatalog called");
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "Catalog", String.class);
+        return this.getConnectionState(CommonConstants.CONNECTION_CATALOG_KEY, "Catalog", String.class);
     }
 
     @Override
     public void setTransactionIsolation(int level) throws SQLException {
         log.debug("setTransactionIsolation: {}", level);
         checkValid();
-        this.callProxy(CallType.CALL_SET, "TransactionIsolation", Void.class, Arrays.asList(level));
+        this.setConnectionState(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY, level);
     }
 
     @Override
     public int getTransactionIsolation() throws SQLException {
         log.debug("getTransactionIsolation called");
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "TransactionIsolation", Integer.class);
+        return this.<Integer>getConnectionState(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY,
+                "TransactionIsolation", Integer.class);
     }
 
     @Override
@@ -306,28 +512,38 @@ public class Connection implements java.sql.Connection {
     public Map<String, Class<?>> getTypeMap() throws SQLException {
         log.debug("getTypeMap called");
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "TypeMap", Map.class);
+        if (this.typeMap == null) {
+            Map<String, Class<?>> serverTypeMap = this.callProxy(CallType.CALL_GET, "TypeMap", Map.class);
+            if (serverTypeMap == null) {
+                return null;
+            }
+            this.typeMap = new HashMap<>(serverTypeMap);
+        }
+        return new HashMap<>(this.typeMap);
     }
 
     @Override
     public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
         log.debug("setTypeMap: <Map>");
         checkValid();
+        // Sent right away, the classes of a type map can not be carried with the connection state
         this.callProxy(CallType.CALL_SET, "TypeMap", Void.class, Arrays.asList(map));
+        this.typeMap = map != null ? new HashMap<>(map) : null;
     }
 
     @Override
     public void setHoldability(int holdability) throws SQLException {
         log.debug("setHoldability: {}", holdability);
         checkValid();
-        this.callProxy(CallType.CALL_SET, "Holdability", Void.class, Arrays.asList(holdability));
+        this.setConnectionState(CommonConstants.CONNECTION_HOLDABILITY_KEY, holdability);
     }
 
     @Override
     public int getHoldability() throws SQLException {
         log.debug("getHoldability called");
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "Holdability", Integer.class);
+        return this.<Integer>getConnectionState(CommonConstants.CONNECTION_HOLDABILITY_KEY, "Holdability",
+                Integer.class);
     }
 
     @Override
@@ -464,6 +680,11 @@ public class Connection implements java.sql.Connection {
         if (this.closed || this.forceInvalid) {
             return false;
         }
+        if (StringUtils.isEmpty(this.session.getSessionUUID())) {
+            // No connection held on the server, the server pool validates the connections it lends, only the server
+            // has to be reachable
+            return this.statementService.isServerReachable(this.session, timeout);
+        }
         return this.callProxy(CallType.CALL_IS, "Valid", Boolean.class, Arrays.asList(timeout));
     }
 
@@ -471,28 +692,49 @@ public class Connection implements java.sql.Connection {
     @Override
     public void setClientInfo(String name, String value) throws SQLClientInfoException {
         log.debug("setClientInfo: {}, {}", name, value);
-        this.callProxy(CallType.CALL_SET, "ClientInfo", Void.class, Arrays.asList(name, value));
+        this.setConnectionState(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX + name, value);
     }
 
     @SneakyThrows //TODO revisit, maybe can be transferred from server and parsed in the client
     @Override
     public void setClientInfo(Properties properties) throws SQLClientInfoException {
         log.debug("setClientInfo: <Properties>");
-        this.callProxy(CallType.CALL_SET, "ClientInfo", Void.class, Arrays.asList(properties));
+        // Replaces the whole client info, the properties not given are cleared
+        this.loadClientInfo();
+        for (String key : new ArrayList<>(this.connectionState.keySet())) {
+            if (key.startsWith(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX) && !properties.containsKey(
+                    key.substring(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX.length()))) {
+                this.setConnectionState(key, null);
+            }
+        }
+        for (String name : properties.stringPropertyNames()) {
+            this.setConnectionState(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX + name,
+                    properties.getProperty(name));
+        }
     }
 
     @Override
     public String getClientInfo(String name) throws SQLException {
         log.debug("getClientInfo: {}", name);
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "ClientInfo", String.class, Arrays.asList(name));
+        this.loadClientInfo();
+        return (String) this.connectionState.get(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX + name);
     }
 
     @Override
     public Properties getClientInfo() throws SQLException {
         log.debug("getClientInfo called");
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "ClientInfo", Properties.class);
+        this.loadClientInfo();
+        Properties properties = new Properties();
+        for (Map.Entry<String, Object> entry : this.connectionState.entrySet()) {
+            if (entry.getKey().startsWith(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX)
+                    && entry.getValue() != null) {
+                properties.setProperty(entry.getKey().substring(
+                        CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX.length()), (String) entry.getValue());
+            }
+        }
+        return properties;
     }
 
     @Override
@@ -519,14 +761,14 @@ public class Connection implements java.sql.Connection {
     public void setSchema(String schema) throws SQLException {
         log.debug("setSchema: {}", schema);
         checkValid();
-        this.callProxy(CallType.CALL_SET, "Schema", Void.class, Arrays.asList(schema));
+        this.setConnectionState(CommonConstants.CONNECTION_SCHEMA_KEY, schema);
     }
 
     @Override
     public String getSchema() throws SQLException {
         log.debug("getSchema called");
         checkValid();
-        return this.callProxy(CallType.CALL_GET, "Schema", String.class);
+        return this.getConnectionState(CommonConstants.CONNECTION_SCHEMA_KEY, "Schema", String.class);
     }
 
     @Override
@@ -555,6 +797,10 @@ public class Connection implements java.sql.Connection {
     public <T> T unwrap(Class<T> iface) throws SQLException {
         log.debug("unwrap: {}", iface);
         checkValid();
+        // Only the OJP specific features of this connection can be unwrapped, the remote connection can not
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
         throw new SQLFeatureNotSupportedException("Cannot unwrap remote proxy object.");
     }
 
@@ -562,13 +808,117 @@ public class Connection implements java.sql.Connection {
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         log.debug("isWrapperFor: {}", iface);
         checkValid();
-        return false;
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public StatementPipeline pipeline() throws SQLException {
+        log.debug("pipeline called");
+        checkValid();
+        return new StatementPipeline(this, this.statementService);
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(String sql) {
+        log.debug("executeUpdateAsync: {}", sql);
+        return this.executeAsync(pipeline -> pipeline.addUpdate(sql)).thenApply(PipelineResult::getUpdateCount);
+    }
+
+    @Override
+    public CompletableFuture<Integer> executeUpdateAsync(java.sql.PreparedStatement preparedStatement) {
+        log.debug("executeUpdateAsync called");
+        return this.executeAsync(pipeline -> pipeline.addUpdate(preparedStatement))
+                .thenApply(PipelineResult::getUpdateCount);
+    }
+
+    @Override
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync(String sql) {
+        log.debug("executeQueryAsync: {}", sql);
+        return this.executeAsync(pipeline -> pipeline.addQuery(sql)).thenApply(PipelineResult::getResultSet);
+    }
+
+    @Override
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync(java.sql.PreparedStatement preparedStatement) {
+        log.debug("executeQueryAsync called");
+        return this.executeAsync(pipeline -> pipeline.addQuery(preparedStatement))
+                .thenApply(PipelineResult::getResultSet);
+    }
+
+    @Override
+    public CompletableFuture<Void> commitAsync() {
+        log.debug("commitAsync called");
+        return this.executeAsync(StatementPipeline::addCommit).thenApply(result -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> rollbackAsync() {
+        log.debug("rollbackAsync called");
+        return this.executeAsync(StatementPipeline::addRollback).thenApply(result -> null);
+    }
+
+    /**
+     * Executes a single operation asynchronously with a pipeline, failing with the error of the operation itself.
+     */
+    private CompletableFuture<PipelineResult> executeAsync(PipelineOperationAdder adder) {
+        CompletableFuture<List<PipelineResult>> results;
+        try {
+            StatementPipeline pipeline = this.pipeline();
+            adder.add(pipeline);
+            results = pipeline.executeAsync();
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<PipelineResult> result = new CompletableFuture<>();
+        results.whenComplete((pipelineResults, error) -> {
+            if (error == null) {
+                result.complete(pipelineResults.get(0));
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ?
+                    error.getCause() : error;
+            result.completeExceptionally(cause instanceof BatchUpdateException && cause.getCause() != null ?
+                    cause.getCause() : cause);
+        });
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface PipelineOperationAdder {
+        void add(StatementPipeline pipeline) throws SQLException;
+    }
+
+    /**
+     * Chains an asynchronous call after the ones made before on this connection, so they are sent in order.
+     *
+     * @param call starts the call once the previous ones completed, successfully or not
+     * @return future of the call
+     */
+    synchronized <T> CompletableFuture<T> enqueueAsync(Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<T> future = this.lastAsyncCall.handle((result, error) -> null)
+                .thenCompose(previous -> call.get());
+        this.lastAsyncCall = future;
+        return future;
+    }
+
+    boolean hasTransactionWork() {
+        return this.transactionWork;
+    }
+
+    /**
+     * Records the outcome of a pipeline sent with {@link #sessionWithConnectionState()}.
+     *
+     * @param session         the session returned by the pipeline
+     * @param transactionWork false if the last operation executed ended the transaction
+     */
+    void pipelineExecuted(SessionInfo session, boolean transactionWork) {
+        this.session = session;
+        this.transactionWork = transactionWork;
     }
 
     private CallResourceRequest.Builder newCallBuilder() {
         log.debug("newCallBuilder called");
         return CallResourceRequest.newBuilder()
-                .setSession(this.session)
+                .setSession(this.sessionWithConnectionState())
                 .setResourceType(ResourceType.RES_CONNECTION);
     }
 
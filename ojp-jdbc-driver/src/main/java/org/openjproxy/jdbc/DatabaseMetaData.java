@@ -19,6 +19,8 @@ import java.sql.RowIdLifetime;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Slf4j
 public class DatabaseMetaData implements java.sql.DatabaseMetaData {
@@ -37,7 +39,7 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     private CallResourceRequest.Builder newCallBuilder() {
         log.debug("newCallBuilder called");
         return CallResourceRequest.newBuilder()
-                .setSession(this.connection.getSession())
+                .setSession(this.connection.sessionWithConnectionState())
                 .setResourceType(ResourceType.RES_CONNECTION)
                 .setResourceUUID(this.connection.getSession().getSessionUUID());
     }
@@ -770,134 +772,104 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     @Override
     public ResultSet getProcedures(String catalog, String schemaPattern, String procedureNamePattern) throws SQLException {
         log.debug("getProcedures: {}, {}, {}", catalog, schemaPattern, procedureNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Procedures", String.class,
-                Arrays.asList(catalog, schemaPattern, procedureNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Procedures", Arrays.asList(catalog, schemaPattern, procedureNamePattern));
     }
 
     @Override
     public ResultSet getProcedureColumns(String catalog, String schemaPattern, String procedureNamePattern, String columnNamePattern) throws SQLException {
         log.debug("getProcedureColumns: {}, {}, {}, {}", catalog, schemaPattern, procedureNamePattern, columnNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "ProcedureColumns", String.class,
-                Arrays.asList(catalog, schemaPattern, procedureNamePattern, columnNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("ProcedureColumns", Arrays.asList(catalog, schemaPattern, procedureNamePattern, columnNamePattern));
     }
 
     @Override
     public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types) throws SQLException {
         log.debug("getTables: {}, {}, {}, <String[]>", catalog, schemaPattern, tableNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Tables", String.class,
-                Arrays.asList(catalog, schemaPattern, tableNamePattern, types));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Tables", Arrays.asList(catalog, schemaPattern, tableNamePattern, types));
     }
 
     @Override
     public ResultSet getSchemas() throws SQLException {
         log.debug("getSchemas called");
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Schemas", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Schemas");
     }
 
     @Override
     public ResultSet getCatalogs() throws SQLException {
         log.debug("getCatalogs called");
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Catalogs", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Catalogs");
     }
 
     @Override
     public ResultSet getTableTypes() throws SQLException {
         log.debug("getTableTypes called");
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "TableTypes", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("TableTypes");
     }
 
     @Override
     public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern) throws SQLException {
         log.debug("getColumns: {}, {}, {}, {}", catalog, schemaPattern, tableNamePattern, columnNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Columns", String.class,
-                Arrays.asList(catalog, schemaPattern, tableNamePattern, columnNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Columns", Arrays.asList(catalog, schemaPattern, tableNamePattern, columnNamePattern));
     }
 
     @Override
     public ResultSet getColumnPrivileges(String catalog, String schema, String table, String columnNamePattern) throws SQLException {
         log.debug("getColumnPrivileges: {}, {}, {}, {}", catalog, schema, table, columnNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnPrivileges", String.class,
-                Arrays.asList(catalog, schema, table, columnNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("ColumnPrivileges", Arrays.asList(catalog, schema, table, columnNamePattern));
     }
 
     @Override
     public ResultSet getTablePrivileges(String catalog, String schemaPattern, String tableNamePattern) throws SQLException {
         log.debug("getTablePrivileges: {}, {}, {}", catalog, schemaPattern, tableNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "TablePrivileges", String.class,
-                Arrays.asList(catalog, schemaPattern, tableNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("TablePrivileges", Arrays.asList(catalog, schemaPattern, tableNamePattern));
     }
 
     @Override
     public ResultSet getBestRowIdentifier(String catalog, String schema, String table, int scope, boolean nullable) throws SQLException {
         log.debug("getBestRowIdentifier: {}, {}, {}, {}, {}", catalog, schema, table, scope, nullable);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "BestRowIdentifier", String.class,
-                Arrays.asList(catalog, schema, table, scope, nullable));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("BestRowIdentifier", Arrays.asList(catalog, schema, table, scope, nullable));
     }
 
     @Override
     public ResultSet getVersionColumns(String catalog, String schema, String table) throws SQLException {
         log.debug("getVersionColumns: {}, {}, {}", catalog, schema, table);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "VersionColumns", String.class,
-                Arrays.asList(catalog, schema, table));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("VersionColumns", Arrays.asList(catalog, schema, table));
     }
 
     @Override
     public ResultSet getPrimaryKeys(String catalog, String schema, String table) throws SQLException {
         log.debug("getPrimaryKeys: {}, {}, {}", catalog, schema, table);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "PrimaryKeys", String.class,
-                Arrays.asList(catalog, schema, table));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("PrimaryKeys", Arrays.asList(catalog, schema, table));
     }
 
     @Override
     public ResultSet getImportedKeys(String catalog, String schema, String table) throws SQLException {
         log.debug("getImportedKeys: {}, {}, {}", catalog, schema, table);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "ImportedKeys", String.class,
-                Arrays.asList(catalog, schema, table));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("ImportedKeys", Arrays.asList(catalog, schema, table));
     }
 
     @Override
     public ResultSet getExportedKeys(String catalog, String schema, String table) throws SQLException {
         log.debug("getExportedKeys: {}, {}, {}", catalog, schema, table);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "ExportedKeys", String.class,
-                Arrays.asList(catalog, schema, table));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("ExportedKeys", Arrays.asList(catalog, schema, table));
     }
 
     @Override
     public ResultSet getCrossReference(String parentCatalog, String parentSchema, String parentTable, String foreignCatalog,
                                        String foreignSchema, String foreignTable) throws SQLException {
         log.debug("getCrossReference: {}, {}, {}, {}, {}, {}", parentCatalog, parentSchema, parentTable, foreignCatalog, foreignSchema, foreignTable);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "CrossReference", String.class,
-                Arrays.asList(parentCatalog, parentSchema, parentTable, foreignCatalog, foreignSchema, foreignTable));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("CrossReference", Arrays.asList(parentCatalog, parentSchema, parentTable, foreignCatalog, foreignSchema, foreignTable));
     }
 
     @Override
     public ResultSet getTypeInfo() throws SQLException {
         log.debug("getTypeInfo called");
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "TypeInfo", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("TypeInfo");
     }
 
     @Override
     public ResultSet getIndexInfo(String catalog, String schema, String table, boolean unique, boolean approximate) throws SQLException {
         log.debug("getIndexInfo: {}, {}, {}, {}, {}", catalog, schema, table, unique, approximate);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "IndexInfo", String.class,
-                Arrays.asList(catalog, schema, table, unique, approximate));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("IndexInfo", Arrays.asList(catalog, schema, table, unique, approximate));
     }
 
     @Override
@@ -986,9 +958,7 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     @Override
     public ResultSet getUDTs(String catalog, String schemaPattern, String typeNamePattern, int[] types) throws SQLException {
         log.debug("getUDTs: {}, {}, {}, <int[]>", catalog, schemaPattern, typeNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "UDTs", String.class,
-                Arrays.asList(catalog, schemaPattern, typeNamePattern, types));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("UDTs", Arrays.asList(catalog, schemaPattern, typeNamePattern, types));
     }
 
     @Override
@@ -1024,26 +994,20 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     @Override
     public ResultSet getSuperTypes(String catalog, String schemaPattern, String typeNamePattern) throws SQLException {
         log.debug("getSuperTypes: {}, {}, {}", catalog, schemaPattern, typeNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "SuperTypes", String.class,
-                Arrays.asList(catalog, schemaPattern, typeNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("SuperTypes", Arrays.asList(catalog, schemaPattern, typeNamePattern));
     }
 
     @Override
     public ResultSet getSuperTables(String catalog, String schemaPattern, String tableNamePattern) throws SQLException {
         log.debug("getSuperTables: {}, {}, {}", catalog, schemaPattern, tableNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "SuperTables", String.class,
-                Arrays.asList(catalog, schemaPattern, tableNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("SuperTables", Arrays.asList(catalog, schemaPattern, tableNamePattern));
     }
 
     @Override
     public ResultSet getAttributes(String catalog, String schemaPattern, String typeNamePattern, String attributeNamePattern)
             throws SQLException {
         log.debug("getAttributes: {}, {}, {}, {}", catalog, schemaPattern, typeNamePattern, attributeNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Attributes", String.class,
-                Arrays.asList(catalog, schemaPattern, typeNamePattern, attributeNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Attributes", Arrays.asList(catalog, schemaPattern, typeNamePattern, attributeNamePattern));
     }
 
     @Override
@@ -1110,9 +1074,7 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     @Override
     public ResultSet getSchemas(String catalog, String schemaPattern) throws SQLException {
         log.debug("getSchemas: {}, {}", catalog, schemaPattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Schemas", String.class,
-                Arrays.asList(catalog, schemaPattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Schemas", Arrays.asList(catalog, schemaPattern));
     }
 
     @Override
@@ -1130,32 +1092,25 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     @Override
     public ResultSet getClientInfoProperties() throws SQLException {
         log.debug("getClientInfoProperties called");
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "ClientInfoProperties", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("ClientInfoProperties");
     }
 
     @Override
     public ResultSet getFunctions(String catalog, String schemaPattern, String functionNamePattern) throws SQLException {
         log.debug("getFunctions: {}, {}, {}", catalog, schemaPattern, functionNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "Functions", String.class,
-                Arrays.asList(catalog, schemaPattern, functionNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("Functions", Arrays.asList(catalog, schemaPattern, functionNamePattern));
     }
 
     @Override
     public ResultSet getFunctionColumns(String catalog, String schemaPattern, String functionNamePattern, String columnNamePattern) throws SQLException {
         log.debug("getFunctionColumns: {}, {}, {}, {}", catalog, schemaPattern, functionNamePattern, columnNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "FunctionColumns", String.class,
-                Arrays.asList(catalog, schemaPattern, functionNamePattern, columnNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("FunctionColumns", Arrays.asList(catalog, schemaPattern, functionNamePattern, columnNamePattern));
     }
 
     @Override
     public ResultSet getPseudoColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern) throws SQLException {
         log.debug("getPseudoColumns: {}, {}, {}, {}", catalog, schemaPattern, tableNamePattern, columnNamePattern);
-        String resultSetUUID = this.retrieveMetadataAttribute(CallType.CALL_GET, "PseudoColumns", String.class,
-                Arrays.asList(catalog, schemaPattern, tableNamePattern, columnNamePattern));
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this.statement);
+        return this.retrieveMetadataResultSet("PseudoColumns", Arrays.asList(catalog, schemaPattern, tableNamePattern, columnNamePattern));
     }
 
     @Override
@@ -1183,11 +1138,44 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
     }
     private <T> T retrieveMetadataAttribute(CallType callType, String attrName, Class returnType) throws SQLException {
         log.debug("retrieveMetadataAttribute: {}, {}", callType, attrName);
+        Map<String, Object> cachedAttributes = DatabaseMetaDataCache.attributes(this.statementService,
+                this.connection.getSession());
+        String methodName = callType.name().substring("CALL_".length()).toLowerCase(Locale.ROOT) + attrName;
+        if (cachedAttributes.containsKey(methodName)) {
+            return (T) cachedAttributes.get(methodName);
+        }
         return this.retrieveMetadataAttribute(callType, attrName, returnType, Constants.EMPTY_OBJECT_LIST);
     }
 
     private <T> T retrieveMetadataAttribute(CallType callType, String attrName, Class returnType, List<Object> params) throws SQLException {
         log.debug("retrieveMetadataAttribute: {}, {}, <params>", callType, attrName);
+        CallResourceResponse response = this.callMetadata(callType, attrName, params);
+
+        List<ParameterValue> values = response.getValuesList();
+        if (values.isEmpty()) {
+            return null;
+        }
+        
+        Object result = ProtoConverter.fromParameterValue(values.get(0));
+        return (T) result;
+    }
+
+    private ResultSet retrieveMetadataResultSet(String attrName) throws SQLException {
+        return this.retrieveMetadataResultSet(attrName, Constants.EMPTY_OBJECT_LIST);
+    }
+
+    /**
+     * Calls a DatabaseMetaData method returning a result set, read locally in blocks unless the server proxies it.
+     */
+    private ResultSet retrieveMetadataResultSet(String attrName, List<Object> params) throws SQLException {
+        log.debug("retrieveMetadataResultSet: {}, <params>", attrName);
+        CallResourceResponse response = this.callMetadata(CallType.CALL_GET, attrName, params);
+        return org.openjproxy.jdbc.ResultSet.fromCallResponse(response, this.statementService, this.connection,
+                this.statement);
+    }
+
+    private CallResourceResponse callMetadata(CallType callType, String attrName, List<Object> params)
+            throws SQLException {
         CallResourceRequest.Builder reqBuilder = this.newCallBuilder();
         reqBuilder
             .setTarget(
@@ -1203,13 +1191,6 @@ public class DatabaseMetaData implements java.sql.DatabaseMetaData {
         );
         CallResourceResponse response = this.statementService.callResource(reqBuilder.build());
         this.connection.setSession(response.getSession());
-
-        List<ParameterValue> values = response.getValuesList();
-        if (values.isEmpty()) {
-            return null;
-        }
-        
-        Object result = ProtoConverter.fromParameterValue(values.get(0));
-        return (T) result;
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,102 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.SessionInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values of the DatabaseMetaData attributes that do not change during the life of a datasource, keyed by method
+ * name. They are read from the server in one call the first time a DatabaseMetaData of the datasource is used and
+ * kept for the life of the driver, so frameworks inspecting the database on many connections do not call the server
+ * for each attribute. Attributes missing from the cache are read from the server at every call.
+ * <p>
+ * The state of a connection freshly borrowed from the datasource (catalog, schema, transaction isolation and
+ * holdability) is cached along, as the initial state of the connections shadowed by {@link Connection}. It is only
+ * returned by the server when read without a session, the connection of a session possibly having been changed.
+ */
+@Slf4j
+final class DatabaseMetaDataCache {
+
+    private static final Map<String, Map<String, Object>> ATTRIBUTES_BY_CONN_HASH = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Object>> CONNECTION_DEFAULTS_BY_CONN_HASH = new ConcurrentHashMap<>();
+
+    private DatabaseMetaDataCache() {
+    }
+
+    /**
+     * Gets the cached attributes of the datasource of the session, reading them from the server if they were not
+     * read yet. If reading them fails, no attribute is cached for the datasource.
+     */
+    static Map<String, Object> attributes(StatementService statementService, SessionInfo session) {
+        String connHash = session.getConnHash();
+        if (connHash == null || connHash.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> attributes = ATTRIBUTES_BY_CONN_HASH.get(connHash);
+        if (attributes == null) {
+            // Read outside of computeIfAbsent to not block other datasources during the call, a concurrent
+            // read of the same datasource only costs one more call
+            attributes = fetch(statementService, session);
+            Map<String, Object> previous = ATTRIBUTES_BY_CONN_HASH.putIfAbsent(connHash, attributes);
+            if (previous != null) {
+                attributes = previous;
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * Gets the cached state of a connection freshly borrowed from the datasource of the session, keyed by the
+     * CONNECTION_*_KEY constants. It is read from the server if it was not read yet and the session has no connection
+     * on the server. If it is not known, an empty map is returned and the state is read from the connection.
+     */
+    static Map<String, Object> connectionDefaults(StatementService statementService, SessionInfo session) {
+        String connHash = session.getConnHash();
+        if (connHash == null || connHash.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Object> defaults = CONNECTION_DEFAULTS_BY_CONN_HASH.get(connHash);
+        if (defaults == null && StringUtils.isEmpty(session.getSessionUUID())) {
+            Map<String, Object> attributes = fetch(statementService, session);
+            ATTRIBUTES_BY_CONN_HASH.putIfAbsent(connHash, attributes);
+            defaults = CONNECTION_DEFAULTS_BY_CONN_HASH.get(connHash);
+        }
+        return defaults != null ? defaults : Collections.emptyMap();
+    }
+
+    private static Map<String, Object> fetch(StatementService statementService, SessionInfo session) {
+        try {
+            DatabaseMetaDataResponse response = statementService.getDatabaseMetaData(session);
+            Map<String, Object> attributes = ProtoConverter.propertiesFromProto(response.getAttributesList());
+            log.debug("Cached {} database metadata attributes for connection hash {}", attributes.size(),
+                    session.getConnHash());
+            if (StringUtils.isEmpty(session.getSessionUUID())) {
+                CONNECTION_DEFAULTS_BY_CONN_HASH.putIfAbsent(session.getConnHash(), Collections.unmodifiableMap(
+                        ProtoConverter.propertiesFromProto(response.getConnectionDefaultsList())));
+            }
+            return Collections.unmodifiableMap(attributes);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Database metadata attributes not cached, they are read from the server at every call: {}",
+                    e.getMessage());
+            // Not read again for each connection, the connections read their state from the server instead
+            CONNECTION_DEFAULTS_BY_CONN_HASH.putIfAbsent(session.getConnHash(), Collections.emptyMap());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Forgets the cached attributes and connection defaults of all datasources.
+     */
+    static void clear() {
+        ATTRIBUTES_BY_CONN_HASH.clear();
+        CONNECTION_DEFAULTS_BY_CONN_HASH.clear();
+    }
+}
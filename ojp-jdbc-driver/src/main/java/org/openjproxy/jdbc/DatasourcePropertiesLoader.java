@@ -34,13 +34,16 @@ public class DatasourcePropertiesLoader {
         
         // Look for dataSource-prefixed properties first: {dataSourceName}.ojp.connection.pool.*
         // Also look for XA-specific properties: {dataSourceName}.ojp.xa.connection.pool.*
+        // and result set preferences: {dataSourceName}.ojp.resultset.*
         String poolPrefix = dataSourceName + ".ojp.connection.pool.";
         String xaPoolPrefix = dataSourceName + ".ojp.xa.connection.pool.";
         String xaPrefix = dataSourceName + ".ojp.xa.";
+        String resultSetPrefix = dataSourceName + ".ojp.resultset.";
         boolean foundDataSourceSpecific = false;
         
         for (String key : allProperties.stringPropertyNames()) {
-            if (key.startsWith(poolPrefix) || key.startsWith(xaPoolPrefix) || key.startsWith(xaPrefix)) {
+            if (key.startsWith(poolPrefix) || key.startsWith(xaPoolPrefix) || key.startsWith(xaPrefix) ||
+                    key.startsWith(resultSetPrefix)) {
                 // Remove the dataSource prefix and keep the standard property name
                 String standardKey = key.substring(dataSourceName.length() + 1); // Remove "{dataSourceName}."
                 dataSourceProperties.setProperty(standardKey, allProperties.getProperty(key));
@@ -49,12 +52,13 @@ public class DatasourcePropertiesLoader {
         }
         
         // If no dataSource-specific properties found, and this is the "default" dataSource,
-        // look for unprefixed properties: ojp.connection.pool.*, ojp.xa.connection.pool.*, ojp.xa.*
+        // look for unprefixed properties: ojp.connection.pool.*, ojp.xa.connection.pool.*, ojp.xa.*, ojp.resultset.*
         if (!foundDataSourceSpecific && "default".equals(dataSourceName)) {
             for (String key : allProperties.stringPropertyNames()) {
                 if (key.startsWith("ojp.connection.pool.") || 
                     key.startsWith("ojp.xa.connection.pool.") || 
-                    key.startsWith("ojp.xa.")) {
+                    key.startsWith("ojp.xa.") ||
+                    key.startsWith("ojp.resultset.")) {
                     dataSourceProperties.setProperty(key, allProperties.getProperty(key));
                 }
             }
@@ -64,7 +68,8 @@ public class DatasourcePropertiesLoader {
         // Check for datasource-specific system properties first
         Properties systemProps = System.getProperties();
         for (String key : systemProps.stringPropertyNames()) {
-            if (key.startsWith(poolPrefix) || key.startsWith(xaPoolPrefix) || key.startsWith(xaPrefix)) {
+            if (key.startsWith(poolPrefix) || key.startsWith(xaPoolPrefix) || key.startsWith(xaPrefix) ||
+                    key.startsWith(resultSetPrefix)) {
                 // Remove the dataSource prefix and keep the standard property name
                 String standardKey = key.substring(dataSourceName.length() + 1);
                 dataSourceProperties.setProperty(standardKey, systemProps.getProperty(key));
@@ -78,7 +83,8 @@ public class DatasourcePropertiesLoader {
             for (String key : systemProps.stringPropertyNames()) {
                 if (key.startsWith("ojp.connection.pool.") || 
                     key.startsWith("ojp.xa.connection.pool.") || 
-                    key.startsWith("ojp.xa.")) {
+                    key.startsWith("ojp.xa.") ||
+                    key.startsWith("ojp.resultset.")) {
                     dataSourceProperties.setProperty(key, systemProps.getProperty(key));
                     log.debug("Overriding property from system property: {} = {}", key, systemProps.getProperty(key));
                 }
@@ -96,7 +102,8 @@ public class DatasourcePropertiesLoader {
             // E.g., MULTINODE_OJP_CONNECTION_POOL_ENABLED -> multinode.ojp.connection.pool.enabled
             String propertyKey = envKey.toLowerCase().replace('_', '.');
             
-            if (propertyKey.startsWith(poolPrefix) || propertyKey.startsWith(xaPoolPrefix) || propertyKey.startsWith(xaPrefix)) {
+            if (propertyKey.startsWith(poolPrefix) || propertyKey.startsWith(xaPoolPrefix) || propertyKey.startsWith(xaPrefix) ||
+                    propertyKey.startsWith(resultSetPrefix)) {
                 // Remove the dataSource prefix and keep the standard property name
                 String standardKey = propertyKey.substring(dataSourceName.length() + 1);
                 dataSourceProperties.setProperty(standardKey, envValue);
@@ -116,7 +123,8 @@ public class DatasourcePropertiesLoader {
                 
                 if (propertyKey.startsWith("ojp.connection.pool.") || 
                     propertyKey.startsWith("ojp.xa.connection.pool.") || 
-                    propertyKey.startsWith("ojp.xa.")) {
+                    propertyKey.startsWith("ojp.xa.") ||
+                    propertyKey.startsWith("ojp.resultset.")) {
                     dataSourceProperties.setProperty(propertyKey, envValue);
                     log.debug("Overriding property from environment variable: {} = {}", propertyKey, envValue);
                 }
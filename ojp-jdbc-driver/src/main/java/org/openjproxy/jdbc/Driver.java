@@ -116,7 +116,10 @@ public class Driver implements java.sql.Driver {
             throw e;
         }
         log.debug("Returning new Connection with sessionInfo: {}", sessionInfo);
-        return new Connection(sessionInfo, statementService, DatabaseUtils.resolveDbName(cleanUrl));
+        Connection connection = new Connection(sessionInfo, statementService, DatabaseUtils.resolveDbName(cleanUrl));
+        connection.applyResultSetProperties(ojpProperties);
+        connection.applyLobProperties(ojpProperties);
+        return connection;
     }
     
 
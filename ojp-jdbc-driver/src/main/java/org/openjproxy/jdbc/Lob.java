@@ -66,7 +66,8 @@ public class Lob {
         log.debug("setBinaryStream called: {}, {}", lobType, pos);
         try {
             //connect the pipes. Makes the OutputStream written by the caller feed into the InputStream read by the sender.
-            PipedInputStream in = new PipedInputStream();
+            //The pipe holds a full block so the sender reads whole blocks while the caller keeps writing.
+            PipedInputStream in = new PipedInputStream(this.connection.getLobBlockSize());
             PipedOutputStream out = new PipedOutputStream(in);
 
             CompletableFuture.supplyAsync(() -> {
@@ -143,7 +144,8 @@ public class Lob {
 
             // In hydrated approach, request all the LOB data at once
             // The server will return the complete LOB data in a single response
-            Iterator<LobDataBlock> dataBlocks = statementService.readLob(lobReference.get(), pos, (int) length);
+            Iterator<LobDataBlock> dataBlocks = statementService.readLob(lobReference.get(), pos, (int) length,
+                    this.connection.getLobBlockSize());
             InputStream fullDataStream = lobService.parseReceivedBlocks(dataBlocks);
             
             if (fullDataStream == null) {
@@ -167,7 +169,7 @@ public class Lob {
     private CallResourceRequest.Builder newCallBuilder() throws SQLException {
         log.debug("newCallBuilder called");
         return CallResourceRequest.newBuilder()
-                .setSession(this.connection.getSession())
+                .setSession(this.connection.sessionWithConnectionState())
                 .setResourceType(ResourceType.RES_LOB)
                 .setResourceUUID(this.getUUID());
     }
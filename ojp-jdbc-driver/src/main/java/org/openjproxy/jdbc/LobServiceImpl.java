@@ -5,18 +5,18 @@ import com.openjproxy.grpc.LobDataBlock;
 import com.openjproxy.grpc.LobReference;
 import com.openjproxy.grpc.LobType;
 import lombok.AllArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.openjproxy.grpc.ProtoConverter;
 import org.openjproxy.grpc.client.StatementService;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import static org.openjproxy.constants.CommonConstants.PREPARED_STATEMENT_BINARY_STREAM_LENGTH;
 
@@ -33,90 +33,101 @@ public class LobServiceImpl implements LobService {
     }
 
 
-    @SneakyThrows
     @Override
     public LobReference sendBytes(LobType lobType, long pos, InputStream is, Map<Integer, Object> metadata) throws SQLException {
-        
-        BufferedInputStream bis = new BufferedInputStream(is);
         long length = metadata.get(PREPARED_STATEMENT_BINARY_STREAM_LENGTH) != null ?
                 (Long) metadata.get(PREPARED_STATEMENT_BINARY_STREAM_LENGTH) : -1l;
-        
+
         // Convert metadata Map<Integer, Object> to Map<String, Object> for ProtoConverter
         Map<String, Object> metadataStringKey = new HashMap<>();
         for (Map.Entry<Integer, Object> entry : metadata.entrySet()) {
             metadataStringKey.put(entry.getKey().toString(), entry.getValue());
         }
 
-        // Hydrated approach: Read all bytes at once instead of streaming
-        // This provides consistent behavior across all databases and eliminates streaming complexity
-        final byte[] allBytes;
-        try {
-            byte[] readBytes = bis.readAllBytes();
-            
-            // Apply length limit if specified
-            if (length != -1 && readBytes.length > length) {
-                byte[] limitedBytes = new byte[(int) length];
-                System.arraycopy(readBytes, 0, limitedBytes, 0, (int) length);
-                allBytes = limitedBytes;
-            } else {
-                allBytes = readBytes;
-            }
-        } catch (IOException e) {
-            throw new SQLException("Failed to read LOB data: " + e.getMessage(), e);
-        }
-
-        // Create a simple iterator that returns all data in a single block
-        Iterator<LobDataBlock> itLobDataBlocks = new Iterator<LobDataBlock>() {
-            private boolean sent = false;
-
-            @Override
-            public boolean hasNext() {
-                return !sent;
-            }
-
-            @Override
-            public LobDataBlock next() {
-                sent = true;
-                return LobDataBlock.newBuilder()
-                        .setLobType(lobType)
-                        .setSession(connection.getSession())
-                        .setPosition(pos)
-                        .setData(ByteString.copyFrom(allBytes))
-                        .addAllMetadata(ProtoConverter.propertiesToProto(metadataStringKey))
-                        .build();
-            }
-        };
-
-        return this.statementService.createLob(this.connection, itLobDataBlocks);
+        return this.statementService.createLob(this.connection,
+                new LobDataBlockIterator(lobType, pos, is, length, metadataStringKey));
     }
 
     @Override
     public InputStream parseReceivedBlocks(Iterator<LobDataBlock> itBlocks) {
-        // In the hydrated approach, we expect to receive all data in a single block
-        // instead of multiple streaming blocks
         if (!itBlocks.hasNext()) {
             return null;
         }
-        
+
         LobDataBlock lobDataBlock = itBlocks.next();
-        if (lobDataBlock.getPosition() == -1 && lobDataBlock.getData().toByteArray().length < 1) {
+        if (lobDataBlock.getPosition() == -1 && lobDataBlock.getData().isEmpty()) {
             return null;
         }
 
-        // Convert the single data block directly to an InputStream
-        // Note: In hydrated approach, all remaining blocks should contain the complete data
-        byte[] allData = lobDataBlock.getData().toByteArray();
-        
-        // If there are more blocks (shouldn't happen in hydrated approach), concatenate them
+        // Blocks are chained without copying their bytes
+        ByteString allData = lobDataBlock.getData();
         while (itBlocks.hasNext()) {
-            LobDataBlock nextBlock = itBlocks.next();
-            byte[] nextData = nextBlock.getData().toByteArray();
-            byte[] combined = new byte[allData.length + nextData.length];
-            System.arraycopy(allData, 0, combined, 0, allData.length);
-            System.arraycopy(nextData, 0, combined, allData.length, nextData.length);
-            allData = combined;
+            allData = allData.concat(itBlocks.next().getData());
+        }
+        return allData.newInput();
+    }
+
+    /**
+     * Reads the stream sent to the server in blocks of the LOB block size of the connection, a block ahead so the
+     * last block sent is never empty. The first block is always sent, empty if the stream is, as it creates the LOB
+     * on the server, and is the only one carrying the metadata.
+     */
+    private class LobDataBlockIterator implements Iterator<LobDataBlock> {
+        private final LobType lobType;
+        private final InputStream is;
+        private final Map<String, Object> metadata;
+        private final int blockSize;
+        private long position;
+        // Bytes left to send, -1 when the stream is sent to its end
+        private long remaining;
+        private boolean first = true;
+        private byte[] nextData;
+
+        LobDataBlockIterator(LobType lobType, long pos, InputStream is, long length, Map<String, Object> metadata) {
+            this.lobType = lobType;
+            this.position = pos;
+            this.is = is;
+            this.remaining = length;
+            this.metadata = metadata;
+            this.blockSize = connection.getLobBlockSize();
+            this.nextData = this.readBlock();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.nextData != null;
+        }
+
+        @Override
+        public LobDataBlock next() {
+            if (this.nextData == null) {
+                throw new NoSuchElementException();
+            }
+            LobDataBlock.Builder block = LobDataBlock.newBuilder()
+                    .setLobType(this.lobType)
+                    .setSession(connection.sessionWithConnectionState())
+                    .setPosition(this.position)
+                    .setData(ByteString.copyFrom(this.nextData));
+            if (this.first) {
+                block.addAllMetadata(ProtoConverter.propertiesToProto(this.metadata));
+                this.first = false;
+            }
+            this.position += this.nextData.length;
+            this.nextData = this.nextData.length < this.blockSize ? null : this.readBlock();
+            return block.build();
+        }
+
+        private byte[] readBlock() {
+            int size = this.remaining == -1 ? this.blockSize : (int) Math.min(this.blockSize, this.remaining);
+            try {
+                byte[] data = this.is.readNBytes(size);
+                if (this.remaining != -1) {
+                    this.remaining -= data.length;
+                }
+                return data.length == 0 && !this.first ? null : data;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read LOB data: " + e.getMessage(), e);
+            }
         }
-        
-        return new java.io.ByteArrayInputStream(allData);
     }
 }
@@ -0,0 +1,48 @@
+package org.openjproxy.jdbc;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OJP specific features of a connection, obtained with {@code connection.unwrap(OjpConnection.class)}.
+ * <p>
+ * The asynchronous methods do not block the calling thread, their futures complete in gRPC threads so the code
+ * chained on them must not block either. They are sent in the order they are called, each once the previous one
+ * completed, as they run in the session of the connection. Blocking methods of the connection must not be called
+ * while asynchronous calls are pending. Failures complete the futures exceptionally with a SQLException.
+ * </p>
+ */
+public interface OjpConnection {
+
+    /**
+     * Creates a pipeline of updates, queries, commits and rollbacks sent to the server in a single request and
+     * executed in order in the session of this connection.
+     *
+     * @return an empty pipeline
+     * @throws SQLException if the connection is closed
+     */
+    StatementPipeline pipeline() throws SQLException;
+
+    CompletableFuture<Integer> executeUpdateAsync(String sql);
+
+    /**
+     * Executes the prepared statement with the parameters set when this method is called.
+     */
+    CompletableFuture<Integer> executeUpdateAsync(java.sql.PreparedStatement preparedStatement);
+
+    /**
+     * Executes a query, the future completes with a result set holding the first block of rows. The next blocks are
+     * read on demand, without blocking with {@link OjpResultSet#fetchNextRowsAsync()}.
+     */
+    CompletableFuture<java.sql.ResultSet> executeQueryAsync(String sql);
+
+    /**
+     * Executes the prepared query with the parameters set when this method is called, the future completes with a
+     * result set holding the first block of rows as for {@link #executeQueryAsync(String)}.
+     */
+    CompletableFuture<java.sql.ResultSet> executeQueryAsync(java.sql.PreparedStatement preparedStatement);
+
+    CompletableFuture<Void> commitAsync();
+
+    CompletableFuture<Void> rollbackAsync();
+}
@@ -0,0 +1,29 @@
+package org.openjproxy.jdbc;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * OJP specific features of a result set, obtained with {@code resultSet.unwrap(OjpResultSet.class)}.
+ * <p>
+ * Result sets of queries executed asynchronously hold the block of rows received with the query only. The next
+ * blocks are read on demand: {@link #fetchNextRowsAsync()} reads one without blocking, after which next() reads its
+ * rows locally. Calling next() past the rows fetched reads the next block blocking the calling thread, as for the
+ * other result sets.
+ * </p>
+ */
+public interface OjpResultSet {
+
+    /**
+     * Number of rows next() reads without waiting for the server.
+     */
+    int getFetchedRowCount();
+
+    /**
+     * Reads the next block of rows without blocking the calling thread, nothing is read while fetched rows are left.
+     * The block is requested once the asynchronous calls made before on the connection completed, the same as the
+     * asynchronous methods of {@link OjpConnection}.
+     *
+     * @return future completed with true if rows are left to read with next(), false once all the rows were read
+     */
+    CompletableFuture<Boolean> fetchNextRowsAsync();
+}
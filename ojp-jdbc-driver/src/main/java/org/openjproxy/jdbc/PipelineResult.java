@@ -0,0 +1,23 @@
+package org.openjproxy.jdbc;
+
+import lombok.Getter;
+
+/**
+ * Result of an operation of a {@link StatementPipeline}.
+ */
+@Getter
+public class PipelineResult {
+    /**
+     * Update count of an update, -1 for the other operations.
+     */
+    private final int updateCount;
+    /**
+     * Result set of a query, null for the other operations.
+     */
+    private final java.sql.ResultSet resultSet;
+
+    PipelineResult(int updateCount, java.sql.ResultSet resultSet) {
+        this.updateCount = updateCount;
+        this.resultSet = resultSet;
+    }
+}
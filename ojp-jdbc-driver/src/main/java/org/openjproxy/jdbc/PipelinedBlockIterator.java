@@ -0,0 +1,106 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterator over the blocks of a result set opened by a query of a pipeline or returned by a callResource call. The
+ * first block came with the response, the following ones are read one at a time with fetchNextRows until the server
+ * sends an empty block, or ahead of next() without blocking with fetchNextBlockAsync.
+ * Failures reading a block are thrown wrapped in a RuntimeException, as the iterator can not throw SQLException.
+ */
+class PipelinedBlockIterator implements Iterator<OpResult> {
+
+    private final Connection connection;
+    private final StatementService statementService;
+    private final String resultSetUUID;
+    private final int fetchSize;
+    private OpResult nextBlock;
+    private boolean hasMoreBlocks;
+
+    PipelinedBlockIterator(Connection connection, StatementService statementService, OpResult firstBlock,
+                           boolean hasMoreBlocks, int fetchSize) {
+        this.connection = connection;
+        this.statementService = statementService;
+        this.resultSetUUID = firstBlock.getQueryResult().getResultSetUUID();
+        this.fetchSize = fetchSize;
+        this.nextBlock = firstBlock;
+        this.hasMoreBlocks = hasMoreBlocks;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextBlock == null && this.hasMoreBlocks) {
+            try {
+                OpResult block = this.statementService.fetchNextRows(this.connection.getSession(),
+                        this.resultSetUUID, this.fetchSize);
+                if (rowCount(block.getQueryResult()) > 0) {
+                    this.nextBlock = block;
+                } else {
+                    this.hasMoreBlocks = false;
+                }
+            } catch (SQLException e) {
+                this.hasMoreBlocks = false;
+                throw new RuntimeException(e);
+            }
+        }
+        return this.nextBlock != null;
+    }
+
+    @Override
+    public OpResult next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        OpResult block = this.nextBlock;
+        this.nextBlock = null;
+        return block;
+    }
+
+    /**
+     * Reads the next block without blocking, next() then returns it without calling the server.
+     *
+     * @param size rows asked to the server, 0 for the fetch size of the result set
+     * @return future completed with true if a block is ready to be returned by next(), false if the last one was
+     * read
+     */
+    CompletableFuture<Boolean> fetchNextBlockAsync(int size) {
+        if (this.nextBlock != null || !this.hasMoreBlocks) {
+            return CompletableFuture.completedFuture(this.nextBlock != null);
+        }
+        return this.connection.enqueueAsync(() -> this.statementService.fetchNextRowsAsync(
+                this.connection.getSession(), this.resultSetUUID, size > 0 ? size : this.fetchSize)).thenApply(block -> {
+            if (rowCount(block.getQueryResult()) > 0) {
+                this.nextBlock = block;
+            } else {
+                this.hasMoreBlocks = false;
+            }
+            return this.nextBlock != null;
+        });
+    }
+
+    /**
+     * Rows of the block read ahead and not returned by next() yet.
+     */
+    int fetchedRowCount() {
+        return this.nextBlock != null ? rowCount(this.nextBlock.getQueryResult()) : 0;
+    }
+
+    /**
+     * Tells whether the server may have more blocks, false once it sent an empty one.
+     */
+    boolean hasMoreBlocks() {
+        return this.nextBlock != null || this.hasMoreBlocks;
+    }
+
+    static int rowCount(OpQueryResultProto queryResult) {
+        return queryResult.hasColumnarRows() ? queryResult.getColumnarRows().getRowCount() :
+                queryResult.getRowsCount();
+    }
+}
@@ -10,7 +10,7 @@ import com.openjproxy.grpc.LobType;
 import com.openjproxy.grpc.OpResult;
 import com.openjproxy.grpc.ParameterValue;
 import com.openjproxy.grpc.ResourceType;
-import com.openjproxy.grpc.ResultType;
+import com.openjproxy.grpc.StatementRequest;
 import com.openjproxy.grpc.TargetCall;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
@@ -85,6 +85,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
     private final Connection connection;
     private String sql;
     private SortedMap<Integer, Parameter> paramsMap;
+    private List<List<Parameter>> batchRows;
     private Map<String, Object> properties;
     private StatementService statementService;
 
@@ -95,6 +96,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         this.sql = sql;
         this.properties = null;
         this.paramsMap = new TreeMap<>();
+        this.batchRows = new ArrayList<>();
         this.statementService = statementService;
     }
 
@@ -106,6 +108,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         this.sql = sql;
         this.properties = properties;
         this.paramsMap = new TreeMap<>();
+        this.batchRows = new ArrayList<>();
         this.statementService = statementService;
     }
 
@@ -115,7 +118,8 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         this.checkClosed();
         log.info("Executing query for -> {}", this.sql);
         Iterator<OpResult> itOpResult = this.statementService
-                .executeQuery(this.connection.getSession(), this.sql, new ArrayList<>(this.paramsMap.values()), this.properties);
+                .executeQuery(this.connection.sessionWithConnectionState(), this.sql, new ArrayList<>(this.paramsMap.values()), "",
+                        this.properties, this.resultSetOptions());
         return new ResultSet(itOpResult, this.statementService, this);
     }
 
@@ -124,33 +128,79 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         log.debug("executeUpdate called");
         this.checkClosed();
         log.info("Executing update for -> {}", this.sql);
-        OpResult result = this.statementService.executeUpdate(this.connection.getSession(), this.sql,
+        OpResult result = this.statementService.executeUpdate(this.connection.sessionWithConnectionState(), this.sql,
                 new ArrayList<>(this.paramsMap.values()), this.getStatementUUID(), this.properties);
         this.connection.setSession(result.getSession());
         if (StringUtils.isNotBlank(result.getUuid())) {
             this.setStatementUUID(result.getUuid());
         }
+        this.setGeneratedKeys(result);
         return result.getIntValue();
     }
 
+    /**
+     * Builds the request of an operation of a pipeline executing this statement with its current parameters.
+     */
+    StatementRequest.Builder pipelineRequest() {
+        return this.pipelineRequest(this.sql, new ArrayList<>(this.paramsMap.values()));
+    }
+
+    /**
+     * Accumulates the current parameters locally, they are only sent to the server when executeBatch is called.
+     *
+     * @throws SQLException
+     */
     @Override
     public void addBatch() throws SQLException {
         log.debug("addBatch called");
         this.checkClosed();
-        log.info("Executing add batch for -> {}", this.sql);
-        Map<String, Object> properties = new HashMap<>();
-        properties.put(CommonConstants.PREPARED_STATEMENT_ADD_BATCH_FLAG, Boolean.TRUE);
-        OpResult result = this.statementService.executeUpdate(this.connection.getSession(), this.sql,
-                new ArrayList<>(this.paramsMap.values()), this.getStatementUUID(), properties);
-        this.connection.setSession(result.getSession());
-        if (StringUtils.isBlank(this.getStatementUUID()) && ResultType.UUID_STRING.equals(result.getType()) &&
-                !result.getUuidValue().isEmpty()) {
-            String psUUID = result.getUuidValue();
-            this.setStatementUUID(psUUID);
-        }
+        this.batchRows.add(new ArrayList<>(this.paramsMap.values()));
         this.paramsMap = new TreeMap<>();
     }
 
+    /**
+     * JDBC does not allow adding SQL to the batch of a PreparedStatement, only parameter rows.
+     */
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        log.debug("addBatch: {}", sql);
+        throw new SQLException("addBatch(String) can not be called on a PreparedStatement.");
+    }
+
+    /**
+     * Sends all the parameter rows accumulated by addBatch to the server to be executed as a single JDBC batch.
+     *
+     * @return int[] update counts, one per row added to the batch.
+     * @throws SQLException
+     */
+    @Override
+    public int[] executeBatch() throws SQLException {
+        log.debug("executeBatch called");
+        this.checkClosed();
+        if (this.batchRows.isEmpty()) {
+            return new int[0];
+        }
+        log.info("Executing batch of {} rows for -> {}", this.batchRows.size(), this.sql);
+        try {
+            OpResult result = this.statementService.executeBatch(this.connection.sessionWithConnectionState(), this.sql,
+                    this.batchRows, this.getStatementUUID(), this.properties);
+            this.connection.setSession(result.getSession());
+            if (StringUtils.isNotBlank(result.getUuid())) {
+                this.setStatementUUID(result.getUuid());
+            }
+            this.setGeneratedKeys(result);
+            return updateCounts(result);
+        } finally {
+            this.batchRows = new ArrayList<>();
+        }
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        log.debug("executeLargeBatch called");
+        return Arrays.stream(this.executeBatch()).asLongStream().toArray();
+    }
+
     @Override
     public void setNull(int parameterIndex, int sqlType) throws SQLException {
         log.debug("setNull: {}, {}", parameterIndex, sqlType);
@@ -793,8 +843,12 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
     public RemoteProxyResultSet getGeneratedKeys() throws SQLException {
         log.debug("getGeneratedKeys called");
         checkClosed();
-        String resultSetUUID = this.callProxy(CallType.CALL_GET, "GeneratedKeys", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this);
+        ResultSet generatedKeys = this.localGeneratedKeys();
+        if (generatedKeys != null) {
+            return generatedKeys;
+        }
+        return ResultSet.fromCallResponse(this.callResource(CallType.CALL_GET, "GeneratedKeys",
+                Constants.EMPTY_OBJECT_LIST), this.statementService, this.connection, this);
     }
 
     /**
@@ -825,8 +879,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
     }
 
     /**
-     * Has to override the Statement implementation because PreparedStatement has to send extra properties like the SQL
-     * being executed, which Statement does not.
+     * Discards the parameter rows accumulated locally by addBatch.
      *
      * @throws SQLException
      */
@@ -834,7 +887,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
     public void clearBatch() throws SQLException {
         log.debug("clearBatch called");
         checkClosed();
-        this.callProxy(CallType.CALL_CLEAR, "Batch", Void.class);
+        this.batchRows = new ArrayList<>();
     }
 
     /**
@@ -849,6 +902,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         log.debug("setFetchSize called with {}", rows);
         checkClosed();
         this.callProxy(CallType.CALL_SET, "FetchSize", Void.class, List.of(rows));
+        this.setLocalFetchSize(rows);
     }
 
     /**
@@ -894,7 +948,7 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         log.debug("newCallBuilder called");
         this.propertiesHaveSqlStatement();
         CallResourceRequest.Builder builder = CallResourceRequest.newBuilder()
-                .setSession(this.connection.getSession())
+                .setSession(this.connection.sessionWithConnectionState())
                 .setResourceType(ResourceType.RES_PREPARED_STATEMENT);
         if (this.getStatementUUID() != null) {
             builder.setResourceUUID(this.getStatementUUID());
@@ -912,6 +966,23 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
 
     private <T> T callProxy(CallType callType, String targetName, Class<?> returnType, List<Object> params) throws SQLException {
         log.debug("callProxy: {}, {}, {}, params.size={}", callType, targetName, returnType, params != null ? params.size() : 0);
+        CallResourceResponse response = this.callResource(callType, targetName, params);
+        if (Void.class.equals(returnType)) {
+            return null;
+        }
+        
+        // Convert ParameterValue list back to the expected type
+        List<ParameterValue> values = response.getValuesList();
+        if (values.isEmpty()) {
+            return null;
+        }
+        
+        Object result = ProtoConverter.fromParameterValue(values.get(0));
+        return (T) result;
+    }
+
+    private CallResourceResponse callResource(CallType callType, String targetName, List<Object> params)
+            throws SQLException {
         CallResourceRequest.Builder reqBuilder = this.newCallBuilder();
         reqBuilder.setTarget(
                 TargetCall.newBuilder()
@@ -925,17 +996,6 @@ public class PreparedStatement extends Statement implements java.sql.PreparedSta
         if (this.getStatementUUID() == null && StringUtils.isNotBlank(response.getResourceUUID())) {
             this.setStatementUUID(response.getResourceUUID());
         }
-        if (Void.class.equals(returnType)) {
-            return null;
-        }
-        
-        // Convert ParameterValue list back to the expected type
-        List<ParameterValue> values = response.getValuesList();
-        if (values.isEmpty()) {
-            return null;
-        }
-        
-        Object result = ProtoConverter.fromParameterValue(values.get(0));
-        return (T) result;
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package org.openjproxy.jdbc;
 
+import com.openjproxy.grpc.CallResourceResponse;
 import com.openjproxy.grpc.LobReference;
 import com.openjproxy.grpc.LobType;
 import com.openjproxy.grpc.OpResult;
@@ -9,10 +10,13 @@ import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.DataBlock;
 import org.openjproxy.grpc.ProtoConverter;
 import org.openjproxy.grpc.client.StatementService;
+import org.openjproxy.grpc.dto.ColumnMetadata;
 import org.openjproxy.grpc.dto.OpQueryResult;
 import org.openjproxy.jdbc.sqlserver.HydratedBlob;
+import org.openjproxy.jdbc.sqlserver.HydratedClob;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
@@ -28,59 +32,117 @@ import java.sql.NClob;
 import java.sql.Ref;
 import java.sql.RowId;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLWarning;
 import java.sql.SQLXML;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import static org.openjproxy.grpc.client.GrpcExceptionHandler.handle;
 
 @Slf4j
-public class ResultSet extends RemoteProxyResultSet {
+public class ResultSet extends RemoteProxyResultSet implements OjpResultSet {
 
+    // Rows requested at once in row by row mode, blocks end earlier on rows holding a LOB read with separate calls.
+    private static final int ROW_BY_ROW_FETCH_ROWS = 100;
+
+    // Labels as received plus their upper and lower case forms, so most lookups by label do not convert case.
+    private final Map<String, Integer> labelIndex;
     @Getter
-    private final Map<String, Integer> labelsMap;
+    private final int columnCount;
 
     private Iterator<OpResult> itResults;//Iterator of blocks of data
-    private List<Object[]> currentDataBlock;//Current block of data being processed.
+    private ResultSetBlockPrefetcher prefetcher;//Reads and decodes blocks ahead of next(), null unless configured
+    private DataBlock currentDataBlock;//Current block of data being processed.
     private AtomicInteger blockIdx = new AtomicInteger(-1);//Current block index
     private AtomicInteger blockCount = new AtomicInteger(1);//Current block count
+    private int rowsInPreviousBlocks;//Rows of the blocks already consumed, blocks vary in size
     private java.sql.ResultSetMetaData resultSetMetadata;
+    private List<ColumnMetadata> columnMetadata;//Metadata received with the first block, answered locally.
     private boolean inProxyMode;
     private boolean closed;
     private AtomicInteger currentIdx = new AtomicInteger(0);
     private boolean inRowByRowMode;
 
     private Object lastValueRead;
+    // Marks that a non null value was read from a primitive column without boxing it, only looked at by wasNull.
+    private static final Object PRIMITIVE_VALUE_READ = new Object();
 
     public ResultSet(Iterator<OpResult> itOpResult, StatementService statementService, java.sql.Statement statement) throws SQLException {
+        this(itOpResult, statementService, (Connection) statement.getConnection(), statement, true);
+    }
+
+    /**
+     * @param connection connection of the result set, used when it has no statement as the results of
+     *                   DatabaseMetaData calls
+     * @param statement  statement of the result set, may be null
+     * @param prefetch   false for blocks already held in memory, e.g. the generated keys returned with an update
+     */
+    ResultSet(Iterator<OpResult> itOpResult, StatementService statementService, Connection connection,
+              java.sql.Statement statement, boolean prefetch) throws SQLException {
         this.itResults = itOpResult;
         this.inProxyMode = false;
         this.closed = false;
         try {
             this.statement = statement;
+            this.setConnection(connection);
             OpResult result = nextWithSessionUpdate(itOpResult.next());
-            OpQueryResult opQueryResult = ProtoConverter.fromProto(result.getQueryResult());
+            OpQueryResult opQueryResult = ProtoConverter.fromProtoWithoutRows(result.getQueryResult());
             this.inRowByRowMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE.equalsIgnoreCase(result.getFlag());
             this.setStatementService(statementService);
             this.setResultSetUUID(opQueryResult.getResultSetUUID());
-            this.currentDataBlock = opQueryResult.getRows();
-            this.labelsMap = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);//During tests CockroachDB returned column names capital, this is so that the search for a column to be case insensitive.
+            this.currentDataBlock = ProtoConverter.toDataBlock(result.getQueryResult());
+            this.columnMetadata = opQueryResult.getColumnMetadata();
             List<String> labels = opQueryResult.getLabels();
+            this.columnCount = labels.size();
+            //During tests CockroachDB returned column names capital, so the search for a column is case insensitive.
+            this.labelIndex = new HashMap<>(labels.size() * 4);
             for (int i = 0; i < labels.size(); i++) {
-                labelsMap.put(labels.get(i).toUpperCase(), i);
+                String label = labels.get(i);
+                this.labelIndex.put(label, i);
+                this.labelIndex.put(label.toUpperCase(), i);
+                this.labelIndex.put(label.toLowerCase(), i);
+            }
+            if (prefetch && !this.inRowByRowMode && connection.getResultSetPrefetchBlocks() > 0) {
+                this.prefetcher = new ResultSetBlockPrefetcher(itOpResult, connection.getResultSetPrefetchBlocks(),
+                        connection.getResultSetPrefetchBytes());
+                this.itResults = this.prefetcher;
             }
         } catch (StatusRuntimeException e) {
             throw handle(e);
         }
     }
 
+    /**
+     * Result set returned by a callResource call, e.g. by DatabaseMetaData.getTables. Read only results come with
+     * their first block and are read locally, updatable or scroll sensitive ones are proxied to the server.
+     *
+     * @param statement statement of the result set, null for DatabaseMetaData calls
+     * @return the result set or null if the call returned none
+     */
+    static RemoteProxyResultSet fromCallResponse(CallResourceResponse response, StatementService statementService,
+                                                 Connection connection, java.sql.Statement statement)
+            throws SQLException {
+        if (response.hasResultSetBlock()) {
+            Iterator<OpResult> blocks = new PipelinedBlockIterator(connection, statementService,
+                    response.getResultSetBlock(), response.getHasMoreBlocks(), 0);
+            return new ResultSet(blocks, statementService, connection, statement, true);
+        }
+        Object resultSetUUID = response.getValuesCount() > 0 ?
+                ProtoConverter.fromParameterValue(response.getValues(0)) : null;
+        if (resultSetUUID == null) {
+            return null;
+        }
+        return new RemoteProxyResultSet((String) resultSetUUID, statementService, connection, statement);
+    }
+
     @Override
     public boolean next() throws SQLException {
         log.debug("next called");
@@ -89,51 +151,141 @@ public class ResultSet extends RemoteProxyResultSet {
         }
         this.currentIdx.incrementAndGet();
         blockIdx.incrementAndGet();
-        if (this.inRowByRowMode && blockIdx.get() > 0) {
+        if (this.inRowByRowMode && blockIdx.get() >= currentDataBlock.getRowCount()) {
             try {
                 // Row by row mode is used in SQL Server and DB2 only when working with LOBs as per moving the cursor earlier
                 // would invalidate the LOB object(s) and therefore for SQL Server and DB2 the read is only done when asked
-                // by the client.
-                OpResult result = this.nextWithSessionUpdate(
-                        this.getStatementService().fetchNextRows(((Connection) this.statement.getConnection()).getSession(),
-                        this.getResultSetUUID(), 1));
-                this.setNextOpResult(result);
+                // by the client. It starts with the block ending on the first row holding a LOB not sent inline.
+                // Each request asks for a window of rows, the server still stops at the next row holding such a LOB.
+                OpResult result = this.nextRowByRowBlock();
+                if (result != null) {
+                    this.setNextBlock(ProtoConverter.toDataBlock(this.nextWithSessionUpdate(result).getQueryResult()));
+                }
             } catch (StatusRuntimeException e) {
                 throw handle(e);
             }
         }
-        if (!this.inRowByRowMode && blockIdx.get() >= currentDataBlock.size() && itResults.hasNext()) {
+        if (!this.inRowByRowMode && blockIdx.get() >= currentDataBlock.getRowCount()) {
             try {
-                this.setNextOpResult(this.nextWithSessionUpdate(itResults.next()));
+                // Blocks are streamed on demand, errors reading the server cursor surface here
+                if (itResults.hasNext()) {
+                    OpResult result = this.nextWithSessionUpdate(itResults.next());
+                    this.setNextBlock(this.prefetcher != null ? this.prefetcher.decodedBlock() :
+                            ProtoConverter.toDataBlock(result.getQueryResult()));
+                    this.inRowByRowMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE.equalsIgnoreCase(result.getFlag());
+                }
             } catch (StatusRuntimeException e) {
                 throw handle(e);
+            } catch (RuntimeException e) {
+                // Blocks of queries executed in a pipeline are fetched with fetchNextRows
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw e;
             }
         }
-        return blockIdx.get() < currentDataBlock.size();
+        return blockIdx.get() < currentDataBlock.getRowCount();
     }
 
-    private void setNextOpResult(OpResult result) {
-        OpQueryResult opQueryResult = ProtoConverter.fromProto(result.getQueryResult());
-        this.currentDataBlock = opQueryResult.getRows();
+    /**
+     * Next block of a result set read row by row, the one read ahead by fetchNextRowsAsync if any.
+     *
+     * @return the block or null if the server sent the last one already
+     */
+    private OpResult nextRowByRowBlock() throws SQLException {
+        if (this.itResults instanceof PipelinedBlockIterator) {
+            PipelinedBlockIterator blocks = (PipelinedBlockIterator) this.itResults;
+            if (blocks.fetchedRowCount() > 0) {
+                return blocks.next();
+            }
+            if (!blocks.hasMoreBlocks()) {
+                return null;
+            }
+        }
+        return this.getStatementService().fetchNextRows(this.getConnection().getSession(), this.getResultSetUUID(),
+                ROW_BY_ROW_FETCH_ROWS);
+    }
+
+    @Override
+    public int getFetchedRowCount() {
+        if (this.closed || this.inProxyMode) {
+            return 0;
+        }
+        int fetchedRows = Math.max(0, this.currentDataBlock.getRowCount() - this.blockIdx.get() - 1);
+        if (this.itResults instanceof PipelinedBlockIterator) {
+            fetchedRows += ((PipelinedBlockIterator) this.itResults).fetchedRowCount();
+        }
+        return fetchedRows;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> fetchNextRowsAsync() {
+        log.debug("fetchNextRowsAsync called");
+        if (this.closed) {
+            return CompletableFuture.failedFuture(new SQLException("Result set is closed."));
+        }
+        // Blocks streamed by executeQuery or read ahead by the prefetcher are already fetched in the background
+        if (this.inProxyMode || !(this.itResults instanceof PipelinedBlockIterator)) {
+            return CompletableFuture.failedFuture(new SQLFeatureNotSupportedException(
+                    "Rows are fetched asynchronously only by result sets of asynchronous queries and pipelines."));
+        }
+        if (this.getFetchedRowCount() > 0) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return ((PipelinedBlockIterator) this.itResults).fetchNextBlockAsync(
+                this.inRowByRowMode ? ROW_BY_ROW_FETCH_ROWS : 0);
+    }
+
+    private void setNextBlock(DataBlock block) {
+        this.rowsInPreviousBlocks += this.currentDataBlock.getRowCount();
+        this.currentDataBlock = block;
         this.blockCount.incrementAndGet();
         this.blockIdx.set(0);
     }
 
     private OpResult nextWithSessionUpdate(OpResult next) throws SQLException {
         log.debug("nextWithSessionUpdate called");
-        ((Connection) this.statement.getConnection()).setSession(next.getSession());
+        this.getConnection().setSession(next.getSession());
         return next;
     }
 
+    /**
+     * Switches to reading and moving the cursor directly on the server result set. The block stream is cancelled
+     * first so the server stops reading ahead on the same cursor.
+     */
+    private void enterProxyMode() throws SQLException {
+        if (StringUtils.isBlank(this.getResultSetUUID())) {
+            // Small autocommit query results are sent whole and closed by the server right away
+            throw new SQLException("Result set was fully read and closed by the server, it can only be read forward.");
+        }
+        if (!this.inProxyMode) {
+            this.closeBlockStream();
+            this.inProxyMode = true;
+        }
+    }
+
+    private void closeBlockStream() {
+        if (this.itResults instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) this.itResults).close();
+            } catch (Exception e) {
+                log.warn("Failure closing result set block stream: {}", e.getMessage());
+            }
+        }
+    }
+
     @Override
     public void close() throws SQLException {
         log.debug("close called");
         this.closed = true;
+        this.closeBlockStream();
         this.blockIdx = null;
         this.itResults = null;
+        this.prefetcher = null;
         this.currentDataBlock = null;
         //If the parent statement is closed the result set is closed already, attempting to close it again would produce an error.
-        if (this.statement == null || !this.statement.isClosed()) {
+        //Results held only in memory, e.g. generated keys, have no result set on the server.
+        if (StringUtils.isNotBlank(this.getResultSetUUID()) && (this.statement == null || !this.statement.isClosed())) {
             super.close();
         }
     }
@@ -147,13 +299,36 @@ public class ResultSet extends RemoteProxyResultSet {
         return lastValueRead == null;
     }
 
+    /**
+     * Zero based index of a column by its label, case insensitive.
+     */
+    private int labelIndex(String columnLabel) throws SQLException {
+        Integer idx = this.labelIndex.get(columnLabel);
+        if (idx == null) {
+            idx = this.labelIndex.get(columnLabel.toUpperCase());
+        }
+        if (idx == null) {
+            throw new SQLException("Column not found: " + columnLabel);
+        }
+        return idx;
+    }
+
+    /**
+     * Checks if a primitive column of the current row is null, recording it for wasNull.
+     */
+    private boolean primitiveIsNull(int row, int col) {
+        boolean isNull = this.currentDataBlock.isNull(row, col);
+        lastValueRead = isNull ? null : PRIMITIVE_VALUE_READ;
+        return isNull;
+    }
+
     @Override
     public String getString(int columnIndex) throws SQLException {
         log.debug("getString: {}", columnIndex);
         if (this.inProxyMode) {
             return super.getString(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -174,7 +349,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBoolean(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.getColumnType(col) == DataBlock.ColumnType.BOOLEAN) {
+            return this.primitiveIsNull(row, col) ? false : this.currentDataBlock.getBoolean(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return false;
         }
@@ -187,7 +367,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getByte(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.isNumeric(col)) {
+            return this.primitiveIsNull(row, col) ? 0 : (byte) this.currentDataBlock.getInt(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return 0;
         } else if (lastValueRead instanceof byte[]) {
@@ -206,7 +391,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getShort(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.isNumeric(col)) {
+            return this.primitiveIsNull(row, col) ? 0 : (short) this.currentDataBlock.getInt(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return 0;
         } else if (lastValueRead instanceof Integer) {
@@ -221,7 +411,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getInt(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.isNumeric(col)) {
+            return this.primitiveIsNull(row, col) ? 0 : this.currentDataBlock.getInt(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return 0;
         }
@@ -256,7 +451,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getLong(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.isNumeric(col)) {
+            return this.primitiveIsNull(row, col) ? 0 : this.currentDataBlock.getLong(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return 0;
         }
@@ -278,7 +478,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getFloat(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.isNumeric(col)) {
+            return this.primitiveIsNull(row, col) ? 0 : this.currentDataBlock.getFloat(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return 0;
         }
@@ -296,7 +501,12 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getDouble(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        int row = this.blockIdx.get();
+        int col = columnIndex - 1;
+        if (this.currentDataBlock.isNumeric(col)) {
+            return this.primitiveIsNull(row, col) ? 0d : this.currentDataBlock.getDouble(row, col);
+        }
+        lastValueRead = this.currentDataBlock.getObject(row, col);
         if (lastValueRead == null) {
             return 0d;
         }
@@ -314,7 +524,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBigDecimal(columnIndex, scale);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -328,7 +538,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBytes(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead instanceof String) {// Means the server is treating it as a binary stream
             InputStream is = this.getBinaryStream(columnIndex);
             return is.readAllBytes();
@@ -342,7 +552,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getDate(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -360,7 +570,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getTime(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -373,7 +583,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getTimestamp(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -406,7 +616,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBinaryStream(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         } else if (lastValueRead instanceof byte[]) {// Only used by SQL server
@@ -427,8 +637,8 @@ public class ResultSet extends RemoteProxyResultSet {
                 }
             }
         }
-        BinaryStream binaryStream = new BinaryStream((Connection) this.statement.getConnection(),
-                new LobServiceImpl((Connection) this.statement.getConnection(), this.getStatementService()),
+        BinaryStream binaryStream = new BinaryStream(this.getConnection(),
+                new LobServiceImpl(this.getConnection(), this.getStatementService()),
                 this.getStatementService(), lobRefBuilder.build());
         return binaryStream.getBinaryStream();
     }
@@ -439,7 +649,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getString(columnLabel);
         }
-        return this.getString(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getString(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -448,7 +658,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBoolean(columnLabel);
         }
-        return this.getBoolean(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getBoolean(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -457,7 +667,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getByte(columnLabel);
         }
-        return this.getByte(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getByte(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -466,7 +676,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getShort(columnLabel);
         }
-        return this.getShort(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getShort(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -475,7 +685,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getInt(columnLabel);
         }
-        return this.getInt(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getInt(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -484,7 +694,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getLong(columnLabel);
         }
-        return this.getLong(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getLong(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -493,7 +703,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getFloat(columnLabel);
         }
-        return this.getFloat(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getFloat(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -502,7 +712,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getDouble(columnLabel);
         }
-        return this.getDouble(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getDouble(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -511,7 +721,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBigDecimal(columnLabel);
         }
-        return this.getBigDecimal(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getBigDecimal(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -520,7 +730,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBytes(columnLabel);
         }
-        return this.getBytes(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getBytes(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -529,7 +739,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getDate(columnLabel);
         }
-        return this.getDate(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getDate(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -538,7 +748,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getTime(columnLabel);
         }
-        return this.getTime(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getTime(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -547,7 +757,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getTimestamp(columnLabel);
         }
-        return this.getTimestamp(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getTimestamp(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -556,7 +766,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getObject(columnLabel);
         }
-        return this.getObject(this.labelsMap.get(columnLabel.toUpperCase()) + 1);
+        return this.getObject(this.labelIndex(columnLabel) + 1);
     }
 
     @Override
@@ -565,7 +775,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBigDecimal(columnLabel, scale);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[this.labelsMap.get(columnLabel.toUpperCase())];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), this.labelIndex(columnLabel));
         if (lastValueRead == null) {
             return null;
         }
@@ -598,8 +808,8 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBinaryStream(columnLabel);
         }
-        int colIdx = this.labelsMap.get(columnLabel.toUpperCase()) + 1;
-        lastValueRead = currentDataBlock.get(blockIdx.get())[colIdx - 1];
+        int colIdx = this.labelIndex(columnLabel) + 1;
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), colIdx - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -632,14 +842,14 @@ public class ResultSet extends RemoteProxyResultSet {
     @Override
     public java.sql.ResultSetMetaData getMetaData() throws SQLException {
         log.debug("getMetaData called");
-        if (this.inProxyMode) {
+        if (this.inProxyMode && this.columnMetadata == null) {
             return super.getMetaData();
         }
         if (this.getResultSetUUID() == null) {
             throw new SQLException("No result set reference found.");
         }
         if (this.resultSetMetadata == null) {
-            this.resultSetMetadata = new ResultSetMetaData(this, this.getStatementService());
+            this.resultSetMetadata = new ResultSetMetaData(this, this.getStatementService(), this.columnMetadata);
         }
         return this.resultSetMetadata;
     }
@@ -650,7 +860,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getObject(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         return lastValueRead;
     }
 
@@ -660,7 +870,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.findColumn(columnLabel);
         }
-        return this.labelsMap.get(columnLabel) + 1;
+        return this.labelIndex(columnLabel) + 1;
     }
 
     @Override
@@ -689,7 +899,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBigDecimal(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -708,7 +918,7 @@ public class ResultSet extends RemoteProxyResultSet {
     @Override
     public boolean first() throws SQLException {
         log.debug("first called");
-        this.inProxyMode = true;
+        this.enterProxyMode();
         return super.first();
     }
 
@@ -718,7 +928,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.isAfterLast();
         }
-        return !itResults.hasNext() && blockIdx.get() >= currentDataBlock.size();
+        return !itResults.hasNext() && blockIdx.get() >= currentDataBlock.getRowCount();
     }
 
     @Override
@@ -736,27 +946,27 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.isLast();
         }
-        return !itResults.hasNext() && blockIdx.get() == (currentDataBlock.size() - 1);
+        return !itResults.hasNext() && blockIdx.get() == (currentDataBlock.getRowCount() - 1);
     }
 
     @Override
     public void beforeFirst() throws SQLException {
         log.debug("beforeFirst called");
-        this.inProxyMode = true;
+        this.enterProxyMode();
         super.beforeFirst();
     }
 
     @Override
     public void afterLast() throws SQLException {
         log.debug("afterLast called");
-        this.inProxyMode = true;
+        this.enterProxyMode();
         super.afterLast();
     }
 
     @Override
     public boolean last() throws SQLException {
         log.debug("last called");
-        this.inProxyMode = true;
+        this.enterProxyMode();
         return super.last();
     }
 
@@ -766,20 +976,20 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getRow();
         }
-        return ((this.blockCount.get() - 1) * CommonConstants.ROWS_PER_RESULT_SET_DATA_BLOCK) + this.blockIdx.get() + 1;
+        return this.rowsInPreviousBlocks + this.blockIdx.get() + 1;
     }
 
     @Override
     public boolean absolute(int row) throws SQLException {
         log.debug("absolute: {}", row);
-        this.inProxyMode = true;
+        this.enterProxyMode();
         return super.absolute(row);
     }
 
     @Override
     public boolean relative(int rows) throws SQLException {
         log.debug("relative: {}", rows);
-        this.inProxyMode = true;
+        this.enterProxyMode();
         return super.relative(rows);
     }
 
@@ -789,7 +999,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.previous();
         }
-        this.inProxyMode = true;
+        this.enterProxyMode();
         return super.absolute(this.currentIdx.get() - 1);// Will reposition the cursor in the current row being processed.
     }
 
@@ -797,7 +1007,7 @@ public class ResultSet extends RemoteProxyResultSet {
     public void setFetchDirection(int direction) throws SQLException {
         log.debug("setFetchDirection: {}", direction);
         super.setFetchDirection(direction);
-        this.inProxyMode = true;
+        this.enterProxyMode();
     }
 
     @Override
@@ -872,7 +1082,7 @@ public class ResultSet extends RemoteProxyResultSet {
     @Override
     public void updateNull(int columnIndex) throws SQLException {
         log.debug("updateNull: {}", columnIndex);
-        this.inProxyMode = true;
+        this.enterProxyMode();
         super.absolute(this.currentIdx.get());
         super.updateNull(columnIndex);
     }
@@ -880,7 +1090,7 @@ public class ResultSet extends RemoteProxyResultSet {
     @Override
     public void updateBoolean(int columnIndex, boolean x) throws SQLException {
         log.debug("updateBoolean: {}, {}", columnIndex, x);
-        this.inProxyMode = true;
+        this.enterProxyMode();
         super.absolute(this.currentIdx.get());
         super.updateBoolean(columnIndex, x);
     }
@@ -1299,14 +1509,14 @@ public class ResultSet extends RemoteProxyResultSet {
     public void moveToInsertRow() throws SQLException {
         log.debug("moveToInsertRow called");
         super.moveToInsertRow();
-        this.inProxyMode = true;
+        this.enterProxyMode();
     }
 
     @Override
     public void moveToCurrentRow() throws SQLException {
         log.debug("moveToCurrentRow called");
         super.moveToCurrentRow();
-        this.inProxyMode = true;
+        this.enterProxyMode();
     }
 
     @Override
@@ -1344,7 +1554,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBlob(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         } else if (lastValueRead instanceof byte[]) { //Only for SQL server
@@ -1353,7 +1563,7 @@ public class ResultSet extends RemoteProxyResultSet {
         Object objUUID = lastValueRead;
         String blobRefUUID = String.valueOf(objUUID);
         LobReference.Builder lobRefBuilder = LobReference.newBuilder()
-                .setSession(((Connection) this.statement.getConnection()).getSession())
+                .setSession(this.getConnection().getSession())
                 .setUuid(blobRefUUID);
         if (this.statement != null) {
             if (this.statement instanceof Statement) {
@@ -1363,8 +1573,8 @@ public class ResultSet extends RemoteProxyResultSet {
                 }
             }
         }
-        return new org.openjproxy.jdbc.Blob((Connection) this.statement.getConnection(),
-                new LobServiceImpl((Connection) this.statement.getConnection(), this.getStatementService()),
+        return new org.openjproxy.jdbc.Blob(this.getConnection(),
+                new LobServiceImpl(this.getConnection(), this.getStatementService()),
                 this.getStatementService(), lobRefBuilder.build());
     }
 
@@ -1374,19 +1584,21 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getClob(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
         String clobRefUUID = (String) lastValueRead;
-        if (clobRefUUID != null && clobRefUUID.startsWith(CommonConstants.OJP_CLOB_PREFIX)) {
-            clobRefUUID = clobRefUUID.replaceAll(CommonConstants.OJP_CLOB_PREFIX, "");
+        if (!clobRefUUID.startsWith(CommonConstants.OJP_CLOB_PREFIX)) {
+            // Small CLOBs are sent inside the row
+            return new HydratedClob(clobRefUUID);
         }
-        return new org.openjproxy.jdbc.Clob((Connection) this.statement.getConnection(),
-                new LobServiceImpl((Connection) this.statement.getConnection(), this.getStatementService()),
+        clobRefUUID = clobRefUUID.replaceAll(CommonConstants.OJP_CLOB_PREFIX, "");
+        return new org.openjproxy.jdbc.Clob(this.getConnection(),
+                new LobServiceImpl(this.getConnection(), this.getStatementService()),
                 this.getStatementService(),
                 LobReference.newBuilder()
-                        .setSession(((Connection) this.statement.getConnection()).getSession())
+                        .setSession(this.getConnection().getSession())
                         .setUuid(clobRefUUID)
                         .setLobType(LobType.LT_CLOB)
                         .build()
@@ -1429,17 +1641,17 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getBlob(columnLabel);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[this.labelsMap.get(columnLabel.toUpperCase())];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), this.labelIndex(columnLabel));
         //For databases where LOBs get invalidated once cursor moves (SQL Server and DB2) must eagerly hydrate LOBs.
         if (lastValueRead instanceof byte[]){
             return new HydratedBlob((byte[]) lastValueRead);
         }
         String blobRefUUID = (String) lastValueRead;
-        return new org.openjproxy.jdbc.Blob((Connection) this.statement.getConnection(),
-                new LobServiceImpl((Connection) this.statement.getConnection(), this.getStatementService()),
+        return new org.openjproxy.jdbc.Blob(this.getConnection(),
+                new LobServiceImpl(this.getConnection(), this.getStatementService()),
                 this.getStatementService(),
                 LobReference.newBuilder()
-                        .setSession(((Connection) this.statement.getConnection()).getSession())
+                        .setSession(this.getConnection().getSession())
                         .setUuid(blobRefUUID)
                         .build()
         );
@@ -1531,7 +1743,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getURL(columnIndex);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -1544,7 +1756,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getURL(columnLabel);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[this.labelsMap.get(columnLabel.toUpperCase())];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), this.labelIndex(columnLabel));
         if (lastValueRead == null) {
             return null;
         }
@@ -2116,7 +2328,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getObject(columnIndex, type);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[columnIndex - 1];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), columnIndex - 1);
         if (lastValueRead == null) {
             return null;
         }
@@ -2129,7 +2341,7 @@ public class ResultSet extends RemoteProxyResultSet {
         if (this.inProxyMode) {
             return super.getObject(columnLabel, type);
         }
-        lastValueRead = currentDataBlock.get(blockIdx.get())[this.labelsMap.get(columnLabel.toUpperCase())];
+        lastValueRead = this.currentDataBlock.getObject(this.blockIdx.get(), this.labelIndex(columnLabel));
         if (lastValueRead == null) {
             return null;
         }
@@ -2139,15 +2351,16 @@ public class ResultSet extends RemoteProxyResultSet {
     @Override
     public <T> T unwrap(Class<T> iface) throws SQLException {
         log.debug("unwrap: {}", iface);
-        throw new RuntimeException("Not implemented");
+        // Only the OJP specific features of this result set can be unwrapped, the remote result set can not
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLFeatureNotSupportedException("Cannot unwrap remote proxy object.");
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         log.debug("isWrapperFor: {}", iface);
-        if (this.inProxyMode) {
-            return super.isWrapperFor(iface);
-        }
-        throw new RuntimeException("Not implemented");
+        return iface.isInstance(this);
     }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.OpResult;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.grpc.DataBlock;
+import org.openjproxy.grpc.ProtoConverter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reads the blocks of a result set ahead of the application on a background thread and decodes them, so
+ * ResultSet.next() does not wait for the network and the decoding at every block boundary. At most maxBlocks blocks
+ * or maxBytes bytes of blocks are kept ready, one block is always read ahead. Closing the prefetcher discards the
+ * blocks read ahead and closes the source, cancelling the stream if it was not fully consumed.
+ */
+@Slf4j
+class ResultSetBlockPrefetcher implements Iterator<OpResult>, AutoCloseable {
+
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ojp-resultset-prefetch");
+        t.setDaemon(true); // Don't prevent JVM shutdown
+        return t;
+    });
+    private static final Object END_OF_STREAM = new Object();
+
+    private final Iterator<OpResult> source;
+    private final int maxBlocks;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readyChanged = this.lock.newCondition();
+    // PrefetchedBlock, RuntimeException raised by the source or END_OF_STREAM
+    private final Deque<Object> ready = new ArrayDeque<>();
+    private long readyBytes;
+    private boolean closed;
+    private Object nextElement;
+    private DataBlock decodedBlock;
+
+    ResultSetBlockPrefetcher(Iterator<OpResult> source, int maxBlocks, long maxBytes) {
+        this.source = source;
+        this.maxBlocks = maxBlocks;
+        this.maxBytes = maxBytes;
+        PREFETCH_EXECUTOR.execute(this::readAhead);
+    }
+
+    private void readAhead() {
+        try {
+            while (this.awaitCapacity()) {
+                if (!this.source.hasNext()) {
+                    this.offer(END_OF_STREAM, 0);
+                    return;
+                }
+                OpResult result = this.source.next();
+                long bytes = result.getSerializedSize();
+                this.offer(new PrefetchedBlock(result, ProtoConverter.toDataBlock(result.getQueryResult()), bytes),
+                        bytes);
+            }
+        } catch (RuntimeException e) {
+            this.offer(e, 0);
+        }
+    }
+
+    private boolean awaitCapacity() {
+        this.lock.lock();
+        try {
+            while (!this.closed && !this.ready.isEmpty()
+                    && (this.ready.size() >= this.maxBlocks || this.readyBytes >= this.maxBytes)) {
+                this.readyChanged.await();
+            }
+            return !this.closed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void offer(Object element, long bytes) {
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.ready.add(element);
+            this.readyBytes += bytes;
+            this.readyChanged.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextElement == null) {
+            this.nextElement = this.take();
+        }
+        if (this.nextElement instanceof RuntimeException) {
+            throw (RuntimeException) this.nextElement;
+        }
+        return this.nextElement != END_OF_STREAM;
+    }
+
+    private Object take() {
+        this.lock.lock();
+        try {
+            while (this.ready.isEmpty() && !this.closed) {
+                this.readyChanged.await();
+            }
+            if (this.ready.isEmpty()) {
+                return END_OF_STREAM;
+            }
+            Object element = this.ready.poll();
+            if (element instanceof PrefetchedBlock) {
+                this.readyBytes -= ((PrefetchedBlock) element).bytes;
+            }
+            this.readyChanged.signalAll();
+            return element;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Status.CANCELLED.withDescription("Interrupted while waiting for result set data")
+                    .withCause(e).asRuntimeException();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public OpResult next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        PrefetchedBlock block = (PrefetchedBlock) this.nextElement;
+        this.nextElement = null;
+        this.decodedBlock = block.dataBlock;
+        return block.result;
+    }
+
+    /**
+     * Rows of the block last returned by next(), decoded in the background.
+     */
+    DataBlock decodedBlock() {
+        return this.decodedBlock;
+    }
+
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+            this.ready.clear();
+            this.readyBytes = 0;
+            this.readyChanged.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+        if (this.source instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) this.source).close();
+            } catch (Exception e) {
+                log.warn("Failure closing result set block stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static final class PrefetchedBlock {
+        private final OpResult result;
+        private final DataBlock dataBlock;
+        private final long bytes;
+
+        private PrefetchedBlock(OpResult result, DataBlock dataBlock, long bytes) {
+            this.result = result;
+            this.dataBlock = dataBlock;
+            this.bytes = bytes;
+        }
+    }
+}
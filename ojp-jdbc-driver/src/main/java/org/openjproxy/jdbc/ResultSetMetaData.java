@@ -11,6 +11,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.grpc.ProtoConverter;
 import org.openjproxy.grpc.client.StatementService;
+import org.openjproxy.grpc.dto.ColumnMetadata;
 
 import java.sql.SQLException;
 import java.util.Arrays;
@@ -22,25 +23,39 @@ public class ResultSetMetaData implements java.sql.ResultSetMetaData {
     private final StatementService statementService;
     private final RemoteProxyResultSet resultSet;
     private final PreparedStatement ps;
+    private final List<ColumnMetadata> columnMetadata;//Sent with the first block, null if the server could not read it.
 
     public ResultSetMetaData(RemoteProxyResultSet resultSet, StatementService statementService) {
+        this(resultSet, statementService, null);
+    }
+
+    /**
+     * Creates a result set metadata that answers locally from the column metadata received with the first block of
+     * the result set, falling back to remote calls if no column metadata was received.
+     */
+    public ResultSetMetaData(RemoteProxyResultSet resultSet, StatementService statementService,
+                             List<ColumnMetadata> columnMetadata) {
         this.resultSet = resultSet;
         this.statementService = statementService;
         this.ps = null;
+        this.columnMetadata = columnMetadata;
     }
 
     public ResultSetMetaData(PreparedStatement ps, StatementService statementService) {
         this.ps = ps;
         this.statementService = statementService;
         this.resultSet = null;
+        this.columnMetadata = null;
     }
 
     @Override
     public int getColumnCount() throws SQLException {
         log.debug("getColumnCount called");
-        if (resultSet instanceof org.openjproxy.jdbc.ResultSet) {
+        if (this.columnMetadata != null) {
+            return this.columnMetadata.size();
+        } else if (resultSet instanceof org.openjproxy.jdbc.ResultSet) {
             org.openjproxy.jdbc.ResultSet rs = (org.openjproxy.jdbc.ResultSet) resultSet;
-            return rs.getLabelsMap().size();
+            return rs.getColumnCount();
         } else {
             return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnCount",-1, Integer.class);
         }
@@ -55,7 +70,7 @@ public class ResultSetMetaData implements java.sql.ResultSetMetaData {
                     .setResourceUUID(this.resultSet.getResultSetUUID());
         } else if (this.ps != null) {
             CallResourceRequest.Builder builder = CallResourceRequest.newBuilder()
-                    .setSession(this.ps.getConnection().getSession())
+                    .setSession(this.ps.getConnection().sessionWithConnectionState())
                     .setResourceType(ResourceType.RES_PREPARED_STATEMENT);
             
             if (this.ps.getProperties() != null) {
@@ -73,120 +88,180 @@ public class ResultSetMetaData implements java.sql.ResultSetMetaData {
     @Override
     public boolean isAutoIncrement(int column) throws SQLException {
         log.debug("isAutoIncrement: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isAutoIncrement();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "AutoIncrement", column, Boolean.class);
     }
 
     @Override
     public boolean isCaseSensitive(int column) throws SQLException {
         log.debug("isCaseSensitive: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isCaseSensitive();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "CaseSensitive", column, Boolean.class);
     }
 
     @Override
     public boolean isSearchable(int column) throws SQLException {
         log.debug("isSearchable: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isSearchable();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "Searchable", column, Boolean.class);
     }
 
     @Override
     public boolean isCurrency(int column) throws SQLException {
         log.debug("isCurrency: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isCurrency();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "Currency", column, Boolean.class);
     }
 
     @Override
     public int isNullable(int column) throws SQLException {
         log.debug("isNullable: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getNullable();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "Nullable", column, Integer.class);
     }
 
     @Override
     public boolean isSigned(int column) throws SQLException {
         log.debug("isSigned: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isSigned();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "Signed", column, Boolean.class);
     }
 
     @Override
     public int getColumnDisplaySize(int column) throws SQLException {
         log.debug("getColumnDisplaySize: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getColumnDisplaySize();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnDisplaySize", column, Integer.class);
     }
 
     @Override
     public String getColumnLabel(int column) throws SQLException {
         log.debug("getColumnLabel: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getColumnLabel();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnLabel", column, String.class);
     }
 
     @Override
     public String getColumnName(int column) throws SQLException {
         log.debug("getColumnName: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getColumnName();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnName", column, String.class);
     }
 
     @Override
     public String getSchemaName(int column) throws SQLException {
         log.debug("getSchemaName: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getSchemaName();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "SchemaName", column, String.class);
     }
 
     @Override
     public int getPrecision(int column) throws SQLException {
         log.debug("getPrecision: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getPrecision();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "Precision", column, Integer.class);
     }
 
     @Override
     public int getScale(int column) throws SQLException {
         log.debug("getScale: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getScale();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "Scale", column, Integer.class);
     }
 
     @Override
     public String getTableName(int column) throws SQLException {
         log.debug("getTableName: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getTableName();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "TableName", column, String.class);
     }
 
     @Override
     public String getCatalogName(int column) throws SQLException {
         log.debug("getCatalogName: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getCatalogName();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "CatalogName", column, String.class);
     }
 
     @Override
     public int getColumnType(int column) throws SQLException {
         log.debug("getColumnType: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getColumnType();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnType", column, Integer.class);
     }
 
     @Override
     public String getColumnTypeName(int column) throws SQLException {
         log.debug("getColumnTypeName: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getColumnTypeName();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnTypeName", column, String.class);
     }
 
     @Override
     public boolean isReadOnly(int column) throws SQLException {
         log.debug("isReadOnly: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isReadOnly();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "ReadOnly", column, Boolean.class);
     }
 
     @Override
     public boolean isWritable(int column) throws SQLException {
         log.debug("isWritable: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isWritable();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "Writable", column, Boolean.class);
     }
 
     @Override
     public boolean isDefinitelyWritable(int column) throws SQLException {
         log.debug("isDefinitelyWritable: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).isDefinitelyWritable();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_IS, "DefinitelyWritable", column, Boolean.class);
     }
 
     @Override
     public String getColumnClassName(int column) throws SQLException {
         log.debug("getColumnClassName: {}", column);
+        if (this.columnMetadata != null) {
+            return this.column(column).getColumnClassName();
+        }
         return this.retrieveMetadataAttribute(CallType.CALL_GET, "ColumnClassName", column, String.class);
     }
 
@@ -202,6 +277,13 @@ public class ResultSetMetaData implements java.sql.ResultSetMetaData {
         throw new SQLException("isWrappedFor not supported.");
     }
 
+    private ColumnMetadata column(int column) throws SQLException {
+        if (column < 1 || column > this.columnMetadata.size()) {
+            throw new SQLException("Invalid column index: " + column);
+        }
+        return this.columnMetadata.get(column - 1);
+    }
+
     private <T> T retrieveMetadataAttribute(CallType callType, String attrName, Integer column,  Class returnType) throws SQLException {
         log.debug("retrieveMetadataAttribute: {}, {}, {}, {}", callType, attrName, column, returnType);
         CallResourceRequest.Builder reqBuilder = this.newCallBuilder();
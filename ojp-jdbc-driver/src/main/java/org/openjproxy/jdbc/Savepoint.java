@@ -44,7 +44,7 @@ public class Savepoint implements java.sql.Savepoint {
     private <T> T retrieveAttribute(CallType callType, String attrName, Class returnType) throws SQLException {
         log.debug("retrieveAttribute: {}, {}", callType, attrName);
         CallResourceRequest.Builder reqBuilder = CallResourceRequest.newBuilder()
-                .setSession(this.connection.getSession())
+                .setSession(this.connection.sessionWithConnectionState())
                 .setResourceType(ResourceType.RES_SAVEPOINT)
                 .setResourceUUID(this.savepointUUID)
                 .setTarget(
@@ -4,20 +4,29 @@ import com.google.protobuf.ByteString;
 import com.openjproxy.grpc.CallResourceRequest;
 import com.openjproxy.grpc.CallResourceResponse;
 import com.openjproxy.grpc.CallType;
+import com.openjproxy.grpc.OpQueryResultProto;
 import com.openjproxy.grpc.OpResult;
 import com.openjproxy.grpc.ParameterValue;
 import com.openjproxy.grpc.ResourceType;
+import com.openjproxy.grpc.ResultSetOptions;
+import com.openjproxy.grpc.StatementRequest;
 import com.openjproxy.grpc.TargetCall;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.openjproxy.constants.CommonConstants;
 import org.openjproxy.grpc.ProtoConverter;
 import org.openjproxy.grpc.client.StatementService;
+import org.openjproxy.grpc.dto.Parameter;
 
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLWarning;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -35,10 +44,15 @@ public class Statement implements java.sql.Statement {
     private String statementUUID;
     private int maxRows;
     private ResourceType resourceType;
+    private int fetchSize;
 
     protected boolean closed;
     protected ResultSet lastResultSet;
     protected int lastUpdateCount;
+    // Keys generated by the last update, returned along with its update count
+    private OpQueryResultProto generatedKeys;
+    // SQL added with addBatch, only sent to the server when executeBatch is called
+    private List<String> batchStatements = new ArrayList<>();
 
     public Statement(Connection connection, StatementService statementService) {
         this(connection, statementService, null);
@@ -58,6 +72,37 @@ public class Statement implements java.sql.Statement {
         this.closed = false;
     }
 
+    /**
+     * Result set options of the connection, with the fetch size of this statement if one was set, so the server
+     * sends result blocks of fetch size rows.
+     */
+    protected ResultSetOptions resultSetOptions() {
+        if (this.fetchSize <= 0) {
+            return this.connection.getResultSetOptions();
+        }
+        return this.connection.getResultSetOptions().toBuilder().setFetchSize(this.fetchSize).build();
+    }
+
+    /**
+     * Builds the request of an operation of a pipeline executing the sql with this statement, the session is set by
+     * the pipeline.
+     */
+    StatementRequest.Builder pipelineRequest(String sql, List<Parameter> params) {
+        StatementRequest.Builder builder = StatementRequest.newBuilder()
+                .setStatementUUID(this.statementUUID != null ? this.statementUUID : "")
+                .setSql(sql)
+                .setResultSetOptions(this.resultSetOptions())
+                .addAllParameters(ProtoConverter.toProtoList(params));
+        if (this.properties != null) {
+            builder.addAllProperties(ProtoConverter.propertiesToProto(this.properties));
+        }
+        return builder;
+    }
+
+    protected void setLocalFetchSize(int rows) {
+        this.fetchSize = rows;
+    }
+
     protected void checkClosed() throws SQLException {
         if (this.closed) {
             throw new SQLException("Statement is closed.");
@@ -68,8 +113,8 @@ public class Statement implements java.sql.Statement {
     public ResultSet executeQuery(String sql) throws SQLException {
         log.debug("executeQuery: {}", sql);
         checkClosed();
-        Iterator<OpResult> itResults = this.statementService.executeQuery(this.connection.getSession(), sql,
-                EMPTY_PARAMETERS_LIST, this.statementUUID, this.properties);
+        Iterator<OpResult> itResults = this.statementService.executeQuery(this.connection.sessionWithConnectionState(), sql,
+                EMPTY_PARAMETERS_LIST, this.statementUUID, this.properties, this.resultSetOptions());
         return new ResultSet(itResults, this.statementService, this);
     }
 
@@ -77,12 +122,48 @@ public class Statement implements java.sql.Statement {
     public int executeUpdate(String sql) throws SQLException {
         log.debug("executeUpdate: {}", sql);
         checkClosed();
-        OpResult result = this.statementService.executeUpdate(this.connection.getSession(), sql, EMPTY_PARAMETERS_LIST,
-                this.statementUUID, this.properties);
+        return this.executeUpdate(sql, this.properties);
+    }
+
+    private int executeUpdate(String sql, Map<String, Object> properties) throws SQLException {
+        OpResult result = this.statementService.executeUpdate(this.connection.sessionWithConnectionState(), sql,
+                EMPTY_PARAMETERS_LIST, this.statementUUID, properties);
         this.connection.setSession(result.getSession());//TODO see if can do this in one place instead of updating session everywhere
+        this.setGeneratedKeys(result);
         return result.getIntValue();
     }
 
+    /**
+     * Properties of this statement plus the one asking for the generated keys of an update.
+     */
+    private Map<String, Object> propertiesWith(String key, Object value) {
+        Map<String, Object> properties = this.properties != null ? new HashMap<>(this.properties) : new HashMap<>();
+        properties.put(key, value);
+        return properties;
+    }
+
+    /**
+     * Keeps the generated keys returned with an update, so getGeneratedKeys reads them without a round trip.
+     */
+    void setGeneratedKeys(OpResult result) {
+        this.generatedKeys = result.hasGeneratedKeys() ? result.getGeneratedKeys() : null;
+    }
+
+    /**
+     * Result set over the generated keys returned with the last update, null if none were returned.
+     */
+    protected ResultSet localGeneratedKeys() throws SQLException {
+        if (this.generatedKeys == null) {
+            return null;
+        }
+        OpResult block = OpResult.newBuilder()
+                .setSession(this.connection.getSession())
+                .setQueryResult(this.generatedKeys)
+                .build();
+        return new ResultSet(Collections.singletonList(block).iterator(), this.statementService, this.connection, this,
+                false);
+    }
+
     @Override
     public void close() throws SQLException {
         log.debug("close called");
@@ -229,6 +310,7 @@ public class Statement implements java.sql.Statement {
         log.debug("setFetchSize: {}", rows);
         checkClosed();
         this.callProxy(CallType.CALL_SET, "FetchSize", Void.class, Arrays.asList(rows));
+        this.fetchSize = rows;
     }
 
     @Override
@@ -256,21 +338,55 @@ public class Statement implements java.sql.Statement {
     public void addBatch(String sql) throws SQLException {
         log.debug("addBatch: {}", sql);
         checkClosed();
-        this.callProxy(CallType.CALL_ADD, "Batch", Void.class, Arrays.asList(sql));
+        this.batchStatements.add(sql);
     }
 
+    /**
+     * Discards the SQL accumulated locally by addBatch.
+     */
     @Override
     public void clearBatch() throws SQLException {
         log.debug("clearBatch called");
         checkClosed();
-        this.callProxy(CallType.CALL_CLEAR, "Batch", Void.class);
+        this.batchStatements = new ArrayList<>();
     }
 
+    /**
+     * Sends all the SQL accumulated by addBatch to the server to be executed as a single JDBC batch.
+     *
+     * @return int[] update counts, one per SQL added to the batch.
+     * @throws SQLException
+     */
     @Override
     public int[] executeBatch() throws SQLException {
         log.debug("executeBatch called");
         checkClosed();
-        return this.callProxy(CallType.CALL_EXECUTE, "Batch", int[].class);
+        if (this.batchStatements.isEmpty()) {
+            return new int[0];
+        }
+        try {
+            OpResult result = this.statementService.executeStatementBatch(this.connection.sessionWithConnectionState(),
+                    this.batchStatements, this.statementUUID, this.properties);
+            this.connection.setSession(result.getSession());
+            if (StringUtils.isNotBlank(result.getUuid())) {
+                this.statementUUID = result.getUuid();
+            }
+            return updateCounts(result);
+        } finally {
+            this.batchStatements = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Update counts of a batch, one per SQL or parameter row added to it.
+     */
+    protected static int[] updateCounts(OpResult result) {
+        List<Integer> updateCounts = result.getUpdateCounts().getValuesList();
+        int[] counts = new int[updateCounts.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = updateCounts.get(i);
+        }
+        return counts;
     }
 
     @Override
@@ -291,29 +407,39 @@ public class Statement implements java.sql.Statement {
     public RemoteProxyResultSet getGeneratedKeys() throws SQLException {
         log.debug("getGeneratedKeys called");
         checkClosed();
-        String resultSetUUID = this.callProxy(CallType.CALL_GET, "GeneratedKeys", String.class);
-        return new RemoteProxyResultSet(resultSetUUID, this.statementService, this.connection, this);
+        ResultSet generatedKeys = this.localGeneratedKeys();
+        if (generatedKeys != null) {
+            return generatedKeys;
+        }
+        return ResultSet.fromCallResponse(this.callResource(CallType.CALL_GET, "GeneratedKeys",
+                Constants.EMPTY_OBJECT_LIST), this.statementService, this.connection, this);
     }
 
     @Override
     public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
         log.debug("executeUpdate: {}, autoGeneratedKeys={}", sql, autoGeneratedKeys);
         checkClosed();
-        return this.callProxy(CallType.CALL_EXECUTE, "Update", Integer.class, Arrays.asList(sql, autoGeneratedKeys));
+        if (autoGeneratedKeys != java.sql.Statement.RETURN_GENERATED_KEYS) {
+            return this.executeUpdate(sql);
+        }
+        return this.executeUpdate(sql, this.propertiesWith(CommonConstants.STATEMENT_AUTO_GENERATED_KEYS_KEY,
+                autoGeneratedKeys));
     }
 
     @Override
     public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
         log.debug("executeUpdate: {}, columnIndexes.length={}", sql, columnIndexes != null ? columnIndexes.length : 0);
         checkClosed();
-        return this.callProxy(CallType.CALL_EXECUTE, "Update", Integer.class, Arrays.asList(sql, columnIndexes));
+        return this.executeUpdate(sql, this.propertiesWith(CommonConstants.STATEMENT_COLUMN_INDEXES_KEY,
+                columnIndexes));
     }
 
     @Override
     public int executeUpdate(String sql, String[] columnNames) throws SQLException {
         log.debug("executeUpdate: {}, columnNames.length={}", sql, columnNames != null ? columnNames.length : 0);
         checkClosed();
-        return this.callProxy(CallType.CALL_EXECUTE, "Update", Integer.class, Arrays.asList(sql, columnNames));
+        return this.executeUpdate(sql, this.propertiesWith(CommonConstants.STATEMENT_COLUMN_NAMES_KEY,
+                columnNames));
     }
 
     @Override
@@ -431,8 +557,7 @@ public class Statement implements java.sql.Statement {
     @Override
     public long[] executeLargeBatch() throws SQLException {
         log.debug("executeLargeBatch called");
-        checkClosed();
-        return this.callProxy(CallType.CALL_EXECUTE, "LargeBatch", long[].class);
+        return Arrays.stream(this.executeBatch()).asLongStream().toArray();
     }
 
     @Override
@@ -469,7 +594,7 @@ public class Statement implements java.sql.Statement {
     private CallResourceRequest.Builder newCallBuilder() {
         log.debug("newCallBuilder called");
         CallResourceRequest.Builder builder = CallResourceRequest.newBuilder()
-                .setSession(this.connection.getSession())
+                .setSession(this.connection.sessionWithConnectionState())
                 .setResourceType(this.resourceType);
         if (this.statementUUID != null) {
             builder.setResourceUUID(this.statementUUID);
@@ -487,6 +612,23 @@ public class Statement implements java.sql.Statement {
 
     private <T> T callProxy(CallType callType, String targetName, Class<?> returnType, List<Object> params) throws SQLException {
         log.debug("callProxy: {}, {}, {}, params.size={}", callType, targetName, returnType, params != null ? params.size() : 0);
+        CallResourceResponse response = this.callResource(callType, targetName, params);
+        if (Void.class.equals(returnType)) {
+            return null;
+        }
+        
+        // Convert ParameterValue list back to the expected type
+        List<ParameterValue> values = response.getValuesList();
+        if (values.isEmpty()) {
+            return null;
+        }
+        
+        Object result = ProtoConverter.fromParameterValue(values.get(0));
+        return (T) result;
+    }
+
+    private CallResourceResponse callResource(CallType callType, String targetName, List<Object> params)
+            throws SQLException {
         CallResourceRequest.Builder reqBuilder = this.newCallBuilder();
         reqBuilder.setTarget(
                 TargetCall.newBuilder()
@@ -500,17 +642,6 @@ public class Statement implements java.sql.Statement {
         if (this.statementUUID == null && !response.getResourceUUID().isBlank()) {
             this.statementUUID = response.getResourceUUID();
         }
-        if (Void.class.equals(returnType)) {
-            return null;
-        }
-        
-        // Convert ParameterValue list back to the expected type
-        List<ParameterValue> values = response.getValuesList();
-        if (values.isEmpty()) {
-            return null;
-        }
-        
-        Object result = ProtoConverter.fromParameterValue(values.get(0));
-        return (T) result;
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,291 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.PipelineOperation;
+import com.openjproxy.grpc.PipelineOperationResult;
+import com.openjproxy.grpc.PipelineOperationType;
+import com.openjproxy.grpc.PipelineRequest;
+import com.openjproxy.grpc.PipelineResponse;
+import com.openjproxy.grpc.SqlErrorResponse;
+import com.openjproxy.grpc.StatementRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.openjproxy.grpc.client.GrpcExceptionHandler;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Ordered list of updates, queries, commits and rollbacks executed by the server in the session of a connection in a
+ * single round trip. The server stops at the first operation failing, the operations after it are not executed.
+ * <p>
+ * Queries answer with a result set holding their first block, the following blocks are read with fetchNextRows as
+ * the result set is consumed. Commits and rollbacks follow the rules of {@link Connection#commit()} and
+ * {@link Connection#rollback()}: nothing is sent for them in auto commit mode or when the transaction has no work.
+ * </p>
+ */
+@Slf4j
+public class StatementPipeline {
+
+    private final Connection connection;
+    private final StatementService statementService;
+    private final List<PipelineOperation> operations = new ArrayList<>();
+    // Statement executing each operation, null for commits and rollbacks
+    private final List<Statement> statements = new ArrayList<>();
+
+    StatementPipeline(Connection connection, StatementService statementService) {
+        this.connection = connection;
+        this.statementService = statementService;
+    }
+
+    public StatementPipeline addUpdate(String sql) throws SQLException {
+        Statement statement = this.newStatement();
+        return this.add(PipelineOperationType.PIPELINE_UPDATE, statement,
+                statement.pipelineRequest(sql, Collections.emptyList()));
+    }
+
+    /**
+     * Adds an update executing the prepared statement with the parameters set when this method is called.
+     */
+    public StatementPipeline addUpdate(java.sql.PreparedStatement preparedStatement) throws SQLException {
+        PreparedStatement statement = this.ojpStatement(preparedStatement);
+        return this.add(PipelineOperationType.PIPELINE_UPDATE, statement, statement.pipelineRequest());
+    }
+
+    public StatementPipeline addQuery(String sql) throws SQLException {
+        Statement statement = this.newStatement();
+        return this.add(PipelineOperationType.PIPELINE_QUERY, statement,
+                statement.pipelineRequest(sql, Collections.emptyList()));
+    }
+
+    /**
+     * Adds a query executing the prepared statement with the parameters set when this method is called.
+     */
+    public StatementPipeline addQuery(java.sql.PreparedStatement preparedStatement) throws SQLException {
+        PreparedStatement statement = this.ojpStatement(preparedStatement);
+        // Prepared queries are not kept on the server, same as in PreparedStatement.executeQuery
+        return this.add(PipelineOperationType.PIPELINE_QUERY, statement,
+                statement.pipelineRequest().setStatementUUID(""));
+    }
+
+    public StatementPipeline addCommit() throws SQLException {
+        if (this.connection.getSession().getIsXA()) {
+            throw new SQLException("Commit not allowed on XA connection. Use XAResource.commit() instead.");
+        }
+        return this.add(PipelineOperationType.PIPELINE_COMMIT, null, null);
+    }
+
+    public StatementPipeline addRollback() throws SQLException {
+        if (this.connection.getSession().getIsXA()) {
+            throw new SQLException("Rollback not allowed on XA connection. Use XAResource.rollback() instead.");
+        }
+        return this.add(PipelineOperationType.PIPELINE_ROLLBACK, null, null);
+    }
+
+    /**
+     * Sends the operations added to the server and empties the pipeline.
+     *
+     * @return the results of the operations, in the order they were added
+     * @throws BatchUpdateException if an operation fails, with the update counts of the operations executed before it
+     *                              ({@link java.sql.Statement#SUCCESS_NO_INFO} for queries, commits and rollbacks)
+     *                              and the failure of the operation as cause
+     * @throws SQLException         if the pipeline can not be sent
+     */
+    public List<PipelineResult> execute() throws SQLException {
+        Execution execution = new Execution();
+        PipelineRequest request = execution.plan();
+        if (request == null) {
+            return execution.results();
+        }
+        PipelineResponse response = this.statementService.executePipeline(request);
+        for (int i = 0; i < response.getResultsCount(); i++) {
+            execution.addResult(i, response.getResults(i), true);
+        }
+        return execution.record(response);
+    }
+
+    /**
+     * Sends the operations added to the server without blocking the calling thread and empties the pipeline. The
+     * operations are sent once the asynchronous calls made before on the connection completed, so they run in the
+     * order they were made. Result sets hold the first block of their rows, the next blocks are read on demand,
+     * without blocking with {@link OjpResultSet#fetchNextRowsAsync()} or by next() as for {@link #execute()}.
+     *
+     * @return future completed with the results of the operations, exceptionally with the failures described in
+     * {@link #execute()}
+     */
+    public CompletableFuture<List<PipelineResult>> executeAsync() {
+        Execution execution;
+        try {
+            execution = new Execution();
+        } catch (SQLException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return this.connection.enqueueAsync(() -> {
+            PipelineRequest request;
+            try {
+                request = execution.plan();
+            } catch (SQLException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            if (request == null) {
+                return CompletableFuture.completedFuture(execution.results());
+            }
+            return this.statementService.executePipelineAsync(request).thenApply(response -> {
+                try {
+                    for (int i = 0; i < response.getResultsCount(); i++) {
+                        // Not read ahead in the background, the blocks are fetched when asked for
+                        execution.addResult(i, response.getResults(i), false);
+                    }
+                    return execution.record(response);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        });
+    }
+
+    /**
+     * Operations of the pipeline taken when executed. Commits and rollbacks with nothing to end are answered locally,
+     * the other operations are sent.
+     */
+    private class Execution {
+        private final List<PipelineOperation> operations;
+        private final List<Statement> statements;
+        private final PipelineResult[] results;
+        // Index of each operation sent
+        private final List<Integer> sent = new ArrayList<>();
+        private boolean transactionWork;
+
+        Execution() throws SQLException {
+            if (connection.isClosed()) {
+                throw new SQLException("Connection is closed");
+            }
+            this.operations = new ArrayList<>(StatementPipeline.this.operations);
+            this.statements = new ArrayList<>(StatementPipeline.this.statements);
+            this.results = new PipelineResult[this.operations.size()];
+            StatementPipeline.this.operations.clear();
+            StatementPipeline.this.statements.clear();
+        }
+
+        /**
+         * Answers the operations not sent.
+         *
+         * @return the request sending the other operations, null if there are none
+         */
+        PipelineRequest plan() throws SQLException {
+            boolean autoCommit = connection.getAutoCommit();
+            this.transactionWork = connection.hasTransactionWork();
+            PipelineRequest.Builder request = PipelineRequest.newBuilder();
+            for (int i = 0; i < this.operations.size(); i++) {
+                PipelineOperation operation = this.operations.get(i);
+                if (endsTransaction(operation) && (autoCommit || !this.transactionWork)) {
+                    this.results[i] = new PipelineResult(-1, null);
+                } else {
+                    request.addOperations(operation);
+                    this.sent.add(i);
+                    this.transactionWork = !endsTransaction(operation);
+                }
+            }
+            if (this.sent.isEmpty()) {
+                return null;
+            }
+            log.debug("Executing pipeline of {} operations", request.getOperationsCount());
+            return request.setSession(connection.sessionWithConnectionState()).build();
+        }
+
+        /**
+         * @param prefetch whether the blocks of a result set are read ahead as configured on the connection
+         */
+        void addResult(int sentIdx, PipelineOperationResult operationResult, boolean prefetch) throws SQLException {
+            int idx = this.sent.get(sentIdx);
+            PipelineOperation operation = this.operations.get(idx);
+            Statement statement = this.statements.get(idx);
+            OpResult result = operationResult.getResult();
+            switch (operation.getType()) {
+                case PIPELINE_UPDATE:
+                    if (statement instanceof PreparedStatement && StringUtils.isNotBlank(result.getUuid())) {
+                        statement.setStatementUUID(result.getUuid());
+                    }
+                    statement.setGeneratedKeys(result);
+                    this.results[idx] = new PipelineResult(result.getIntValue(), null);
+                    break;
+                case PIPELINE_QUERY:
+                    Iterator<OpResult> blocks = new PipelinedBlockIterator(connection, statementService, result,
+                            operationResult.getHasMoreBlocks(),
+                            operation.getStatement().getResultSetOptions().getFetchSize());
+                    this.results[idx] = new PipelineResult(-1,
+                            new ResultSet(blocks, statementService, connection, statement, prefetch));
+                    break;
+                default:
+                    this.results[idx] = new PipelineResult(-1, null);
+            }
+        }
+
+        List<PipelineResult> results() {
+            return Arrays.asList(this.results);
+        }
+
+        /**
+         * Records the session and transaction left by the operations executed.
+         *
+         * @return the results of the operations
+         * @throws BatchUpdateException if an operation failed
+         */
+        List<PipelineResult> record(PipelineResponse response) throws SQLException {
+            if (!response.hasError()) {
+                connection.pipelineExecuted(response.getSession(), this.transactionWork);
+                return this.results();
+            }
+            // The transaction is left with work whatever operation failed
+            connection.pipelineExecuted(response.getSession(), true);
+            int failed = this.sent.get(response.getResultsCount());
+            int[] updateCounts = new int[failed];
+            for (int i = 0; i < failed; i++) {
+                updateCounts[i] = PipelineOperationType.PIPELINE_UPDATE.equals(this.operations.get(i).getType()) ?
+                        this.results[i].getUpdateCount() : java.sql.Statement.SUCCESS_NO_INFO;
+            }
+            SqlErrorResponse error = response.getError();
+            throw new BatchUpdateException(error.getReason(), error.getSqlState(), error.getVendorCode(),
+                    updateCounts, GrpcExceptionHandler.toSQLException(error));
+        }
+    }
+
+    private StatementPipeline add(PipelineOperationType type, Statement statement, StatementRequest.Builder request)
+            throws SQLException {
+        if (statement != null) {
+            statement.checkClosed();
+        }
+        PipelineOperation.Builder operation = PipelineOperation.newBuilder().setType(type);
+        if (request != null) {
+            operation.setStatement(request);
+        }
+        this.operations.add(operation.build());
+        this.statements.add(statement);
+        return this;
+    }
+
+    private Statement newStatement() {
+        return new Statement(this.connection, this.statementService);
+    }
+
+    private PreparedStatement ojpStatement(java.sql.PreparedStatement preparedStatement) throws SQLException {
+        if (!(preparedStatement instanceof PreparedStatement) ||
+                preparedStatement.getConnection() != this.connection) {
+            throw new SQLException("Prepared statement not created by the connection of the pipeline.");
+        }
+        return (PreparedStatement) preparedStatement;
+    }
+
+    private static boolean endsTransaction(PipelineOperation operation) {
+        return PipelineOperationType.PIPELINE_COMMIT.equals(operation.getType()) ||
+                PipelineOperationType.PIPELINE_ROLLBACK.equals(operation.getType());
+    }
+}
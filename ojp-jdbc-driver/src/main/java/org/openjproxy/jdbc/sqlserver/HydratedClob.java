@@ -0,0 +1,24 @@
+package org.openjproxy.jdbc.sqlserver;
+
+import javax.sql.rowset.serial.SerialClob;
+import javax.sql.rowset.serial.SerialException;
+import java.sql.SQLException;
+
+/**
+ * CLOB whose characters were sent inside the row by the server, as it was small enough to be inlined, and are read
+ * in memory without calling the server.
+ */
+public class HydratedClob extends SerialClob {
+    public HydratedClob(String s) throws SQLException {
+        super(s.toCharArray());
+    }
+
+    @Override
+    public String getSubString(long pos, int length) throws SerialException {
+        if (length == 0) {
+            return "";
+        } else {
+            return super.getSubString(pos, length);
+        }
+    }
+}
@@ -222,6 +222,13 @@ public class OjpXAConnection implements XAConnection, ServerHealthListener {
         return statementService;
     }
 
+    /**
+     * Get the datasource properties of this XA connection.
+     */
+    Properties getProperties() {
+        return properties;
+    }
+
     @Override
     public void close() throws SQLException {
         try {
@@ -25,6 +25,8 @@ class OjpXALogicalConnection extends Connection {
         // Pass the statementService and dbName to the parent Connection class
         super(sessionInfo, xaConnection.getStatementService(), DatabaseUtils.resolveDbName(url));
         this.xaConnection = xaConnection;
+        this.applyResultSetProperties(xaConnection.getProperties());
+        this.applyLobProperties(xaConnection.getProperties());
         
         // Register with ConnectionTracker if using multinode - this ensures XAConnectionRedistributor
         // can find and invalidate this connection when the bound server fails
@@ -258,6 +258,44 @@ public class H2PreparedStatementExtensiveTests {
         assertNotNull(ps.getConnection());
     }
 
+    @ParameterizedTest
+    @CsvFileSource(resources = "/h2_connection.csv")
+    public void testExecuteBatchSplitAcrossRequests(String driverClass, String url, String user, String password) throws Exception {
+        this.setUp(driverClass, url, user, password);
+
+        // Enough data to exceed the maximum batch request size, forcing the batch to be sent in more than one request.
+        int totalRows = 12000;
+        String name = "x".repeat(200);
+        ps = connection.prepareStatement("INSERT INTO h2_prepared_stmt_test (id, name, age) VALUES (?, ?, ?)");
+        for (int i = 0; i < totalRows; i++) {
+            ps.setInt(1, i);
+            ps.setString(2, name);
+            ps.setInt(3, i % 100);
+            ps.addBatch();
+        }
+        int[] results = ps.executeBatch();
+        assertEquals(totalRows, results.length);
+        for (int result : results) {
+            assertEquals(1, result);
+        }
+
+        // Batch is emptied after execution and clearBatch discards rows not yet executed.
+        assertEquals(0, ps.executeBatch().length);
+        ps.setInt(1, totalRows);
+        ps.setString(2, name);
+        ps.setInt(3, 0);
+        ps.addBatch();
+        ps.clearBatch();
+        assertEquals(0, ps.executeBatch().length);
+
+        Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM h2_prepared_stmt_test");
+        assertTrue(rs.next());
+        assertEquals(totalRows, rs.getInt(1));
+        rs.close();
+        stmt.close();
+    }
+
     @ParameterizedTest
     @CsvFileSource(resources = "/h2_connection.csv")
     public void testResultAndGeneratedKeysMethods(String driverClass, String url, String user, String password) throws Exception {
@@ -63,8 +63,46 @@ public class ReadMultipleBlocksOfDataIntegrationTest {
             String title = resultSet.getString(2);
             Assert.assertEquals(i, id);
             Assert.assertEquals("TITLE_" + i, title);
+            Assert.assertEquals(i + 1, resultSet.getRow());
         }
 
+        // Blocks of fetch size rows instead of blocks sized by bytes
+        psSelect.setFetchSize(7);
+        ResultSet resultSetWithFetchSize = psSelect.executeQuery();
+
+        for (int i = 0; i < totalRecords; i++) {
+            Assert.assertTrue(resultSetWithFetchSize.next());
+            Assert.assertEquals(i, resultSetWithFetchSize.getInt(1));
+            Assert.assertEquals(i + 1, resultSetWithFetchSize.getRow());
+        }
+        Assert.assertFalse(resultSetWithFetchSize.next());
+
+        // Closing a partially read result set stops the stream of blocks and leaves the connection usable
+        ResultSet partiallyRead = psSelect.executeQuery();
+        Assert.assertTrue(partiallyRead.next());
+        partiallyRead.close();
+        ResultSet afterPartialRead = psSelect.executeQuery();
+        Assert.assertTrue(afterPartialRead.next());
+        Assert.assertEquals(0, afterPartialRead.getInt(1));
+        afterPartialRead.close();
+
+        // Blocks read ahead in the background, see the prefetch datasource in ojp.properties
+        Connection prefetchConn = DriverManager.getConnection(url.replaceFirst("]_", "(prefetch)]_"), user, pwd);
+        java.sql.PreparedStatement psPrefetch = prefetchConn.prepareStatement(
+                "select * from read_blocks_test_multi order by id");
+        psPrefetch.setFetchSize(7);
+        ResultSet prefetched = psPrefetch.executeQuery();
+        for (int i = 0; i < totalRecords; i++) {
+            Assert.assertTrue(prefetched.next());
+            Assert.assertEquals(i, prefetched.getInt(1));
+            Assert.assertEquals("TITLE_" + i, prefetched.getString(2));
+        }
+        Assert.assertFalse(prefetched.next());
+        ResultSet partiallyPrefetched = psPrefetch.executeQuery();
+        Assert.assertTrue(partiallyPrefetched.next());
+        partiallyPrefetched.close();
+        prefetchConn.close();
+
         executeUpdate(conn, "delete from read_blocks_test_multi");
 
         ResultSet resultSetAfterDeletion = psSelect.executeQuery();
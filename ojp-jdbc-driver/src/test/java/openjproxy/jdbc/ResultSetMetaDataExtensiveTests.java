@@ -182,4 +182,26 @@ public class ResultSetMetaDataExtensiveTests {
         assertEquals("java.lang.Integer", metaData.getColumnClassName(3));
         assertEquals("java.math.BigDecimal", metaData.getColumnClassName(4));
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @CsvFileSource(resources = "/h2_connection.csv")
+    public void testMetaDataAvailableAfterResultSetClosed(String driverClass, String url, String user, String password) throws SQLException {
+        setUp(driverClass, url, user, password);
+
+        // Metadata travels with the first block, so it does not depend on the remote result set being open.
+        ResultSet resultSet = connection.createStatement().executeQuery("SELECT * FROM TEST_TABLE_METADATA");
+        while (resultSet.next()) {
+            // Consume all rows
+        }
+        ResultSetMetaData closedMetaData = resultSet.getMetaData();
+        resultSet.close();
+
+        assertEquals(4, closedMetaData.getColumnCount());
+        assertEquals("SALARY", closedMetaData.getColumnName(4));
+        assertEquals(Types.NUMERIC, closedMetaData.getColumnType(4));
+        assertEquals(10, closedMetaData.getPrecision(4));
+        assertEquals(2, closedMetaData.getScale(4));
+        assertEquals(ResultSetMetaData.columnNullable, closedMetaData.isNullable(3));
+        assertThrows(SQLException.class, () -> closedMetaData.getColumnType(5));
+    }
+}
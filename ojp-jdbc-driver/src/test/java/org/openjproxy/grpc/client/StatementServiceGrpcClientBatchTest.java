@@ -0,0 +1,124 @@
+package org.openjproxy.grpc.client;
+
+import com.openjproxy.grpc.BatchStatementRequest;
+import com.openjproxy.grpc.IntArray;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResultRow;
+import com.openjproxy.grpc.SessionInfo;
+import com.openjproxy.grpc.SqlErrorResponse;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.dto.Parameter;
+import org.openjproxy.grpc.dto.ParameterType;
+
+import java.sql.BatchUpdateException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementServiceGrpcClientBatchTest {
+
+    private static final SessionInfo NO_SESSION = SessionInfo.newBuilder().setConnHash("hash-1").build();
+    // Each row fills more than half a request, so every row is sent in its own request
+    private static final String LARGE_VALUE = "x".repeat(CommonConstants.MAX_BATCH_REQUEST_SIZE / 2 + 1);
+
+    private final List<BatchStatementRequest> requests = new ArrayList<>();
+    private final List<SessionInfo> terminated = new ArrayList<>();
+
+    @Test
+    void testBatchSplitInSeveralRequestsRunsInOneSessionAndReturnsAllTheKeys() throws Exception {
+        OpResult result = client(-1).executeBatch(NO_SESSION, "insert into t (v) values (?)", rows(3), "", null);
+
+        assertEquals(3, this.requests.size());
+        assertTrue(this.requests.get(0).getStartSession());
+        assertEquals("", this.requests.get(0).getSession().getSessionUUID());
+        assertEquals("session-1", this.requests.get(1).getSession().getSessionUUID());
+        assertEquals("session-1", this.requests.get(2).getSession().getSessionUUID());
+        assertEquals(List.of(1, 1, 1), result.getUpdateCounts().getValuesList());
+        assertEquals(List.of(1L, 2L, 3L), keys(result.getGeneratedKeys()));
+        assertEquals(List.of("ID"), result.getGeneratedKeys().getLabelsList());
+        assertEquals(List.of(), this.terminated);
+    }
+
+    @Test
+    void testBatchSentInOneRequestStartsNoSession() throws Exception {
+        List<List<Parameter>> rows = List.of(List.of(parameter("a")), List.of(parameter("b")));
+
+        client(-1).executeBatch(NO_SESSION, "insert into t (v) values (?)", rows, "", null);
+
+        assertEquals(1, this.requests.size());
+        assertFalse(this.requests.get(0).getStartSession());
+    }
+
+    @Test
+    void testFailedRequestReportsTheUpdateCountsOfTheRequestsBeforeIt() {
+        BatchUpdateException e = assertThrows(BatchUpdateException.class, () ->
+                client(2).executeBatch(NO_SESSION, "insert into t (v) values (?)", rows(3), "", null));
+
+        assertEquals("23505", e.getSQLState());
+        assertArrayEquals(new int[]{1, 1}, e.getUpdateCounts());
+        assertEquals(3, this.requests.size());
+        // The session started for the batch is not known to the connection, it is ended
+        assertEquals(List.of("session-1"), this.terminated.stream().map(SessionInfo::getSessionUUID)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Client answering each request of a batch with one update count and one generated key, failing the request of
+     * the given index.
+     */
+    private StatementServiceGrpcClient client(int failingRequest) {
+        return new StatementServiceGrpcClient() {
+            @Override
+            OpResult sendBatch(BatchStatementRequest request) {
+                requests.add(request);
+                if (requests.size() - 1 == failingRequest) {
+                    Metadata trailers = new Metadata();
+                    trailers.put(ProtoUtils.keyForProto(SqlErrorResponse.getDefaultInstance()),
+                            SqlErrorResponse.newBuilder().setReason("duplicate key").setSqlState("23505").build());
+                    throw Status.INTERNAL.asRuntimeException(trailers);
+                }
+                long key = requests.size();
+                return OpResult.newBuilder()
+                        .setSession(request.getSession().toBuilder().setSessionUUID(
+                                request.getStartSession() ? "session-1" : request.getSession().getSessionUUID()))
+                        .setUpdateCounts(IntArray.newBuilder().addValues(1))
+                        .setGeneratedKeys(OpQueryResultProto.newBuilder().addLabels("ID")
+                                .addRows(ResultRow.newBuilder().addColumns(ProtoConverter.toParameterValue(key))))
+                        .build();
+            }
+
+            @Override
+            public void terminateSession(SessionInfo session) {
+                terminated.add(session);
+            }
+        };
+    }
+
+    private static List<Long> keys(OpQueryResultProto generatedKeys) {
+        List<Long> keys = new ArrayList<>();
+        for (ResultRow row : generatedKeys.getRowsList()) {
+            keys.add((Long) ProtoConverter.fromParameterValue(row.getColumns(0)));
+        }
+        return keys;
+    }
+
+    private static List<List<Parameter>> rows(int count) {
+        List<List<Parameter>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(List.of(parameter(LARGE_VALUE)));
+        }
+        return rows;
+    }
+
+    private static Parameter parameter(String value) {
+        return Parameter.builder().type(ParameterType.STRING).index(1).values(List.of(value)).build();
+    }
+}
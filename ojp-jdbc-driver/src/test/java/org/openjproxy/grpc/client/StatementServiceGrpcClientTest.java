@@ -0,0 +1,34 @@
+package org.openjproxy.grpc.client;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class StatementServiceGrpcClientTest {
+
+    @Test
+    void testChannelToAServerNotListeningIsNotReady() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", port).usePlaintext().build();
+        try {
+            assertFalse(StatementServiceGrpcClient.isChannelReady(channel, 5));
+        } finally {
+            channel.shutdownNow();
+        }
+    }
+
+    @Test
+    void testShutdownChannelIsNotReady() {
+        ManagedChannel channel = ManagedChannelBuilder.forAddress("localhost", 1059).usePlaintext().build();
+        channel.shutdownNow();
+
+        assertFalse(StatementServiceGrpcClient.isChannelReady(channel, 5));
+    }
+}
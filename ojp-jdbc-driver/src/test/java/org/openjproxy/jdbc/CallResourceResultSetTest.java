@@ -0,0 +1,120 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.CallResourceRequest;
+import com.openjproxy.grpc.CallResourceResponse;
+import com.openjproxy.grpc.CallType;
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResourceType;
+import com.openjproxy.grpc.ResultRow;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CallResourceResultSetTest {
+
+    private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+    // When false the fake server proxies the result sets instead of sending their first block
+    private boolean sendBlocks = true;
+
+    @AfterEach
+    void clearCache() {
+        DatabaseMetaDataCache.clear();
+    }
+
+    @Test
+    void testMetadataResultSetIsReadLocally() throws Exception {
+        Connection connection = connection();
+
+        java.sql.ResultSet tables = connection.getMetaData().getTables(null, null, "%", null);
+        List<String> names = new ArrayList<>();
+        while (tables.next()) {
+            names.add(tables.getString("TABLE_NAME"));
+        }
+        tables.close();
+
+        assertEquals(List.of("T1", "T2", "T3"), names);
+        assertNull(tables.getStatement());
+        // First block sent with the call, the next ones read with fetchNextRows, rows never read with callResource
+        assertEquals(List.of("Tables", "fetchNextRows", "fetchNextRows", "Close"), this.calls);
+        assertEquals("session-1", connection.getSession().getSessionUUID());
+    }
+
+    @Test
+    void testResultSetWithoutBlocksIsProxied() throws Exception {
+        Connection connection = connection();
+        this.sendBlocks = false;
+
+        java.sql.ResultSet tables = connection.getMetaData().getTables(null, null, "%", null);
+        assertFalse(tables instanceof ResultSet);
+        assertTrue(tables.next());
+        assertEquals(List.of("Tables", "Next"), this.calls);
+    }
+
+    private Connection connection() {
+        SessionInfo session = SessionInfo.newBuilder().setConnHash("hash-1").setSessionUUID("").build();
+        return new Connection(session, statementService(), DbName.H2);
+    }
+
+    private static OpResult block(SessionInfo session, boolean first, String... tables) {
+        OpQueryResultProto.Builder queryResult = OpQueryResultProto.newBuilder().setResultSetUUID("rs-1");
+        if (first) {
+            queryResult.addLabels("TABLE_NAME");
+        }
+        for (String table : tables) {
+            queryResult.addRows(ResultRow.newBuilder().addColumns(ProtoConverter.toParameterValue(table)));
+        }
+        return OpResult.newBuilder().setSession(session).setQueryResult(queryResult).build();
+    }
+
+    /**
+     * Statement service answering getTables with three tables, two in the first block and one in the next, or with
+     * the UUID of a result set proxied through callResource.
+     */
+    private StatementService statementService() {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getDatabaseMetaData":
+                            return DatabaseMetaDataResponse.newBuilder().setSession((SessionInfo) args[0]).build();
+                        case "callResource": {
+                            CallResourceRequest request = (CallResourceRequest) args[0];
+                            SessionInfo session = request.getSession().toBuilder().setSessionUUID("session-1").build();
+                            CallResourceResponse.Builder response = CallResourceResponse.newBuilder().setSession(session);
+                            if (ResourceType.RES_RESULT_SET.equals(request.getResourceType())) {
+                                // Calls on the proxied result set: next and close
+                                boolean next = CallType.CALL_NEXT.equals(request.getTarget().getCallType());
+                                this.calls.add(next ? "Next" : "Close");
+                                return next ? response.addValues(ProtoConverter.toParameterValue(true)).build() :
+                                        response.build();
+                            }
+                            this.calls.add(request.getTarget().getNextCall().getResourceName());
+                            response.addValues(ProtoConverter.toParameterValue("rs-1"));
+                            if (this.sendBlocks) {
+                                response.setResultSetBlock(block(session, true, "T1", "T2")).setHasMoreBlocks(true);
+                            }
+                            return response.build();
+                        }
+                        case "fetchNextRows": {
+                            this.calls.add(method.getName());
+                            boolean first = this.calls.stream().filter("fetchNextRows"::equals).count() == 1;
+                            return first ? block((SessionInfo) args[0], false, "T3") :
+                                    block((SessionInfo) args[0], false);
+                        }
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,264 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.CallResourceRequest;
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionStateShadowTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<Map<String, Object>> committedState = new ArrayList<>();
+    private final List<Map<String, Object>> calledState = new ArrayList<>();
+    private boolean serverReachable = true;
+
+    @AfterEach
+    void clearCache() {
+        DatabaseMetaDataCache.clear();
+    }
+
+    @Test
+    void testGettersAreAnsweredLocally() throws Exception {
+        Connection connection = connection("");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(java.sql.Connection.TRANSACTION_READ_COMMITTED, connection.getTransactionIsolation());
+            assertEquals("TESTDB", connection.getCatalog());
+            assertEquals("PUBLIC", connection.getSchema());
+            assertEquals(ResultSet.HOLD_CURSORS_OVER_COMMIT, connection.getHoldability());
+            assertFalse(connection.isReadOnly());
+        }
+
+        assertEquals(List.of("getDatabaseMetaData"), this.calls);
+    }
+
+    @Test
+    void testIsValidWithoutSessionChecksTheServerIsReachable() throws Exception {
+        Connection connection = connection("");
+
+        assertTrue(connection.isValid(5));
+        this.serverReachable = false;
+        assertFalse(connection.isValid(5));
+
+        assertEquals(List.of("isServerReachable", "isServerReachable"), this.calls);
+    }
+
+    @Test
+    void testSettersAreSentWithTheNextRequest() throws Exception {
+        Connection connection = connection("");
+
+        connection.setTransactionIsolation(java.sql.Connection.TRANSACTION_SERIALIZABLE);
+        connection.setSchema("OTHER");
+        connection.setSchema("REPORTING");
+        connection.setClientInfo("ApplicationName", "reports");
+
+        assertEquals(java.sql.Connection.TRANSACTION_SERIALIZABLE, connection.getTransactionIsolation());
+        assertEquals("REPORTING", connection.getSchema());
+        assertEquals(List.of("getDatabaseMetaData"), this.calls);
+
+        Map<String, Object> sent = ProtoConverter.propertiesFromProto(send(connection).getConnectionStateList());
+        Map<String, Object> expected = new HashMap<>();
+        expected.put(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY,
+                java.sql.Connection.TRANSACTION_SERIALIZABLE);
+        expected.put(CommonConstants.CONNECTION_SCHEMA_KEY, "REPORTING");
+        expected.put(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX + "ApplicationName", "reports");
+        assertEquals(expected, sent);
+
+        // Sent once only
+        assertEquals(0, send(connection).getConnectionStateCount());
+    }
+
+    @Test
+    void testChangesBackToTheServerValueAreNotSent() throws Exception {
+        Connection connection = connection("");
+
+        connection.setTransactionIsolation(java.sql.Connection.TRANSACTION_SERIALIZABLE);
+        connection.setCatalog("OTHERDB");
+        connection.setTransactionIsolation(java.sql.Connection.TRANSACTION_READ_COMMITTED);
+        connection.setCatalog("TESTDB");
+
+        assertEquals(0, connection.sessionWithConnectionState().getConnectionStateCount());
+
+        connection.setCatalog("OTHERDB");
+        send(connection);
+        connection.setCatalog("TESTDB");
+
+        assertEquals(Map.of(CommonConstants.CONNECTION_CATALOG_KEY, "TESTDB"), ProtoConverter.propertiesFromProto(
+                send(connection).getConnectionStateList()));
+    }
+
+    @Test
+    void testTransactionBeginsWithItsFirstRequest() throws Exception {
+        Connection connection = connection("");
+
+        connection.setAutoCommit(false);
+        connection.commit();
+        connection.rollback();
+        assertEquals(List.of("getDatabaseMetaData"), this.calls);
+
+        assertEquals(Map.of(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, false),
+                ProtoConverter.propertiesFromProto(send(connection).getConnectionStateList()));
+        connection.commit();
+        connection.commit();
+        assertEquals(List.of("getDatabaseMetaData", "commitTransaction"), this.calls);
+
+        // Back to auto commit without work in the transaction, sent with the next request
+        connection.setAutoCommit(true);
+        assertEquals(List.of("getDatabaseMetaData", "commitTransaction"), this.calls);
+        assertEquals(Map.of(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, true),
+                ProtoConverter.propertiesFromProto(send(connection).getConnectionStateList()));
+    }
+
+    @Test
+    void testCallPreparedBeforeTheTransactionBeginsIt() throws Exception {
+        Connection connection = connection("");
+        java.sql.CallableStatement call = connection.prepareCall("{call archive()}");
+
+        connection.setAutoCommit(false);
+        call.execute();
+        connection.rollback();
+
+        assertEquals(List.of("callResource:Call", "callResource:", "rollbackTransaction"), this.calls);
+        assertEquals(List.of(Map.of(), Map.of(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, false)), this.calledState);
+    }
+
+    @Test
+    void testAutoCommitSwitchedBackOnCommitsAlong() throws Exception {
+        Connection connection = connection("");
+
+        connection.setAutoCommit(false);
+        connection.setAutoCommit(true);
+        assertEquals(0, send(connection).getConnectionStateCount());
+
+        connection.setAutoCommit(false);
+        send(connection);
+        connection.setAutoCommit(true);
+
+        assertEquals(List.of("getDatabaseMetaData", "commitTransaction"), this.calls);
+        assertEquals(List.of(Map.of(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, true)), this.committedState);
+    }
+
+    @Test
+    void testChangesOfAFailedFirstRequestAreSentAgain() throws Exception {
+        Connection connection = connection("");
+
+        connection.setAutoCommit(false);
+        connection.setSchema("REPORTING");
+        // Failed before the server started a session, the connection still holds none
+        connection.sessionWithConnectionState();
+        connection.setSchema("OTHER");
+
+        // Nothing began on the server
+        connection.commit();
+        assertEquals(List.of("getDatabaseMetaData"), this.calls);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, false);
+        expected.put(CommonConstants.CONNECTION_SCHEMA_KEY, "OTHER");
+        assertEquals(expected, ProtoConverter.propertiesFromProto(send(connection).getConnectionStateList()));
+    }
+
+    @Test
+    void testStateUnknownIsReadFromTheServerOnce() throws Exception {
+        Connection connection = connection("session-1");
+
+        assertEquals(java.sql.Connection.TRANSACTION_REPEATABLE_READ, connection.getTransactionIsolation());
+        assertEquals(java.sql.Connection.TRANSACTION_REPEATABLE_READ, connection.getTransactionIsolation());
+
+        assertEquals(List.of("callResource:TransactionIsolation"), this.calls);
+    }
+
+    @Test
+    void testIsValidChecksTheConnectionHeldOnTheServer() throws Exception {
+        Connection connection = connection("session-1");
+
+        assertTrue(connection.isValid(5));
+        connection.markForceInvalid();
+        assertFalse(connection.isValid(5));
+
+        assertEquals(List.of("callResource:Valid"), this.calls);
+    }
+
+    /**
+     * Gets the session to send with a request as the driver does, then takes the session started by the server to
+     * keep the changes on.
+     */
+    private static SessionInfo send(Connection connection) {
+        SessionInfo sent = connection.sessionWithConnectionState();
+        connection.setSession(connection.getSession().toBuilder().setSessionUUID("session-1").build());
+        return sent;
+    }
+
+    private Connection connection(String sessionUUID) {
+        SessionInfo session = SessionInfo.newBuilder().setConnHash("hash-1").setSessionUUID(sessionUUID).build();
+        return new Connection(session, statementService(), DbName.H2);
+    }
+
+    /**
+     * Statement service answering getDatabaseMetaData with the defaults of an H2 connection and callResource with
+     * a value of the type of the connection getter called.
+     */
+    private StatementService statementService() {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY, java.sql.Connection.TRANSACTION_READ_COMMITTED);
+        defaults.put(CommonConstants.CONNECTION_CATALOG_KEY, "TESTDB");
+        defaults.put(CommonConstants.CONNECTION_SCHEMA_KEY, "PUBLIC");
+        defaults.put(CommonConstants.CONNECTION_HOLDABILITY_KEY, ResultSet.HOLD_CURSORS_OVER_COMMIT);
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getDatabaseMetaData":
+                            this.calls.add(method.getName());
+                            SessionInfo session = (SessionInfo) args[0];
+                            DatabaseMetaDataResponse.Builder response = DatabaseMetaDataResponse.newBuilder()
+                                    .setSession(session);
+                            if (session.getSessionUUID().isEmpty()) {
+                                response.addAllConnectionDefaults(ProtoConverter.propertiesToProto(defaults));
+                            }
+                            return response.build();
+                        case "callResource":
+                            CallResourceRequest request = (CallResourceRequest) args[0];
+                            this.calls.add(method.getName() + ":" + request.getTarget().getResourceName());
+                            this.calledState.add(ProtoConverter.propertiesFromProto(
+                                    request.getSession().getConnectionStateList()));
+                            String target = request.getTarget().getResourceName();
+                            Object value = "Valid".equals(target) || target.isEmpty() ? (Object) true :
+                                    "Call".equals(target) ? (Object) "call-1" :
+                                    (Object) java.sql.Connection.TRANSACTION_REPEATABLE_READ;
+                            // The connection of the session is resolved, starting the session if needed
+                            return com.openjproxy.grpc.CallResourceResponse.newBuilder()
+                                    .setSession(request.getSession().toBuilder().setSessionUUID("session-1")
+                                            .clearConnectionState())
+                                    .addValues(ProtoConverter.toParameterValue(value))
+                                    .build();
+                        case "isServerReachable":
+                            this.calls.add(method.getName());
+                            return this.serverReachable;
+                        case "rollbackTransaction":
+                            this.calls.add(method.getName());
+                            return ((SessionInfo) args[0]).toBuilder().clearConnectionState().build();
+                        case "commitTransaction":
+                            this.calls.add(method.getName());
+                            this.committedState.add(ProtoConverter.propertiesFromProto(
+                                    ((SessionInfo) args[0]).getConnectionStateList()));
+                            return ((SessionInfo) args[0]).toBuilder().clearConnectionState().build();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
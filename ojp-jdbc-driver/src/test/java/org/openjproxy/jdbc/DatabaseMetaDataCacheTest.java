@@ -0,0 +1,79 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseMetaDataCacheTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void clearCache() {
+        DatabaseMetaDataCache.clear();
+    }
+
+    @Test
+    void testAttributesAreReadOncePerConnHash() {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put("getDatabaseProductName", "H2");
+        attributes.put("supportsTransactions", true);
+        attributes.put("getUserName", null);
+        StatementService service = statementService(attributes);
+
+        Map<String, Object> first = DatabaseMetaDataCache.attributes(service, session("session-1", "hash-1"));
+        Map<String, Object> second = DatabaseMetaDataCache.attributes(service, session("", "hash-1"));
+        DatabaseMetaDataCache.attributes(service, session("session-2", "hash-2"));
+
+        assertSame(first, second);
+        assertEquals("H2", first.get("getDatabaseProductName"));
+        assertEquals(true, first.get("supportsTransactions"));
+        assertTrue(first.containsKey("getUserName"));
+        assertNull(first.get("getUserName"));
+        assertEquals(2, this.calls.get());
+    }
+
+    @Test
+    void testFailureCachesNoAttribute() {
+        StatementService service = statementService(null);
+
+        assertTrue(DatabaseMetaDataCache.attributes(service, session("", "hash-1")).isEmpty());
+        assertTrue(DatabaseMetaDataCache.attributes(service, session("", "hash-1")).isEmpty());
+        assertEquals(1, this.calls.get());
+    }
+
+    private static SessionInfo session(String sessionUUID, String connHash) {
+        return SessionInfo.newBuilder().setSessionUUID(sessionUUID).setConnHash(connHash).build();
+    }
+
+    /**
+     * Statement service answering getDatabaseMetaData with the given attributes, or failing if they are null.
+     */
+    private StatementService statementService(Map<String, Object> attributes) {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    if (!"getDatabaseMetaData".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    this.calls.incrementAndGet();
+                    if (attributes == null) {
+                        throw new SQLException("UNIMPLEMENTED");
+                    }
+                    return DatabaseMetaDataResponse.newBuilder()
+                            .setSession((SessionInfo) args[0])
+                            .addAllAttributes(ProtoConverter.propertiesToProto(attributes))
+                            .build();
+                });
+    }
+}
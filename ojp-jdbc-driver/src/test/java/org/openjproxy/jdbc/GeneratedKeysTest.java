@@ -0,0 +1,87 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResultRow;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneratedKeysTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<Map<String, Object>> sentProperties = new ArrayList<>();
+
+    @Test
+    void testGeneratedKeysAreReadFromTheUpdateResponse() throws Exception {
+        Connection connection = connection();
+        java.sql.PreparedStatement ps = connection.prepareStatement("insert into t (v) values (?)",
+                java.sql.Statement.RETURN_GENERATED_KEYS);
+        ps.setString(1, "a");
+
+        assertEquals(1, ps.executeUpdate());
+        java.sql.ResultSet keys = ps.getGeneratedKeys();
+        assertTrue(keys.next());
+        assertEquals(42L, keys.getLong(1));
+        assertEquals(42L, keys.getLong("id"));
+        assertFalse(keys.next());
+        keys.close();
+
+        assertEquals(List.of("executeUpdate"), this.calls);
+        assertEquals(java.sql.Statement.RETURN_GENERATED_KEYS,
+                this.sentProperties.get(0).get(CommonConstants.STATEMENT_AUTO_GENERATED_KEYS_KEY));
+    }
+
+    @Test
+    void testStatementAsksForTheGeneratedKeysWithTheUpdate() throws Exception {
+        Connection connection = connection();
+        java.sql.Statement statement = connection.createStatement();
+
+        assertEquals(1, statement.executeUpdate("insert into t (v) values ('a')", new String[]{"id"}));
+        java.sql.ResultSet keys = statement.getGeneratedKeys();
+        assertTrue(keys.next());
+        assertEquals(42L, keys.getLong(1));
+
+        assertEquals(List.of("executeUpdate"), this.calls);
+        assertArrayEquals(new String[]{"id"},
+                (String[]) this.sentProperties.get(0).get(CommonConstants.STATEMENT_COLUMN_NAMES_KEY));
+    }
+
+    private Connection connection() {
+        SessionInfo session = SessionInfo.newBuilder().setConnHash("hash-1").setSessionUUID("").build();
+        return new Connection(session, statementService(), DbName.H2);
+    }
+
+    /**
+     * Statement service answering updates asking for generated keys with the key 42.
+     */
+    private StatementService statementService() {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    if (!"executeUpdate".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    this.calls.add(method.getName());
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> properties = (Map<String, Object>) args[args.length - 1];
+                    this.sentProperties.add(properties);
+                    OpResult.Builder result = OpResult.newBuilder().setSession((SessionInfo) args[0]).setIntValue(1);
+                    if (properties != null) {
+                        result.setGeneratedKeys(OpQueryResultProto.newBuilder()
+                                .addLabels("id")
+                                .addRows(ResultRow.newBuilder().addColumns(ProtoConverter.toParameterValue(42L))));
+                    }
+                    return result.build();
+                });
+    }
+}
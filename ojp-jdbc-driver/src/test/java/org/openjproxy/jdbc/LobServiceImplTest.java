@@ -0,0 +1,112 @@
+package org.openjproxy.jdbc;
+
+import com.google.protobuf.ByteString;
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.LobDataBlock;
+import com.openjproxy.grpc.LobReference;
+import com.openjproxy.grpc.LobType;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LobServiceImplTest {
+
+    private final List<LobDataBlock> sent = new ArrayList<>();
+
+    @Test
+    void testStreamIsSentInBlocksOfTheConnectionBlockSize() throws Exception {
+        byte[] data = bytes(2500);
+
+        lobService(1024).sendBytes(LobType.LT_BINARY_STREAM, 1, new ByteArrayInputStream(data),
+                Map.of(CommonConstants.PREPARED_STATEMENT_BINARY_STREAM_SQL, "insert into t values (?)"));
+
+        assertEquals(List.of(1024, 1024, 452), sizes());
+        assertEquals(List.of(1L, 1025L, 2049L),
+                this.sent.stream().map(LobDataBlock::getPosition).collect(Collectors.toList()));
+        // Only the first block carries the metadata
+        assertEquals(1, this.sent.get(0).getMetadataCount());
+        assertEquals(0, this.sent.get(1).getMetadataCount());
+        assertArrayEquals(data, lobService(1024).parseReceivedBlocks(this.sent.iterator()).readAllBytes());
+    }
+
+    @Test
+    void testLastBlockIsNeverEmpty() throws Exception {
+        lobService(1024).sendBytes(LobType.LT_BLOB, 1, new ByteArrayInputStream(bytes(2048)));
+        assertEquals(List.of(1024, 1024), sizes());
+
+        // The first block creates the LOB on the server, it is sent even when empty
+        this.sent.clear();
+        lobService(1024).sendBytes(LobType.LT_BLOB, 1, new ByteArrayInputStream(new byte[0]));
+        assertEquals(List.of(0), sizes());
+    }
+
+    @Test
+    void testLengthLimitsTheBytesSent() throws Exception {
+        lobService(1024).sendBytes(LobType.LT_BINARY_STREAM, 1, new ByteArrayInputStream(bytes(3000)),
+                Map.of(CommonConstants.PREPARED_STATEMENT_BINARY_STREAM_LENGTH, 1500L));
+
+        assertEquals(List.of(1024, 476), sizes());
+    }
+
+    @Test
+    void testBlockSizeIsBounded() {
+        assertEquals(CommonConstants.MIN_LOB_DATA_BLOCK_SIZE, connection(1).getLobBlockSize());
+        assertEquals(CommonConstants.MAX_LOB_DATA_BLOCK_SIZE, connection(Integer.MAX_VALUE).getLobBlockSize());
+        assertEquals(CommonConstants.DEFAULT_LOB_DATA_BLOCK_SIZE,
+                new Connection(SessionInfo.getDefaultInstance(), statementService(), DbName.H2).getLobBlockSize());
+    }
+
+    private LobServiceImpl lobService(int blockSize) {
+        Connection connection = connection(blockSize);
+        return new LobServiceImpl(connection, statementService());
+    }
+
+    private Connection connection(int blockSize) {
+        Connection connection = new Connection(SessionInfo.newBuilder().setConnHash("hash-1").build(),
+                statementService(), DbName.H2);
+        Properties properties = new Properties();
+        properties.setProperty(CommonConstants.LOB_BLOCK_SIZE_PROPERTY, String.valueOf(blockSize));
+        connection.applyLobProperties(properties);
+        return connection;
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    private List<Integer> sizes() {
+        return this.sent.stream().map(LobDataBlock::getData).map(ByteString::size).collect(Collectors.toList());
+    }
+
+    /**
+     * Statement service recording the blocks of the LOBs created.
+     */
+    private StatementService statementService() {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    if (!"createLob".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    Iterator<LobDataBlock> blocks = (Iterator<LobDataBlock>) args[1];
+                    blocks.forEachRemaining(this.sent::add);
+                    return LobReference.newBuilder().setUuid("lob-1").build();
+                });
+    }
+}
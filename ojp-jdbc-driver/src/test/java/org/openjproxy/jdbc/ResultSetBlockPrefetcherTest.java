@@ -0,0 +1,133 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.OpResult;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.dto.OpQueryResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultSetBlockPrefetcherTest {
+
+    @Test
+    void testBlocksAreReturnedInOrderWithDecodedRows() {
+        SourceIterator source = new SourceIterator(5);
+        try (ResultSetBlockPrefetcher prefetcher = new ResultSetBlockPrefetcher(source, 2, Long.MAX_VALUE)) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(prefetcher.hasNext());
+                OpResult result = prefetcher.next();
+                assertEquals(i, ProtoConverter.fromProto(result.getQueryResult()).getRows().get(0)[0]);
+                assertEquals(i, prefetcher.decodedBlock().getInt(0, 0));
+            }
+            assertFalse(prefetcher.hasNext());
+            assertThrows(NoSuchElementException.class, prefetcher::next);
+        }
+    }
+
+    @Test
+    void testReadAheadIsBoundedByMaxBlocks() throws InterruptedException {
+        SourceIterator source = new SourceIterator(10);
+        try (ResultSetBlockPrefetcher prefetcher = new ResultSetBlockPrefetcher(source, 2, Long.MAX_VALUE)) {
+            source.awaitReads(2);
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertEquals(2, source.reads.get());
+
+            prefetcher.next();
+            source.awaitReads(3);
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertEquals(3, source.reads.get());
+        }
+    }
+
+    @Test
+    void testOneBlockIsReadAheadWhenItExceedsMaxBytes() throws InterruptedException {
+        SourceIterator source = new SourceIterator(10);
+        try (ResultSetBlockPrefetcher prefetcher = new ResultSetBlockPrefetcher(source, 10, 1)) {
+            source.awaitReads(1);
+            TimeUnit.MILLISECONDS.sleep(100);
+            assertEquals(1, source.reads.get());
+            assertTrue(prefetcher.hasNext());
+        }
+    }
+
+    @Test
+    void testSourceFailureIsRaisedToTheReader() {
+        SourceIterator source = new SourceIterator(10);
+        source.failAt = 1;
+        try (ResultSetBlockPrefetcher prefetcher = new ResultSetBlockPrefetcher(source, 2, Long.MAX_VALUE)) {
+            prefetcher.next();
+            IllegalStateException e = assertThrows(IllegalStateException.class, prefetcher::hasNext);
+            assertEquals("stream failed", e.getMessage());
+        }
+    }
+
+    @Test
+    void testCloseClosesTheSource() {
+        SourceIterator source = new SourceIterator(10);
+        ResultSetBlockPrefetcher prefetcher = new ResultSetBlockPrefetcher(source, 2, Long.MAX_VALUE);
+        prefetcher.next();
+        prefetcher.close();
+
+        assertTrue(source.closed.get());
+        assertFalse(prefetcher.hasNext());
+    }
+
+    private static OpResult block(int value) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{value});
+        OpQueryResult queryResult = OpQueryResult.builder()
+                .resultSetUUID("rs")
+                .labels(Collections.singletonList("ID"))
+                .rows(rows)
+                .build();
+        return OpResult.newBuilder().setQueryResult(ProtoConverter.toProto(queryResult)).build();
+    }
+
+    private static final class SourceIterator implements Iterator<OpResult>, AutoCloseable {
+        private final int blocks;
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile int failAt = -1;
+
+        private SourceIterator(int blocks) {
+            this.blocks = blocks;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.reads.get() < this.blocks;
+        }
+
+        @Override
+        public OpResult next() {
+            int index = this.reads.get();
+            if (index == this.failAt) {
+                throw new IllegalStateException("stream failed");
+            }
+            this.reads.incrementAndGet();
+            return block(index);
+        }
+
+        private void awaitReads(int reads) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (this.reads.get() < reads && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            assertEquals(reads, this.reads.get());
+        }
+
+        @Override
+        public void close() {
+            this.closed.set(true);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResultRow;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultSetLobTest {
+
+    private static final SessionInfo SESSION = SessionInfo.newBuilder().setConnHash("hash-1")
+            .setSessionUUID("session-1").build();
+
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    void testInlineClobIsReadWithoutCallingTheServer() throws Exception {
+        ResultSet rs = resultSet(List.of(block(true, "", "{\"id\": 1}")));
+
+        assertTrue(rs.next());
+        assertEquals("{\"id\": 1}", rs.getString(1));
+        java.sql.Clob clob = rs.getClob(1);
+        assertEquals(9, clob.length());
+        assertEquals("{\"id\": 1}", clob.getSubString(1, 9));
+        assertFalse(rs.next());
+        assertEquals(List.of(), this.calls);
+    }
+
+    @Test
+    void testRowsAreRequestedOneByOneAfterTheBlockFlaggedRowByRow() throws Exception {
+        String reference = CommonConstants.OJP_CLOB_PREFIX + "clob-1";
+        ResultSet rs = resultSet(List.of(
+                block(true, "", "a", "b"),
+                block(false, CommonConstants.RESULT_SET_ROW_BY_ROW_MODE, "c", reference)));
+
+        List<String> values = new ArrayList<>();
+        while (rs.next()) {
+            values.add(String.valueOf(rs.getObject(1)));
+        }
+
+        assertEquals(List.of("a", "b", "c", reference, "d"), values);
+        // One call for the row after the flagged block and one finding the end of the result set
+        assertEquals(List.of("fetchNextRows", "fetchNextRows"), this.calls);
+    }
+
+    private ResultSet resultSet(List<OpResult> blocks) throws Exception {
+        Connection connection = new Connection(SESSION, statementService(), DbName.SQL_SERVER);
+        return new ResultSet(blocks.iterator(), statementService(), connection, null, false);
+    }
+
+    private static OpResult block(boolean first, String flag, String... values) {
+        OpQueryResultProto.Builder queryResult = OpQueryResultProto.newBuilder().setResultSetUUID("rs-1");
+        if (first) {
+            queryResult.addLabels("DOC");
+        }
+        for (String value : values) {
+            queryResult.addRows(ResultRow.newBuilder().addColumns(ProtoConverter.toParameterValue(value)));
+        }
+        return OpResult.newBuilder().setSession(SESSION).setFlag(flag).setQueryResult(queryResult).build();
+    }
+
+    /**
+     * Statement service answering fetchNextRows with one more row, then with no rows.
+     */
+    private StatementService statementService() {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    if (!"fetchNextRows".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    this.calls.add(method.getName());
+                    return this.calls.size() == 1 ? block(false, "", "d") : block(false, "");
+                });
+    }
+}
@@ -0,0 +1,76 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.IntArray;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResultType;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementBatchTest {
+
+    private final List<List<String>> batches = new ArrayList<>();
+
+    @Test
+    void testBatchIsSentOnlyWhenExecuted() throws Exception {
+        Connection connection = connection();
+        java.sql.Statement statement = connection.createStatement();
+
+        statement.addBatch("create table t (v int)");
+        statement.addBatch("insert into t values (1)");
+        statement.clearBatch();
+        statement.addBatch("insert into t values (2)");
+        statement.addBatch("insert into t values (3)");
+        assertTrue(this.batches.isEmpty());
+
+        assertArrayEquals(new int[]{1, 1}, statement.executeBatch());
+        assertEquals(List.of(List.of("insert into t values (2)", "insert into t values (3)")), this.batches);
+        assertEquals("session-1", connection.getSession().getSessionUUID());
+
+        // The batch is emptied by executing it
+        assertArrayEquals(new int[0], statement.executeBatch());
+        assertEquals(1, this.batches.size());
+    }
+
+    @Test
+    void testSqlCanNotBeAddedToThePreparedStatementBatch() throws Exception {
+        java.sql.PreparedStatement ps = connection().prepareStatement("insert into t values (?)");
+
+        assertThrows(SQLException.class, () -> ps.addBatch("insert into t values (1)"));
+    }
+
+    private Connection connection() {
+        SessionInfo session = SessionInfo.newBuilder().setConnHash("hash-1").setSessionUUID("").build();
+        return new Connection(session, statementService(), DbName.H2);
+    }
+
+    /**
+     * Statement service answering statement batches with an update count of one per SQL.
+     */
+    private StatementService statementService() {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    if (!"executeStatementBatch".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    List<String> statements = (List<String>) args[1];
+                    this.batches.add(new ArrayList<>(statements));
+                    IntArray.Builder updateCounts = IntArray.newBuilder();
+                    statements.forEach(sql -> updateCounts.addValues(1));
+                    return OpResult.newBuilder()
+                            .setSession(((SessionInfo) args[0]).toBuilder().setSessionUUID("session-1"))
+                            .setType(ResultType.BATCH_UPDATE_COUNTS)
+                            .setUpdateCounts(updateCounts)
+                            .build();
+                });
+    }
+}
@@ -0,0 +1,262 @@
+package org.openjproxy.jdbc;
+
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.PipelineOperationResult;
+import com.openjproxy.grpc.PipelineOperationType;
+import com.openjproxy.grpc.PipelineRequest;
+import com.openjproxy.grpc.PipelineResponse;
+import com.openjproxy.grpc.ResultRow;
+import com.openjproxy.grpc.SessionInfo;
+import com.openjproxy.grpc.SqlErrorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.client.StatementService;
+
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementPipelineTest {
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<PipelineRequest> pipelines = new ArrayList<>();
+    // Number of operations the fake server executes before failing, -1 to execute them all
+    private int failAt = -1;
+    private CompletableFuture<Void> gate = CompletableFuture.completedFuture(null);
+
+    @AfterEach
+    void clearCache() {
+        DatabaseMetaDataCache.clear();
+    }
+
+    @Test
+    void testOperationsAreSentInOneRequest() throws Exception {
+        Connection connection = connection();
+        connection.setAutoCommit(false);
+
+        List<PipelineResult> results = connection.unwrap(OjpConnection.class).pipeline()
+                .addUpdate("insert into t values (1)")
+                .addUpdate("insert into t values (2)")
+                .addQuery("select v from t")
+                .addCommit()
+                .execute();
+
+        assertEquals(List.of("executePipeline"), this.calls);
+        PipelineRequest request = this.pipelines.get(0);
+        assertEquals(List.of(PipelineOperationType.PIPELINE_UPDATE, PipelineOperationType.PIPELINE_UPDATE,
+                        PipelineOperationType.PIPELINE_QUERY, PipelineOperationType.PIPELINE_COMMIT),
+                request.getOperationsList().stream().map(o -> o.getType()).collect(Collectors.toList()));
+        // The transaction begins with the pipeline
+        assertEquals(1, request.getSession().getConnectionStateCount());
+
+        assertEquals(4, results.size());
+        assertEquals(1, results.get(0).getUpdateCount());
+        assertNull(results.get(0).getResultSet());
+        java.sql.ResultSet resultSet = results.get(2).getResultSet();
+        assertEquals(-1, results.get(2).getUpdateCount());
+        List<Integer> values = new ArrayList<>();
+        while (resultSet.next()) {
+            values.add(resultSet.getInt(1));
+        }
+        // First block sent with the pipeline, the next one read with fetchNextRows
+        assertEquals(List.of(1, 2), values);
+        assertEquals(List.of("executePipeline", "fetchNextRows", "fetchNextRows"), this.calls);
+        assertEquals("session-1", connection.getSession().getSessionUUID());
+
+        // Ended by the commit of the pipeline
+        connection.commit();
+        assertEquals(3, this.calls.size());
+    }
+
+    @Test
+    void testCommitsWithNothingToEndAreAnsweredLocally() throws Exception {
+        Connection connection = connection();
+
+        List<PipelineResult> results = connection.pipeline().addCommit().addRollback().execute();
+        assertEquals(2, results.size());
+        assertTrue(this.calls.isEmpty());
+
+        connection.setAutoCommit(false);
+        connection.pipeline().addUpdate("insert into t values (1)").addCommit().addCommit().execute();
+        assertEquals(List.of(PipelineOperationType.PIPELINE_UPDATE, PipelineOperationType.PIPELINE_COMMIT),
+                this.pipelines.get(0).getOperationsList().stream().map(o -> o.getType())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testFailureStopsThePipeline() throws Exception {
+        Connection connection = connection();
+        this.failAt = 1;
+
+        BatchUpdateException e = assertThrows(BatchUpdateException.class, () -> connection.pipeline()
+                .addUpdate("insert into t values (1)")
+                .addUpdate("insert into t values (1)")
+                .addUpdate("insert into t values (2)")
+                .execute());
+
+        assertArrayEquals(new int[]{1}, e.getUpdateCounts());
+        assertEquals("23505", e.getSQLState());
+        assertEquals("23505", ((java.sql.SQLException) e.getCause()).getSQLState());
+        assertEquals("session-1", connection.getSession().getSessionUUID());
+    }
+
+    @Test
+    void testAsyncCallsAreSentInOrder() throws Exception {
+        Connection connection = connection();
+        this.gate = new CompletableFuture<>();
+
+        CompletableFuture<Integer> update = connection.executeUpdateAsync("insert into t values (1)");
+        CompletableFuture<java.sql.ResultSet> query = connection.executeQueryAsync("select v from t");
+        // The query waits for the session started by the update
+        assertEquals(List.of("executePipelineAsync"), this.calls);
+
+        this.gate.complete(null);
+        assertEquals(1, update.get());
+        java.sql.ResultSet resultSet = query.get();
+        assertEquals("session-1", this.pipelines.get(1).getSession().getSessionUUID());
+        // Only the first block came with the query
+        assertEquals(List.of("executePipelineAsync", "executePipelineAsync"), this.calls);
+        assertEquals(1, resultSet.unwrap(OjpResultSet.class).getFetchedRowCount());
+    }
+
+    @Test
+    void testRowsOfAsyncQueryAreFetchedOnDemand() throws Exception {
+        Connection connection = connection();
+        java.sql.ResultSet resultSet = connection.executeQueryAsync("select v from t").get();
+        OjpResultSet ojpResultSet = resultSet.unwrap(OjpResultSet.class);
+
+        List<Integer> values = new ArrayList<>();
+        // Fetched rows are left, nothing is read
+        assertTrue(ojpResultSet.fetchNextRowsAsync().get());
+        while (ojpResultSet.getFetchedRowCount() > 0 && resultSet.next()) {
+            values.add(resultSet.getInt(1));
+        }
+        assertEquals(List.of("executePipelineAsync"), this.calls);
+
+        assertTrue(ojpResultSet.fetchNextRowsAsync().get());
+        assertEquals(1, ojpResultSet.getFetchedRowCount());
+        assertTrue(resultSet.next());
+        values.add(resultSet.getInt(1));
+        assertEquals(List.of(1, 2), values);
+        assertEquals(0, ojpResultSet.getFetchedRowCount());
+
+        // The empty block ends the rows, next() does not ask the server again
+        assertFalse(ojpResultSet.fetchNextRowsAsync().get());
+        assertFalse(resultSet.next());
+        assertFalse(ojpResultSet.fetchNextRowsAsync().get());
+        assertEquals(List.of("executePipelineAsync", "fetchNextRowsAsync", "fetchNextRowsAsync"), this.calls);
+    }
+
+    @Test
+    void testAsyncFailureCompletesWithTheErrorOfTheOperation() throws Exception {
+        Connection connection = connection();
+        connection.setAutoCommit(false);
+        this.failAt = 0;
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> connection.executeUpdateAsync("insert into t values (1)").get());
+        assertFalse(e.getCause() instanceof BatchUpdateException);
+        assertEquals("23505", ((SQLException) e.getCause()).getSQLState());
+
+        // The next call is sent after the failure, the rollback ends the transaction begun by the update
+        this.failAt = -1;
+        connection.rollbackAsync().get();
+        assertEquals(List.of(PipelineOperationType.PIPELINE_ROLLBACK),
+                this.pipelines.get(1).getOperationsList().stream().map(o -> o.getType())
+                        .collect(Collectors.toList()));
+        connection.commitAsync().get();
+        assertEquals(2, this.calls.size());
+    }
+
+    @Test
+    void testOnlyOjpFeaturesAreUnwrapped() throws Exception {
+        Connection connection = connection();
+
+        assertTrue(connection.isWrapperFor(OjpConnection.class));
+        assertSame(connection, connection.unwrap(OjpConnection.class));
+        assertFalse(connection.isWrapperFor(java.sql.Array.class));
+        assertThrows(java.sql.SQLFeatureNotSupportedException.class, () -> connection.unwrap(java.sql.Array.class));
+    }
+
+    private Connection connection() {
+        SessionInfo session = SessionInfo.newBuilder().setConnHash("hash-1").setSessionUUID("").build();
+        return new Connection(session, statementService(), DbName.H2);
+    }
+
+    private static OpResult block(SessionInfo session, Integer... values) {
+        OpQueryResultProto.Builder queryResult = OpQueryResultProto.newBuilder()
+                .setResultSetUUID("rs-1")
+                .addLabels("v");
+        for (Integer value : values) {
+            queryResult.addRows(ResultRow.newBuilder().addColumns(ProtoConverter.toParameterValue(value)));
+        }
+        return OpResult.newBuilder().setSession(session).setQueryResult(queryResult).build();
+    }
+
+    /**
+     * Statement service executing the operations of a pipeline in a session it starts, updates count one row and
+     * queries answer a row per block. Asynchronous pipelines are answered once the gate opens.
+     */
+    private StatementService statementService() {
+        return (StatementService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StatementService.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getDatabaseMetaData":
+                            return DatabaseMetaDataResponse.newBuilder().setSession((SessionInfo) args[0]).build();
+                        case "executePipeline":
+                            this.calls.add(method.getName());
+                            return pipelineResponse((PipelineRequest) args[0]);
+                        case "executePipelineAsync":
+                            this.calls.add(method.getName());
+                            return this.gate.thenApply(v -> pipelineResponse((PipelineRequest) args[0]));
+                        case "fetchNextRows":
+                        case "fetchNextRowsAsync":
+                            this.calls.add(method.getName());
+                            boolean first = this.calls.stream().filter(method.getName()::equals).count() == 1;
+                            OpResult block = first ? block((SessionInfo) args[0], 2) : block((SessionInfo) args[0]);
+                            return "fetchNextRows".equals(method.getName()) ? block :
+                                    CompletableFuture.completedFuture(block);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private PipelineResponse pipelineResponse(PipelineRequest request) {
+        this.pipelines.add(request);
+        SessionInfo session = request.getSession().toBuilder().clearConnectionState()
+                .setSessionUUID("session-1").build();
+        PipelineResponse.Builder response = PipelineResponse.newBuilder().setSession(session);
+        for (int i = 0; i < request.getOperationsCount(); i++) {
+            if (i == this.failAt) {
+                response.setError(SqlErrorResponse.newBuilder().setReason("duplicate key").setSqlState("23505"));
+                break;
+            }
+            switch (request.getOperations(i).getType()) {
+                case PIPELINE_UPDATE:
+                    response.addResults(PipelineOperationResult.newBuilder().setResult(
+                            OpResult.newBuilder().setSession(session).setIntValue(1)));
+                    break;
+                case PIPELINE_QUERY:
+                    response.addResults(PipelineOperationResult.newBuilder()
+                            .setResult(block(session, 1)).setHasMoreBlocks(true));
+                    break;
+                default:
+                    response.addResults(PipelineOperationResult.newBuilder().setResult(
+                            OpResult.newBuilder().setSession(session)));
+            }
+        }
+        return response.build();
+    }
+}
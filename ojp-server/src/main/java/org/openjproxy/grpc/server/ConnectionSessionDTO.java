@@ -8,7 +8,7 @@ import lombok.Getter;
 import java.sql.Connection;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 public class ConnectionSessionDTO {
     private Connection connection;
     private SessionInfo session;
@@ -12,6 +12,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -60,18 +61,20 @@ public class GrpcServer {
         }
 
         // Build server with configuration
-        SessionManagerImpl sessionManager = new SessionManagerImpl();
+        SessionManagerImpl sessionManager = new SessionManagerImpl(new LobStagingStore(config));
+        StatementServiceImpl statementService = new StatementServiceImpl(
+                sessionManager,
+                new CircuitBreaker(config.getCircuitBreakerTimeout(), config.getCircuitBreakerThreshold()),
+                config
+        );
+        ojpServerTelemetry.registerPreparedStatementCacheMetrics(statementService.getPreparedStatementCache());
         
         ServerBuilder<?> serverBuilder = NettyServerBuilder
                 .forPort(config.getServerPort())
-                .executor(Executors.newFixedThreadPool(config.getThreadPoolSize()))
+                .executor(createRequestExecutor(config))
                 .maxInboundMessageSize(config.getMaxRequestSize())
                 .keepAliveTime(config.getConnectionIdleTimeout(), TimeUnit.MILLISECONDS)
-                .addService(new StatementServiceImpl(
-                        sessionManager,
-                        new CircuitBreaker(config.getCircuitBreakerTimeout(), config.getCircuitBreakerThreshold()),
-                        config
-                ))
+                .addService(statementService)
                 .addService(OjpHealthManager.getHealthStatusManager().getHealthService())
                 .intercept(grpcTelemetry.newServerInterceptor());
 
@@ -95,7 +98,8 @@ public class GrpcServer {
             long timeoutMillis = config.getSessionTimeoutMinutes() * 60 * 1000;
             long intervalMillis = config.getSessionCleanupIntervalMinutes() * 60 * 1000;
             
-            SessionCleanupTask cleanupTask = new SessionCleanupTask(sessionManager, timeoutMillis);
+            SessionCleanupTask cleanupTask = new SessionCleanupTask(sessionManager, timeoutMillis,
+                    statementService.getPreparedStatementCache());
             sessionCleanupExecutor.scheduleAtFixedRate(
                     cleanupTask, 
                     intervalMillis, // Initial delay
@@ -152,4 +156,17 @@ public class GrpcServer {
         logger.info("OJP gRPC Server started successfully and awaiting termination");
         server.awaitTermination();
     }
+
+    /**
+     * Creates the executor running the gRPC calls. In virtual mode every call gets its own virtual thread, so
+     * requests blocked on the database or waiting for a connection or a slow query segregation slot do not hold a
+     * platform thread, and concurrency is bounded by the connection pools instead of the thread pool size.
+     */
+    static ExecutorService createRequestExecutor(ServerConfiguration config) {
+        if (config.isVirtualThreadExecutor()) {
+            logger.info("Running gRPC calls on virtual threads");
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ojp-grpc-virtual-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(config.getThreadPoolSize());
+    }
 }
@@ -1,160 +1,309 @@
 package org.openjproxy.grpc.server;
 
-import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.ByteString;
 import com.openjproxy.grpc.LobDataBlock;
 import lombok.Getter;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Input stream over the blocks of a binary stream LOB received from the client, read by the JDBC driver of the
+ * database when the statement the stream is set to is executed.
+ * <p>
+ * Blocks are handed over from the gRPC thread receiving them (the single producer) to the thread reading the stream
+ * (the single consumer) through a bounded lock-free ring, the bytes of the blocks are read in place without copying
+ * them out of their {@link ByteString}. While the stream is read and the ring is full the next block is only
+ * requested from the client once the reader frees a slot (see {@link #whenSpaceAvailable(Runnable)}). Blocks received
+ * before the stream is read, as with clients executing the statement once the upload completed, are staged after the
+ * ring: in heap up to the memory threshold of the {@link LobStagingStore}, in a temp file of the store past it.
+ * </p>
+ */
 @Slf4j
-public class LobDataBlocksInputStream extends InputStream {
+public class LobDataBlocksInputStream extends InputStream implements LobStagingStore.Staged {
+    // Blocks held in the ring, a power of two
+    static final int RING_CAPACITY = 16;
+
     @Getter
     private final String uuid;
-    private final List<LobDataBlock> blocksReceived;
+    private final LobStagingStore stagingStore;
+    private final ByteString[] ring = new ByteString[RING_CAPACITY];
+    // Next slot read by the consumer and next slot written by the producer, each written by its own thread only
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    // Blocks staged after the ring, always newer than the blocks in the ring, guarded by the lock of the queue
+    private final Queue<ByteString> staged = new ArrayDeque<>();
+    private LobStagingStore.SpillFile spillFile;
+    // Bytes staged after the ring, in heap or in the temp file, and bytes of received blocks held in heap
+    private final AtomicLong stagedBytes = new AtomicLong();
+    private final AtomicLong memoryBytes = new AtomicLong();
     private final AtomicBoolean atomicFinished;
-    private byte[] currentBlock;
+    private final AtomicBoolean reading = new AtomicBoolean(false);
+    private volatile boolean closed;
+    private volatile boolean discarded;
+    private volatile IOException failure;
+    private volatile Thread waitingReader;
+    // Request of the next block held until the reader frees a slot
+    private final AtomicReference<Runnable> pendingRequest = new AtomicReference<>();
+    private ByteString currentBlock;
     private int currentIdx;
-    private SettableFuture<Boolean> blockArrived;
+    // Completed once all the blocks were read, or the stream discarded
     @Getter
-    private final AtomicBoolean fullyConsumed;
-
-    // Instance-specific lock, NOT static!
-    private final ReentrantLock lock = new ReentrantLock();
+    private final CompletableFuture<Void> consumption = new CompletableFuture<>();
 
-    public LobDataBlocksInputStream(LobDataBlock firstBlock) {
+    LobDataBlocksInputStream(LobDataBlock firstBlock, LobStagingStore stagingStore) {
         this.uuid = UUID.randomUUID().toString();
-        this.fullyConsumed = new AtomicBoolean(false);
-        this.blocksReceived = new ArrayList<>();
-        this.currentBlock = firstBlock.getData().toByteArray();
+        this.stagingStore = stagingStore;
         this.atomicFinished = new AtomicBoolean(false);
-        this.blockArrived = SettableFuture.create();
-        this.currentIdx = -1;
-        this.blockArrived.set(true);
+        this.currentBlock = firstBlock.getData();
+        this.currentIdx = 0;
         log.info("{} lob created", this.uuid);
     }
 
-    @SneakyThrows
     @Override
-    public int read() {
-        log.debug("Reading lob {}", this.uuid);
+    public int read() throws IOException {
+        if (!this.positionOnData()) {
+            return -1;
+        }
+        return this.currentBlock.byteAt(this.currentIdx++) & 0xFF;
+    }
 
-        // Fast path - still bytes left in current block
-        if (this.currentIdx < this.currentBlock.length - 1) {
-            int ret = this.currentBlock[++currentIdx];
-            return ret & 0xFF;
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0) {
+            return 0;
         }
+        if (!this.positionOnData()) {
+            return -1;
+        }
+        int count = 0;
+        // Copies from the blocks already received, waiting only for the first byte
+        do {
+            int n = Math.min(len - count, this.currentBlock.size() - this.currentIdx);
+            this.currentBlock.copyTo(b, this.currentIdx, off + count, n);
+            this.currentIdx += n;
+            count += n;
+        } while (count < len && this.nextBlock(false));
+        return count;
+    }
 
-        while (true) {
-            LobDataBlock nextBlock = null;
+    @Override
+    public int available() {
+        return this.currentBlock.size() - this.currentIdx;
+    }
 
-            // Atomic check AND remove under single lock
-            lock.lock();
+    @Override
+    public void close() {
+        // Blocks still to come are no longer held back
+        this.closed = true;
+        this.runPendingRequest();
+    }
+
+    /**
+     * Adds a block received from the client. Called by the gRPC thread receiving the blocks.
+     *
+     * @param lobDataBlock the block received
+     * @throws SQLException if the block could not be staged, the stream then fails
+     */
+    public void addBlock(LobDataBlock lobDataBlock) throws SQLException {
+        ByteString data = lobDataBlock.getData();
+        if (data.isEmpty()) {
+            return;
+        }
+        long t = this.tail.get();
+        boolean fitsInMemory = this.memoryBytes.get() + data.size() <= this.stagingStore.getMemoryThresholdBytes();
+        if (this.stagedBytes.get() == 0 && t - this.head.get() < RING_CAPACITY
+                && (this.reading.get() || fitsInMemory)) {
+            this.memoryBytes.addAndGet(data.size());
+            this.ring[(int) (t & (RING_CAPACITY - 1))] = data;
+            this.tail.set(t + 1);
+        } else {
             try {
-                if (!this.blocksReceived.isEmpty()) {
-                    nextBlock = this.blocksReceived.remove(0);
-                }
-            } finally {
-                lock.unlock();
+                this.stage(data, fitsInMemory);
+            } catch (SQLException e) {
+                this.failure = new IOException(e.getMessage(), e);
+                this.finish(true);
+                throw e;
             }
+        }
+        LockSupport.unpark(this.waitingReader);
+    }
 
-            if (nextBlock != null) {
-                this.currentBlock = nextBlock.getData().toByteArray();
-                this.currentIdx = -1;
-                log.debug("Next block positioned for reading");
-
-                int ret = this.currentBlock[++currentIdx];
-                return ret & 0xFF;
-            }
+    /**
+     * Runs the request of the next block from the client now if the stream can take one more block, or once the
+     * reader frees a slot of the ring otherwise.
+     *
+     * @param requestNextBlock requests the next block from the client
+     */
+    public void whenSpaceAvailable(Runnable requestNextBlock) {
+        this.pendingRequest.set(requestNextBlock);
+        if (this.hasSpace()) {
+            this.runPendingRequest();
+        }
+    }
 
-            // No blocks available
-            log.debug("No new blocks received, will wait for block to arrive if stream not finished");
+    /**
+     * Indicate that it finished receiving blocks not that if finished being read.
+     *
+     * @param finished
+     */
+    public void finish(boolean finished) {
+        log.debug("Finished receiving blocks");
+        this.atomicFinished.set(finished);
+        LockSupport.unpark(this.waitingReader);
+    }
 
-            // Check finished flag first
-            if (this.atomicFinished.get()) {
-                log.debug("All blocks exhausted, finishing byte stream. lob {}", this.uuid);
-                this.fullyConsumed.set(true);
-                return -1;
-            }
+    /**
+     * Drops the blocks not read yet and deletes the temp file of the stream, as when its session is terminated.
+     */
+    @Override
+    public void discard() {
+        log.debug("Discarding lob {}", this.uuid);
+        this.discarded = true;
+        synchronized (this.staged) {
+            this.staged.clear();
+            this.stagedBytes.set(0);
+            this.release();
+        }
+        this.finish(true);
+        this.runPendingRequest();
+        this.consumption.complete(null);
+    }
 
-            // Get current future reference
-            SettableFuture<Boolean> futureToWait;
-            lock.lock();
-            try {
-                futureToWait = this.blockArrived;
-            } finally {
-                lock.unlock();
+    private void stage(ByteString data, boolean fitsInMemory) throws SQLException {
+        synchronized (this.staged) {
+            if (this.discarded) {
+                return;
             }
-
-            try {
-                // Wait with timeout
-                futureToWait.get(5, TimeUnit.SECONDS);
-                log.debug("New block arrived signal received");
-            } catch (TimeoutException e) {
-                // Double-check if finished while we were waiting
-                if (this.atomicFinished.get()) {
-                    log.debug("Timed out waiting for new block, stream finished, lob {}", this.uuid);
-                    this.fullyConsumed.set(true);
-                    return -1;
+            // Once spilled, blocks keep going to the temp file until it is read up to its end
+            if (fitsInMemory && (this.spillFile == null || this.spillFile.unreadBytes() == 0)) {
+                this.memoryBytes.addAndGet(data.size());
+                this.staged.add(data);
+            } else {
+                if (this.spillFile == null) {
+                    this.spillFile = this.stagingStore.createSpillFile();
                 }
-                // Timeout but not finished - continue loop
-                log.debug("Timeout waiting for block, but stream not finished, continuing");
-                continue;
+                this.spillFile.append(data);
             }
+            this.stagedBytes.addAndGet(data.size());
+        }
+    }
 
-            // Reset the future atomically with queue check to avoid race conditions
-            lock.lock();
-            try {
-                // Double-check queue after getting signal (avoid race condition)
-                if (!this.blocksReceived.isEmpty()) {
-                    continue; // Go back to process the block
-                }
+    private void release() {
+        if (this.spillFile != null) {
+            this.spillFile.delete();
+        }
+        this.stagingStore.released(this);
+    }
 
-                // No blocks yet, reset future for next signal
-                if (this.blockArrived == futureToWait) {
-                    this.blockArrived = SettableFuture.create();
-                }
-            } finally {
-                lock.unlock();
-            }
+    private boolean hasSpace() {
+        return !this.reading.get() || this.closed || this.discarded
+                || (this.tail.get() - this.head.get() < RING_CAPACITY && this.stagedBytes.get() == 0);
+    }
 
-            // Go back and check queue again
+    private void runPendingRequest() {
+        Runnable request = this.pendingRequest.getAndSet(null);
+        if (request != null) {
+            request.run();
         }
     }
 
-    public void addBlock(LobDataBlock lobDataBlock) {
-        lock.lock();
-        try {
-            this.blocksReceived.add(lobDataBlock);
-            this.blockArrived.set(true);
-        } finally {
-            lock.unlock();
+    /**
+     * Positions the stream on a byte to read, waiting for the next block if needed.
+     *
+     * @return false if all the blocks were read and no more will come
+     */
+    private boolean positionOnData() throws IOException {
+        this.reading.set(true);
+        if (this.currentIdx < this.currentBlock.size() || this.nextBlock(true)) {
+            return true;
+        }
+        if (this.failure != null) {
+            throw this.failure;
         }
+        log.debug("All blocks exhausted, finishing byte stream. lob {}", this.uuid);
+        synchronized (this.staged) {
+            this.release();
+        }
+        this.consumption.complete(null);
+        return false;
     }
 
     /**
-     * Indicate that it finished receiving blocks not that if finished being read.
+     * Moves to the next block received.
      *
-     * @param finished
+     * @param wait tells if the block should be waited for when not received yet
+     * @return false if no block was received yet without waiting, or no more blocks will come
      */
-    public void finish(boolean finished) {
-        log.debug("Finished receiving blocks");
-        atomicFinished.set(finished);
+    private boolean nextBlock(boolean wait) throws IOException {
+        while (true) {
+            ByteString next = this.poll();
+            if (next != null) {
+                this.currentBlock = next;
+                this.currentIdx = 0;
+                if (this.pendingRequest.get() != null) {
+                    this.runPendingRequest();
+                }
+                return true;
+            }
+            if (!wait) {
+                return false;
+            }
+            if (this.atomicFinished.get()) {
+                // Blocks added before finishing are visible once finished is
+                next = this.poll();
+                if (next == null) {
+                    return false;
+                }
+                this.currentBlock = next;
+                this.currentIdx = 0;
+                return true;
+            }
+            this.waitingReader = Thread.currentThread();
+            if (this.head.get() == this.tail.get() && this.stagedBytes.get() == 0 && !this.atomicFinished.get()) {
+                LockSupport.park(this);
+            }
+            this.waitingReader = null;
+        }
+    }
 
-        // Also signal any waiting readers
-        lock.lock();
-        try {
-            this.blockArrived.set(true);
-        } finally {
-            lock.unlock();
+    private ByteString poll() throws IOException {
+        long h = this.head.get();
+        if (h != this.tail.get()) {
+            int slot = (int) (h & (RING_CAPACITY - 1));
+            ByteString block = this.ring[slot];
+            this.ring[slot] = null;
+            this.head.set(h + 1);
+            this.memoryBytes.addAndGet(-block.size());
+            return block;
+        }
+        if (this.stagedBytes.get() == 0) {
+            return null;
+        }
+        synchronized (this.staged) {
+            ByteString block = this.staged.poll();
+            if (block != null) {
+                this.memoryBytes.addAndGet(-block.size());
+            } else if (this.spillFile != null) {
+                block = this.spillFile.read();
+            }
+            if (block == null || block.isEmpty()) {
+                return null;
+            }
+            this.stagedBytes.addAndGet(-block.size());
+            return block;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,287 @@
+package org.openjproxy.grpc.server;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import com.openjproxy.grpc.LobDataBlock;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Staging of the binary stream LOBs uploaded by clients until the database reads them, and of the CLOBs read from
+ * SQL Server and DB2 result sets until the client reads them.
+ * <p>
+ * Each stream keeps up to {@link #getMemoryThresholdBytes()} of received blocks in heap, the blocks received past that
+ * are appended to a temp file of the spill directory and read back through memory mappings of the file. CLOBs larger
+ * than the threshold, or not fitting in the {@link #getHydrationMemoryBytes()} held in heap by the CLOB copies of the
+ * whole server, are copied to a temp file the same way. The bytes spilled by all the staged LOBs of the server are
+ * bounded by {@link #getQuotaBytes()}, an upload or a result set read going past it fails.
+ * </p>
+ * <p>
+ * Temp files are deleted once their stream is fully read, once the result set a CLOB was copied from is closed, when
+ * the session owning the LOB is terminated, or by {@link SessionCleanupTask} when the session is gone without being
+ * terminated.
+ * </p>
+ */
+@Slf4j
+public class LobStagingStore {
+    static final String SPILL_FILE_PREFIX = "ojp-lob-";
+    private static final String SPILL_FILE_SUFFIX = ".tmp";
+    // Largest region of a temp file mapped at once when reading it back
+    static final int MAX_MAPPED_BYTES = 4 * 1024 * 1024;
+
+    private final Path spillDirectory;
+    @Getter
+    private final long memoryThresholdBytes;
+    @Getter
+    private final long quotaBytes;
+    // Rows read at once from SQL Server and DB2 result sets with LOB columns, whose CLOBs are staged, 0 to read them
+    // row by row instead
+    @Getter
+    private final int hydrationWindowRows;
+    @Getter
+    private final long hydrationMemoryBytes;
+    private final AtomicLong spilledBytes = new AtomicLong();
+    private final AtomicLong hydratedHeapBytes = new AtomicLong();
+    // LOBs staged by the server and the session owning each
+    private final Map<Staged, String> staged = new ConcurrentHashMap<>();
+
+    public LobStagingStore() {
+        this(Path.of(ServerConfiguration.DEFAULT_LOB_SPILL_DIRECTORY),
+                ServerConfiguration.DEFAULT_LOB_MEMORY_THRESHOLD_BYTES,
+                ServerConfiguration.DEFAULT_LOB_SPILL_QUOTA_BYTES,
+                ServerConfiguration.DEFAULT_LOB_HYDRATION_WINDOW_ROWS,
+                ServerConfiguration.DEFAULT_LOB_HYDRATION_MEMORY_BYTES);
+    }
+
+    public LobStagingStore(ServerConfiguration serverConfiguration) {
+        this(Path.of(serverConfiguration.getLobSpillDirectory()),
+                serverConfiguration.getLobMemoryThresholdBytes(),
+                serverConfiguration.getLobSpillQuotaBytes(),
+                serverConfiguration.getLobHydrationWindowRows(),
+                serverConfiguration.getLobHydrationMemoryBytes());
+    }
+
+    public LobStagingStore(Path spillDirectory, long memoryThresholdBytes, long quotaBytes,
+                           int hydrationWindowRows, long hydrationMemoryBytes) {
+        this.spillDirectory = spillDirectory;
+        this.memoryThresholdBytes = memoryThresholdBytes;
+        this.quotaBytes = quotaBytes;
+        this.hydrationWindowRows = hydrationWindowRows;
+        this.hydrationMemoryBytes = hydrationMemoryBytes;
+    }
+
+    /**
+     * Creates the stream staging a binary stream LOB uploaded in the given session.
+     *
+     * @param firstBlock  the first block received
+     * @param sessionUUID the session owning the stream
+     * @return the stream
+     */
+    public LobDataBlocksInputStream newStream(LobDataBlock firstBlock, String sessionUUID) {
+        LobDataBlocksInputStream stream = new LobDataBlocksInputStream(firstBlock, this);
+        this.staged.put(stream, sessionUUID);
+        return stream;
+    }
+
+    /**
+     * Copies a CLOB read from a result set, so it can still be read once the cursor moved past its row.
+     *
+     * @param clob        the CLOB of the current row
+     * @param resultSet   the result set the CLOB is read from, the copy is discarded once it is closed
+     * @param sessionUUID the session owning the result set
+     * @return the copy, to be registered in the session in place of the CLOB
+     * @throws SQLException if the CLOB cannot be read or the quota is exceeded
+     */
+    public StagedClob hydrateClob(Clob clob, ResultSet resultSet, String sessionUUID) throws SQLException {
+        StagedClob stagedClob = StagedClob.copyOf(clob, resultSet, this);
+        this.staged.put(stagedClob, sessionUUID);
+        return stagedClob;
+    }
+
+    /**
+     * Bytes held in temp files by all the streams.
+     */
+    public long getSpilledBytes() {
+        return this.spilledBytes.get();
+    }
+
+    /**
+     * Bytes held in heap by the CLOB copies of all the sessions.
+     */
+    public long getHydratedHeapBytes() {
+        return this.hydratedHeapBytes.get();
+    }
+
+    /**
+     * Discards the LOBs owned by sessions no longer alive, deleting their temp files.
+     *
+     * @param liveSessionUUIDs the sessions alive
+     * @return the number of LOBs discarded
+     */
+    public int discardOrphans(Set<String> liveSessionUUIDs) {
+        int discarded = 0;
+        for (Map.Entry<Staged, String> entry : this.staged.entrySet()) {
+            if (!liveSessionUUIDs.contains(entry.getValue())) {
+                log.info("Discarding orphaned lob of session {}", entry.getValue());
+                entry.getKey().discard();
+                discarded++;
+            }
+        }
+        return discarded;
+    }
+
+    void released(Staged lob) {
+        this.staged.remove(lob);
+    }
+
+    SpillFile createSpillFile() throws SQLException {
+        try {
+            Files.createDirectories(this.spillDirectory);
+            Path path = Files.createTempFile(this.spillDirectory, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+            // Where supported the file is unlinked once opened, nothing is left behind if the server stops
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            log.debug("Spilling lob to {}", path);
+            return new SpillFile(path, channel);
+        } catch (IOException e) {
+            throw new SQLException("Unable to create LOB staging file in " + this.spillDirectory + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reserves heap for a CLOB copy, which is spilled instead if the copies of the server already hold the budget.
+     *
+     * @return true if the copy can be kept in heap
+     */
+    boolean reserveHeap(long bytes) {
+        if (this.hydratedHeapBytes.addAndGet(bytes) > this.hydrationMemoryBytes) {
+            this.hydratedHeapBytes.addAndGet(-bytes);
+            return false;
+        }
+        return true;
+    }
+
+    void releaseHeap(long bytes) {
+        this.hydratedHeapBytes.addAndGet(-bytes);
+    }
+
+    private void reserve(long bytes) throws SQLException {
+        if (this.spilledBytes.addAndGet(bytes) > this.quotaBytes) {
+            this.spilledBytes.addAndGet(-bytes);
+            throw new SQLException("LOB staging quota of " + this.quotaBytes + " bytes exceeded.");
+        }
+    }
+
+    /**
+     * LOB held by the store until it is read or its session ends.
+     */
+    public interface Staged {
+        /**
+         * Drops the LOB and deletes its temp file, if any.
+         */
+        void discard();
+    }
+
+    /**
+     * Temp file a stream appends its blocks to and reads them back from, written by the thread receiving the blocks
+     * and read by the thread reading the stream, both holding the lock of the file.
+     */
+    final class SpillFile {
+        @Getter
+        private final Path path;
+        private final FileChannel channel;
+        private long writePosition;
+        private long readPosition;
+        private boolean deleted;
+
+        private SpillFile(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        /**
+         * Appends a block at the end of the file, counting it against the quota of the server.
+         */
+        synchronized void append(ByteString data) throws SQLException {
+            if (this.deleted) {
+                return;
+            }
+            reserve(data.size());
+            long start = this.writePosition;
+            try {
+                for (ByteBuffer buffer : data.asReadOnlyByteBufferList()) {
+                    while (buffer.hasRemaining()) {
+                        this.writePosition += this.channel.write(buffer, this.writePosition);
+                    }
+                }
+            } catch (IOException e) {
+                spilledBytes.addAndGet(-(data.size() - (this.writePosition - start)));
+                throw new SQLException("Unable to write LOB staging file " + this.path + ": " + e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Bytes appended and not read yet.
+         */
+        synchronized long unreadBytes() {
+            return this.writePosition - this.readPosition;
+        }
+
+        /**
+         * Reads the next bytes appended, mapping them from the file without copying them to heap.
+         *
+         * @return up to {@link #MAX_MAPPED_BYTES} bytes, empty when all the bytes appended were read
+         */
+        synchronized ByteString read() throws IOException {
+            long length = Math.min(this.writePosition - this.readPosition, MAX_MAPPED_BYTES);
+            if (this.deleted || length == 0) {
+                return ByteString.EMPTY;
+            }
+            ByteBuffer mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, this.readPosition, length);
+            this.readPosition += length;
+            return UnsafeByteOperations.unsafeWrap(mapped);
+        }
+
+        /**
+         * Maps a region of the bytes appended, for LOBs read at any position once fully appended.
+         */
+        synchronized ByteBuffer map(long position, long length) throws IOException {
+            if (this.deleted) {
+                throw new IOException("LOB staging file " + this.path + " was deleted.");
+            }
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+
+        /**
+         * Deletes the file and gives its bytes back to the quota of the server. Regions already mapped stay readable.
+         */
+        synchronized void delete() {
+            if (this.deleted) {
+                return;
+            }
+            this.deleted = true;
+            spilledBytes.addAndGet(-this.writePosition);
+            try {
+                this.channel.close();
+                Files.deleteIfExists(this.path);
+            } catch (IOException e) {
+                log.warn("Failed to delete lob staging file {}: {}", this.path, e.getMessage());
+            }
+        }
+    }
+}
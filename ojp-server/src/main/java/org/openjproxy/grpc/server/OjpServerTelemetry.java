@@ -1,10 +1,12 @@
 package org.openjproxy.grpc.server;
 
 import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.exporter.prometheus.PrometheusHttpServer;
 import io.opentelemetry.instrumentation.grpc.v1_6.GrpcTelemetry;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import org.openjproxy.grpc.server.statement.PreparedStatementCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +19,9 @@ import java.util.List;
 public class OjpServerTelemetry {
 	private static final Logger logger = LoggerFactory.getLogger(OjpServerTelemetry.class);
 	private static final int DEFAULT_PROMETHEUS_PORT = 9159;
+	private static final String METER_NAME = "ojp-server";
+
+	private OpenTelemetry openTelemetry = OpenTelemetry.noop();
 
 	/**
 	 * Creates GrpcTelemetry with default configuration.
@@ -49,7 +54,7 @@ public class OjpServerTelemetry {
 				.setPort(prometheusPort)
 				.build();
 
-		OpenTelemetry openTelemetry = OpenTelemetrySdk.builder()
+		openTelemetry = OpenTelemetrySdk.builder()
 				.setMeterProvider(
 						SdkMeterProvider.builder()
 								.registerMetricReader(prometheusServer)
@@ -64,6 +69,31 @@ public class OjpServerTelemetry {
 	 */
 	public GrpcTelemetry createNoOpGrpcTelemetry() {
 		logger.info("OpenTelemetry disabled, using no-op implementation");
-		return GrpcTelemetry.create(OpenTelemetry.noop());
+		openTelemetry = OpenTelemetry.noop();
+		return GrpcTelemetry.create(openTelemetry);
+	}
+
+	/**
+	 * Exports the hits, misses, evictions and invalidations of the prepared statement cache, and the number of
+	 * connections it holds statements for, with the telemetry created last.
+	 */
+	public void registerPreparedStatementCacheMetrics(PreparedStatementCache cache) {
+		Meter meter = openTelemetry.getMeter(METER_NAME);
+		meter.counterBuilder("ojp.prepared_statement_cache.hits")
+				.setDescription("Prepared statements borrowed from the cache")
+				.buildWithCallback(measurement -> measurement.record(cache.getHits()));
+		meter.counterBuilder("ojp.prepared_statement_cache.misses")
+				.setDescription("Prepared statements not found in the cache and prepared")
+				.buildWithCallback(measurement -> measurement.record(cache.getMisses()));
+		meter.counterBuilder("ojp.prepared_statement_cache.evictions")
+				.setDescription("Least recently used prepared statements closed to make room in the cache")
+				.buildWithCallback(measurement -> measurement.record(cache.getEvictions()));
+		meter.counterBuilder("ojp.prepared_statement_cache.invalidations")
+				.setDescription("Cached prepared statements closed with their closed or broken connection")
+				.buildWithCallback(measurement -> measurement.record(cache.getInvalidations()));
+		meter.gaugeBuilder("ojp.prepared_statement_cache.connections")
+				.ofLongs()
+				.setDescription("Physical connections holding cached prepared statements")
+				.buildWithCallback(measurement -> measurement.record(cache.getConnectionCount()));
 	}
 }
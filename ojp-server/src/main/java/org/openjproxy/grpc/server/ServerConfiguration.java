@@ -21,6 +21,7 @@ public class ServerConfiguration {
     private static final String OPENTELEMETRY_ENABLED_KEY = "ojp.opentelemetry.enabled";
     private static final String OPENTELEMETRY_ENDPOINT_KEY = "ojp.opentelemetry.endpoint";
     private static final String THREAD_POOL_SIZE_KEY = "ojp.server.threadPoolSize";
+    private static final String EXECUTOR_MODE_KEY = "ojp.server.executorMode";
     private static final String MAX_REQUEST_SIZE_KEY = "ojp.server.maxRequestSize";
     private static final String LOG_LEVEL_KEY = "ojp.server.logLevel";
     private static final String ALLOWED_IPS_KEY = "ojp.server.allowedIps";
@@ -56,6 +57,24 @@ public class ServerConfiguration {
     private static final String SESSION_CLEANUP_ENABLED_KEY = "ojp.server.sessionCleanup.enabled";
     private static final String SESSION_TIMEOUT_MINUTES_KEY = "ojp.server.sessionCleanup.timeoutMinutes";
     private static final String SESSION_CLEANUP_INTERVAL_MINUTES_KEY = "ojp.server.sessionCleanup.intervalMinutes";
+
+    // Result set block sizing configuration keys
+    private static final String RESULT_SET_FIRST_BLOCK_BYTES_KEY = "ojp.server.resultSet.firstBlockBytes";
+    private static final String RESULT_SET_MAX_BLOCK_BYTES_KEY = "ojp.server.resultSet.maxBlockBytes";
+
+    // LOB block sizing configuration keys
+    private static final String LOB_MAX_BLOCK_BYTES_KEY = "ojp.server.lob.maxBlockBytes";
+    private static final String LOB_INLINE_THRESHOLD_KEY = "ojp.server.lob.inlineThreshold";
+
+    // LOB staging configuration keys
+    private static final String LOB_MEMORY_THRESHOLD_BYTES_KEY = "ojp.server.lob.memoryThresholdBytes";
+    private static final String LOB_SPILL_DIRECTORY_KEY = "ojp.server.lob.spillDirectory";
+    private static final String LOB_SPILL_QUOTA_BYTES_KEY = "ojp.server.lob.spillQuotaBytes";
+    private static final String LOB_HYDRATION_WINDOW_ROWS_KEY = "ojp.server.lob.hydrationWindowRows";
+    private static final String LOB_HYDRATION_MEMORY_BYTES_KEY = "ojp.server.lob.hydrationMemoryBytes";
+
+    // Prepared statement cache configuration keys
+    private static final String PREPARED_STATEMENT_CACHE_SIZE_KEY = "ojp.server.preparedStatementCache.size";
     
 
     // Default values
@@ -64,6 +83,9 @@ public class ServerConfiguration {
     public static final boolean DEFAULT_OPENTELEMETRY_ENABLED = true;
     public static final String DEFAULT_OPENTELEMETRY_ENDPOINT = "";
     public static final int DEFAULT_THREAD_POOL_SIZE = 200;
+    public static final String EXECUTOR_MODE_PLATFORM = "platform";
+    public static final String EXECUTOR_MODE_VIRTUAL = "virtual";
+    public static final String DEFAULT_EXECUTOR_MODE = EXECUTOR_MODE_PLATFORM; // platform (fixed thread pool) or virtual (thread per request)
     public static final int DEFAULT_MAX_REQUEST_SIZE = 4 * 1024 * 1024; // 4MB
     public static final String DEFAULT_LOG_LEVEL = "INFO";
     public static final boolean DEFAULT_ACCESS_LOGGING = false;
@@ -102,6 +124,24 @@ public class ServerConfiguration {
     public static final boolean DEFAULT_SESSION_CLEANUP_ENABLED = true; // Enable session cleanup by default
     public static final long DEFAULT_SESSION_TIMEOUT_MINUTES = 30; // 30 minutes session timeout
     public static final long DEFAULT_SESSION_CLEANUP_INTERVAL_MINUTES = 5; // Run cleanup every 5 minutes
+
+    // Result set block sizing default values
+    public static final int DEFAULT_RESULT_SET_FIRST_BLOCK_BYTES = 16 * 1024; // 16KB, small first block for a fast first row
+    public static final int DEFAULT_RESULT_SET_MAX_BLOCK_BYTES = 1024 * 1024; // 1MB, well below the client 16MB message limit
+
+    // LOB block sizing default values
+    public static final int DEFAULT_LOB_MAX_BLOCK_BYTES = CommonConstants.MAX_LOB_DATA_BLOCK_SIZE; // 1MB, largest LOB block sent to a client
+    public static final int DEFAULT_LOB_INLINE_THRESHOLD = 16 * 1024; // CLOBs up to 16K characters are sent inside the rows
+
+    // LOB staging default values
+    public static final long DEFAULT_LOB_MEMORY_THRESHOLD_BYTES = 4L * 1024 * 1024; // 4MB of an uploaded stream kept in heap
+    public static final String DEFAULT_LOB_SPILL_DIRECTORY = System.getProperty("java.io.tmpdir");
+    public static final long DEFAULT_LOB_SPILL_QUOTA_BYTES = 10L * 1024 * 1024 * 1024; // 10GB of temp files for the whole server
+    public static final int DEFAULT_LOB_HYDRATION_WINDOW_ROWS = 100; // SQL Server and DB2 rows with LOBs read at once, 0 = row by row
+    public static final long DEFAULT_LOB_HYDRATION_MEMORY_BYTES = 64L * 1024 * 1024; // 64MB of CLOB copies in heap for the whole server
+
+    // Prepared statement cache default values
+    public static final int DEFAULT_PREPARED_STATEMENT_CACHE_SIZE = 0; // Statements cached per pooled connection, 0 = disabled
     
     // XA pooling default values
     public static final boolean DEFAULT_XA_POOLING_ENABLED = true; // Enable XA pooling by default
@@ -117,6 +157,7 @@ public class ServerConfiguration {
     private final boolean openTelemetryEnabled;
     private final String openTelemetryEndpoint;
     private final int threadPoolSize;
+    private final String executorMode;
     private final int maxRequestSize;
     private final String logLevel;
     private final List<String> allowedIps;
@@ -152,6 +193,24 @@ public class ServerConfiguration {
     private final boolean sessionCleanupEnabled;
     private final long sessionTimeoutMinutes;
     private final long sessionCleanupIntervalMinutes;
+
+    // Result set block sizing configuration
+    private final int resultSetFirstBlockBytes;
+    private final int resultSetMaxBlockBytes;
+
+    // LOB block sizing configuration
+    private final int lobMaxBlockBytes;
+    private final int lobInlineThreshold;
+
+    // LOB staging configuration
+    private final long lobMemoryThresholdBytes;
+    private final String lobSpillDirectory;
+    private final long lobSpillQuotaBytes;
+    private final int lobHydrationWindowRows;
+    private final long lobHydrationMemoryBytes;
+
+    // Prepared statement cache configuration
+    private final int preparedStatementCacheSize;
     
 
     public ServerConfiguration() {
@@ -160,6 +219,7 @@ public class ServerConfiguration {
         this.openTelemetryEnabled = getBooleanProperty(OPENTELEMETRY_ENABLED_KEY, DEFAULT_OPENTELEMETRY_ENABLED);
         this.openTelemetryEndpoint = getStringProperty(OPENTELEMETRY_ENDPOINT_KEY, DEFAULT_OPENTELEMETRY_ENDPOINT);
         this.threadPoolSize = getIntProperty(THREAD_POOL_SIZE_KEY, DEFAULT_THREAD_POOL_SIZE);
+        this.executorMode = getExecutorModeProperty(EXECUTOR_MODE_KEY, DEFAULT_EXECUTOR_MODE);
         this.maxRequestSize = getIntProperty(MAX_REQUEST_SIZE_KEY, DEFAULT_MAX_REQUEST_SIZE);
         this.logLevel = getStringProperty(LOG_LEVEL_KEY, DEFAULT_LOG_LEVEL);
         this.allowedIps = getListProperty(ALLOWED_IPS_KEY, DEFAULT_ALLOWED_IPS);
@@ -195,6 +255,24 @@ public class ServerConfiguration {
         this.sessionCleanupEnabled = getBooleanProperty(SESSION_CLEANUP_ENABLED_KEY, DEFAULT_SESSION_CLEANUP_ENABLED);
         this.sessionTimeoutMinutes = getLongProperty(SESSION_TIMEOUT_MINUTES_KEY, DEFAULT_SESSION_TIMEOUT_MINUTES);
         this.sessionCleanupIntervalMinutes = getLongProperty(SESSION_CLEANUP_INTERVAL_MINUTES_KEY, DEFAULT_SESSION_CLEANUP_INTERVAL_MINUTES);
+
+        // Result set block sizing configuration
+        this.resultSetFirstBlockBytes = getIntProperty(RESULT_SET_FIRST_BLOCK_BYTES_KEY, DEFAULT_RESULT_SET_FIRST_BLOCK_BYTES);
+        this.resultSetMaxBlockBytes = getIntProperty(RESULT_SET_MAX_BLOCK_BYTES_KEY, DEFAULT_RESULT_SET_MAX_BLOCK_BYTES);
+
+        // LOB block sizing configuration
+        this.lobMaxBlockBytes = getIntProperty(LOB_MAX_BLOCK_BYTES_KEY, DEFAULT_LOB_MAX_BLOCK_BYTES);
+        this.lobInlineThreshold = getIntProperty(LOB_INLINE_THRESHOLD_KEY, DEFAULT_LOB_INLINE_THRESHOLD);
+
+        // LOB staging configuration
+        this.lobMemoryThresholdBytes = getLongProperty(LOB_MEMORY_THRESHOLD_BYTES_KEY, DEFAULT_LOB_MEMORY_THRESHOLD_BYTES);
+        this.lobSpillDirectory = getStringProperty(LOB_SPILL_DIRECTORY_KEY, DEFAULT_LOB_SPILL_DIRECTORY);
+        this.lobSpillQuotaBytes = getLongProperty(LOB_SPILL_QUOTA_BYTES_KEY, DEFAULT_LOB_SPILL_QUOTA_BYTES);
+        this.lobHydrationWindowRows = getIntProperty(LOB_HYDRATION_WINDOW_ROWS_KEY, DEFAULT_LOB_HYDRATION_WINDOW_ROWS);
+        this.lobHydrationMemoryBytes = getLongProperty(LOB_HYDRATION_MEMORY_BYTES_KEY, DEFAULT_LOB_HYDRATION_MEMORY_BYTES);
+
+        // Prepared statement cache configuration
+        this.preparedStatementCacheSize = getIntProperty(PREPARED_STATEMENT_CACHE_SIZE_KEY, DEFAULT_PREPARED_STATEMENT_CACHE_SIZE);
         
 
         logConfigurationSummary();
@@ -249,6 +327,18 @@ public class ServerConfiguration {
         }
     }
 
+    /**
+     * Gets an executor mode property value with validation.
+     */
+    private String getExecutorModeProperty(String key, String defaultValue) {
+        String value = getStringProperty(key, defaultValue).trim().toLowerCase();
+        if (!EXECUTOR_MODE_PLATFORM.equals(value) && !EXECUTOR_MODE_VIRTUAL.equals(value)) {
+            logger.warn("Invalid executor mode for property '{}': {}, using default: {}", key, value, defaultValue);
+            return defaultValue;
+        }
+        return value;
+    }
+
     /**
      * Gets a boolean property value.
      */
@@ -280,7 +370,8 @@ public class ServerConfiguration {
         logger.info("  Prometheus Port: {}", prometheusPort);
         logger.info("  OpenTelemetry Enabled: {}", openTelemetryEnabled);
         logger.info("  OpenTelemetry Endpoint: {}", openTelemetryEndpoint.isEmpty() ? "default" : openTelemetryEndpoint);
-        logger.info("  Thread Pool Size: {}", threadPoolSize);
+        logger.info("  Executor Mode: {}", executorMode);
+        logger.info("  Thread Pool Size: {}", isVirtualThreadExecutor() ? "unbounded (virtual threads)" : threadPoolSize);
         logger.info("  Max Request Size: {} bytes", maxRequestSize);
         logger.info("  Log Level: {}", logLevel);
         logger.info("  Allowed IPs: {}", allowedIps);
@@ -309,6 +400,19 @@ public class ServerConfiguration {
         logger.info("  Session Cleanup Enabled: {}", sessionCleanupEnabled);
         logger.info("  Session Timeout: {} minutes", sessionTimeoutMinutes);
         logger.info("  Cleanup Interval: {} minutes", sessionCleanupIntervalMinutes);
+        logger.info("Result Set Configuration:");
+        logger.info("  First Block Size: {} bytes", resultSetFirstBlockBytes);
+        logger.info("  Max Block Size: {} bytes", resultSetMaxBlockBytes);
+        logger.info("LOB Configuration:");
+        logger.info("  Max Block Size: {} bytes", lobMaxBlockBytes);
+        logger.info("  Inline Threshold: {} characters", lobInlineThreshold);
+        logger.info("  Memory Threshold: {} bytes", lobMemoryThresholdBytes);
+        logger.info("  Spill Directory: {}", lobSpillDirectory);
+        logger.info("  Spill Quota: {} bytes", lobSpillQuotaBytes);
+        logger.info("  Hydration Window: {}", lobHydrationWindowRows > 0 ? lobHydrationWindowRows + " rows" : "disabled");
+        logger.info("  Hydration Memory: {} bytes", lobHydrationMemoryBytes);
+        logger.info("Prepared Statement Cache Configuration:");
+        logger.info("  Statements Per Connection: {}", preparedStatementCacheSize > 0 ? preparedStatementCacheSize : "disabled");
     }
 
     // Getters
@@ -332,6 +436,18 @@ public class ServerConfiguration {
         return threadPoolSize;
     }
 
+    public String getExecutorMode() {
+        return executorMode;
+    }
+
+    /**
+     * Tells if each gRPC call runs on its own virtual thread instead of a thread of the fixed size pool, leaving the
+     * connection pools and the slow query segregation slots as the only bounds on concurrency.
+     */
+    public boolean isVirtualThreadExecutor() {
+        return EXECUTOR_MODE_VIRTUAL.equals(executorMode);
+    }
+
     public int getMaxRequestSize() {
         return maxRequestSize;
     }
@@ -455,5 +571,45 @@ public class ServerConfiguration {
     public long getSessionCleanupIntervalMinutes() {
         return sessionCleanupIntervalMinutes;
     }
-    
-}
\ No newline at end of file
+
+    public int getResultSetFirstBlockBytes() {
+        return resultSetFirstBlockBytes;
+    }
+
+    public int getResultSetMaxBlockBytes() {
+        return resultSetMaxBlockBytes;
+    }
+
+    public int getLobMaxBlockBytes() {
+        return lobMaxBlockBytes;
+    }
+
+    public int getLobInlineThreshold() {
+        return lobInlineThreshold;
+    }
+
+    public long getLobMemoryThresholdBytes() {
+        return lobMemoryThresholdBytes;
+    }
+
+    public String getLobSpillDirectory() {
+        return lobSpillDirectory;
+    }
+
+    public long getLobSpillQuotaBytes() {
+        return lobSpillQuotaBytes;
+    }
+
+    public int getLobHydrationWindowRows() {
+        return lobHydrationWindowRows;
+    }
+
+    public long getLobHydrationMemoryBytes() {
+        return lobHydrationMemoryBytes;
+    }
+
+    public int getPreparedStatementCacheSize() {
+        return preparedStatementCacheSize;
+    }
+
+}
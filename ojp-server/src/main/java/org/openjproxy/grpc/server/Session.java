@@ -3,6 +3,8 @@ package org.openjproxy.grpc.server;
 import com.openjproxy.grpc.SessionInfo;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.grpc.server.resultset.ResultSetBlockReader;
+import org.openjproxy.grpc.server.statement.CachedPreparedStatement;
 
 import javax.sql.XAConnection;
 import javax.transaction.xa.XAResource;
@@ -16,6 +18,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Holds information about a session of a given client.
@@ -38,9 +41,11 @@ public class Session {
     @Getter
     private Object backendSession; // Holds XABackendSession for XA pooling (avoids hard dependency)
     private Map<String, ResultSet> resultSetMap;
+    private Map<String, ResultSetBlockReader> blockReaderMap;
     private Map<String, Statement> statementMap;
     private Map<String, PreparedStatement> preparedStatementMap;
     private Map<String, CallableStatement> callableStatementMap;
+    private Map<String, CachedPreparedStatement> cachedStatementMap;
     private Map<String, Object> lobMap;
     private Map<String, Object> attrMap;
     private boolean closed;
@@ -49,6 +54,8 @@ public class Session {
     private volatile long lastActivityTime;
     @Getter
     private final long creationTime;
+    // Not synchronized: binding opens the physical connection, which would pin the carrier of a virtual thread
+    private final ReentrantLock xaBindingLock = new ReentrantLock();
 
     public Session(Connection connection, String connectionHash, String clientUUID) {
         this(connection, connectionHash, clientUUID, false, null);
@@ -65,9 +72,11 @@ public class Session {
         this.creationTime = System.currentTimeMillis();
         this.lastActivityTime = this.creationTime;
         this.resultSetMap = new ConcurrentHashMap<>();
+        this.blockReaderMap = new ConcurrentHashMap<>();
         this.statementMap = new ConcurrentHashMap<>();
         this.preparedStatementMap = new ConcurrentHashMap<>();
         this.callableStatementMap = new ConcurrentHashMap<>();
+        this.cachedStatementMap = new ConcurrentHashMap<>();
         this.lobMap = new ConcurrentHashMap<>();
         this.attrMap = new ConcurrentHashMap<>();
         
@@ -89,33 +98,38 @@ public class Session {
      * @param backendSession The XABackendSession wrapper (from XA pool)
      * @throws IllegalStateException if XAConnection is already bound (unless both parameters are null for unbinding)
      */
-    public synchronized void bindXAConnection(XAConnection xaConn, Object backendSession) {
-        // Allow unbinding by passing null for both parameters
-        if (xaConn == null && backendSession == null) {
-            this.xaConnection = null;
-            this.backendSession = null;
-            this.connection = null;
-            this.xaResource = null;
-            log.debug("Unbound XAConnection from session {}", sessionUUID);
-            return;
-        }
-        
-        if (this.xaConnection != null) {
-            throw new IllegalStateException("XAConnection already bound to session");
-        }
-        if (!this.isXA) {
-            throw new IllegalStateException("Cannot bind XAConnection to non-XA session");
-        }
-        
+    public void bindXAConnection(XAConnection xaConn, Object backendSession) {
+        xaBindingLock.lock();
         try {
-            this.xaConnection = xaConn;
-            this.backendSession = backendSession;
-            this.connection = xaConn.getConnection();
-            this.xaResource = xaConn.getXAResource();
-            log.debug("Bound XAConnection to session {}", sessionUUID);
-        } catch (SQLException e) {
-            log.error("Failed to bind XAConnection", e);
-            throw new RuntimeException("Failed to bind XAConnection", e);
+            // Allow unbinding by passing null for both parameters
+            if (xaConn == null && backendSession == null) {
+                this.xaConnection = null;
+                this.backendSession = null;
+                this.connection = null;
+                this.xaResource = null;
+                log.debug("Unbound XAConnection from session {}", sessionUUID);
+                return;
+            }
+
+            if (this.xaConnection != null) {
+                throw new IllegalStateException("XAConnection already bound to session");
+            }
+            if (!this.isXA) {
+                throw new IllegalStateException("Cannot bind XAConnection to non-XA session");
+            }
+
+            try {
+                this.xaConnection = xaConn;
+                this.backendSession = backendSession;
+                this.connection = xaConn.getConnection();
+                this.xaResource = xaConn.getXAResource();
+                log.debug("Bound XAConnection to session {}", sessionUUID);
+            } catch (SQLException e) {
+                log.error("Failed to bind XAConnection", e);
+                throw new RuntimeException("Failed to bind XAConnection", e);
+            }
+        } finally {
+            xaBindingLock.unlock();
         }
     }
     
@@ -193,6 +207,20 @@ public class Session {
         return this.resultSetMap.get(uuid);
     }
 
+    /**
+     * Keeps the reader of a result set sent in blocks, so the blocks requested with fetchNextRows are read with the
+     * extractors and options of the query.
+     */
+    public void addBlockReader(String resultSetUUID, ResultSetBlockReader blockReader) {
+        this.notClosed();
+        this.blockReaderMap.put(resultSetUUID, blockReader);
+    }
+
+    public ResultSetBlockReader getBlockReader(String resultSetUUID) {
+        this.notClosed();
+        return this.blockReaderMap.get(resultSetUUID);
+    }
+
     public void addStatement(String uuid, Statement stmt) {
         this.notClosed();
         this.statementMap.put(uuid, stmt);
@@ -223,6 +251,28 @@ public class Session {
         return this.callableStatementMap.get(uuid);
     }
 
+    /**
+     * Keeps a statement borrowed from the prepared statement cache until its result set is consumed or the session
+     * ends.
+     */
+    public void addCachedStatement(String resultSetUUID, CachedPreparedStatement cachedStatement) {
+        this.notClosed();
+        this.cachedStatementMap.put(resultSetUUID, cachedStatement);
+    }
+
+    /**
+     * Returns the statement of a result set to the prepared statement cache, if the result set cannot be used once
+     * all its rows have been read.
+     */
+    public void releaseCachedStatement(String resultSetUUID) {
+        this.notClosed();
+        CachedPreparedStatement cachedStatement = this.cachedStatementMap.get(resultSetUUID);
+        if (cachedStatement != null && cachedStatement.isReleasableWhenConsumed()) {
+            this.cachedStatementMap.remove(resultSetUUID);
+            cachedStatement.release();
+        }
+    }
+
     public void addLob(String uuid, Object o) {
         this.notClosed();
         if (o != null) {
@@ -235,6 +285,24 @@ public class Session {
         return (T) this.lobMap.get(uuid);
     }
 
+    /**
+     * Drops the block readers of the result sets closed since and discards the CLOB copies read from them, the client
+     * can no longer read them.
+     */
+    public void releaseClosedResultSets() {
+        if (this.closed) {
+            return;
+        }
+        this.blockReaderMap.values().removeIf(ResultSetBlockReader::isResultSetClosed);
+        this.lobMap.entrySet().removeIf(entry -> {
+            if (entry.getValue() instanceof StagedClob stagedClob && stagedClob.isResultSetClosed()) {
+                stagedClob.discard();
+                return true;
+            }
+            return false;
+        });
+    }
+
     private void notClosed() {
         if (this.closed) {
             throw new RuntimeException("Session is closed.");
@@ -247,6 +315,18 @@ public class Session {
             return;
         }
 
+        // Statements borrowed from the prepared statement cache go back to it before the connection returns to the pool
+        for (CachedPreparedStatement cachedStatement : this.cachedStatementMap.values()) {
+            cachedStatement.release();
+        }
+
+        // Staged LOBs not read yet are dropped with their temp files
+        for (Object lob : this.lobMap.values()) {
+            if (lob instanceof LobStagingStore.Staged staged) {
+                staged.discard();
+            }
+        }
+
         // For XA connections with pooled XABackendSession, DO NOT close anything here
         // The XATransactionRegistry handles returning sessions to the pool via returnCompletedSessions()
         // which is called when the OJP XAConnection is closed (dual-condition lifecycle)
@@ -271,8 +351,10 @@ public class Session {
         this.closed = true;
         this.lobMap = null;
         this.resultSetMap = null;
+        this.blockReaderMap = null;
         this.statementMap = null;
         this.preparedStatementMap = null;
+        this.cachedStatementMap = null;
         this.connection = null;
         this.xaConnection = null;
         this.xaResource = null;
@@ -2,10 +2,13 @@ package org.openjproxy.grpc.server;
 
 import com.openjproxy.grpc.SessionInfo;
 import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.grpc.server.statement.PreparedStatementCache;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Background task that periodically cleans up abandoned sessions.
@@ -19,6 +22,8 @@ import java.util.List;
  * <ol>
  *   <li>Identifies sessions inactive beyond timeout threshold</li>
  *   <li>Terminates each abandoned session (releasing connections and resources)</li>
+ *   <li>Discards the LOBs staged for sessions no longer alive, deleting their temp files</li>
+ *   <li>Invalidates the cached prepared statements of the connections closed by their pool</li>
  *   <li>Logs cleanup actions for monitoring</li>
  * </ol>
  */
@@ -27,6 +32,7 @@ public class SessionCleanupTask implements Runnable {
 
     private final SessionManager sessionManager;
     private final long sessionTimeoutMillis;
+    private final PreparedStatementCache preparedStatementCache;
 
     /**
      * Creates a new session cleanup task.
@@ -35,8 +41,21 @@ public class SessionCleanupTask implements Runnable {
      * @param sessionTimeoutMillis the inactivity timeout in milliseconds
      */
     public SessionCleanupTask(SessionManager sessionManager, long sessionTimeoutMillis) {
+        this(sessionManager, sessionTimeoutMillis, null);
+    }
+
+    /**
+     * Creates a new session cleanup task also cleaning up the prepared statement cache.
+     *
+     * @param sessionManager the session manager to clean up
+     * @param sessionTimeoutMillis the inactivity timeout in milliseconds
+     * @param preparedStatementCache the prepared statement cache of the server, null if none
+     */
+    public SessionCleanupTask(SessionManager sessionManager, long sessionTimeoutMillis,
+                              PreparedStatementCache preparedStatementCache) {
         this.sessionManager = sessionManager;
         this.sessionTimeoutMillis = sessionTimeoutMillis;
+        this.preparedStatementCache = preparedStatementCache;
     }
 
     @Override
@@ -56,6 +75,8 @@ public class SessionCleanupTask implements Runnable {
             
             if (inactiveSessions.isEmpty()) {
                 log.debug("No inactive sessions found (total sessions: {})", allSessions.size());
+                discardOrphanedLobs();
+                cleanupPreparedStatementCache();
                 return;
             }
             
@@ -87,9 +108,40 @@ public class SessionCleanupTask implements Runnable {
             }
             
             log.info("Session cleanup completed: {} sessions terminated", inactiveSessions.size());
+            discardOrphanedLobs();
+            cleanupPreparedStatementCache();
             
         } catch (Exception e) {
             log.error("Unexpected error during session cleanup", e);
         }
     }
+
+    /**
+     * Drops the cached prepared statements of the connections evicted from their pool and logs the cache statistics.
+     */
+    private void cleanupPreparedStatementCache() {
+        if (preparedStatementCache == null || !preparedStatementCache.isEnabled()) {
+            return;
+        }
+        preparedStatementCache.invalidateClosedConnections();
+        log.info(preparedStatementCache.getStats());
+    }
+
+    /**
+     * Discards the LOBs staged for sessions gone without being terminated.
+     */
+    private void discardOrphanedLobs() {
+        LobStagingStore lobStagingStore = sessionManager.getLobStagingStore();
+        if (lobStagingStore == null) {
+            return;
+        }
+        Set<String> liveSessionUUIDs = new HashSet<>();
+        for (Session session : sessionManager.getAllSessions()) {
+            liveSessionUUIDs.add(session.getSessionUUID());
+        }
+        int discarded = lobStagingStore.discardOrphans(liveSessionUUIDs);
+        if (discarded > 0) {
+            log.info("Discarded {} orphaned lobs", discarded);
+        }
+    }
 }
@@ -2,6 +2,9 @@ package org.openjproxy.grpc.server;
 
 import com.openjproxy.grpc.SessionInfo;
 
+import org.openjproxy.grpc.server.resultset.ResultSetBlockReader;
+import org.openjproxy.grpc.server.statement.CachedPreparedStatement;
+
 import javax.sql.XAConnection;
 import java.sql.CallableStatement;
 import java.sql.Connection;
@@ -23,12 +26,17 @@ public interface SessionManager {
     Connection getConnection(SessionInfo sessionInfo);
     String registerResultSet(SessionInfo sessionInfo, ResultSet rs);
     ResultSet getResultSet(SessionInfo sessionInfo, String uuid);
+    void registerBlockReader(SessionInfo sessionInfo, String resultSetUUID, ResultSetBlockReader blockReader);
+    ResultSetBlockReader getBlockReader(SessionInfo sessionInfo, String resultSetUUID);
     String registerStatement(SessionInfo sessionInfo, Statement stmt);
     Statement getStatement(SessionInfo sessionInfo, String uuid);
     String registerPreparedStatement(SessionInfo sessionInfo, PreparedStatement ps);
     PreparedStatement getPreparedStatement(SessionInfo sessionInfo, String uuid);
     String registerCallableStatement(SessionInfo sessionInfo, CallableStatement cs);
     CallableStatement getCallableStatement(SessionInfo sessionInfo, String uuid);
+    void registerCachedStatement(SessionInfo sessionInfo, String resultSetUUID, CachedPreparedStatement cachedStatement);
+    void releaseCachedStatement(SessionInfo sessionInfo, String resultSetUUID);
+    void releaseClosedResultSets(SessionInfo sessionInfo);
     void registerLob(SessionInfo sessionInfo, Object o, String lobUuid);
     <T> T getLob(SessionInfo sessionInfo, String uuid);
     Collection<Object> getLobs(SessionInfo sessionInfo);
@@ -38,5 +46,6 @@ public interface SessionManager {
     Object getAttr(SessionInfo sessionInfo, String key);
     void updateSessionActivity(SessionInfo sessionInfo);
     Collection<Session> getAllSessions();
+    LobStagingStore getLobStagingStore();
 
 }
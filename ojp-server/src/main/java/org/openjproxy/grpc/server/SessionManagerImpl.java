@@ -4,6 +4,8 @@ import com.openjproxy.grpc.SessionInfo;
 import com.openjproxy.grpc.TransactionStatus;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.grpc.server.resultset.ResultSetBlockReader;
+import org.openjproxy.grpc.server.statement.CachedPreparedStatement;
 
 import javax.sql.XAConnection;
 import java.sql.CallableStatement;
@@ -23,6 +25,15 @@ public class SessionManagerImpl implements SessionManager {
 
     private Map<String, String> connectionHashMap = new ConcurrentHashMap<>();
     private Map<String, Session> sessionMap = new ConcurrentHashMap<>();
+    private final LobStagingStore lobStagingStore;
+
+    public SessionManagerImpl() {
+        this(new LobStagingStore());
+    }
+
+    public SessionManagerImpl(LobStagingStore lobStagingStore) {
+        this.lobStagingStore = lobStagingStore;
+    }
 
     @Override
     public void registerClientUUID(String connectionHash, String clientUUID) {
@@ -82,6 +93,16 @@ public class SessionManagerImpl implements SessionManager {
         return this.sessionMap.get(sessionInfo.getSessionUUID()).getResultSet(uuid);
     }
 
+    @Override
+    public void registerBlockReader(SessionInfo sessionInfo, String resultSetUUID, ResultSetBlockReader blockReader) {
+        this.sessionMap.get(sessionInfo.getSessionUUID()).addBlockReader(resultSetUUID, blockReader);
+    }
+
+    @Override
+    public ResultSetBlockReader getBlockReader(SessionInfo sessionInfo, String resultSetUUID) {
+        return this.sessionMap.get(sessionInfo.getSessionUUID()).getBlockReader(resultSetUUID);
+    }
+
     @Override
     public String registerStatement(SessionInfo sessionInfo, Statement stmt) {
         String uuid = UUID.randomUUID().toString();
@@ -118,6 +139,28 @@ public class SessionManagerImpl implements SessionManager {
         return this.sessionMap.get(sessionInfo.getSessionUUID()).getCallableStatement(uuid);
     }
 
+    @Override
+    public void registerCachedStatement(SessionInfo sessionInfo, String resultSetUUID,
+                                        CachedPreparedStatement cachedStatement) {
+        this.sessionMap.get(sessionInfo.getSessionUUID()).addCachedStatement(resultSetUUID, cachedStatement);
+    }
+
+    @Override
+    public void releaseCachedStatement(SessionInfo sessionInfo, String resultSetUUID) {
+        Session session = this.sessionMap.get(sessionInfo.getSessionUUID());
+        if (session != null) {
+            session.releaseCachedStatement(resultSetUUID);
+        }
+    }
+
+    @Override
+    public void releaseClosedResultSets(SessionInfo sessionInfo) {
+        Session session = this.sessionMap.get(sessionInfo.getSessionUUID());
+        if (session != null) {
+            session.releaseClosedResultSets();
+        }
+    }
+
     @Override
     public void registerLob(SessionInfo sessionInfo, Object lob, String lobUuid) {
         log.debug("Registering LOB with UUID {} for session {}", lobUuid, sessionInfo.getSessionUUID());
@@ -180,9 +223,7 @@ public class SessionManagerImpl implements SessionManager {
         log.info("{} binary stream lobs found ", binaryStreamsLobs.size());
         for (LobDataBlocksInputStream lob : binaryStreamsLobs) {
             log.info("Verifying that lob {} is fully consumed.", lob.getUuid());
-            while (!lob.getFullyConsumed().get()) {
-                Thread.sleep(10);
-            }
+            lob.getConsumption().join();
             log.info("Lob {} fully consumed.", lob.getUuid());
             //During postgres tests it was found out that if the update is executed immediately after the lob injection
             //the lob is not yet set in the prepared statement, this thread sleep currently is required as per there is
@@ -221,4 +262,9 @@ public class SessionManagerImpl implements SessionManager {
         return this.sessionMap.values();
     }
 
+    @Override
+    public LobStagingStore getLobStagingStore() {
+        return this.lobStagingStore;
+    }
+
 }
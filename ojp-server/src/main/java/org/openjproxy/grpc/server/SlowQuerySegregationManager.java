@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Manages slow query segregation by combining performance monitoring with slot management.
  * 
@@ -77,38 +79,73 @@ public class SlowQuerySegregationManager {
      * @throws Exception if the operation fails or slot acquisition times out
      */
     public <T> T executeWithSegregation(String operationHash, SegregatedOperation<T> operation) throws Exception {
+        SegregatedExecution execution = start(operationHash);
+        try {
+            return operation.execute();
+        } finally {
+            execution.end();
+        }
+    }
+
+    /**
+     * Starts an operation that ends after the calling method returned, such as a query whose result set is still
+     * being streamed to the client. The slot is acquired as in {@link #executeWithSegregation} but held, and the
+     * execution time measured, until {@link SegregatedExecution#end()} is called.
+     *
+     * @param operationHash The hash of the SQL operation
+     * @return The execution to end once the operation is over
+     * @throws RuntimeException if slot acquisition times out
+     */
+    public SegregatedExecution start(String operationHash) throws InterruptedException {
         if (!enabled) {
-            // If segregation is disabled, just execute and monitor performance
-            return executeAndMonitor(operationHash, operation);
+            // If segregation is disabled, just monitor performance
+            return new SegregatedExecution(operationHash, false, false);
         }
         
         // Determine if this is a slow or fast operation
         boolean isSlowOperation = performanceMonitor.isSlowOperation(operationHash);
         
         // Acquire appropriate slot
-        boolean slotAcquired = false;
-        long startTime = System.currentTimeMillis();
-        
-        try {
-            if (isSlowOperation) {
-                slotAcquired = slotManager.acquireSlowSlot(slowSlotTimeoutMs);
-                if (!slotAcquired) {
-                    throw new RuntimeException("Timeout waiting for slow operation slot for operation: " + operationHash);
-                }
-                log.debug("Acquired slow slot for operation: {}", operationHash);
-            } else {
-                slotAcquired = slotManager.acquireFastSlot(fastSlotTimeoutMs);
-                if (!slotAcquired) {
-                    throw new RuntimeException("Timeout waiting for fast operation slot for operation: " + operationHash);
-                }
-                log.debug("Acquired fast slot for operation: {}", operationHash);
+        if (isSlowOperation) {
+            if (!slotManager.acquireSlowSlot(slowSlotTimeoutMs)) {
+                throw new RuntimeException("Timeout waiting for slow operation slot for operation: " + operationHash);
             }
-            
-            // Execute the operation and monitor its performance
-            return executeAndMonitor(operationHash, operation);
-            
-        } finally {
-            // Always release the slot
+            log.debug("Acquired slow slot for operation: {}", operationHash);
+        } else {
+            if (!slotManager.acquireFastSlot(fastSlotTimeoutMs)) {
+                throw new RuntimeException("Timeout waiting for fast operation slot for operation: " + operationHash);
+            }
+            log.debug("Acquired fast slot for operation: {}", operationHash);
+        }
+        return new SegregatedExecution(operationHash, true, isSlowOperation);
+    }
+
+    /**
+     * Operation started with {@link #start(String)}, holding its slot until ended.
+     */
+    public final class SegregatedExecution {
+        private final String operationHash;
+        private final boolean slotAcquired;
+        private final boolean isSlowOperation;
+        private final long startTime = System.currentTimeMillis();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private SegregatedExecution(String operationHash, boolean slotAcquired, boolean isSlowOperation) {
+            this.operationHash = operationHash;
+            this.slotAcquired = slotAcquired;
+            this.isSlowOperation = isSlowOperation;
+        }
+
+        /**
+         * Records the execution time of the operation, failed or not, and releases its slot. Only the first call
+         * has an effect.
+         */
+        public void end() {
+            if (!ended.compareAndSet(false, true)) {
+                return;
+            }
+            long executionTime = System.currentTimeMillis() - startTime;
+            performanceMonitor.recordExecutionTime(operationHash, executionTime);
             if (slotAcquired) {
                 if (isSlowOperation) {
                     slotManager.releaseSlowSlot();
@@ -121,28 +158,6 @@ public class SlowQuerySegregationManager {
         }
     }
     
-    /**
-     * Executes an operation and monitors its performance without slot management.
-     */
-    private <T> T executeAndMonitor(String operationHash, SegregatedOperation<T> operation) throws Exception {
-        long startTime = System.currentTimeMillis();
-        
-        try {
-            T result = operation.execute();
-            
-            // Record successful execution time
-            long executionTime = System.currentTimeMillis() - startTime;
-            performanceMonitor.recordExecutionTime(operationHash, executionTime);
-            
-            return result;
-        } catch (Exception e) {
-            // Still record execution time even for failed operations for monitoring purposes
-            long executionTime = System.currentTimeMillis() - startTime;
-            performanceMonitor.recordExecutionTime(operationHash, executionTime);
-            throw e;
-        }
-    }
-    
     /**
      * Gets the current status of both the performance monitor and slot manager.
      */
@@ -0,0 +1,250 @@
+package org.openjproxy.grpc.server;
+
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Read only copy of a CLOB read from a SQL Server or DB2 result set, which invalidate the LOBs of a row when the
+ * cursor moves. The copy is registered in the session in place of the CLOB so the rows can be read ahead of the
+ * client reading the CLOB with readLob.
+ * <p>
+ * CLOBs up to the memory threshold of the {@link LobStagingStore} are kept in heap while the copies of the server fit in
+ * its hydration memory, the others are copied to a temp file of the store as UTF-16 characters and read through memory
+ * mappings of the file. The copy is discarded once the result set it was read from is closed, see
+ * {@link Session#releaseClosedResultSets()}.
+ * </p>
+ */
+public class StagedClob implements Clob, LobStagingStore.Staged {
+    // Characters copied from the CLOB at once when spilling it
+    private static final int COPY_CHARS = 64 * 1024;
+
+    private final LobStagingStore stagingStore;
+    private final ResultSet resultSet;
+    private final long length;
+    private final LobStagingStore.SpillFile spillFile;
+    // Null for copies held in a temp file, and once discarded
+    private volatile String value;
+    private boolean discarded;
+
+    private StagedClob(LobStagingStore stagingStore, ResultSet resultSet, long length, String value,
+                       LobStagingStore.SpillFile spillFile) {
+        this.stagingStore = stagingStore;
+        this.resultSet = resultSet;
+        this.length = length;
+        this.value = value;
+        this.spillFile = spillFile;
+    }
+
+    static StagedClob copyOf(Clob clob, ResultSet resultSet, LobStagingStore stagingStore) throws SQLException {
+        long length = clob.length();
+        long heapBytes = length * Character.BYTES;
+        if (heapBytes <= stagingStore.getMemoryThresholdBytes() && stagingStore.reserveHeap(heapBytes)) {
+            try {
+                return new StagedClob(stagingStore, resultSet, length, clob.getSubString(1, (int) length), null);
+            } catch (SQLException | RuntimeException e) {
+                stagingStore.releaseHeap(heapBytes);
+                throw e;
+            }
+        }
+        LobStagingStore.SpillFile spillFile = stagingStore.createSpillFile();
+        try (Reader reader = clob.getCharacterStream()) {
+            char[] chars = new char[COPY_CHARS];
+            byte[] bytes = new byte[COPY_CHARS * Character.BYTES];
+            long copied = 0;
+            int read;
+            while ((read = reader.read(chars)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    bytes[2 * i] = (byte) (chars[i] >> 8);
+                    bytes[2 * i + 1] = (byte) chars[i];
+                }
+                // Written to the file before returning, the buffer can be reused
+                spillFile.append(UnsafeByteOperations.unsafeWrap(bytes, 0, read * Character.BYTES));
+                copied += read;
+            }
+            return new StagedClob(stagingStore, resultSet, copied, null, spillFile);
+        } catch (IOException | SQLException | RuntimeException e) {
+            spillFile.delete();
+            if (e instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new SQLException("Unable to stage CLOB: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long length() {
+        return this.length;
+    }
+
+    @Override
+    public String getSubString(long pos, int length) throws SQLException {
+        this.checkRange(pos, length);
+        String value = this.value;
+        if (value != null) {
+            return value.substring((int) pos - 1, (int) pos - 1 + length);
+        }
+        this.checkSpilled();
+        char[] chars = new char[length];
+        try (Reader reader = this.getCharacterStream(pos, length)) {
+            int count = 0;
+            while (count < length) {
+                count += reader.read(chars, count, length - count);
+            }
+        } catch (IOException e) {
+            throw new SQLException("Unable to read staged CLOB: " + e.getMessage(), e);
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public Reader getCharacterStream() throws SQLException {
+        return this.getCharacterStream(1, this.length);
+    }
+
+    @Override
+    public Reader getCharacterStream(long pos, long length) throws SQLException {
+        this.checkRange(pos, length);
+        String value = this.value;
+        if (value != null) {
+            return new StringReader(value.substring((int) pos - 1, (int) (pos - 1 + length)));
+        }
+        this.checkSpilled();
+        return new SpilledReader(pos - 1, pos - 1 + length);
+    }
+
+    @Override
+    public void free() {
+        this.discard();
+    }
+
+    @Override
+    public synchronized void discard() {
+        if (this.discarded) {
+            return;
+        }
+        this.discarded = true;
+        if (this.spillFile != null) {
+            this.spillFile.delete();
+        } else {
+            this.value = null;
+            this.stagingStore.releaseHeap(this.length * Character.BYTES);
+        }
+        this.stagingStore.released(this);
+    }
+
+    /**
+     * Fails reads of a copy held in heap discarded while being read, its value is gone.
+     */
+    private void checkSpilled() throws SQLException {
+        if (this.spillFile == null) {
+            throw new SQLException("Staged CLOB was discarded with its result set.");
+        }
+    }
+
+    /**
+     * Tells if the result set the CLOB was read from is closed, the client can no longer read the CLOB then.
+     */
+    boolean isResultSetClosed() {
+        try {
+            return this.resultSet.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void checkRange(long pos, long length) throws SQLException {
+        if (pos < 1 || length < 0 || pos - 1 + length > this.length) {
+            throw new SQLException("Invalid position " + pos + " or length " + length + " for CLOB of length "
+                    + this.length);
+        }
+    }
+
+    @Override
+    public InputStream getAsciiStream() throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs are read with getCharacterStream.");
+    }
+
+    @Override
+    public long position(String searchstr, long start) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs can not be searched.");
+    }
+
+    @Override
+    public long position(Clob searchstr, long start) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs can not be searched.");
+    }
+
+    @Override
+    public int setString(long pos, String str) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs are read only.");
+    }
+
+    @Override
+    public int setString(long pos, String str, int offset, int len) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs are read only.");
+    }
+
+    @Override
+    public OutputStream setAsciiStream(long pos) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs are read only.");
+    }
+
+    @Override
+    public Writer setCharacterStream(long pos) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs are read only.");
+    }
+
+    @Override
+    public void truncate(long len) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Staged CLOBs are read only.");
+    }
+
+    /**
+     * Reads the characters of the temp file mapping one region at a time.
+     */
+    private final class SpilledReader extends Reader {
+        private final long end;
+        // Index of the first character not mapped yet
+        private long next;
+        private CharBuffer chars = CharBuffer.allocate(0);
+
+        private SpilledReader(long start, long end) {
+            this.next = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!this.chars.hasRemaining()) {
+                if (this.next >= this.end) {
+                    return -1;
+                }
+                long count = Math.min(this.end - this.next, LobStagingStore.MAX_MAPPED_BYTES / Character.BYTES);
+                this.chars = spillFile.map(this.next * Character.BYTES, count * Character.BYTES).asCharBuffer();
+                this.next += count;
+            }
+            int n = Math.min(len, this.chars.remaining());
+            this.chars.get(cbuf, off, n);
+            return n;
+        }
+
+        @Override
+        public void close() {
+            // The mapped regions are released with the file
+        }
+    }
+}
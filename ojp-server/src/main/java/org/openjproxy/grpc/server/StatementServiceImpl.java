@@ -1,16 +1,25 @@
 package org.openjproxy.grpc.server;
 
+import com.openjproxy.grpc.BatchStatementRequest;
 import com.openjproxy.grpc.CallResourceRequest;
 import com.openjproxy.grpc.CallResourceResponse;
-import com.openjproxy.grpc.CallType;
 import com.openjproxy.grpc.ConnectionDetails;
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
 import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.IntArray;
 import com.openjproxy.grpc.LobDataBlock;
 import com.openjproxy.grpc.LobReference;
+import com.openjproxy.grpc.OpQueryResultProto;
 import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ParameterRow;
+import com.openjproxy.grpc.PipelineOperation;
+import com.openjproxy.grpc.PipelineOperationResult;
+import com.openjproxy.grpc.PipelineOperationType;
+import com.openjproxy.grpc.PipelineRequest;
+import com.openjproxy.grpc.PipelineResponse;
 import com.openjproxy.grpc.ReadLobRequest;
-import com.openjproxy.grpc.ResourceType;
 import com.openjproxy.grpc.ResultSetFetchRequest;
+import com.openjproxy.grpc.ResultSetOptions;
 import com.openjproxy.grpc.ResultType;
 import com.openjproxy.grpc.SessionInfo;
 import com.openjproxy.grpc.SessionTerminationStatus;
@@ -28,18 +37,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.constants.CommonConstants;
-import org.openjproxy.database.DatabaseUtils;
 import org.openjproxy.grpc.ProtoConverter;
-import org.openjproxy.grpc.dto.OpQueryResult;
 import org.openjproxy.grpc.dto.Parameter;
-import org.openjproxy.grpc.server.lob.LobProcessor;
 import org.openjproxy.grpc.server.pool.ConnectionPoolConfigurer;
-import org.openjproxy.grpc.server.resultset.ResultSetWrapper;
+import org.openjproxy.grpc.server.resultset.ResultSetBlockReader;
+import org.openjproxy.grpc.server.resultset.ResultSetBlockSizer;
+import org.openjproxy.grpc.server.resultset.ResultSetStreamer;
 import org.openjproxy.grpc.server.statement.ParameterHandler;
+import org.openjproxy.grpc.server.statement.CachedPreparedStatement;
+import org.openjproxy.grpc.server.statement.PreparedStatementCache;
 import org.openjproxy.grpc.server.statement.StatementFactory;
-import org.openjproxy.grpc.server.utils.DateTimeUtils;
-import org.openjproxy.grpc.server.utils.MethodNameGenerator;
-import org.openjproxy.grpc.server.utils.MethodReflectionUtils;
+import org.openjproxy.grpc.server.utils.ConnectionStateUtils;
 import org.openjproxy.grpc.server.utils.SessionInfoUtils;
 import org.openjproxy.grpc.server.utils.StatementRequestValidator;
 import org.openjproxy.grpc.server.sql.SqlSessionAffinityDetector;
@@ -48,22 +56,16 @@ import org.openjproxy.xa.pool.XATransactionRegistry;
 import org.openjproxy.xa.pool.spi.XAConnectionPoolProvider;
 import org.openjproxy.grpc.server.action.transaction.RollbackTransactionAction;
 import javax.sql.DataSource;
-import javax.sql.XAConnection;
 import javax.sql.XADataSource;
 import java.io.InputStream;
 import java.lang.reflect.Method;
-import java.sql.Clob;
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.Types;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -71,14 +73,16 @@ import java.util.Optional;
 import java.util.ServiceLoader;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import static org.openjproxy.grpc.server.Constants.EMPTY_LIST;
 import static org.openjproxy.grpc.server.GrpcExceptionHandler.sendSQLExceptionMetadata;
 
 import org.openjproxy.grpc.server.action.xa.XaEndAction;
 import org.openjproxy.grpc.server.action.transaction.CommitTransactionAction;
 import org.openjproxy.grpc.server.action.session.TerminateSessionAction;
 import org.openjproxy.grpc.server.action.resource.CallResourceAction;
+import org.openjproxy.grpc.server.action.resource.GetDatabaseMetaDataAction;
+import org.openjproxy.grpc.server.action.streaming.SessionConnectionHelper;
 import org.openjproxy.grpc.server.action.xa.XaPrepareAction;
 import org.openjproxy.grpc.server.action.xa.XaCommitAction;
 import org.openjproxy.grpc.server.action.xa.XaRollbackAction;
@@ -114,10 +118,11 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
     // disabled)
     private final Map<String, UnpooledConnectionDetails> unpooledConnectionDetailsMap = new ConcurrentHashMap<>();
 
-    private static final List<String> INPUT_STREAM_TYPES = Arrays.asList("RAW", "BINARY VARYING", "BYTEA");
     private final Map<String, DbName> dbNameMap = new ConcurrentHashMap<>();
 
-    private static final String RESULT_SET_METADATA_ATTR_PREFIX = "rsMetadata|";
+    // Prepared statements kept open per pooled connection across sessions
+    private final PreparedStatementCache preparedStatementCache;
+
 
     // ActionContext for refactored actions
     private final org.openjproxy.grpc.server.action.ActionContext actionContext;
@@ -130,6 +135,7 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         this.sqlEnhancerEngine = new org.openjproxy.grpc.server.sql.SqlEnhancerEngine(
                 serverConfiguration.isSqlEnhancerEnabled());
         initializeXAPoolProvider();
+        this.preparedStatementCache = new PreparedStatementCache(serverConfiguration.getPreparedStatementCacheSize());
 
         // Initialize ActionContext with all shared state
         this.actionContext = new org.openjproxy.grpc.server.action.ActionContext(
@@ -376,6 +382,7 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         ConnectionSessionDTO dto = ConnectionSessionDTO.builder().build();
 
         Statement stmt = null;
+        CachedPreparedStatement cachedStatement = null;
         String psUUID = "";
         OpResult.Builder opResultBuilder = OpResult.newBuilder();
 
@@ -384,7 +391,6 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             boolean requiresSessionAffinity = SqlSessionAffinityDetector.requiresSessionAffinity(request.getSql());
             
             dto = sessionConnection(request.getSession(), StatementRequestValidator.isAddBatchOperation(request)
-                    || StatementRequestValidator.hasAutoGeneratedKeysFlag(request)
                     || requiresSessionAffinity);
             returnSessionInfo = dto.getSession();
 
@@ -412,12 +418,15 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
                         ParameterHandler.addParametersPreparedStatement(sessionManager, dto.getSession(), ps, params);
                     }
                 } else {
-                    ps = StatementFactory.createPreparedStatement(sessionManager, dto, request.getSql(), params,
-                            request);
-                    if (StatementRequestValidator.hasAutoGeneratedKeysFlag(request)) {
-                        String psNewUUID = sessionManager.registerPreparedStatement(dto.getSession(), ps);
-                        opResultBuilder.setUuid(psNewUUID);
+                    if (!StatementRequestValidator.isAddBatchOperation(request)
+                            && !StatementRequestValidator.returnsGeneratedKeys(request)) {
+                        cachedStatement = StatementFactory.borrowPreparedStatement(sessionManager,
+                                preparedStatementCache, this.poolOf(dto), dto, request.getSql(), params,
+                                request.getPropertiesList());
                     }
+                    ps = cachedStatement != null ? cachedStatement.getPreparedStatement() :
+                            StatementFactory.createPreparedStatement(sessionManager, dto, request.getSql(), params,
+                                    request);
                 }
                 if (StatementRequestValidator.isAddBatchOperation(request)) {
                     ps.addBatch();
@@ -426,13 +435,22 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
                     } else {
                         psUUID = request.getStatementUUID();
                     }
+                } else if (cachedStatement != null) {
+                    updated = cachedStatement.executeUpdate();
                 } else {
                     updated = ps.executeUpdate();
                 }
-                stmt = ps;
+                stmt = cachedStatement != null ? null : ps;
             } else {
                 stmt = StatementFactory.createStatement(sessionManager, dto.getConnection(), request);
-                updated = stmt.executeUpdate(request.getSql());
+                updated = StatementFactory.executeUpdate(stmt, request);
+            }
+            // Generated keys go back with the update count, the statement does not need to be kept for them
+            if (StatementRequestValidator.returnsGeneratedKeys(request)
+                    && !StatementRequestValidator.isAddBatchOperation(request)) {
+                opResultBuilder.setGeneratedKeys(ResultSetBlockReader.readFully(
+                        (ps != null ? ps : stmt).getGeneratedKeys(), sessionManager, dto.getSession(), dbNameMap,
+                        actionContext.getServerConfiguration().getLobInlineThreshold()));
             }
 
             if (StatementRequestValidator.isAddBatchOperation(request)) {
@@ -446,7 +464,13 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
                         .setSession(returnSessionInfo)
                         .setIntValue(updated).build();
             }
+        } catch (SQLException | RuntimeException e) {
+            SessionConnectionHelper.releaseSessionStartedFor(sessionManager, request.getSession(), dto, e);
+            throw e;
         } finally {
+            if (cachedStatement != null) {
+                cachedStatement.discard();// Does nothing if the update succeeded and the statement was released
+            }
             // If there is no session, close statement and connection
             if (dto.getSession() == null || StringUtils.isEmpty(dto.getSession().getSessionUUID())) {
                 if (stmt != null) {
@@ -455,8 +479,10 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
                     } catch (SQLException e) {
                         log.error("Failure closing statement: " + e.getMessage(), e);
                     }
+                }
+                if (dto.getConnection() != null) {
                     try {
-                        stmt.getConnection().close();
+                        dto.getConnection().close();
                     } catch (SQLException e) {
                         log.error("Failure closing connection: " + e.getMessage(), e);
                     }
@@ -465,6 +491,179 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         }
     }
 
+    @Override
+    public void executeBatch(BatchStatementRequest request, StreamObserver<OpResult> responseObserver) {
+        String batchSql = request.getStatementsCount() > 0 ? String.join(";\n", request.getStatementsList()) :
+                request.getSql();
+        log.info("Executing batch of {} rows {}", request.getRowsCount() + request.getStatementsCount(),
+                request.getStatementsCount() > 0 ? request.getStatementsCount() + " statements" : request.getSql());
+
+        // Update session activity
+        updateSessionActivity(request.getSession());
+
+        String stmtHash = SqlStatementXXHash.hashSqlQuery(batchSql);
+
+        // Process cluster health from the request
+        processClusterHealth(request.getSession());
+
+        try {
+            circuitBreaker.preCheck(stmtHash);
+
+            // Get the appropriate slow query segregation manager for this datasource
+            String connHash = request.getSession().getConnHash();
+            SlowQuerySegregationManager manager = getSlowQuerySegregationManagerForConnection(connHash);
+
+            // Execute with slow query segregation
+            OpResult result = manager.executeWithSegregation(stmtHash, () -> executeBatchInternal(request));
+
+            responseObserver.onNext(result);
+            responseObserver.onCompleted();
+            circuitBreaker.onSuccess(stmtHash);
+
+        } catch (SQLDataException e) {
+            circuitBreaker.onFailure(stmtHash, e);
+            log.error("SQL data failure during batch execution: " + e.getMessage(), e);
+            sendSQLExceptionMetadata(e, responseObserver, SqlErrorType.SQL_DATA_EXCEPTION);
+        } catch (SQLException e) {
+            circuitBreaker.onFailure(stmtHash, e);
+            log.error("Failure during batch execution: " + e.getMessage(), e);
+            sendSQLExceptionMetadata(e, responseObserver);
+        } catch (Exception e) {
+            log.error("Unexpected failure during batch execution: " + e.getMessage(), e);
+            if (e.getCause() instanceof SQLException sqlException) {
+                circuitBreaker.onFailure(stmtHash, sqlException);
+                sendSQLExceptionMetadata(sqlException, responseObserver);
+            } else {
+                SQLException sqlException = new SQLException("Unexpected error: " + e.getMessage(), e);
+                circuitBreaker.onFailure(stmtHash, sqlException);
+                sendSQLExceptionMetadata(sqlException, responseObserver);
+            }
+        }
+    }
+
+    /**
+     * Internal method for executing a batch of parameter rows without segregation logic.
+     * All rows are added to the same prepared statement and executed with a single executeBatch call, the SQL of a
+     * statement batch is added to the same plain statement instead.
+     */
+    private OpResult executeBatchInternal(BatchStatementRequest request) throws SQLException {
+        SessionInfo returnSessionInfo = request.getSession();
+        ConnectionSessionDTO dto = ConnectionSessionDTO.builder().build();
+
+        PreparedStatement ps = null;
+        boolean keepStatementOpen = false;
+        OpResult.Builder opResultBuilder = OpResult.newBuilder();
+
+        try {
+            // Check if SQL requires session affinity (temporary tables, session variables, etc.)
+            boolean requiresSessionAffinity = request.getStatementsCount() > 0 ?
+                    request.getStatementsList().stream().anyMatch(SqlSessionAffinityDetector::requiresSessionAffinity) :
+                    SqlSessionAffinityDetector.requiresSessionAffinity(request.getSql());
+            // A batch split in several requests by the client runs them all on the connection of one session
+            dto = sessionConnection(request.getSession(), requiresSessionAffinity || request.getStartSession());
+            returnSessionInfo = dto.getSession();
+            boolean hasSession = dto.getSession() != null && StringUtils.isNotBlank(dto.getSession().getSessionUUID());
+
+            if (request.getStatementsCount() > 0) {
+                IntArray.Builder updateCounts = IntArray.newBuilder();
+                for (int updateCount : this.executeStatementBatch(dto, request, hasSession)) {
+                    updateCounts.addValues(updateCount);
+                }
+                return opResultBuilder
+                        .setType(ResultType.BATCH_UPDATE_COUNTS)
+                        .setSession(returnSessionInfo)
+                        .setUpdateCounts(updateCounts.build()).build();
+            }
+
+            // Statements already registered in the session (e.g. query timeout set) are reused.
+            if (hasSession && StringUtils.isNotBlank(request.getStatementUUID())) {
+                ps = sessionManager.getPreparedStatement(dto.getSession(), request.getStatementUUID());
+                keepStatementOpen = ps != null;
+            }
+
+            for (ParameterRow row : request.getRowsList()) {
+                List<Parameter> params = ProtoConverter.fromProtoList(row.getParametersList());
+                if (ps == null) {
+                    ps = StatementFactory.createPreparedStatement(sessionManager, dto, request.getSql(), params,
+                            request.getPropertiesList());
+                } else {
+                    ParameterHandler.addParametersPreparedStatement(sessionManager, dto.getSession(), ps, params);
+                }
+                ps.addBatch();
+            }
+
+            IntArray.Builder updateCounts = IntArray.newBuilder();
+            if (ps != null) {
+                for (int updateCount : ps.executeBatch()) {
+                    updateCounts.addValues(updateCount);
+                }
+                if (StatementRequestValidator.returnsGeneratedKeys(request)) {
+                    opResultBuilder.setGeneratedKeys(ResultSetBlockReader.readFully(ps.getGeneratedKeys(),
+                            sessionManager, dto.getSession(), dbNameMap,
+                            actionContext.getServerConfiguration().getLobInlineThreshold()));
+                }
+            }
+
+            return opResultBuilder
+                    .setType(ResultType.BATCH_UPDATE_COUNTS)
+                    .setSession(returnSessionInfo)
+                    .setUpdateCounts(updateCounts.build()).build();
+        } catch (SQLException | RuntimeException e) {
+            SessionConnectionHelper.releaseSessionStartedFor(sessionManager, request.getSession(), dto, e);
+            throw e;
+        } finally {
+            if (ps != null && !keepStatementOpen) {
+                try {
+                    ps.close();
+                } catch (SQLException e) {
+                    log.error("Failure closing statement: " + e.getMessage(), e);
+                }
+            }
+            // If there is no session, close the connection
+            if ((dto.getSession() == null || StringUtils.isEmpty(dto.getSession().getSessionUUID()))
+                    && dto.getConnection() != null) {
+                try {
+                    dto.getConnection().close();
+                } catch (SQLException e) {
+                    log.error("Failure closing connection: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the SQL of a statement batch to a plain statement and executes it with a single executeBatch call.
+     */
+    private int[] executeStatementBatch(ConnectionSessionDTO dto, BatchStatementRequest request, boolean hasSession)
+            throws SQLException {
+        // Statements already registered in the session (e.g. query timeout set) are reused.
+        Statement stmt = null;
+        if (hasSession && StringUtils.isNotBlank(request.getStatementUUID())) {
+            stmt = sessionManager.getStatement(dto.getSession(), request.getStatementUUID());
+        }
+        boolean keepStatementOpen = stmt != null;
+        if (stmt == null) {
+            stmt = StatementFactory.createStatement(sessionManager, dto.getConnection(), StatementRequest.newBuilder()
+                    .setSession(dto.getSession())
+                    .addAllProperties(request.getPropertiesList())
+                    .build());
+        }
+        try {
+            for (String sql : request.getStatementsList()) {
+                stmt.addBatch(sql);
+            }
+            return stmt.executeBatch();
+        } finally {
+            if (!keepStatementOpen) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    log.error("Failure closing statement: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
     @Override
     public void executeQuery(StatementRequest request, StreamObserver<OpResult> responseObserver) {
         log.info("Executing query for {}", request.getSql());
@@ -477,6 +676,7 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         // Process cluster health from the request
         processClusterHealth(request.getSession());
 
+        StreamedQuery streamedQuery = null;
         try {
             circuitBreaker.preCheck(stmtHash);
 
@@ -484,42 +684,183 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
             String connHash = request.getSession().getConnHash();
             SlowQuerySegregationManager manager = getSlowQuerySegregationManagerForConnection(connHash);
 
-            // Execute with slow query segregation
-            manager.executeWithSegregation(stmtHash, () -> {
-                executeQueryInternal(request, responseObserver);
-                return null; // Void return for query execution
-            });
-
-            circuitBreaker.onSuccess(stmtHash);
+            // Execute with slow query segregation, the slot is held while the query runs and its first blocks are
+            // sent, not while the client reads the rest of the result set
+            streamedQuery = new StreamedQuery(stmtHash, manager.start(stmtHash));
+            executeQueryInternal(request, responseObserver, streamedQuery);
+            streamedQuery.executed();
         } catch (SQLException e) {
-            circuitBreaker.onFailure(stmtHash, e);
+            queryFailed(streamedQuery, stmtHash, e);
             log.error("Failure during query execution: " + e.getMessage(), e);
             sendSQLExceptionMetadata(e, responseObserver);
         } catch (Exception e) {
             log.error("Unexpected failure during query execution: " + e.getMessage(), e);
             if (e.getCause() instanceof SQLException sqlException) {
-                circuitBreaker.onFailure(stmtHash, sqlException);
+                queryFailed(streamedQuery, stmtHash, sqlException);
                 sendSQLExceptionMetadata(sqlException, responseObserver);
             } else {
                 SQLException sqlException = new SQLException("Unexpected error: " + e.getMessage(), e);
-                circuitBreaker.onFailure(stmtHash, sqlException);
+                queryFailed(streamedQuery, stmtHash, sqlException);
                 sendSQLExceptionMetadata(sqlException, responseObserver);
             }
         }
     }
 
+    private void queryFailed(StreamedQuery streamedQuery, String stmtHash, SQLException e) {
+        if (streamedQuery != null) {
+            streamedQuery.failed(e);
+        } else {
+            circuitBreaker.onFailure(stmtHash, e);
+        }
+    }
+
+    /**
+     * Query whose result set may still be streamed after executeQuery returned. Its segregation slot is released and
+     * its execution time recorded once the query executed and the blocks that could be sent right away were sent, so
+     * neither depends on how fast the client reads. Its circuit breaker outcome is recorded once the stream ends or
+     * fails, so failures reading the later blocks are accounted.
+     */
+    private class StreamedQuery {
+        private final String stmtHash;
+        private final SlowQuerySegregationManager.SegregatedExecution execution;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private StreamedQuery(String stmtHash, SlowQuerySegregationManager.SegregatedExecution execution) {
+            this.stmtHash = stmtHash;
+            this.execution = execution;
+        }
+
+        private void executed() {
+            this.execution.end();
+        }
+
+        private void succeeded() {
+            if (this.ended.compareAndSet(false, true)) {
+                this.execution.end();
+                circuitBreaker.onSuccess(this.stmtHash);
+            }
+        }
+
+        private void failed(SQLException e) {
+            if (this.ended.compareAndSet(false, true)) {
+                this.execution.end();
+                circuitBreaker.onFailure(this.stmtHash, e);
+            }
+        }
+    }
+
     /**
      * Internal method for executing queries without segregation logic.
      */
-    private void executeQueryInternal(StatementRequest request, StreamObserver<OpResult> responseObserver)
-            throws SQLException {
+    private void executeQueryInternal(StatementRequest request, StreamObserver<OpResult> responseObserver,
+                                      StreamedQuery streamedQuery) throws SQLException {
         // Check if SQL requires session affinity (temporary tables, session variables, etc.)
         // Note: All queries already create sessions (for result set handling), but this
         // ensures session affinity is properly enforced even for queries that don't return results
         boolean requiresSessionAffinity = SqlSessionAffinityDetector.requiresSessionAffinity(request.getSql());
-        
-        ConnectionSessionDTO dto = this.sessionConnection(request.getSession(), true || requiresSessionAffinity);
+        if (!requiresSessionAffinity && StringUtils.isEmpty(request.getSession().getSessionUUID()) &&
+                !request.getSession().getIsXA() && !ConnectionStateUtils.hasState(request.getSession())) {
+            this.executeQueryWithoutSession(request, responseObserver, streamedQuery);
+            return;
+        }
+
+        ConnectionSessionDTO dto = this.sessionConnection(request.getSession(), true);
+        try {
+            String resultSetUUID = this.openResultSet(dto, request);
+            this.handleResultSet(dto.getSession(), resultSetUUID, responseObserver, request.getResultSetOptions(), true,
+                    streamedQuery);
+        } catch (SQLException | RuntimeException e) {
+            SessionConnectionHelper.releaseSessionStartedFor(sessionManager, request.getSession(), dto, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Executes an autocommit query without starting a session. When every row fits in the first block and nothing
+     * can be done with the result set afterwards, the result set is closed and the connection returned to the pool
+     * before answering, so the client has nothing to close. Otherwise a session is started for the connection and
+     * the result set is streamed as usual.
+     */
+    private void executeQueryWithoutSession(StatementRequest request, StreamObserver<OpResult> responseObserver,
+                                            StreamedQuery streamedQuery) throws SQLException {
+        ConnectionSessionDTO dto = this.sessionConnection(request.getSession(), false);
+        OpenedQuery query = null;
+        try {
+            query = this.runQuery(dto, request);
+            ResultSetBlockReader blockReader = null;
+            OpResult firstBlock = null;
+            if (ResultSetBlockReader.canReadWithoutSession(query.resultSet)) {
+                blockReader = this.newBlockReader(dto.getSession(), query.resultSet, request.getResultSetOptions());
+                firstBlock = blockReader.nextBlock();
+                // The client answers ResultSetMetaData calls without the result set only if the metadata was sent
+                OpQueryResultProto queryResult = firstBlock.getQueryResult();
+                if (blockReader.isFinished() && queryResult.getColumnMetadataCount() == queryResult.getLabelsCount()) {
+                    query.close();
+                    dto.getConnection().close();
+                    responseObserver.onNext(firstBlock);
+                    responseObserver.onCompleted();
+                    streamedQuery.succeeded();
+                    return;
+                }
+            }
+            SessionInfo session = this.sessionManager.createSession(request.getSession().getClientUUID(),
+                    dto.getConnection());
+            dto = dto.toBuilder().session(session).build();
+            String resultSetUUID = this.registerResultSet(session, query);
+            if (blockReader == null) {
+                this.handleResultSet(session, resultSetUUID, responseObserver, request.getResultSetOptions(), true,
+                        streamedQuery);
+                return;
+            }
+            blockReader.attach(session, resultSetUUID);
+            this.sessionManager.registerBlockReader(session, resultSetUUID, blockReader);
+            OpResult attachedFirstBlock = firstBlock.toBuilder()
+                    .setSession(session)
+                    .setQueryResult(firstBlock.getQueryResult().toBuilder().setResultSetUUID(resultSetUUID))
+                    .build();
+            ResultSetStreamer.stream(responseObserver, attachedFirstBlock, blockReader, e -> {
+                log.error("Failure streaming result set: " + e.getMessage(), e);
+                streamedQuery.failed(e);
+                sendSQLExceptionMetadata(e, responseObserver);
+            }, streamedQuery::succeeded);
+        } catch (SQLException | RuntimeException e) {
+            if (StringUtils.isNotEmpty(dto.getSession().getSessionUUID())) {
+                SessionConnectionHelper.releaseSessionStartedFor(sessionManager, request.getSession(), dto, e);
+            } else {
+                if (query != null) {
+                    query.closeQuietly();
+                }
+                try {
+                    dto.getConnection().close();
+                } catch (SQLException closeException) {
+                    log.error("Failure closing connection: " + closeException.getMessage(), closeException);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the query of a request on the connection resolved for it and registers the result set in the session.
+     *
+     * @return the UUID of the result set
+     */
+    private String openResultSet(ConnectionSessionDTO dto, StatementRequest request) throws SQLException {
+        return this.registerResultSet(dto.getSession(), this.runQuery(dto, request));
+    }
 
+    private String registerResultSet(SessionInfo session, OpenedQuery query) {
+        String resultSetUUID = this.sessionManager.registerResultSet(session, query.resultSet);
+        if (query.cachedStatement != null) {
+            this.sessionManager.registerCachedStatement(session, resultSetUUID, query.cachedStatement);
+        }
+        return resultSetUUID;
+    }
+
+    /**
+     * Executes the query of a request on the connection resolved for it.
+     */
+    private OpenedQuery runQuery(ConnectionSessionDTO dto, StatementRequest request) throws SQLException {
         // Phase 2: SQL Enhancement with timing
         String sql = request.getSql();
         long enhancementStartTime = System.currentTimeMillis();
@@ -540,15 +881,163 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         }
 
         List<Parameter> params = ProtoConverter.fromProtoList(request.getParametersList());
-        if (CollectionUtils.isNotEmpty(params)) {
+        CachedPreparedStatement cachedStatement = CollectionUtils.isEmpty(params) ? null :
+                StatementFactory.borrowPreparedStatement(sessionManager, preparedStatementCache, this.poolOf(dto), dto,
+                        sql, params, request.getPropertiesList());
+        if (cachedStatement != null) {
+            return new OpenedQuery(cachedStatement.executeQuery(), cachedStatement);
+        } else if (CollectionUtils.isNotEmpty(params)) {
             PreparedStatement ps = StatementFactory.createPreparedStatement(sessionManager, dto, sql, params, request);
-            String resultSetUUID = this.sessionManager.registerResultSet(dto.getSession(), ps.executeQuery());
-            this.handleResultSet(dto.getSession(), resultSetUUID, responseObserver);
+            return new OpenedQuery(ps.executeQuery(), null);
         } else {
             Statement stmt = StatementFactory.createStatement(sessionManager, dto.getConnection(), request);
-            String resultSetUUID = this.sessionManager.registerResultSet(dto.getSession(),
-                    stmt.executeQuery(sql));
-            this.handleResultSet(dto.getSession(), resultSetUUID, responseObserver);
+            return new OpenedQuery(stmt.executeQuery(sql), null);
+        }
+    }
+
+    /**
+     * Pool the connection of a session was borrowed from, null if unknown.
+     */
+    private DataSource poolOf(ConnectionSessionDTO dto) {
+        return dto.getSession() != null ? this.datasourceMap.get(dto.getSession().getConnHash()) : null;
+    }
+
+    /**
+     * Result set of a query and the prepared statement borrowed from the cache to execute it, if any.
+     */
+    private static class OpenedQuery {
+        private final ResultSet resultSet;
+        private final CachedPreparedStatement cachedStatement;
+
+        private OpenedQuery(ResultSet resultSet, CachedPreparedStatement cachedStatement) {
+            this.resultSet = resultSet;
+            this.cachedStatement = cachedStatement;
+        }
+
+        /**
+         * Closes the result set and its statement, or returns the statement to the cache.
+         */
+        private void close() throws SQLException {
+            if (this.cachedStatement != null) {
+                this.cachedStatement.release();
+                return;
+            }
+            Statement statement = this.resultSet.getStatement();
+            this.resultSet.close();
+            if (statement != null) {
+                statement.close();
+            }
+        }
+
+        private void closeQuietly() {
+            if (this.cachedStatement != null) {
+                this.cachedStatement.discard();
+                return;
+            }
+            try {
+                this.close();
+            } catch (SQLException e) {
+                log.error("Failure closing result set: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void executePipeline(PipelineRequest request, StreamObserver<PipelineResponse> responseObserver) {
+        log.info("Executing pipeline of {} operations", request.getOperationsCount());
+
+        // Update session activity
+        updateSessionActivity(request.getSession());
+
+        // Process cluster health from the request
+        processClusterHealth(request.getSession());
+
+        // Operations run one after the other in the session left by the previous one, the connection state changes
+        // carried by the pipeline are applied by the first operation.
+        SessionInfo session = request.getSession();
+        PipelineResponse.Builder responseBuilder = PipelineResponse.newBuilder();
+        for (PipelineOperation operation : request.getOperationsList()) {
+            try {
+                PipelineOperationResult result = this.executePipelineOperation(operation, session);
+                responseBuilder.addResults(result);
+                session = result.getResult().getSession();
+            } catch (SQLException e) {
+                log.error("Failure during pipeline operation " + responseBuilder.getResultsCount() + ": "
+                        + e.getMessage(), e);
+                responseBuilder.setError(GrpcExceptionHandler.toSqlErrorResponse(e,
+                        e instanceof SQLDataException ? SqlErrorType.SQL_DATA_EXCEPTION : SqlErrorType.SQL_EXCEPTION));
+                break;
+            }
+        }
+        responseObserver.onNext(responseBuilder.setSession(ConnectionStateUtils.withoutState(session)).build());
+        responseObserver.onCompleted();
+    }
+
+    private PipelineOperationResult executePipelineOperation(PipelineOperation operation, SessionInfo session)
+            throws SQLException {
+        try {
+            switch (operation.getType()) {
+                case PIPELINE_COMMIT:
+                    return PipelineOperationResult.newBuilder().setResult(OpResult.newBuilder()
+                            .setSession(CommitTransactionAction.getInstance().commit(actionContext, session))).build();
+                case PIPELINE_ROLLBACK:
+                    return PipelineOperationResult.newBuilder().setResult(OpResult.newBuilder()
+                            .setSession(RollbackTransactionAction.getInstance().rollback(actionContext, session)))
+                            .build();
+                case PIPELINE_UPDATE:
+                case PIPELINE_QUERY:
+                    return this.executePipelineStatement(operation.getType(),
+                            operation.getStatement().toBuilder().setSession(session).build());
+                default:
+                    throw new SQLException("Unsupported pipeline operation: " + operation.getType());
+            }
+        } catch (RuntimeException e) {
+            throw new SQLException("Unexpected error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Executes an update or query of a pipeline under the same circuit breaker and slow query segregation as when
+     * sent on its own. A query answers with its first block, the following ones are read with fetchNextRows.
+     */
+    private PipelineOperationResult executePipelineStatement(PipelineOperationType type, StatementRequest request)
+            throws SQLException {
+        String stmtHash = SqlStatementXXHash.hashSqlQuery(request.getSql());
+        circuitBreaker.preCheck(stmtHash);
+        SlowQuerySegregationManager manager = getSlowQuerySegregationManagerForConnection(
+                request.getSession().getConnHash());
+        try {
+            PipelineOperationResult result = manager.executeWithSegregation(stmtHash, () ->
+                    PipelineOperationType.PIPELINE_QUERY.equals(type) ? executeQueryFirstBlock(request) :
+                            PipelineOperationResult.newBuilder().setResult(executeUpdateInternal(request)).build());
+            circuitBreaker.onSuccess(stmtHash);
+            return result;
+        } catch (SQLException e) {
+            circuitBreaker.onFailure(stmtHash, e);
+            throw e;
+        } catch (Exception e) {
+            SQLException sqlException = e.getCause() instanceof SQLException cause ? cause :
+                    new SQLException("Unexpected error: " + e.getMessage(), e);
+            circuitBreaker.onFailure(stmtHash, sqlException);
+            throw sqlException;
+        }
+    }
+
+    private PipelineOperationResult executeQueryFirstBlock(StatementRequest request) throws SQLException {
+        // Queries always start a session to hold their result set
+        ConnectionSessionDTO dto = this.sessionConnection(request.getSession(), true);
+        try {
+            String resultSetUUID = this.openResultSet(dto, request);
+            ResultSetBlockReader blockReader = this.newBlockReader(dto.getSession(), resultSetUUID,
+                    request.getResultSetOptions(), true);
+            OpResult firstBlock = blockReader.nextBlock();
+            return PipelineOperationResult.newBuilder()
+                    .setResult(firstBlock)
+                    .setHasMoreBlocks(!blockReader.isFinished())
+                    .build();
+        } catch (SQLException | RuntimeException e) {
+            SessionConnectionHelper.releaseSessionStartedFor(sessionManager, request.getSession(), dto, e);
+            throw e;
         }
     }
 
@@ -564,7 +1053,16 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
 
         try {
             ConnectionSessionDTO dto = this.sessionConnection(request.getSession(), false);
-            this.handleResultSet(dto.getSession(), request.getResultSetUUID(), responseObserver);
+            // A single block of up to size rows: the next row in row by row mode or the next block of a query
+            // executed in a pipeline, read by the reader of the query
+            ResultSetBlockReader blockReader = this.sessionManager.getBlockReader(dto.getSession(),
+                    request.getResultSetUUID());
+            if (blockReader == null) {
+                blockReader = this.newBlockReader(dto.getSession(), request.getResultSetUUID(),
+                        ResultSetOptions.getDefaultInstance(), false);
+            }
+            responseObserver.onNext(blockReader.fetchBlock(request.getSize()));
+            responseObserver.onCompleted();
         } catch (SQLException e) {
             log.error("Failure fetch next rows for result set: " + e.getMessage(), e);
             sendSQLExceptionMetadata(e, responseObserver);
@@ -617,6 +1115,8 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
                 activeSessionInfo = SessionInfoUtils.withTargetServer(activeSessionInfo, getTargetServer(sessionInfo));
             }
             Connection sessionConnection = sessionManager.getConnection(activeSessionInfo);
+            // Connection state changes (e.g. the transaction isolation) must be in place before the transaction
+            ConnectionStateUtils.applyState(sessionConnection, sessionInfo);
             // Start a transaction
             sessionConnection.setAutoCommit(Boolean.FALSE);
 
@@ -656,48 +1156,15 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
         CallResourceAction.getInstance().execute(actionContext, request, responseObserver);
     }
 
-    /**
-     * As DB2 eagerly closes result sets in multiple situations the result set
-     * metadata is saved a priori in a session
-     * attribute and has to be read in a special manner treated in this method.
-     *
-     * @param request
-     * @param responseObserver
-     * @return boolean
-     * @throws SQLException
-     */
-    @SneakyThrows
-    private boolean db2SpecialResultSetMetadata(CallResourceRequest request,
-            StreamObserver<CallResourceResponse> responseObserver) throws SQLException {
-        if (DbName.DB2.equals(this.dbNameMap.get(request.getSession().getConnHash())) &&
-                ResourceType.RES_RESULT_SET.equals(request.getResourceType()) &&
-                CallType.CALL_GET.equals(request.getTarget().getCallType()) &&
-                "Metadata".equalsIgnoreCase(request.getTarget().getResourceName())) {
-            ResultSetMetaData resultSetMetaData = (ResultSetMetaData) this.sessionManager.getAttr(request.getSession(),
-                    RESULT_SET_METADATA_ATTR_PREFIX + request.getResourceUUID());
-            List<Object> paramsReceived = (request.getTarget().getNextCall().getParamsCount() > 0)
-                    ? ProtoConverter.parameterValuesToObjectList(request.getTarget().getNextCall().getParamsList())
-                    : EMPTY_LIST;
-            Method methodNext = MethodReflectionUtils.findMethodByName(ResultSetMetaData.class,
-                    MethodNameGenerator.methodName(request.getTarget().getNextCall()),
-                    paramsReceived);
-            Object metadataResult = methodNext.invoke(resultSetMetaData, paramsReceived.toArray());
-            responseObserver.onNext(CallResourceResponse.newBuilder()
-                    .setSession(request.getSession())
-                    .addValues(ProtoConverter.toParameterValue(metadataResult))
-                    .build());
-            responseObserver.onCompleted();
-            return true;
-        }
-        return false;
+    @Override
+    public void getDatabaseMetaData(SessionInfo sessionInfo, StreamObserver<DatabaseMetaDataResponse> responseObserver) {
+        GetDatabaseMetaDataAction.getInstance().execute(actionContext, sessionInfo, responseObserver);
     }
 
     /**
-     * Finds a suitable connection for the current sessionInfo.
-     * If there is a connection already in the sessionInfo reuse it, if not get a
-     * fresh one from the data source.
-     * This method implements lazy connection allocation for both Hikari and
-     * Atomikos XA datasources.
+     * Finds a suitable connection for the current sessionInfo, see
+     * {@link SessionConnectionHelper#sessionConnection(org.openjproxy.grpc.server.action.ActionContext, SessionInfo,
+     * boolean)}.
      *
      * @param sessionInfo        - current sessionInfo object.
      * @param startSessionIfNone - if true will start a new sessionInfo if none
@@ -708,236 +1175,57 @@ public class StatementServiceImpl extends StatementServiceGrpc.StatementServiceI
      */
     private ConnectionSessionDTO sessionConnection(SessionInfo sessionInfo, boolean startSessionIfNone)
             throws SQLException {
-        ConnectionSessionDTO.ConnectionSessionDTOBuilder dtoBuilder = ConnectionSessionDTO.builder();
-        dtoBuilder.session(sessionInfo);
-        Connection conn;
-
-        if (StringUtils.isNotEmpty(sessionInfo.getSessionUUID())) {
-            // Session already exists, reuse its connection
-            conn = this.sessionManager.getConnection(sessionInfo);
-            if (conn == null) {
-                throw new SQLException("Connection not found for this sessionInfo");
-            }
-            dtoBuilder.dbName(DatabaseUtils.resolveDbName(conn.getMetaData().getURL()));
-            if (conn.isClosed()) {
-                throw new SQLException("Connection is closed");
-            }
-        } else {
-            // Lazy allocation: check if this is an XA or regular connection
-            String connHash = sessionInfo.getConnHash();
-            boolean isXA = sessionInfo.getIsXA();
-
-            if (isXA) {
-                // XA connection - check if unpooled or pooled mode
-                XADataSource xaDataSource = this.xaDataSourceMap.get(connHash);
-
-                if (xaDataSource != null) {
-                    // Unpooled XA mode: create XAConnection on demand
-                    try {
-                        log.debug("Creating unpooled XAConnection for hash: {}", connHash);
-                        XAConnection xaConnection = xaDataSource.getXAConnection();
-                        conn = xaConnection.getConnection();
-
-                        // Store the XAConnection in session for XA operations
-                        if (startSessionIfNone) {
-                            SessionInfo updatedSession = this.sessionManager.createSession(sessionInfo.getClientUUID(),
-                                    conn);
-                            // Store XAConnection as an attribute for XA operations
-                            this.sessionManager.registerAttr(updatedSession, "xaConnection", xaConnection);
-                            dtoBuilder.session(updatedSession);
-                        }
-                        log.debug("Successfully created unpooled XAConnection for hash: {}", connHash);
-                    } catch (SQLException e) {
-                        log.error("Failed to create unpooled XAConnection for hash: {}. Error: {}",
-                                connHash, e.getMessage());
-                        throw e;
-                    }
-                } else {
-                    // Pooled XA mode - should already have a session created in connect()
-                    // This shouldn't happen as XA sessions are created eagerly
-                    throw new SQLException("XA session should already exist. Session UUID is missing.");
-                }
-            } else {
-                // Regular connection - check if pooled or unpooled mode
-                UnpooledConnectionDetails unpooledDetails = this.unpooledConnectionDetailsMap.get(connHash);
-
-                if (unpooledDetails != null) {
-                    // Unpooled mode: create direct connection without pooling
-                    try {
-                        log.debug("Creating unpooled (passthrough) connection for hash: {}", connHash);
-                        conn = java.sql.DriverManager.getConnection(
-                                unpooledDetails.getUrl(),
-                                unpooledDetails.getUsername(),
-                                unpooledDetails.getPassword());
-                        log.debug("Successfully created unpooled connection for hash: {}", connHash);
-                    } catch (SQLException e) {
-                        log.error("Failed to create unpooled connection for hash: {}. Error: {}",
-                                connHash, e.getMessage());
-                        throw e;
-                    }
-                } else {
-                    // Pooled mode: acquire from datasource (HikariCP by default)
-                    DataSource dataSource = this.datasourceMap.get(connHash);
-                    if (dataSource == null) {
-                        throw new SQLException("No datasource found for connection hash: " + connHash);
-                    }
-
-                    try {
-                        // Use enhanced connection acquisition with timeout protection
-                        conn = ConnectionAcquisitionManager.acquireConnection(dataSource, connHash);
-                        log.debug("Successfully acquired connection from pool for hash: {}", connHash);
-                    } catch (SQLException e) {
-                        log.error("Failed to acquire connection from pool for hash: {}. Error: {}",
-                                connHash, e.getMessage());
-
-                        // Re-throw the enhanced exception from ConnectionAcquisitionManager
-                        throw e;
-                    }
-                }
-
-                if (startSessionIfNone) {
-                    SessionInfo updatedSession = this.sessionManager.createSession(sessionInfo.getClientUUID(), conn);
-                    dtoBuilder.session(updatedSession);
-                }
-            }
-        }
-        dtoBuilder.connection(conn);
-
-        return dtoBuilder.build();
+        return SessionConnectionHelper.sessionConnection(this.actionContext, sessionInfo, startSessionIfNone);
     }
 
-    private void handleResultSet(SessionInfo session, String resultSetUUID, StreamObserver<OpResult> responseObserver)
+    /**
+     * Reader of a result set registered in the session, kept in the session for the blocks requested with
+     * fetchNextRows.
+     */
+    private ResultSetBlockReader newBlockReader(SessionInfo session, String resultSetUUID,
+                                                ResultSetOptions resultSetOptions, boolean describeColumns)
             throws SQLException {
-        ResultSet rs = this.sessionManager.getResultSet(session, resultSetUUID);
-        OpQueryResult.OpQueryResultBuilder queryResultBuilder = OpQueryResult.builder();
-        int columnCount = rs.getMetaData().getColumnCount();
-        List<String> labels = new ArrayList<>();
-        for (int i = 0; i < columnCount; i++) {
-            labels.add(rs.getMetaData().getColumnName(i + 1));
-        }
-        queryResultBuilder.labels(labels);
-
-        List<Object[]> results = new ArrayList<>();
-        int row = 0;
-        boolean justSent = false;
-        DbName dbName = DatabaseUtils.resolveDbName(rs.getStatement().getConnection().getMetaData().getURL());
-        // Only used if result set contains LOBs in SQL Server and DB2 (if LOB's
-        // present), so cursor is not read in advance,
-        // every row has to be requested by the jdbc client.
-        String resultSetMode = "";
-        boolean resultSetMetadataCollected = false;
-
-        forEachRow: while (rs.next()) {
-            if (DbName.DB2.equals(dbName) && !resultSetMetadataCollected) {
-                this.collectResultSetMetadata(session, resultSetUUID, rs);
-            }
-            justSent = false;
-            row++;
-            Object[] rowValues = new Object[columnCount];
-            for (int i = 0; i < columnCount; i++) {
-                int colType = rs.getMetaData().getColumnType(i + 1);
-                String colTypeName = rs.getMetaData().getColumnTypeName(i + 1);
-                Object currentValue = null;
-                // Postgres uses type BYTEA which translates to type VARBINARY
-                switch (colType) {
-                    case Types.VARBINARY: {
-                        if (DbName.SQL_SERVER.equals(dbName) || DbName.DB2.equals(dbName)) {
-                            resultSetMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE;
-                        }
-                        if ("BLOB".equalsIgnoreCase(colTypeName)) {
-                            currentValue = LobProcessor.treatAsBlob(sessionManager, session, rs, i, dbNameMap);
-                        } else {
-                            currentValue = LobProcessor.treatAsBinary(sessionManager, session, dbName, rs, i,
-                                    INPUT_STREAM_TYPES);
-                        }
-                        break;
-                    }
-                    case Types.BLOB, Types.LONGVARBINARY: {
-                        if (DbName.SQL_SERVER.equals(dbName) || DbName.DB2.equals(dbName)) {
-                            resultSetMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE;
-                        }
-                        currentValue = LobProcessor.treatAsBlob(sessionManager, session, rs, i, dbNameMap);
-                        break;
-                    }
-                    case Types.CLOB: {
-                        if (DbName.SQL_SERVER.equals(dbName) || DbName.DB2.equals(dbName)) {
-                            resultSetMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE;
-                        }
-                        Clob clob = rs.getClob(i + 1);
-                        if (clob != null) {
-                            String clobUUID = UUID.randomUUID().toString();
-                            // CLOB needs to be prefixed as per it can be read in the JDBC driver by
-                            // getString method and it would be valid to return just a UUID as string
-                            currentValue = CommonConstants.OJP_CLOB_PREFIX + clobUUID;
-                            this.sessionManager.registerLob(session, clob, clobUUID);
-                        }
-                        break;
-                    }
-                    case Types.BINARY: {
-                        if (DbName.SQL_SERVER.equals(dbName) || DbName.DB2.equals(dbName)) {
-                            resultSetMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE;
-                        }
-                        currentValue = LobProcessor.treatAsBinary(sessionManager, session, dbName, rs, i,
-                                INPUT_STREAM_TYPES);
-                        break;
-                    }
-                    case Types.DATE: {
-                        Date date = rs.getDate(i + 1);
-                        if ("YEAR".equalsIgnoreCase(colTypeName)) {
-                            currentValue = date.toLocalDate().getYear();
-                        } else {
-                            currentValue = date;
-                        }
-                        break;
-                    }
-                    case Types.TIMESTAMP: {
-                        currentValue = rs.getTimestamp(i + 1);
-                        break;
-                    }
-                    default: {
-                        currentValue = rs.getObject(i + 1);
-                        // com.microsoft.sqlserver.jdbc.DateTimeOffset special case as per it does not
-                        // implement any standar java.sql interface.
-                        if ("datetimeoffset".equalsIgnoreCase(colTypeName) && colType == -155) {
-                            currentValue = DateTimeUtils.extractOffsetDateTime(currentValue);
-                        }
-                        break;
-                    }
-                }
-                rowValues[i] = currentValue;
-
-            }
-            results.add(rowValues);
-
-            if ((DbName.DB2.equals(dbName) || DbName.SQL_SERVER.equals(dbName))
-                    && CommonConstants.RESULT_SET_ROW_BY_ROW_MODE.equalsIgnoreCase(resultSetMode)) {
-                break forEachRow;
-            }
-
-            if (row % CommonConstants.ROWS_PER_RESULT_SET_DATA_BLOCK == 0) {
-                justSent = true;
-                // Send a block of records
-                responseObserver.onNext(ResultSetWrapper.wrapResults(session, results, queryResultBuilder,
-                        resultSetUUID, resultSetMode));
-                queryResultBuilder = OpQueryResult.builder();// Recreate the builder to not send labels in every block.
-                results = new ArrayList<>();
-            }
-        }
+        ResultSetBlockReader blockReader = new ResultSetBlockReader(this.sessionManager, this.dbNameMap, session,
+                resultSetUUID, resultSetOptions, this.newBlockSizer(resultSetOptions),
+                this.actionContext.getServerConfiguration().getLobInlineThreshold(), describeColumns);
+        this.sessionManager.registerBlockReader(session, resultSetUUID, blockReader);
+        return blockReader;
+    }
 
-        if (!justSent) {
-            // Send a block of remaining records
-            responseObserver.onNext(
-                    ResultSetWrapper.wrapResults(session, results, queryResultBuilder, resultSetUUID, resultSetMode));
-        }
+    /**
+     * Reader of a result set not registered in a session, see {@link ResultSetBlockReader#attach}.
+     */
+    private ResultSetBlockReader newBlockReader(SessionInfo session, ResultSet rs, ResultSetOptions resultSetOptions)
+            throws SQLException {
+        return new ResultSetBlockReader(this.sessionManager, this.dbNameMap, session, rs, resultSetOptions,
+                this.newBlockSizer(resultSetOptions),
+                this.actionContext.getServerConfiguration().getLobInlineThreshold(), true);
+    }
 
-        responseObserver.onCompleted();
+    private ResultSetBlockSizer newBlockSizer(ResultSetOptions resultSetOptions) {
+        ServerConfiguration serverConfiguration = this.actionContext.getServerConfiguration();
+        return new ResultSetBlockSizer(serverConfiguration.getResultSetFirstBlockBytes(),
+                serverConfiguration.getResultSetMaxBlockBytes(), resultSetOptions.getFetchSize());
+    }
 
+    private void handleResultSet(SessionInfo session, String resultSetUUID, StreamObserver<OpResult> responseObserver,
+                                 ResultSetOptions resultSetOptions, boolean describeColumns, StreamedQuery streamedQuery)
+            throws SQLException {
+        ResultSetBlockReader blockReader = this.newBlockReader(session, resultSetUUID, resultSetOptions,
+                describeColumns);
+        ResultSetStreamer.stream(responseObserver, null, blockReader, e -> {
+            log.error("Failure streaming result set: " + e.getMessage(), e);
+            streamedQuery.failed(e);
+            sendSQLExceptionMetadata(e, responseObserver);
+        }, streamedQuery::succeeded);
     }
 
-    @SneakyThrows
-    private void collectResultSetMetadata(SessionInfo session, String resultSetUUID, ResultSet rs) {
-        this.sessionManager.registerAttr(session, RESULT_SET_METADATA_ATTR_PREFIX +
-                resultSetUUID, new HydratedResultSetMetadata(rs.getMetaData()));
+    /**
+     * Prepared statement cache shared by the sessions of the server, cleaned up and reported by the session cleanup
+     * task and the telemetry.
+     */
+    public PreparedStatementCache getPreparedStatementCache() {
+        return this.preparedStatementCache;
     }
 
     // ===== XA Transaction Operations =====
@@ -188,6 +188,9 @@ public class ConnectAction implements Action<ConnectionDetails, SessionInfo> {
                             .idleTimeoutMs(dsConfig.getIdleTimeout())
                             .maxLifetimeMs(dsConfig.getMaxLifetime())
                             .defaultTransactionIsolation(defaultTransactionIsolation)
+                            // Used by pools whose statements the server cannot cache on the physical connection
+                            .preparedStatementCacheSize(
+                                    context.getServerConfiguration().getPreparedStatementCacheSize())
                             .metricsPrefix("OJP-Pool-" + dsConfig.getDataSourceName())
                             .build();
                     
@@ -3,36 +3,28 @@ package org.openjproxy.grpc.server.action.resource;
 import com.openjproxy.grpc.CallResourceRequest;
 import com.openjproxy.grpc.CallResourceResponse;
 import com.openjproxy.grpc.CallType;
-import com.openjproxy.grpc.DbName;
-import com.openjproxy.grpc.ResourceType;
-import com.openjproxy.grpc.SessionInfo;
+import com.openjproxy.grpc.ResultSetOptions;
 import com.openjproxy.grpc.TransactionInfo;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.constants.CommonConstants;
-import org.openjproxy.database.DatabaseUtils;
 import org.openjproxy.grpc.ProtoConverter;
 import org.openjproxy.grpc.server.ConnectionSessionDTO;
-import org.openjproxy.grpc.server.UnpooledConnectionDetails;
+import org.openjproxy.grpc.server.ServerConfiguration;
 import org.openjproxy.grpc.server.action.Action;
 import org.openjproxy.grpc.server.action.ActionContext;
 import org.openjproxy.grpc.server.action.util.ProcessClusterHealthAction;
-import org.openjproxy.grpc.server.utils.MethodNameGenerator;
-import org.openjproxy.grpc.server.utils.MethodReflectionUtils;
-import org.openjproxy.grpc.server.JavaSqlInterfacesConverter;
+import org.openjproxy.grpc.server.resultset.ResultSetBlockReader;
+import org.openjproxy.grpc.server.resultset.ResultSetBlockSizer;
+import org.openjproxy.grpc.server.utils.ResourceMethodDispatcher;
+import org.openjproxy.grpc.server.utils.ResourceMethodDispatcher.ResourceMethod;
 
-import javax.sql.DataSource;
-import javax.sql.XAConnection;
-import javax.sql.XADataSource;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.sql.Array;
 import java.sql.CallableStatement;
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.List;
@@ -42,6 +34,8 @@ import java.util.UUID;
 import static org.openjproxy.grpc.server.Constants.EMPTY_LIST;
 import static org.openjproxy.grpc.server.Constants.EMPTY_MAP;
 import static org.openjproxy.grpc.server.GrpcExceptionHandler.sendSQLExceptionMetadata;
+import static org.openjproxy.grpc.server.action.streaming.SessionConnectionHelper.releaseSessionStartedFor;
+import static org.openjproxy.grpc.server.action.streaming.SessionConnectionHelper.sessionConnection;
 
 /**
  * Action to call a resource operation.
@@ -51,7 +45,6 @@ import static org.openjproxy.grpc.server.GrpcExceptionHandler.sendSQLExceptionMe
 public class CallResourceAction implements Action<CallResourceRequest, CallResourceResponse> {
 
     private static final CallResourceAction INSTANCE = new CallResourceAction();
-    private static final String RESULT_SET_METADATA_ATTR_PREFIX = "rsMetadata|";
 
     private CallResourceAction() {
         // Private constructor prevents external instantiation
@@ -66,6 +59,7 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
         // Process cluster health from the request
         ProcessClusterHealthAction.getInstance().execute(context, request.getSession());
 
+        ConnectionSessionDTO csDto = null;
         try {
             if (!request.hasSession()) {
                 throw new SQLException("No active session.");
@@ -73,10 +67,6 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
 
             CallResourceResponse.Builder responseBuilder = CallResourceResponse.newBuilder();
 
-            if (this.db2SpecialResultSetMetadata(context, request, responseObserver)) {
-                return;
-            }
-
             Object resource;
             switch (request.getResourceType()) {
                 case RES_RESULT_SET:
@@ -86,7 +76,7 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                     resource = context.getSessionManager().getLob(request.getSession(), request.getResourceUUID());
                     break;
                 case RES_STATEMENT: {
-                    ConnectionSessionDTO csDto = sessionConnection(context, request.getSession(), true);
+                    csDto = sessionConnection(context, request.getSession(), true);
                     responseBuilder.setSession(csDto.getSession());
                     java.sql.Statement statement = null;
                     if (!request.getResourceUUID().isBlank()) {
@@ -100,7 +90,7 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                     break;
                 }
                 case RES_PREPARED_STATEMENT: {
-                    ConnectionSessionDTO csDto = sessionConnection(context, request.getSession(), true);
+                    csDto = sessionConnection(context, request.getSession(), true);
                     responseBuilder.setSession(csDto.getSession());
                     PreparedStatement ps = null;
                     if (!request.getResourceUUID().isBlank()) {
@@ -121,7 +111,7 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                     resource = context.getSessionManager().getCallableStatement(request.getSession(), request.getResourceUUID());
                     break;
                 case RES_CONNECTION: {
-                    ConnectionSessionDTO csDto = sessionConnection(context, request.getSession(), true);
+                    csDto = sessionConnection(context, request.getSession(), true);
                     responseBuilder.setSession(csDto.getSession());
                     resource = csDto.getConnection();
                     break;
@@ -150,21 +140,20 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                         (String) paramsReceived.get(0));
                 paramsReceived.set(0, savepoint);
             }
-            Method method = MethodReflectionUtils.findMethodByName(JavaSqlInterfacesConverter.interfaceClass(clazz),
-                    MethodNameGenerator.methodName(request.getTarget()), paramsReceived);
-            java.lang.reflect.Parameter[] params = method.getParameters();
+            ResourceMethod method = ResourceMethodDispatcher.find(clazz, request.getTarget(), paramsReceived);
             Object resultFirstLevel = null;
-            if (params != null && params.length > 0) {
+            if (method.getParameterCount() > 0) {
                 resultFirstLevel = method.invoke(resource, paramsReceived.toArray());
                 if (resultFirstLevel instanceof CallableStatement) {
                     CallableStatement cs = (CallableStatement) resultFirstLevel;
                     resultFirstLevel = context.getSessionManager().registerCallableStatement(responseBuilder.getSession(), cs);
+                } else if (resultFirstLevel instanceof ResultSet) {
+                    resultFirstLevel = registerResultSet(context, responseBuilder, (ResultSet) resultFirstLevel);
                 }
             } else {
                 resultFirstLevel = method.invoke(resource);
                 if (resultFirstLevel instanceof ResultSet) {
-                    ResultSet rs = (ResultSet) resultFirstLevel;
-                    resultFirstLevel = context.getSessionManager().registerResultSet(responseBuilder.getSession(), rs);
+                    resultFirstLevel = registerResultSet(context, responseBuilder, (ResultSet) resultFirstLevel);
                 } else if (resultFirstLevel instanceof Array) {
                     Array array = (Array) resultFirstLevel;
                     String arrayUUID = UUID.randomUUID().toString();
@@ -172,6 +161,10 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                     resultFirstLevel = arrayUUID;
                 }
             }
+            if (CallType.CALL_CLOSE.equals(request.getTarget().getCallType())) {
+                // Closing a result set or its statement ends the reads of the CLOBs copied from the result set
+                context.getSessionManager().releaseClosedResultSets(responseBuilder.getSession());
+            }
             if (resultFirstLevel instanceof Savepoint) {
                 Savepoint sp = (Savepoint) resultFirstLevel;
                 String uuid = UUID.randomUUID().toString();
@@ -184,19 +177,16 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                 List<Object> paramsReceived2 = (request.getTarget().getNextCall().getParamsCount() > 0) ?
                         ProtoConverter.parameterValuesToObjectList(request.getTarget().getNextCall().getParamsList()) :
                         EMPTY_LIST;
-                Method methodNext = MethodReflectionUtils.findMethodByName(JavaSqlInterfacesConverter.interfaceClass(clazzNext),
-                        MethodNameGenerator.methodName(request.getTarget().getNextCall()),
+                ResourceMethod methodNext = ResourceMethodDispatcher.find(clazzNext, request.getTarget().getNextCall(),
                         paramsReceived2);
-                params = methodNext.getParameters();
                 Object resultSecondLevel = null;
-                if (params != null && params.length > 0) {
+                if (methodNext.getParameterCount() > 0) {
                     resultSecondLevel = methodNext.invoke(resultFirstLevel, paramsReceived2.toArray());
                 } else {
                     resultSecondLevel = methodNext.invoke(resultFirstLevel);
                 }
                 if (resultSecondLevel instanceof ResultSet) {
-                    ResultSet rs = (ResultSet) resultSecondLevel;
-                    resultSecondLevel = context.getSessionManager().registerResultSet(responseBuilder.getSession(), rs);
+                    resultSecondLevel = registerResultSet(context, responseBuilder, (ResultSet) resultSecondLevel);
                 }
                 responseBuilder.addValues(ProtoConverter.toParameterValue(resultSecondLevel));
             } else {
@@ -206,8 +196,10 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
         } catch (SQLException se) {
+            releaseSessionStartedFor(context.getSessionManager(), request.getSession(), csDto, se);
             sendSQLExceptionMetadata(se, responseObserver);
         } catch (InvocationTargetException e) {
+            releaseSessionStartedFor(context.getSessionManager(), request.getSession(), csDto, e);
             if (e.getTargetException() instanceof SQLException) {
                 SQLException sqlException = (SQLException) e.getTargetException();
                 sendSQLExceptionMetadata(sqlException, responseObserver);
@@ -216,128 +208,34 @@ public class CallResourceAction implements Action<CallResourceRequest, CallResou
                         responseObserver);
             }
         } catch (Exception e) {
+            releaseSessionStartedFor(context.getSessionManager(), request.getSession(), csDto, e);
             sendSQLExceptionMetadata(new SQLException("Unable to call resource: " + e.getMessage(), e), responseObserver);
         }
     }
 
-    private boolean db2SpecialResultSetMetadata(ActionContext context, CallResourceRequest request, StreamObserver<CallResourceResponse> responseObserver) throws SQLException {
-        if (DbName.DB2.equals(context.getDbNameMap().get(request.getSession().getConnHash())) &&
-                ResourceType.RES_RESULT_SET.equals(request.getResourceType()) &&
-                CallType.CALL_GET.equals(request.getTarget().getCallType()) &&
-                "Metadata".equalsIgnoreCase(request.getTarget().getResourceName())) {
-            ResultSetMetaData resultSetMetaData = (ResultSetMetaData) context.getSessionManager().getAttr(request.getSession(),
-                    RESULT_SET_METADATA_ATTR_PREFIX + request.getResourceUUID());
-            List<Object> paramsReceived = (request.getTarget().getNextCall().getParamsCount() > 0) ?
-                    ProtoConverter.parameterValuesToObjectList(request.getTarget().getNextCall().getParamsList()) :
-                    EMPTY_LIST;
-            Method methodNext = MethodReflectionUtils.findMethodByName(ResultSetMetaData.class,
-                    MethodNameGenerator.methodName(request.getTarget().getNextCall()),
-                    paramsReceived);
-            try {
-                Object metadataResult = methodNext.invoke(resultSetMetaData, paramsReceived.toArray());
-                responseObserver.onNext(CallResourceResponse.newBuilder()
-                        .setSession(request.getSession())
-                        .addValues(ProtoConverter.toParameterValue(metadataResult))
-                        .build());
-                responseObserver.onCompleted();
-                return true;
-            } catch (Exception e) {
-                throw new SQLException("Failed to call DB2 special result set metadata", e);
-            }
-        }
-        return false;
-    }
-
-    private ConnectionSessionDTO sessionConnection(ActionContext context, SessionInfo sessionInfo, boolean startSessionIfNone) throws SQLException {
-        ConnectionSessionDTO.ConnectionSessionDTOBuilder dtoBuilder = ConnectionSessionDTO.builder();
-        dtoBuilder.session(sessionInfo);
-        Connection conn;
-
-        if (StringUtils.isNotEmpty(sessionInfo.getSessionUUID())) {
-            // Session already exists, reuse its connection
-            conn = context.getSessionManager().getConnection(sessionInfo);
-            if (conn == null) {
-                throw new SQLException("Connection not found for this sessionInfo");
-            }
-            dtoBuilder.dbName(DatabaseUtils.resolveDbName(conn.getMetaData().getURL()));
-            if (conn.isClosed()) {
-                throw new SQLException("Connection is closed");
-            }
-        } else {
-            // Lazy allocation: check if this is an XA or regular connection
-            String connHash = sessionInfo.getConnHash();
-            boolean isXA = sessionInfo.getIsXA();
-
-            if (isXA) {
-                // XA connection - check if unpooled or pooled mode
-                XADataSource xaDataSource = context.getXaDataSourceMap().get(connHash);
-
-                if (xaDataSource != null) {
-                    // Unpooled XA mode: create XAConnection on demand
-                    try {
-                        log.debug("Creating unpooled XAConnection for hash: {}", connHash);
-                        XAConnection xaConnection = xaDataSource.getXAConnection();
-                        conn = xaConnection.getConnection();
-
-                        // Store the XAConnection in session for XA operations
-                        if (startSessionIfNone) {
-                            SessionInfo updatedSession = context.getSessionManager().createSession(sessionInfo.getClientUUID(), conn);
-                            // Store XAConnection as an attribute for XA operations
-                            context.getSessionManager().registerAttr(updatedSession, "xaConnection", xaConnection);
-                            dtoBuilder.session(updatedSession);
-                        }
-                        log.debug("Successfully created unpooled XAConnection for hash: {}", connHash);
-                    } catch (SQLException e) {
-                        log.error("Failed to create unpooled XAConnection for hash: {}. Error: {}",
-                                connHash, e.getMessage());
-                        throw e;
-                    }
-                } else {
-                    // Pooled XA mode - should already have a session created in connect()
-                    // This shouldn't happen as XA sessions are created eagerly
-                    throw new SQLException("XA session should already exist. Session UUID is missing.");
-                }
-            } else {
-                // Regular connection - check if pooled or unpooled mode
-                UnpooledConnectionDetails unpooledDetails = context.getUnpooledConnectionDetailsMap().get(connHash);
-
-                if (unpooledDetails != null) {
-                    // Unpooled mode: create direct connection without pooling
-                    try {
-                        log.debug("Creating unpooled (passthrough) connection for hash: {}", connHash);
-                        conn = java.sql.DriverManager.getConnection(
-                                unpooledDetails.getUrl(),
-                                unpooledDetails.getUsername(),
-                                unpooledDetails.getPassword());
-                        log.debug("Successfully created unpooled connection for hash: {}", connHash);
-
-                        if (startSessionIfNone) {
-                            SessionInfo updatedSession = context.getSessionManager().createSession(sessionInfo.getClientUUID(), conn);
-                            dtoBuilder.session(updatedSession);
-                        }
-                    } catch (SQLException e) {
-                        log.error("Failed to create unpooled connection for hash: {}. Error: {}",
-                                connHash, e.getMessage());
-                        throw e;
-                    }
-                } else {
-                    // Pooled mode: get connection from Hikari datasource
-                    DataSource ds = context.getDatasourceMap().get(connHash);
-                    if (ds == null) {
-                        throw new SQLException("DataSource not found for connection hash: " + connHash);
-                    }
-                    conn = ds.getConnection();
-                    log.debug("Successfully got pooled connection for hash: {}", connHash);
-
-                    if (startSessionIfNone) {
-                        SessionInfo updatedSession = context.getSessionManager().createSession(sessionInfo.getClientUUID(), conn);
-                        dtoBuilder.session(updatedSession);
-                    }
-                }
-                dtoBuilder.dbName(DatabaseUtils.resolveDbName(conn.getMetaData().getURL()));
-            }
+    /**
+     * Registers a result set returned by a call in the session. Read only result sets that are not scroll sensitive
+     * are sent in blocks like the results of executeQuery, their first block goes with the response, so the client
+     * reads them locally instead of calling next and every getter on the server.
+     *
+     * @return the UUID of the result set
+     */
+    private String registerResultSet(ActionContext context, CallResourceResponse.Builder responseBuilder,
+                                     ResultSet rs) throws SQLException {
+        String resultSetUUID = context.getSessionManager().registerResultSet(responseBuilder.getSession(), rs);
+        if (rs.getConcurrency() == ResultSet.CONCUR_READ_ONLY && rs.getType() != ResultSet.TYPE_SCROLL_SENSITIVE) {
+            ServerConfiguration serverConfiguration = context.getServerConfiguration();
+            ResultSetBlockSizer blockSizer = new ResultSetBlockSizer(
+                    serverConfiguration.getResultSetFirstBlockBytes(), serverConfiguration.getResultSetMaxBlockBytes(),
+                    rs.getFetchSize());
+            ResultSetBlockReader blockReader = new ResultSetBlockReader(context.getSessionManager(),
+                    context.getDbNameMap(), responseBuilder.getSession(), resultSetUUID,
+                    ResultSetOptions.getDefaultInstance(), blockSizer, serverConfiguration.getLobInlineThreshold(),
+                    true);
+            context.getSessionManager().registerBlockReader(responseBuilder.getSession(), resultSetUUID, blockReader);
+            responseBuilder.setResultSetBlock(blockReader.nextBlock());
+            responseBuilder.setHasMoreBlocks(!blockReader.isFinished());
         }
-        dtoBuilder.connection(conn);
-        return dtoBuilder.build();
+        return resultSetUUID;
     }
 }
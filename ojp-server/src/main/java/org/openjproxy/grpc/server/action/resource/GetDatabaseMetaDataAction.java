@@ -0,0 +1,158 @@
+package org.openjproxy.grpc.server.action.resource;
+
+import com.openjproxy.grpc.DatabaseMetaDataResponse;
+import com.openjproxy.grpc.SessionInfo;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.server.UnpooledConnectionDetails;
+import org.openjproxy.grpc.server.action.Action;
+import org.openjproxy.grpc.server.action.ActionContext;
+import org.openjproxy.grpc.server.action.util.ProcessClusterHealthAction;
+import org.openjproxy.grpc.server.utils.ConnectionStateUtils;
+
+import javax.sql.DataSource;
+import javax.sql.XAConnection;
+import javax.sql.XADataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.openjproxy.grpc.server.GrpcExceptionHandler.sendSQLExceptionMetadata;
+
+/**
+ * Action returning in one call the DatabaseMetaData attributes that do not change during the life of a datasource,
+ * so the driver can cache them instead of calling the server for each of them.
+ * <p>
+ * The attributes are the values of the {@link DatabaseMetaData} methods without parameters returning a boolean, an
+ * int, a long or a String, except those depending on the state of the connection. Methods failing on the database
+ * driver are left out, the client then calls them through callResource and gets the failure.
+ * <p>
+ * The connection of the session is used if the session has one, otherwise a connection is borrowed from the
+ * datasource for the call only, without starting a session. In the latter case the state of the borrowed connection
+ * is returned as well, as the defaults of the connection state shadowed by the driver.
+ * <p>
+ * This action is implemented as a singleton for thread-safety and memory efficiency.
+ * It is stateless and receives all necessary context via parameters.
+ */
+@Slf4j
+public class GetDatabaseMetaDataAction implements Action<SessionInfo, DatabaseMetaDataResponse> {
+
+    private static final GetDatabaseMetaDataAction INSTANCE = new GetDatabaseMetaDataAction();
+
+    private static final Set<String> CONNECTION_STATE_METHODS = Set.of("isReadOnly");
+    private static final Set<Class<?>> ATTRIBUTE_TYPES = Set.of(boolean.class, int.class, long.class, String.class);
+    private static final List<Method> ATTRIBUTE_METHODS = Arrays.stream(DatabaseMetaData.class.getMethods())
+            .filter(m -> m.getParameterCount() == 0)
+            .filter(m -> ATTRIBUTE_TYPES.contains(m.getReturnType()))
+            .filter(m -> !CONNECTION_STATE_METHODS.contains(m.getName()))
+            .toList();
+
+    /**
+     * Private constructor prevents external instantiation.
+     */
+    private GetDatabaseMetaDataAction() {
+        // Private constructor for singleton pattern
+    }
+
+    /**
+     * Returns the singleton instance of GetDatabaseMetaDataAction.
+     *
+     * @return the singleton instance
+     */
+    public static GetDatabaseMetaDataAction getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void execute(ActionContext context, SessionInfo sessionInfo,
+                        StreamObserver<DatabaseMetaDataResponse> responseObserver) {
+        // Process cluster health from the request
+        ProcessClusterHealthAction.getInstance().execute(context, sessionInfo);
+
+        try {
+            DatabaseMetaDataResponse.Builder responseBuilder = DatabaseMetaDataResponse.newBuilder()
+                    .setSession(sessionInfo);
+            if (StringUtils.isNotEmpty(sessionInfo.getSessionUUID())) {
+                Connection conn = context.getSessionManager().getConnection(sessionInfo);
+                if (conn == null) {
+                    throw new SQLException("Connection not found for this sessionInfo");
+                }
+                responseBuilder.addAllAttributes(ProtoConverter.propertiesToProto(readAttributes(conn.getMetaData())));
+            } else {
+                readWithoutSession(context, sessionInfo.getConnHash(), responseBuilder);
+            }
+            log.debug("Read {} database metadata attributes for connection hash {}",
+                    responseBuilder.getAttributesCount(), sessionInfo.getConnHash());
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (SQLException se) {
+            sendSQLExceptionMetadata(se, responseObserver);
+        } catch (Exception e) {
+            sendSQLExceptionMetadata(new SQLException("Unable to read database metadata: " + e.getMessage(), e),
+                    responseObserver);
+        }
+    }
+
+    private void readWithoutSession(ActionContext context, String connHash,
+                                    DatabaseMetaDataResponse.Builder responseBuilder) throws SQLException {
+        DataSource ds = context.getDatasourceMap().get(connHash);
+        if (ds != null) {
+            try (Connection conn = ds.getConnection()) {
+                read(conn, responseBuilder);
+                return;
+            }
+        }
+        UnpooledConnectionDetails unpooledDetails = context.getUnpooledConnectionDetailsMap().get(connHash);
+        if (unpooledDetails != null) {
+            try (Connection conn = java.sql.DriverManager.getConnection(unpooledDetails.getUrl(),
+                    unpooledDetails.getUsername(), unpooledDetails.getPassword())) {
+                read(conn, responseBuilder);
+                return;
+            }
+        }
+        XADataSource xaDataSource = context.getXaDataSourceMap().get(connHash);
+        if (xaDataSource != null) {
+            XAConnection xaConnection = xaDataSource.getXAConnection();
+            try (Connection conn = xaConnection.getConnection()) {
+                read(conn, responseBuilder);
+                return;
+            } finally {
+                xaConnection.close();
+            }
+        }
+        throw new SQLException("DataSource not found for connection hash: " + connHash);
+    }
+
+    /**
+     * Reads the attributes and, the connection being freshly borrowed, its state as the defaults of the connections
+     * of the datasource.
+     */
+    private static void read(Connection conn, DatabaseMetaDataResponse.Builder responseBuilder) throws SQLException {
+        responseBuilder.addAllAttributes(ProtoConverter.propertiesToProto(readAttributes(conn.getMetaData())));
+        responseBuilder.addAllConnectionDefaults(ProtoConverter.propertiesToProto(
+                ConnectionStateUtils.readState(conn)));
+    }
+
+    private static Map<String, Object> readAttributes(DatabaseMetaData metaData) {
+        Map<String, Object> attributes = new HashMap<>();
+        for (Method method : ATTRIBUTE_METHODS) {
+            try {
+                attributes.put(method.getName(), method.invoke(metaData));
+            } catch (InvocationTargetException | IllegalAccessException e) {
+                Throwable cause = e instanceof InvocationTargetException ite ? ite.getTargetException() : e;
+                log.debug("Database metadata attribute {} not cached: {}", method.getName(), cause.toString());
+            }
+        }
+        return attributes;
+    }
+}
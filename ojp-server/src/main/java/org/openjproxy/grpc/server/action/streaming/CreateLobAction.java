@@ -4,8 +4,10 @@ import com.openjproxy.grpc.LobDataBlock;
 import com.openjproxy.grpc.LobReference;
 import com.openjproxy.grpc.LobType;
 import com.openjproxy.grpc.SessionInfo;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.WriterOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.constants.CommonConstants;
 import org.openjproxy.grpc.ProtoConverter;
@@ -15,7 +17,7 @@ import org.openjproxy.grpc.server.action.ActionContext;
 import org.openjproxy.grpc.server.action.StreamingAction;
 
 import java.io.IOException;
-import java.io.Writer;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.HashMap;
@@ -65,7 +67,13 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
     @Override
     public StreamObserver<LobDataBlock> execute(ActionContext context, StreamObserver<LobReference> responseObserver) {
         log.info("Creating LOB");
-        return new LobStreamObserver(context, responseObserver);
+        LobStreamObserver lobStreamObserver = new LobStreamObserver(context, responseObserver);
+        // Blocks are requested one at a time, a binary stream being read holds the client back while it is full
+        if (responseObserver instanceof ServerCallStreamObserver<LobReference> serverCallStreamObserver) {
+            serverCallStreamObserver.disableAutoRequest();
+            serverCallStreamObserver.request(1);
+        }
+        return lobStreamObserver;
     }
 
     /**
@@ -81,6 +89,8 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
         private String stmtUUID;
         private LobType lobType;
         private LobDataBlocksInputStream lobDataBlocksInputStream;
+        // Stream writing the blocks of a BLOB or CLOB, opened at the position of the first block
+        private OutputStream lobOutputStream;
         private final AtomicBoolean isFirstBlock = new AtomicBoolean(true);
         private final AtomicInteger countBytesWritten = new AtomicInteger(0);
 
@@ -112,6 +122,12 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
                     sendLobRef(dto, bytesWritten);
                 }
 
+                if (lobDataBlocksInputStream != null) {
+                    lobDataBlocksInputStream.whenSpaceAvailable(this::requestNextBlock);
+                } else {
+                    requestNextBlock();
+                }
+
             } catch (SQLException e) {
                 sendSQLExceptionMetadata(e, responseObserver);
             } catch (Exception e) {
@@ -120,6 +136,15 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
             }
         }
 
+        /**
+         * Requests the next block from the client.
+         */
+        private void requestNextBlock() {
+            if (responseObserver instanceof ServerCallStreamObserver<LobReference> serverCallStreamObserver) {
+                serverCallStreamObserver.request(1);
+            }
+        }
+
         /**
          * Initializes a new LOB if one doesn't exist yet.
          */
@@ -156,33 +181,69 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
          * Writes data to a BLOB.
          */
         private int writeBlobData(ConnectionSessionDTO dto, LobDataBlock lobDataBlock) throws SQLException {
-            Blob blob = sessionManager.getLob(dto.getSession(), this.lobUUID);
-            if (blob == null) {
-                throw new SQLException("Unable to write LOB of type " + this.lobType
-                        + ": Blob object is null for UUID " + this.lobUUID +
-                        ". This may indicate a race condition or session management issue.");
+            if (this.lobOutputStream == null) {
+                Blob blob = sessionManager.getLob(dto.getSession(), this.lobUUID);
+                if (blob == null) {
+                    throw new SQLException("Unable to write LOB of type " + this.lobType
+                            + ": Blob object is null for UUID " + this.lobUUID +
+                            ". This may indicate a race condition or session management issue.");
+                }
+                this.lobOutputStream = blob.setBinaryStream(lobDataBlock.getPosition());
             }
-            byte[] byteArrayData = lobDataBlock.getData().toByteArray();
-            return blob.setBytes(lobDataBlock.getPosition(), byteArrayData);
+            return writeBlock(lobDataBlock);
         }
 
         /**
-         * Writes data to a CLOB.
+         * Writes data to a CLOB. The blocks are UTF-8 encoded and a character may be split between two blocks.
          */
         private int writeClobData(ConnectionSessionDTO dto, LobDataBlock lobDataBlock) throws SQLException {
-            Clob clob = sessionManager.getLob(dto.getSession(), this.lobUUID);
-            if (clob == null) {
-                throw new SQLException("Unable to write LOB of type " + this.lobType
-                        + ": Clob object is null for UUID " + this.lobUUID +
-                        ". This may indicate a race condition or session management issue.");
+            if (this.lobOutputStream == null) {
+                Clob clob = sessionManager.getLob(dto.getSession(), this.lobUUID);
+                if (clob == null) {
+                    throw new SQLException("Unable to write LOB of type " + this.lobType
+                            + ": Clob object is null for UUID " + this.lobUUID +
+                            ". This may indicate a race condition or session management issue.");
+                }
+                try {
+                    this.lobOutputStream = WriterOutputStream.builder()
+                            .setWriter(clob.setCharacterStream(lobDataBlock.getPosition()))
+                            .setCharset(StandardCharsets.UTF_8)
+                            .get();
+                } catch (IOException e) {
+                    throw new SQLException("Failed to write CLOB data: " + e.getMessage(), e);
+                }
+            }
+            return writeBlock(lobDataBlock);
+        }
+
+        /**
+         * Writes the data of a block to the stream of the BLOB or CLOB.
+         *
+         * @return the number of bytes written
+         */
+        private int writeBlock(LobDataBlock lobDataBlock) throws SQLException {
+            try {
+                lobDataBlock.getData().writeTo(this.lobOutputStream);
+            } catch (IOException e) {
+                throw new SQLException("Failed to write " + this.lobType + " data: " + e.getMessage(), e);
+            }
+            return lobDataBlock.getData().size();
+        }
+
+        /**
+         * Closes the stream of the BLOB or CLOB, completing the value written.
+         */
+        private void closeLobOutputStream() throws SQLException {
+            if (this.lobOutputStream == null) {
+                return;
             }
-            byte[] byteArrayData = lobDataBlock.getData().toByteArray();
-            try (Writer writer = clob.setCharacterStream(lobDataBlock.getPosition())) {
-                writer.write(new String(byteArrayData, StandardCharsets.UTF_8).toCharArray());
+            try {
+                this.lobOutputStream.close();
             } catch (IOException e) {
-                throw new SQLException("Failed to write CLOB data: " + e.getMessage(), e);
+                throw new SQLException("Failed to write " + this.lobType + " data: " + e.getMessage(), e);
+            } finally {
+                this.lobOutputStream = null;
             }
-            return byteArrayData.length;
         }
 
         /**
@@ -217,7 +278,8 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
             }
 
             // Create and register the binary stream input stream
-            lobDataBlocksInputStream = new LobDataBlocksInputStream(lobDataBlock);
+            lobDataBlocksInputStream = sessionManager.getLobStagingStore()
+                    .newStream(lobDataBlock, dto.getSession().getSessionUUID());
             this.lobUUID = lobDataBlocksInputStream.getUuid();
 
             sessionManager.registerLob(dto.getSession(), lobDataBlocksInputStream, this.lobUUID);
@@ -269,10 +331,21 @@ public class CreateLobAction implements StreamingAction<LobDataBlock, LobReferen
             if (lobDataBlocksInputStream != null) {
                 lobDataBlocksInputStream.finish(true);
             }
+            try {
+                closeLobOutputStream();
+            } catch (SQLException e) {
+                log.warn("Failed to close lob stream: {}", e.getMessage());
+            }
         }
 
         @Override
         public void onCompleted() {
+            try {
+                closeLobOutputStream();
+            } catch (SQLException e) {
+                sendSQLExceptionMetadata(e, responseObserver);
+                return;
+            }
             if (lobDataBlocksInputStream != null) {
                 CompletableFuture.runAsync(() -> {
                     log.info("Finishing lob stream for lob ref {}", this.lobUUID);
@@ -8,6 +8,7 @@ import io.grpc.stub.StreamObserver;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.input.ReaderInputStream;
+import org.openjproxy.grpc.server.ServerConfiguration;
 import org.openjproxy.grpc.server.SessionManager;
 import org.openjproxy.grpc.server.StatementServiceImpl;
 import org.openjproxy.grpc.server.action.Action;
@@ -22,7 +23,8 @@ import java.sql.Clob;
 import java.sql.SQLException;
 import java.util.Optional;
 
-import static org.openjproxy.constants.CommonConstants.MAX_LOB_DATA_BLOCK_SIZE;
+import static org.openjproxy.constants.CommonConstants.DEFAULT_LOB_DATA_BLOCK_SIZE;
+import static org.openjproxy.constants.CommonConstants.MIN_LOB_DATA_BLOCK_SIZE;
 import static org.openjproxy.grpc.server.GrpcExceptionHandler.sendSQLExceptionMetadata;
 
 /**
@@ -62,12 +64,11 @@ public class ReadLobAction implements Action<ReadLobRequest, LobDataBlock> {
      * <p>
      * The LOB is resolved from the {@link SessionManager} using the
      * {@link LobReference} in the request. Data is read
-     * from the underlying {@link InputStream} and sent in blocks (up to
-     * {@link org.openjproxy.constants.CommonConstants#MAX_LOB_DATA_BLOCK_SIZE}) to
-     * avoid loading the full LOB into
-     * memory. Each emitted {@link LobDataBlock} includes the session id and an
-     * updated position indicating progress
-     * through the stream.
+     * from the underlying {@link InputStream} in bulk and sent in blocks of the
+     * size negotiated with the client (see {@link #blockSize}) to avoid loading
+     * the full LOB into memory. Each emitted {@link LobDataBlock} includes the
+     * session id and an updated position indicating progress through the stream.
+     * An empty LOB is sent as a single empty block.
      * <p>
      * If the LOB cannot be resolved (i.e. the input stream is {@code null}), a
      * single {@link LobDataBlock} with
@@ -98,56 +99,28 @@ public class ReadLobAction implements Action<ReadLobRequest, LobDataBlock> {
                 responseObserver.onCompleted();
                 return;
             }
-            // If the lob length is known the exact size of the next block is also known.
-            boolean exactSizeKnown = readLobContext.getLobLength().isPresent()
-                    && readLobContext.getAvailableLength().isPresent();
-            int nextByte = inputStream.read();
-            int nextBlockSize = nextByte == -1 ? 1 : this.nextBlockSize(readLobContext, request.getPosition());
-            byte[] nextBlock = new byte[nextBlockSize];
-            int idx = -1;
-            int currentPos = (int) request.getPosition();
-            boolean nextBlockFullyEmpty = false;
-            while (nextByte != -1) {
-                nextBlock[++idx] = (byte) nextByte;
-                nextBlockFullyEmpty = false;
-                if (idx == nextBlockSize - 1) {
-                    currentPos += (idx + 1);
-                    log.info("Sending block of data size {} pos {}", idx + 1, currentPos);
-                    // Send data to client in limited size blocks to safeguard server memory.
-                    responseObserver.onNext(LobDataBlock.newBuilder()
-                            .setSession(lobRef.getSession())
-                            .setPosition(currentPos)
-                            .setData(ByteString.copyFrom(nextBlock))
-                            .build());
-                    nextBlockSize = this.nextBlockSize(readLobContext, currentPos - 1);
-                    if (nextBlockSize > 0) {// Might be a single small block then nextBlockSize will return negative.
-                        nextBlock = new byte[nextBlockSize];
-                    } else {
-                        nextBlock = new byte[0];
-                    }
-                    nextBlockFullyEmpty = true;
-                    idx = -1;
-                }
-                nextByte = inputStream.read();
+            int blockSize = this.blockSize(context.getServerConfiguration(), request);
+            // Small LOBs do not need a buffer of a full block
+            if (readLobContext.getAvailableLength().isPresent()) {
+                blockSize = Math.max(1, Math.min(blockSize, readLobContext.getAvailableLength().get()));
             }
-
-            // Send leftover bytes
-            if (!nextBlockFullyEmpty && nextBlock[0] != -1) {
-
-                byte[] adjustedSizeArray = (idx % MAX_LOB_DATA_BLOCK_SIZE != 0 && !exactSizeKnown) ? trim(nextBlock)
-                        : nextBlock;
-                if (adjustedSizeArray.length == 1 && adjustedSizeArray[0] != nextByte) {
-                    // For cases where the amount of bytes is a multiple of the block size and last
-                    // read only reads the end of the stream.
-                    adjustedSizeArray = new byte[0];
-                }
-                currentPos = (int) request.getPosition() + idx;
-                log.info("Sending leftover bytes size {} pos {}", idx, currentPos);
+            byte[] nextBlock = new byte[blockSize];
+            long currentPos = request.getPosition();
+            boolean blockSent = false;
+            int read;
+            while ((read = inputStream.readNBytes(nextBlock, 0, nextBlock.length)) > 0 || !blockSent) {
+                currentPos += read;
+                log.debug("Sending block of data size {} pos {}", read, currentPos);
+                // Send data to client in limited size blocks to safeguard server memory.
                 responseObserver.onNext(LobDataBlock.newBuilder()
                         .setSession(lobRef.getSession())
                         .setPosition(currentPos)
-                        .setData(ByteString.copyFrom(adjustedSizeArray))
+                        .setData(ByteString.copyFrom(nextBlock, 0, read))
                         .build());
+                blockSent = true;
+                if (read < nextBlock.length) {
+                    break;
+                }
             }
 
             responseObserver.onCompleted();
@@ -159,33 +132,6 @@ public class ReadLobAction implements Action<ReadLobRequest, LobDataBlock> {
         }
     }
 
-    /**
-     * Trims trailing {@code 0x00} padding bytes from a read block.
-     * <p>
-     * This is used to shrink the last block when the read buffer is larger than the
-     * actual remaining LOB bytes.
-     * Note: if the input contains only {@code 0x00} bytes, this method returns a
-     * single-byte array.
-     *
-     * @param nextBlock the block to trim (must not be {@code null})
-     * @return a new array containing the bytes up to the last non-zero byte
-     * (inclusive)
-     */
-    private byte[] trim(byte[] nextBlock) {
-        int lastBytePos = 0;
-        for (int i = nextBlock.length - 1; i >= 0; i--) {
-            int currentByte = nextBlock[i];
-            if (currentByte != 0) {
-                lastBytePos = i;
-                break;
-            }
-        }
-
-        byte[] trimmedArray = new byte[lastBytePos + 1];
-        System.arraycopy(nextBlock, 0, trimmedArray, 0, lastBytePos + 1);
-        return trimmedArray;
-    }
-
     /**
      * Resolves the referenced LOB and builds a
      * {@link StatementServiceImpl.ReadLobContext} for streaming it.
@@ -326,50 +272,16 @@ public class ReadLobAction implements Action<ReadLobRequest, LobDataBlock> {
     }
 
     /**
-     * Computes the size (in bytes) of the next data block to read and stream.
-     * <p>
-     * If the LOB length and the requested available length are unknown (e.g. some
-     * binary streams), this method returns
-     * {@link org.openjproxy.constants.CommonConstants#MAX_LOB_DATA_BLOCK_SIZE} so
-     * reads proceed in fixed-size blocks.
-     * When the lengths are known, it selects the minimum of the block size and
-     * requested length, then adjusts the
-     * final block so it does not read past the end of the LOB.
-     * <p>
-     * In some boundary cases where the caller has already reached the end of the
-     * requested range, this method returns
-     * {@code 0} to indicate that no further bytes should be read.
+     * Negotiates the size of the blocks sent to the client: the size requested by the client, or
+     * {@link org.openjproxy.constants.CommonConstants#DEFAULT_LOB_DATA_BLOCK_SIZE} when none is requested, bounded by
+     * {@link org.openjproxy.constants.CommonConstants#MIN_LOB_DATA_BLOCK_SIZE} and the maximum block size of the server.
      *
-     * @param readLobContext context containing (optional) LOB length and available
-     *                       length metadata
-     * @param position       the current read position (1-based) used to compute the
-     *                       next block boundary
-     * @return the number of bytes to read for the next block; may be {@code 0} when
-     * no further bytes are needed
+     * @param serverConfiguration the server configuration holding the maximum LOB block size
+     * @param request             the read request carrying the block size requested by the client
+     * @return the number of bytes to send per block
      */
-    private int nextBlockSize(StatementServiceImpl.ReadLobContext readLobContext, long position) {
-
-        // BinaryStreams do not have means to know the size of the lob like Blobs or
-        // Clobs.
-        if (readLobContext.getAvailableLength().isEmpty() || readLobContext.getLobLength().isEmpty()) {
-            return MAX_LOB_DATA_BLOCK_SIZE;
-        }
-
-        long lobLength = readLobContext.getLobLength().get();
-        int length = readLobContext.getAvailableLength().get();
-
-        // Single read situations
-        int nextBlockSize = Math.min(MAX_LOB_DATA_BLOCK_SIZE, length);
-        if ((int) lobLength == length && position == 1) {
-            return length;
-        }
-        int nextPos = (int) (position + nextBlockSize);
-        if (nextPos > lobLength) {
-            nextBlockSize = Math.toIntExact(nextBlockSize - (nextPos - lobLength));
-        } else if ((position + 1) % length == 0) {
-            nextBlockSize = 0;
-        }
-
-        return nextBlockSize;
+    private int blockSize(ServerConfiguration serverConfiguration, ReadLobRequest request) {
+        int requested = request.getBlockSize() > 0 ? request.getBlockSize() : DEFAULT_LOB_DATA_BLOCK_SIZE;
+        return Math.max(MIN_LOB_DATA_BLOCK_SIZE, Math.min(requested, serverConfiguration.getLobMaxBlockBytes()));
     }
 }
@@ -6,8 +6,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.database.DatabaseUtils;
 import org.openjproxy.grpc.server.ConnectionAcquisitionManager;
 import org.openjproxy.grpc.server.ConnectionSessionDTO;
+import org.openjproxy.grpc.server.SessionManager;
 import org.openjproxy.grpc.server.UnpooledConnectionDetails;
 import org.openjproxy.grpc.server.action.ActionContext;
+import org.openjproxy.grpc.server.utils.ConnectionStateUtils;
+import org.openjproxy.grpc.server.utils.SessionInfoUtils;
 
 import javax.sql.DataSource;
 import javax.sql.XAConnection;
@@ -91,7 +94,10 @@ public class SessionConnectionHelper {
                                                          boolean startSessionIfNone)
             throws SQLException {
         ConnectionSessionDTO.ConnectionSessionDTOBuilder dtoBuilder = ConnectionSessionDTO.builder();
-        dtoBuilder.session(sessionInfo);
+        dtoBuilder.session(ConnectionStateUtils.withoutState(sessionInfo));
+        // Connection state changes must be kept on the connection, a session is started to hold it
+        boolean hasConnectionState = ConnectionStateUtils.hasState(sessionInfo);
+        startSessionIfNone = startSessionIfNone || hasConnectionState;
         Connection conn;
         var sessionManager = context.getSessionManager();
 
@@ -185,7 +191,43 @@ public class SessionConnectionHelper {
             }
         }
         dtoBuilder.connection(conn);
+        ConnectionSessionDTO dto = dtoBuilder.build();
 
-        return dtoBuilder.build();
+        if (hasConnectionState) {
+            try {
+                ConnectionStateUtils.applyState(conn, sessionInfo);
+            } catch (SQLException e) {
+                releaseSessionStartedFor(sessionManager, sessionInfo, dto, e);
+                throw e;
+            }
+            if (ConnectionStateUtils.beginsTransaction(sessionInfo)) {
+                // Transaction begun by the client, started with its first request
+                dto = dto.toBuilder().session(SessionInfoUtils.withActiveTransaction(dto.getSession())).build();
+            }
+        }
+        return dto;
+    }
+
+    /**
+     * Terminates the session started by {@link #sessionConnection} to keep the connection state changes carried by a
+     * request which then failed. The failure does not tell the client about the session, the client sends the changes
+     * again with its next request, so neither the session nor a transaction begun with it are kept.
+     *
+     * @param sessionManager the session manager
+     * @param sessionInfo    session sent with the request
+     * @param dto            connection and session resolved for the request, or null if not resolved
+     * @param failure        failure of the request, to which a failure terminating the session is added as suppressed
+     */
+    public static void releaseSessionStartedFor(SessionManager sessionManager, SessionInfo sessionInfo,
+                                                ConnectionSessionDTO dto, Exception failure) {
+        if (dto == null || dto.getSession() == null || StringUtils.isEmpty(dto.getSession().getSessionUUID())
+                || StringUtils.isNotEmpty(sessionInfo.getSessionUUID()) || !ConnectionStateUtils.hasState(sessionInfo)) {
+            return;
+        }
+        try {
+            sessionManager.terminateSession(dto.getSession());
+        } catch (SQLException e) {
+            failure.addSuppressed(e);
+        }
     }
 }
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.openjproxy.grpc.server.action.Action;
 import org.openjproxy.grpc.server.action.ActionContext;
 import org.openjproxy.grpc.server.action.util.ProcessClusterHealthAction;
+import org.openjproxy.grpc.server.utils.ConnectionStateUtils;
 import org.openjproxy.grpc.server.utils.SessionInfoUtils;
 
 import java.sql.Connection;
@@ -46,18 +47,7 @@ public class CommitTransactionAction implements Action<SessionInfo, SessionInfo>
         ProcessClusterHealthAction.getInstance().execute(context, sessionInfo);
 
         try {
-            Connection conn = context.getSessionManager().getConnection(sessionInfo);
-            conn.commit();
-
-            TransactionInfo transactionInfo = TransactionInfo.newBuilder()
-                    .setTransactionStatus(TransactionStatus.TRX_COMMITED)
-                    .setTransactionUUID(sessionInfo.getTransactionInfo().getTransactionUUID())
-                    .build();
-
-            SessionInfo.Builder sessionInfoBuilder = SessionInfoUtils.newBuilderFrom(sessionInfo);
-            sessionInfoBuilder.setTransactionInfo(transactionInfo);
-
-            responseObserver.onNext(sessionInfoBuilder.build());
+            responseObserver.onNext(this.commit(context, sessionInfo));
             responseObserver.onCompleted();
         } catch (SQLException se) {
             sendSQLExceptionMetadata(se, responseObserver);
@@ -66,4 +56,28 @@ public class CommitTransactionAction implements Action<SessionInfo, SessionInfo>
             sendSQLExceptionMetadata(new SQLException("Unable to commit transaction: " + e.getMessage()), responseObserver);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Commits the transaction of the session, also used by the operations of a pipeline.
+     *
+     * @param context     The action context containing shared state
+     * @param sessionInfo Session info
+     * @return the session with the transaction committed
+     * @throws SQLException if the commit fails
+     */
+    public SessionInfo commit(ActionContext context, SessionInfo sessionInfo) throws SQLException {
+        Connection conn = context.getSessionManager().getConnection(sessionInfo);
+        conn.commit();
+        // Connection state changes sent with the commit, e.g. auto commit switched back on
+        ConnectionStateUtils.applyState(conn, sessionInfo);
+
+        TransactionInfo transactionInfo = TransactionInfo.newBuilder()
+                .setTransactionStatus(TransactionStatus.TRX_COMMITED)
+                .setTransactionUUID(sessionInfo.getTransactionInfo().getTransactionUUID())
+                .build();
+
+        SessionInfo.Builder sessionInfoBuilder = SessionInfoUtils.newBuilderFrom(sessionInfo);
+        sessionInfoBuilder.setTransactionInfo(transactionInfo);
+        return sessionInfoBuilder.build();
+    }
+}
@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.openjproxy.grpc.server.action.Action;
 import org.openjproxy.grpc.server.action.ActionContext;
 import org.openjproxy.grpc.server.action.util.ProcessClusterHealthAction;
+import org.openjproxy.grpc.server.utils.ConnectionStateUtils;
 import org.openjproxy.grpc.server.utils.SessionInfoUtils;
 
 import java.sql.Connection;
@@ -60,22 +61,7 @@ public class RollbackTransactionAction implements Action<SessionInfo, SessionInf
         ProcessClusterHealthAction.getInstance().execute(context, sessionInfo);
 
         try {
-            Connection conn = context.getSessionManager().getConnection(sessionInfo);
-            if (conn == null) {
-                throw new SQLException("Connection not found for this session");
-            }
-            conn.rollback();
-
-            TransactionInfo transactionInfo = TransactionInfo.newBuilder()
-                    .setTransactionStatus(TransactionStatus.TRX_ROLLBACK)
-                    .setTransactionUUID(sessionInfo.getTransactionInfo().getTransactionUUID())
-                    .build();
-
-            SessionInfo.Builder sessionInfoBuilder = SessionInfoUtils.newBuilderFrom(sessionInfo);
-            sessionInfoBuilder.setTransactionInfo(transactionInfo);
-            // Server echoes back targetServer from incoming request (preserved by newBuilderFrom)
-
-            responseObserver.onNext(sessionInfoBuilder.build());
+            responseObserver.onNext(this.rollback(context, sessionInfo));
             responseObserver.onCompleted();
         } catch (SQLException se) {
             log.error("SQLException during rollback transaction", se);
@@ -85,4 +71,32 @@ public class RollbackTransactionAction implements Action<SessionInfo, SessionInf
             sendSQLExceptionMetadata(new SQLException("Unable to rollback transaction: " + e.getMessage(), e), responseObserver);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Rolls back the transaction of the session. Also used by the rollback operations of a pipeline.
+     *
+     * @param context     the action context containing shared state and services
+     * @param sessionInfo the session info containing session and transaction details
+     * @return the session with the transaction rolled back
+     * @throws SQLException if the session has no connection or the rollback fails
+     */
+    public SessionInfo rollback(ActionContext context, SessionInfo sessionInfo) throws SQLException {
+        Connection conn = context.getSessionManager().getConnection(sessionInfo);
+        if (conn == null) {
+            throw new SQLException("Connection not found for this session");
+        }
+        conn.rollback();
+        // Connection state changes sent with the rollback, e.g. auto commit switched back on
+        ConnectionStateUtils.applyState(conn, sessionInfo);
+
+        TransactionInfo transactionInfo = TransactionInfo.newBuilder()
+                .setTransactionStatus(TransactionStatus.TRX_ROLLBACK)
+                .setTransactionUUID(sessionInfo.getTransactionInfo().getTransactionUUID())
+                .build();
+
+        SessionInfo.Builder sessionInfoBuilder = SessionInfoUtils.newBuilderFrom(sessionInfo);
+        sessionInfoBuilder.setTransactionInfo(transactionInfo);
+        // Server echoes back targetServer from incoming request (preserved by newBuilderFrom)
+        return sessionInfoBuilder.build();
+    }
+}
@@ -50,55 +50,23 @@ public class LobProcessor {
     }
 
     /**
-     * Processes binary data from a result set using hydrated approach.
-     * 
-     * NOTE: This method now uses a hydrated approach for all databases, where binary streams 
-     * are materialized in memory as byte arrays. This ensures consistent behavior across all 
-     * database types and eliminates the complexity of streaming binary data.
-     * 
-     * Performance implications:
-     * - Higher memory usage for large binary data (entire content loaded into memory)
-     * - Faster access once loaded, but higher initial load time
-     * - May limit maximum binary data size due to memory constraints
+     * Reads a binary column as a stream using hydrated approach, used for binary types that the JDBC driver only
+     * exposes as streams (for example Postgres BYTEA).
      *
-     * @param sessionManager The session manager (unused in hydrated approach)
-     * @param session       The current session
-     * @param dbName        The database name (unused in hydrated approach)
-     * @param rs           The result set
-     * @param columnIndex  The column index (0-based)
-     * @param inputStreamTypes List of input stream types
-     * @return The processed binary value as byte array or primitive byte
+     * NOTE: The binary stream is materialized in memory as a byte array. This ensures consistent
+     * behavior across all database types and eliminates the complexity of streaming binary data.
+     *
+     * @param rs          The result set
+     * @param columnIndex The column index (0-based)
+     * @return The binary value as byte array or null
      * @throws SQLException if binary processing fails
      */
     @SneakyThrows
-    public static Object treatAsBinary(SessionManager sessionManager, SessionInfo session, 
-                                     DbName dbName, ResultSet rs, int columnIndex, 
-                                     java.util.List<String> inputStreamTypes) throws SQLException {
-        int precision = rs.getMetaData().getPrecision(columnIndex + 1);
-        String catalogName = rs.getMetaData().getCatalogName(columnIndex + 1);
-        String colClassName = rs.getMetaData().getColumnClassName(columnIndex + 1);
-        String colTypeName = rs.getMetaData().getColumnTypeName(columnIndex + 1);
-        colTypeName = colTypeName != null ? colTypeName : "";
-        Object binaryValue = null;
-        
-        if (precision == 1 && !"[B".equalsIgnoreCase(colClassName) && !"byte[]".equalsIgnoreCase(colClassName)) { 
-            //it is a single byte and is not of class byte array([B)
-            binaryValue = rs.getByte(columnIndex + 1);
-        } else if ((org.apache.commons.lang3.StringUtils.isNotEmpty(catalogName) || 
-                   "[B".equalsIgnoreCase(colClassName) || "byte[]".equalsIgnoreCase(colClassName)) &&
-                   !inputStreamTypes.contains(colTypeName.toUpperCase())) {
-            binaryValue = rs.getBytes(columnIndex + 1);
-        } else {
-            InputStream inputStream = rs.getBinaryStream(columnIndex + 1);
-            if (inputStream == null) {
-                return null;
-            }
-
-            // Hydrated approach: materialize the entire binary stream content in memory for all databases
-            // This provides consistent behavior and eliminates streaming complexity
-            byte[] allBytes = inputStream.readAllBytes();
-            binaryValue = allBytes;
+    public static byte[] hydrateBinaryStream(ResultSet rs, int columnIndex) throws SQLException {
+        InputStream inputStream = rs.getBinaryStream(columnIndex + 1);
+        if (inputStream == null) {
+            return null;
         }
-        return binaryValue;
+        return inputStream.readAllBytes();
     }
-}
\ No newline at end of file
+}
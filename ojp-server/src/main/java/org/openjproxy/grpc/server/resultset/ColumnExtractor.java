@@ -0,0 +1,14 @@
+package org.openjproxy.grpc.server.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the value of one column from the current row of a result set. Extractors are chosen once per result set by
+ * {@link ColumnExtractors} so reading a row does not look at the column metadata again.
+ */
+@FunctionalInterface
+interface ColumnExtractor {
+
+    Object extract(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,160 @@
+package org.openjproxy.grpc.server.resultset;
+
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.SessionInfo;
+import org.apache.commons.lang3.StringUtils;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.server.LobStagingStore;
+import org.openjproxy.grpc.server.SessionManager;
+import org.openjproxy.grpc.server.lob.LobProcessor;
+import org.openjproxy.grpc.server.utils.DateTimeUtils;
+
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the column extractors of a result set from its metadata, so the type of every column is
+ * resolved once per result set instead of once per cell.
+ */
+final class ColumnExtractors {
+
+    // Postgres uses type BYTEA which translates to type VARBINARY
+    private static final List<String> INPUT_STREAM_TYPES = Arrays.asList("RAW", "BINARY VARYING", "BYTEA");
+    // com.microsoft.sqlserver.jdbc.DateTimeOffset, it does not implement any standard java.sql interface.
+    private static final int SQL_SERVER_DATETIMEOFFSET = -155;
+
+    private ColumnExtractors() {
+    }
+
+    /**
+     * Creates one extractor per column of the result set.
+     *
+     * @param metaData       metadata of the result set
+     * @param sessionManager session manager where CLOBs are registered
+     * @param session        session owning the result set
+     * @param dbNameMap      map of connection hash to database name
+     * @param lobInlineThreshold length up to which CLOBs are sent inside the row instead of being registered
+     * @param hydrationStore store where CLOBs are copied before being registered, so the cursor can move past their
+     *                       row, or null to register the CLOBs of the result set
+     * @return the extractors indexed by column (0-based)
+     * @throws SQLException if the metadata cannot be read
+     */
+    static ColumnExtractor[] compile(ResultSetMetaData metaData, SessionManager sessionManager,
+                                     SessionInfo session, Map<String, DbName> dbNameMap, int lobInlineThreshold,
+                                     LobStagingStore hydrationStore) throws SQLException {
+        ColumnExtractor[] extractors = new ColumnExtractor[metaData.getColumnCount()];
+        for (int i = 0; i < extractors.length; i++) {
+            extractors[i] = compile(metaData, i, sessionManager, session, dbNameMap, lobInlineThreshold,
+                    hydrationStore);
+        }
+        return extractors;
+    }
+
+    /**
+     * Tells if a value read by an extractor is a reference to a LOB registered in the session, read later by the
+     * client with readLob.
+     */
+    static boolean isLobReference(Object value) {
+        return value instanceof String s && s.startsWith(CommonConstants.OJP_CLOB_PREFIX);
+    }
+
+    /**
+     * Tells if any column of the result set is a LOB or binary column, which in SQL Server and DB2 is invalidated
+     * when the cursor moves and therefore requires the result set to be read row by row, unless its CLOBs are copied
+     * to the LOB staging store as they are read.
+     */
+    static boolean hasLobColumns(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            switch (metaData.getColumnType(i)) {
+                case Types.VARBINARY, Types.BLOB, Types.LONGVARBINARY, Types.CLOB, Types.BINARY:
+                    return true;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static ColumnExtractor compile(ResultSetMetaData metaData, int i, SessionManager sessionManager,
+                                           SessionInfo session, Map<String, DbName> dbNameMap,
+                                           int lobInlineThreshold, LobStagingStore hydrationStore)
+            throws SQLException {
+        int colType = metaData.getColumnType(i + 1);
+        String colTypeName = metaData.getColumnTypeName(i + 1);
+        switch (colType) {
+            case Types.VARBINARY: {
+                if ("BLOB".equalsIgnoreCase(colTypeName)) {
+                    return rs -> LobProcessor.treatAsBlob(sessionManager, session, rs, i, dbNameMap);
+                }
+                return binary(metaData, i);
+            }
+            case Types.BLOB, Types.LONGVARBINARY:
+                return rs -> LobProcessor.treatAsBlob(sessionManager, session, rs, i, dbNameMap);
+            case Types.CLOB:
+                return rs -> {
+                    Clob clob = rs.getClob(i + 1);
+                    if (clob == null) {
+                        return null;
+                    }
+                    long length = clob.length();
+                    if (length <= lobInlineThreshold) {
+                        // Small CLOBs are sent inside the row, the client reads them without calling the server
+                        return clob.getSubString(1, (int) length);
+                    }
+                    String clobUUID = UUID.randomUUID().toString();
+                    // CLOB needs to be prefixed as per it can be read in the JDBC driver by
+                    // getString method and it would be valid to return just a UUID as string
+                    sessionManager.registerLob(session, hydrationStore != null ?
+                            hydrationStore.hydrateClob(clob, rs, session.getSessionUUID()) : clob, clobUUID);
+                    return CommonConstants.OJP_CLOB_PREFIX + clobUUID;
+                };
+            case Types.BINARY:
+                return binary(metaData, i);
+            case Types.DATE: {
+                if ("YEAR".equalsIgnoreCase(colTypeName)) {
+                    return rs -> {
+                        Date date = rs.getDate(i + 1);
+                        return date.toLocalDate().getYear();
+                    };
+                }
+                return rs -> rs.getDate(i + 1);
+            }
+            case Types.TIMESTAMP:
+                return rs -> rs.getTimestamp(i + 1);
+            default: {
+                if ("datetimeoffset".equalsIgnoreCase(colTypeName) && colType == SQL_SERVER_DATETIMEOFFSET) {
+                    return rs -> DateTimeUtils.extractOffsetDateTime(rs.getObject(i + 1));
+                }
+                return rs -> rs.getObject(i + 1);
+            }
+        }
+    }
+
+    /**
+     * Chooses how a binary column is read: as a single byte, as a byte array or by hydrating its binary stream.
+     */
+    private static ColumnExtractor binary(ResultSetMetaData metaData, int i) throws SQLException {
+        int precision = metaData.getPrecision(i + 1);
+        String catalogName = metaData.getCatalogName(i + 1);
+        String colClassName = metaData.getColumnClassName(i + 1);
+        String colTypeName = metaData.getColumnTypeName(i + 1);
+        colTypeName = colTypeName != null ? colTypeName : "";
+        boolean byteArrayClass = "[B".equalsIgnoreCase(colClassName) || "byte[]".equalsIgnoreCase(colClassName);
+
+        if (precision == 1 && !byteArrayClass) {
+            //it is a single byte and is not of class byte array([B)
+            return rs -> rs.getByte(i + 1);
+        } else if ((StringUtils.isNotEmpty(catalogName) || byteArrayClass) &&
+                !INPUT_STREAM_TYPES.contains(colTypeName.toUpperCase())) {
+            return rs -> rs.getBytes(i + 1);
+        }
+        return rs -> LobProcessor.hydrateBinaryStream(rs, i);
+    }
+}
@@ -0,0 +1,315 @@
+package org.openjproxy.grpc.server.resultset;
+
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResultSetOptions;
+import com.openjproxy.grpc.SessionInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.database.DatabaseUtils;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.dto.ColumnMetadata;
+import org.openjproxy.grpc.dto.OpQueryResult;
+import org.openjproxy.grpc.server.LobStagingStore;
+import org.openjproxy.grpc.server.SessionManager;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a result set one data block at a time, so blocks are only read from the database when they can be sent.
+ * Extracted from StatementServiceImpl so the result set can be streamed under gRPC flow control.
+ */
+@Slf4j
+public class ResultSetBlockReader {
+
+    private final SessionManager sessionManager;
+    private SessionInfo session;
+    private String resultSetUUID;
+    private final ResultSet rs;
+    private final ColumnExtractor[] extractors;
+    private final boolean columnar;
+    private final ResultSetBlockSizer blockSizer;
+    // LOBs in SQL Server and DB2 are invalidated when the cursor moves, so once a row holds a LOB reference the
+    // cursor is not read in advance and every row has to be requested by the jdbc client.
+    private final boolean lobRowByRow;
+    // Rows per block when the CLOBs of SQL Server and DB2 are copied to the LOB staging store as they are read
+    // instead, 0 when they are not: blocks are kept small as every CLOB of a block is held until the client reads it.
+    private final int hydrationWindowRows;
+    // LOBs read by the client after the last row need the result set open until the session ends.
+    private final boolean hasLobColumns;
+    private OpQueryResult.OpQueryResultBuilder queryResultBuilder;
+    private String resultSetMode = "";
+    private int blocksRead;
+    private boolean finished;
+    // Every row was read, the reader can be finished before when it stops at a row holding a LOB reference
+    private boolean exhausted;
+    // Rows per block requested with fetchNextRows, 0 when the blocks are only sized by the block sizer
+    private int maxBlockRows;
+
+    /**
+     * @param lobInlineThreshold length up to which CLOBs are sent inside the rows, larger ones are registered in the
+     *                           session and read by the client with readLob
+     */
+    public ResultSetBlockReader(SessionManager sessionManager, Map<String, DbName> dbNameMap, SessionInfo session,
+                                String resultSetUUID, ResultSetOptions resultSetOptions,
+                                ResultSetBlockSizer blockSizer, int lobInlineThreshold, boolean describeColumns)
+            throws SQLException {
+        this(sessionManager, dbNameMap, session, sessionManager.getResultSet(session, resultSetUUID), resultSetUUID,
+                resultSetOptions, blockSizer, lobInlineThreshold, describeColumns);
+    }
+
+    /**
+     * Reader of a result set not registered in a session, its blocks have no result set UUID until it is attached to
+     * one. The result set must be able to be read without a session, see {@link #canReadWithoutSession(ResultSet)}.
+     */
+    public ResultSetBlockReader(SessionManager sessionManager, Map<String, DbName> dbNameMap, SessionInfo session,
+                                ResultSet rs, ResultSetOptions resultSetOptions, ResultSetBlockSizer blockSizer,
+                                int lobInlineThreshold, boolean describeColumns) throws SQLException {
+        this(sessionManager, dbNameMap, session, rs, "", resultSetOptions, blockSizer, lobInlineThreshold,
+                describeColumns);
+    }
+
+    private ResultSetBlockReader(SessionManager sessionManager, Map<String, DbName> dbNameMap, SessionInfo session,
+                                 ResultSet rs, String resultSetUUID, ResultSetOptions resultSetOptions,
+                                 ResultSetBlockSizer blockSizer, int lobInlineThreshold, boolean describeColumns)
+            throws SQLException {
+        this.sessionManager = sessionManager;
+        this.session = session;
+        this.resultSetUUID = resultSetUUID;
+        this.rs = rs;
+        this.columnar = resultSetOptions.getColumnar();
+        this.blockSizer = blockSizer;
+
+        // The reader plan is built once per result set, rows are then read without looking at the metadata.
+        ResultSetMetaData metaData = this.rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        // Result sets of DatabaseMetaData calls may have no statement
+        java.sql.Statement statement = this.rs.getStatement();
+        DbName dbName = statement != null ?
+                DatabaseUtils.resolveDbName(statement.getConnection().getMetaData().getURL()) :
+                dbNameMap.getOrDefault(session.getConnHash(), DbName.UNMAPPED);
+        this.hasLobColumns = ColumnExtractors.hasLobColumns(metaData);
+        boolean lobCursorBound = (DbName.DB2.equals(dbName) || DbName.SQL_SERVER.equals(dbName)) && this.hasLobColumns;
+        LobStagingStore stagingStore = sessionManager.getLobStagingStore();
+        boolean hydrate = lobCursorBound && stagingStore != null && stagingStore.getHydrationWindowRows() > 0;
+        this.hydrationWindowRows = hydrate ? stagingStore.getHydrationWindowRows() : 0;
+        this.lobRowByRow = lobCursorBound && !hydrate;
+        this.extractors = ColumnExtractors.compile(metaData, sessionManager, session, dbNameMap, lobInlineThreshold,
+                hydrate ? stagingStore : null);
+
+        List<String> labels = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            labels.add(metaData.getColumnName(i + 1));
+        }
+        this.queryResultBuilder = OpQueryResult.builder().labels(labels);
+        if (describeColumns) {
+            this.queryResultBuilder.columnMetadata(describeColumns(metaData, columnCount));
+        }
+    }
+
+    /**
+     * Tells if a result set can be read without a session: nothing can be done with it once its rows are read, as it
+     * is forward only, read only and has no LOB to be read later by the client.
+     */
+    public static boolean canReadWithoutSession(ResultSet rs) throws SQLException {
+        return rs.getType() == ResultSet.TYPE_FORWARD_ONLY && rs.getConcurrency() == ResultSet.CONCUR_READ_ONLY &&
+                !ColumnExtractors.hasLobColumns(rs.getMetaData());
+    }
+
+    /**
+     * Reads every row of a result set not kept in the session into a single block and closes it. Used for the keys
+     * generated by an update, sent back with the update count.
+     *
+     * @param rs             result set to read
+     * @param sessionManager session manager where CLOBs are registered
+     * @param session        session of the statement, may have no session UUID
+     * @param dbNameMap      map of connection hash to database name
+     * @param lobInlineThreshold length up to which CLOBs are sent inside the rows
+     * @return the rows with the labels and metadata of the columns
+     * @throws SQLException if reading the result set fails
+     */
+    public static OpQueryResultProto readFully(ResultSet rs, SessionManager sessionManager, SessionInfo session,
+                                               Map<String, DbName> dbNameMap, int lobInlineThreshold)
+            throws SQLException {
+        try (rs) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columnCount = metaData.getColumnCount();
+            ColumnExtractor[] extractors = ColumnExtractors.compile(metaData, sessionManager, session, dbNameMap,
+                    lobInlineThreshold, null);
+            List<String> labels = new ArrayList<>();
+            for (int i = 0; i < columnCount; i++) {
+                labels.add(metaData.getColumnName(i + 1));
+            }
+            List<Object[]> rows = new ArrayList<>();
+            while (rs.next()) {
+                Object[] rowValues = new Object[columnCount];
+                for (int i = 0; i < columnCount; i++) {
+                    rowValues[i] = extractors[i].extract(rs);
+                }
+                rows.add(rowValues);
+            }
+            return ProtoConverter.toProto(OpQueryResult.builder()
+                    .labels(labels)
+                    .columnMetadata(describeColumns(metaData, columnCount))
+                    .rows(rows)
+                    .build());
+        }
+    }
+
+    /**
+     * Reads the metadata of every column so the driver can answer ResultSetMetaData calls locally. If the JDBC
+     * driver fails to provide any attribute no metadata is sent and the driver falls back to remote calls.
+     */
+    private static List<ColumnMetadata> describeColumns(ResultSetMetaData metaData, int columnCount) {
+        try {
+            List<ColumnMetadata> columns = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                columns.add(ColumnMetadata.builder()
+                        .columnType(metaData.getColumnType(i))
+                        .columnTypeName(metaData.getColumnTypeName(i))
+                        .columnLabel(metaData.getColumnLabel(i))
+                        .columnName(metaData.getColumnName(i))
+                        .schemaName(metaData.getSchemaName(i))
+                        .tableName(metaData.getTableName(i))
+                        .catalogName(metaData.getCatalogName(i))
+                        .columnDisplaySize(metaData.getColumnDisplaySize(i))
+                        .precision(metaData.getPrecision(i))
+                        .scale(metaData.getScale(i))
+                        .nullable(metaData.isNullable(i))
+                        .autoIncrement(metaData.isAutoIncrement(i))
+                        .caseSensitive(metaData.isCaseSensitive(i))
+                        .searchable(metaData.isSearchable(i))
+                        .currency(metaData.isCurrency(i))
+                        .signed(metaData.isSigned(i))
+                        .readOnly(metaData.isReadOnly(i))
+                        .writable(metaData.isWritable(i))
+                        .definitelyWritable(metaData.isDefinitelyWritable(i))
+                        .columnClassName(metaData.getColumnClassName(i))
+                        .build());
+            }
+            return columns;
+        } catch (SQLException | RuntimeException e) {
+            log.debug("Result set metadata not sent with the first block: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads the next block of rows. The first block carries the column labels and metadata and is sent even if the
+     * result set is empty.
+     *
+     * @return the next block or null if the result set has no more blocks
+     * @throws SQLException if reading the result set fails
+     */
+    public OpResult nextBlock() throws SQLException {
+        if (this.finished) {
+            return null;
+        }
+        List<Object[]> results = new ArrayList<>();
+        while (this.rs.next()) {
+            Object[] rowValues = this.readRow();
+            results.add(rowValues);
+
+            if (this.lobRowByRow && holdsLobReference(rowValues)) {
+                this.resultSetMode = CommonConstants.RESULT_SET_ROW_BY_ROW_MODE;
+                this.finished = true;
+                return this.wrap(results);
+            }
+            if (this.blockSizer.addRow(rowValues) || results.size() == this.hydrationWindowRows ||
+                    results.size() == this.maxBlockRows) {
+                return this.wrap(results);
+            }
+        }
+        this.finished = true;
+        this.exhausted = true;
+        if (!this.hasLobColumns) {
+            // Every row was read, a statement borrowed from the prepared statement cache can be used again
+            this.sessionManager.releaseCachedStatement(this.session, this.resultSetUUID);
+        }
+        if (results.isEmpty() && this.blocksRead > 0) {
+            return null;
+        }
+        return this.wrap(results);
+    }
+
+    /**
+     * Reads a block of up to maxRows rows requested by the client with fetchNextRows: the next rows of a result set
+     * read row by row, or the next block of a result set whose first block was sent alone. A block is always
+     * returned, an empty one once every row was read.
+     *
+     * @param maxRows rows requested by the client, 0 or negative to size the block by the block sizer only
+     * @return the next block
+     * @throws SQLException if reading the result set fails
+     */
+    public OpResult fetchBlock(int maxRows) throws SQLException {
+        // A reader stopped at a row holding a LOB reference goes on from the next row
+        this.finished = this.exhausted;
+        this.maxBlockRows = Math.max(0, maxRows);
+        try {
+            OpResult block = this.nextBlock();
+            return block != null ? block : this.wrap(new ArrayList<>());
+        } finally {
+            this.maxBlockRows = 0;
+        }
+    }
+
+    /**
+     * Tells if the result set read is closed, the reader can no longer be used then.
+     */
+    public boolean isResultSetClosed() {
+        try {
+            return this.rs.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Moves a reader created without a session to the session the result set was registered in, once the result set
+     * turned out to be too large to be sent with the first block. The following blocks carry the session and UUID.
+     */
+    public void attach(SessionInfo session, String resultSetUUID) {
+        this.session = session;
+        this.resultSetUUID = resultSetUUID;
+    }
+
+    /**
+     * Tells if every row of the result set was read. A block filling up right before the end of the result set
+     * leaves the reader not finished, the next block is then empty.
+     */
+    public boolean isFinished() {
+        return this.finished;
+    }
+
+    private OpResult wrap(List<Object[]> results) {
+        OpResult block = ResultSetWrapper.wrapResults(this.session, results, this.queryResultBuilder,
+                this.resultSetUUID, this.resultSetMode, this.columnar);
+        this.queryResultBuilder = OpQueryResult.builder();// Recreate the builder to not send labels in every block.
+        this.blockSizer.blockSent();
+        this.blocksRead++;
+        return block;
+    }
+
+    private static boolean holdsLobReference(Object[] rowValues) {
+        for (Object value : rowValues) {
+            if (ColumnExtractors.isLobReference(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Object[] readRow() throws SQLException {
+        Object[] rowValues = new Object[this.extractors.length];
+        for (int i = 0; i < this.extractors.length; i++) {
+            rowValues[i] = this.extractors[i].extract(this.rs);
+        }
+        return rowValues;
+    }
+}
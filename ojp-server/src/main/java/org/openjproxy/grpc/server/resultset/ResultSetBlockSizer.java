@@ -0,0 +1,92 @@
+package org.openjproxy.grpc.server.resultset;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Decides where a result set is split into data blocks based on an estimate of the encoded size of its rows.
+ * The first block is kept small so the client gets its first rows quickly, every following block doubles the byte
+ * budget of the previous one until the maximum block size is reached.
+ * If the client sets a fetch size, blocks are cut every fetch size rows instead, still bounded by the maximum block
+ * size so a block never grows past what the client accepts in a single message.
+ */
+public class ResultSetBlockSizer {
+
+    private static final int ROW_OVERHEAD_BYTES = 4;
+    private static final int VALUE_OVERHEAD_BYTES = 2;
+    private static final int NULL_BYTES = 1;
+    private static final int NUMBER_BYTES = 9;
+    private static final int DECIMAL_BYTES = 24;
+    private static final int DATE_BYTES = 16;
+    private static final int OTHER_BYTES = 32;
+
+    private final int maxBlockBytes;
+    private final int fetchSize;
+    private int blockBudgetBytes;
+    private long blockBytes;
+    private int blockRows;
+
+    /**
+     * @param firstBlockBytes byte budget of the first block
+     * @param maxBlockBytes   maximum byte budget of any block
+     * @param fetchSize       rows per block requested by the client, zero or negative to size blocks by bytes only
+     */
+    public ResultSetBlockSizer(int firstBlockBytes, int maxBlockBytes, int fetchSize) {
+        this.maxBlockBytes = Math.max(1, maxBlockBytes);
+        this.fetchSize = fetchSize;
+        this.blockBudgetBytes = Math.max(1, Math.min(firstBlockBytes, this.maxBlockBytes));
+    }
+
+    /**
+     * Accounts a row read from the database into the current block.
+     *
+     * @param row values of the row
+     * @return true if the current block is full and must be sent
+     */
+    public boolean addRow(Object[] row) {
+        this.blockRows++;
+        this.blockBytes += estimateRowSize(row);
+        if (this.fetchSize > 0) {
+            return this.blockRows >= this.fetchSize || this.blockBytes >= this.maxBlockBytes;
+        }
+        return this.blockBytes >= this.blockBudgetBytes;
+    }
+
+    /**
+     * Starts a new block, growing the byte budget for it.
+     */
+    public void blockSent() {
+        this.blockRows = 0;
+        this.blockBytes = 0;
+        this.blockBudgetBytes = (int) Math.min((long) this.blockBudgetBytes * 2, this.maxBlockBytes);
+    }
+
+    int getBlockBudgetBytes() {
+        return this.blockBudgetBytes;
+    }
+
+    static long estimateRowSize(Object[] row) {
+        long size = ROW_OVERHEAD_BYTES;
+        for (Object value : row) {
+            size += VALUE_OVERHEAD_BYTES + estimateValueSize(value);
+        }
+        return size;
+    }
+
+    private static long estimateValueSize(Object value) {
+        if (value == null) {
+            return NULL_BYTES;
+        } else if (value instanceof String) {
+            return ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        } else if (value instanceof BigDecimal) {
+            return DECIMAL_BYTES;
+        } else if (value instanceof Number || value instanceof Boolean) {
+            return NUMBER_BYTES;
+        } else if (value instanceof Date) {
+            return DATE_BYTES;
+        }
+        return OTHER_BYTES;
+    }
+}
@@ -0,0 +1,146 @@
+package org.openjproxy.grpc.server.resultset;
+
+import com.openjproxy.grpc.OpResult;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Streams the blocks of a result set honoring gRPC flow control. A block is only read from the database while the
+ * call is ready, so a slow client makes the server stop reading the cursor instead of buffering the whole result
+ * in memory. Reading resumes from the call onReady handler once the client has consumed enough data.
+ */
+@Slf4j
+public class ResultSetStreamer {
+
+    private final ServerCallStreamObserver<OpResult> responseObserver;
+    private final ResultSetBlockReader blockReader;
+    private final Consumer<SQLException> streamingErrorHandler;
+    private final Runnable endHandler;
+    // Block read before streaming started, sent ahead of the blocks of the reader
+    private OpResult pendingBlock;
+    private boolean done;
+
+    private ResultSetStreamer(ServerCallStreamObserver<OpResult> responseObserver, ResultSetBlockReader blockReader,
+                              Consumer<SQLException> streamingErrorHandler, Runnable endHandler) {
+        this.responseObserver = responseObserver;
+        this.blockReader = blockReader;
+        this.streamingErrorHandler = streamingErrorHandler;
+        this.endHandler = endHandler;
+    }
+
+    /**
+     * Starts streaming a result set. Must be called from the gRPC method invocation, as the onReady handler can only
+     * be registered before the method returns. The blocks that can be sent right away are sent before returning and
+     * failures on them are thrown to the caller, failures on blocks sent later go to the streaming error handler.
+     *
+     * @param responseObserver      observer of the call
+     * @param blockReader           reader of the result set blocks
+     * @param streamingErrorHandler handler of failures happening after this method returned
+     * @throws SQLException if reading the first blocks fails
+     */
+    public static void stream(StreamObserver<OpResult> responseObserver, ResultSetBlockReader blockReader,
+                              Consumer<SQLException> streamingErrorHandler) throws SQLException {
+        stream(responseObserver, null, blockReader, streamingErrorHandler, () -> { });
+    }
+
+    /**
+     * Starts streaming a result set whose first block was already read from the reader.
+     *
+     * @param firstBlock block to send before reading the next ones, null if none was read
+     * @see #stream(StreamObserver, ResultSetBlockReader, Consumer)
+     */
+    public static void stream(StreamObserver<OpResult> responseObserver, OpResult firstBlock,
+                              ResultSetBlockReader blockReader, Consumer<SQLException> streamingErrorHandler)
+            throws SQLException {
+        stream(responseObserver, firstBlock, blockReader, streamingErrorHandler, () -> { });
+    }
+
+    /**
+     * Starts streaming a result set, telling when the stream ends without failure.
+     *
+     * @param endHandler run once when every block was sent or the client cancelled the call, possibly before this
+     *                   method returns. Not run when reading the blocks fails.
+     * @see #stream(StreamObserver, OpResult, ResultSetBlockReader, Consumer)
+     */
+    public static void stream(StreamObserver<OpResult> responseObserver, OpResult firstBlock,
+                              ResultSetBlockReader blockReader, Consumer<SQLException> streamingErrorHandler,
+                              Runnable endHandler) throws SQLException {
+        if (!(responseObserver instanceof ServerCallStreamObserver<OpResult> serverCallStreamObserver)) {
+            // No flow control available, send every block right away
+            if (firstBlock != null) {
+                responseObserver.onNext(firstBlock);
+            }
+            OpResult block;
+            while ((block = blockReader.nextBlock()) != null) {
+                responseObserver.onNext(block);
+            }
+            responseObserver.onCompleted();
+            endHandler.run();
+            return;
+        }
+        ResultSetStreamer streamer = new ResultSetStreamer(serverCallStreamObserver, blockReader,
+                streamingErrorHandler, endHandler);
+        streamer.pendingBlock = firstBlock;
+        serverCallStreamObserver.setOnCancelHandler(streamer::onCancel);
+        serverCallStreamObserver.setOnReadyHandler(streamer::onReady);
+        try {
+            streamer.sendWhileReady();
+        } catch (SQLException | RuntimeException e) {
+            // Reported by the caller, nothing more is sent
+            streamer.done = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Sends blocks while the call can take them without buffering. gRPC runs the handlers of a call one at a time,
+     * so this method is never executed concurrently for the same result set.
+     */
+    private void sendWhileReady() throws SQLException {
+        while (!this.done && this.responseObserver.isReady()) {
+            if (this.responseObserver.isCancelled()) {
+                this.end();
+                return;
+            }
+            OpResult block = this.pendingBlock != null ? this.pendingBlock : this.blockReader.nextBlock();
+            this.pendingBlock = null;
+            if (block == null) {
+                this.responseObserver.onCompleted();
+                this.end();
+                return;
+            }
+            this.responseObserver.onNext(block);
+        }
+    }
+
+    private void onReady() {
+        if (this.done) {
+            return;
+        }
+        try {
+            this.sendWhileReady();
+        } catch (SQLException e) {
+            this.done = true;
+            this.streamingErrorHandler.accept(e);
+        } catch (RuntimeException e) {
+            this.done = true;
+            this.streamingErrorHandler.accept(new SQLException("Unexpected error: " + e.getMessage(), e));
+        }
+    }
+
+    private void onCancel() {
+        log.debug("Result set stream cancelled by the client");
+        if (!this.done) {
+            this.end();
+        }
+    }
+
+    private void end() {
+        this.done = true;
+        this.endHandler.run();
+    }
+}
@@ -1,6 +1,5 @@
 package org.openjproxy.grpc.server.resultset;
 
-import com.google.protobuf.ByteString;
 import com.openjproxy.grpc.OpResult;
 import com.openjproxy.grpc.ResultType;
 import com.openjproxy.grpc.SessionInfo;
@@ -29,13 +28,33 @@ public class ResultSetWrapper {
                                      List<Object[]> results,
                                      OpQueryResult.OpQueryResultBuilder queryResultBuilder,
                                      String resultSetUUID, String resultSetMode) {
+        return wrapResults(sessionInfo, results, queryResultBuilder, resultSetUUID, resultSetMode, false);
+    }
+
+    /**
+     * Wraps result set data into an OpResult for GRPC response.
+     *
+     * @param sessionInfo        The session information
+     * @param results           The result data rows
+     * @param queryResultBuilder The query result builder
+     * @param resultSetUUID     The result set UUID
+     * @param resultSetMode     The result set mode flag
+     * @param columnar          If true the rows are encoded column by column
+     * @return OpResult containing wrapped data
+     */
+    public static OpResult wrapResults(SessionInfo sessionInfo,
+                                     List<Object[]> results,
+                                     OpQueryResult.OpQueryResultBuilder queryResultBuilder,
+                                     String resultSetUUID, String resultSetMode, boolean columnar) {
 
         OpResult.Builder resultsBuilder = OpResult.newBuilder();
         resultsBuilder.setSession(sessionInfo);
         resultsBuilder.setType(ResultType.RESULT_SET_DATA);
         queryResultBuilder.resultSetUUID(resultSetUUID);
         queryResultBuilder.rows(results);
-        resultsBuilder.setQueryResult(ProtoConverter.toProto(queryResultBuilder.build()));
+        OpQueryResult queryResult = queryResultBuilder.build();
+        resultsBuilder.setQueryResult(columnar ? ProtoConverter.toColumnarProto(queryResult) :
+                ProtoConverter.toProto(queryResult));
         resultsBuilder.setFlag(resultSetMode);
 
         return resultsBuilder.build();
@@ -0,0 +1,134 @@
+package org.openjproxy.grpc.server.statement;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Prepared statement borrowed from the {@link PreparedStatementCache}. It has to be either released, returning it to
+ * the cache, or discarded, closing it, once the caller is done with it and its result set.
+ */
+@Slf4j
+public class CachedPreparedStatement {
+
+    private final PreparedStatementCache cache;
+    private final PreparedStatementCache.ConnectionStatements statements;
+    private final PreparedStatementCache.StatementKey key;
+    private final PreparedStatement preparedStatement;
+    // Pool and pooled connection the statement was borrowed with, to evict the connection if it is found broken
+    private final DataSource pool;
+    private final Connection pooledConnection;
+    private final AtomicBoolean returned = new AtomicBoolean(false);
+    private volatile ResultSet resultSet;
+
+    CachedPreparedStatement(PreparedStatementCache cache, PreparedStatementCache.ConnectionStatements statements,
+                            PreparedStatementCache.StatementKey key, PreparedStatement preparedStatement,
+                            DataSource pool, Connection pooledConnection) {
+        this.cache = cache;
+        this.statements = statements;
+        this.key = key;
+        this.preparedStatement = preparedStatement;
+        this.pool = pool;
+        this.pooledConnection = pooledConnection;
+    }
+
+    public PreparedStatement getPreparedStatement() {
+        return this.preparedStatement;
+    }
+
+    PreparedStatementCache.ConnectionStatements getStatements() {
+        return this.statements;
+    }
+
+    PreparedStatementCache.StatementKey getKey() {
+        return this.key;
+    }
+
+    DataSource getPool() {
+        return this.pool;
+    }
+
+    Connection getPooledConnection() {
+        return this.pooledConnection;
+    }
+
+    /**
+     * Executes the query of the statement, discarding the statement if the execution fails. The result set is closed
+     * when the statement is released.
+     */
+    public ResultSet executeQuery() throws SQLException {
+        try {
+            this.resultSet = this.preparedStatement.executeQuery();
+            return this.resultSet;
+        } catch (SQLException e) {
+            this.discard();
+            this.cache.failed(this, e);
+            throw e;
+        } catch (RuntimeException e) {
+            this.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the update of the statement and releases it, discarding the statement if the execution fails.
+     */
+    public int executeUpdate() throws SQLException {
+        try {
+            int updated = this.preparedStatement.executeUpdate();
+            this.release();
+            return updated;
+        } catch (SQLException e) {
+            this.discard();
+            this.cache.failed(this, e);
+            throw e;
+        } catch (RuntimeException e) {
+            this.discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Tells if nothing can be done with the result set of the statement once all its rows have been read, so the
+     * statement can be released then instead of waiting for the session to end.
+     */
+    public boolean isReleasableWhenConsumed() {
+        return this.key.isForwardOnlyReadOnly();
+    }
+
+    /**
+     * Closes the result set of the statement and returns the statement to the cache. Calls after the first one,
+     * or after the statement was discarded, do nothing.
+     */
+    public void release() {
+        if (!this.returned.compareAndSet(false, true)) {
+            return;
+        }
+        ResultSet rs = this.resultSet;
+        if (rs != null) {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                log.debug("Failure closing result set of cached prepared statement: {}", e.getMessage());
+                PreparedStatementCache.closeQuietly(this.preparedStatement);
+                this.cache.failed(this, e);
+                return;
+            }
+        }
+        this.cache.release(this);
+    }
+
+    /**
+     * Closes the statement instead of returning it to the cache, used when the statement may be in an unknown state.
+     */
+    public void discard() {
+        if (this.returned.compareAndSet(false, true)) {
+            PreparedStatementCache.closeQuietly(this.preparedStatement);
+        }
+    }
+}
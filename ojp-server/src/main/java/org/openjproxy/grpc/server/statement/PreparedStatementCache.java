@@ -0,0 +1,334 @@
+package org.openjproxy.grpc.server.statement;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.datasource.ConnectionPoolProviderRegistry;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * LRU cache of prepared statements bound to the physical connections of the pools, so a SQL executed again on the
+ * same pooled connection is not parsed and planned again by the database, even if it is executed by another session.
+ *
+ * <p>Statements are prepared on the physical connection obtained with {@link Connection#unwrap(Class)}, as the pool
+ * closes the statements prepared on its connection proxy when the connection returns to the pool. Pools not exposing
+ * their physical connection, such as DBCP, are not cached here and cache the statements of their connections
+ * themselves. Connections not in auto commit mode are not cached: statements executed directly on the physical
+ * connection are not seen by the pool, which would then not roll back an abandoned transaction.</p>
+ *
+ * <p>For the same reason the pool does not see the errors of cached statements. A statement failing with a SQLState
+ * telling the connection is broken has the pooled connection evicted from its pool, and the statements of its
+ * physical connection invalidated. The statements of connections closed by the pool, for instance at the end of
+ * their lifetime, are invalidated by the periodic session cleanup task, see {@link #invalidateClosedConnections()},
+ * and on the next statement prepared by the cache.</p>
+ *
+ * <p>A statement borrowed from the cache is not available to others until it is released.</p>
+ */
+@Slf4j
+public class PreparedStatementCache {
+
+    // SQLStates of errors after which a connection can no longer be used, as considered by HikariCP
+    private static final Set<String> FATAL_SQL_STATES = Set.of("0A000", "57P01", "57P02", "57P03", "01002", "JZ0C0",
+            "JZ0C1");
+
+    private final int maxStatementsPerConnection;
+    private final BiPredicate<DataSource, Connection> connectionEvictor;
+    private final Map<Connection, ConnectionStatements> connectionStatements = new ConcurrentHashMap<>();
+
+    // Metrics tracking - using AtomicLong for thread-safe updates without synchronization
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+    private final AtomicLong invalidations = new AtomicLong(0);
+
+    /**
+     * Creates a cache keeping at most the given number of statements per physical connection.
+     *
+     * @param maxStatementsPerConnection statements kept per connection, 0 disables the cache
+     */
+    public PreparedStatementCache(int maxStatementsPerConnection) {
+        this(maxStatementsPerConnection, ConnectionPoolProviderRegistry::evictConnection);
+    }
+
+    /**
+     * Creates a cache evicting broken connections from their pool with the given evictor.
+     *
+     * @param maxStatementsPerConnection statements kept per connection, 0 disables the cache
+     * @param connectionEvictor          evicts a pooled connection from its pool, returning false if it cannot
+     */
+    PreparedStatementCache(int maxStatementsPerConnection, BiPredicate<DataSource, Connection> connectionEvictor) {
+        this.maxStatementsPerConnection = maxStatementsPerConnection;
+        this.connectionEvictor = connectionEvictor;
+    }
+
+    public boolean isEnabled() {
+        return this.maxStatementsPerConnection > 0;
+    }
+
+    /**
+     * Borrows a statement for the SQL from the cache of the physical connection, preparing it if it is not cached.
+     *
+     * @param pool                   pool the connection was borrowed from, to evict it if it is found broken
+     * @param connection             pooled connection of the session
+     * @param sql                    SQL of the statement
+     * @param resultSetType          result set type, or null for the default
+     * @param resultSetConcurrency   result set concurrency, or null for the default
+     * @param resultSetHoldability   result set holdability, or null for the default
+     * @return the borrowed statement, or null if the connection cannot use the cache
+     * @throws SQLException if preparing the statement fails
+     */
+    public CachedPreparedStatement borrow(DataSource pool, Connection connection, String sql, Integer resultSetType,
+                                          Integer resultSetConcurrency, Integer resultSetHoldability)
+            throws SQLException {
+        if (!this.isEnabled() || !connection.getAutoCommit() || !connection.isWrapperFor(Connection.class)) {
+            return null;
+        }
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        if (physicalConnection == null || physicalConnection == connection) {
+            return null;
+        }
+        ConnectionStatements statements = this.connectionStatements.computeIfAbsent(physicalConnection,
+                ConnectionStatements::new);
+
+        StatementKey key = new StatementKey(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        PreparedStatement ps = statements.take(key);
+        if (ps != null && !ps.isClosed()) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+            // The pool may have closed connections since, their statements are dropped before preparing a new one
+            this.invalidateClosedConnections();
+            ps = key.prepare(physicalConnection);
+        }
+        return new CachedPreparedStatement(this, statements, key, ps, pool, connection);
+    }
+
+    /**
+     * Returns a borrowed statement to the cache of its connection, evicting the least recently used statement if
+     * the cache is full.
+     */
+    void release(CachedPreparedStatement cached) {
+        PreparedStatement ps = cached.getPreparedStatement();
+        try {
+            ps.clearParameters();
+        } catch (SQLException e) {
+            log.debug("Prepared statement not cached, failure clearing parameters: {}", e.getMessage());
+            closeQuietly(ps);
+            this.failed(cached, e);
+            return;
+        }
+        for (PreparedStatement evicted : cached.getStatements().put(cached.getKey(), ps,
+                this.maxStatementsPerConnection)) {
+            this.evictions.incrementAndGet();
+            closeQuietly(evicted);
+        }
+    }
+
+    /**
+     * Handles the failure of a borrowed statement. If the error tells the connection is broken, the statements of
+     * its physical connection are invalidated and the pooled connection evicted from its pool, which does not see
+     * the errors of statements executed on the physical connection.
+     */
+    void failed(CachedPreparedStatement cached, SQLException e) {
+        if (!isFatal(e)) {
+            return;
+        }
+        this.invalidate(cached.getStatements());
+        boolean evicted = cached.getPool() != null
+                && this.connectionEvictor.test(cached.getPool(), cached.getPooledConnection());
+        log.warn("Connection broken executing a cached prepared statement (SQLState {}), {}", e.getSQLState(),
+                evicted ? "evicted from its pool" : "its pool could not evict it");
+    }
+
+    static boolean isFatal(SQLException e) {
+        String sqlState = e.getSQLState();
+        return sqlState != null && (sqlState.startsWith("08") || FATAL_SQL_STATES.contains(sqlState));
+    }
+
+    /**
+     * Invalidates the statements of the physical connections closed by their pool since, so neither the connections
+     * nor their statements stay referenced by the cache once the pool evicted them.
+     */
+    public void invalidateClosedConnections() {
+        for (ConnectionStatements statements : this.connectionStatements.values()) {
+            if (isClosed(statements.connection)) {
+                this.invalidate(statements);
+            }
+        }
+    }
+
+    private void invalidate(ConnectionStatements statements) {
+        if (this.connectionStatements.remove(statements.connection, statements)) {
+            List<PreparedStatement> invalidated = statements.invalidate();
+            this.invalidations.addAndGet(invalidated.size());
+            invalidated.forEach(PreparedStatementCache::closeQuietly);
+            log.debug("Invalidated {} cached prepared statements of a closed or broken connection", invalidated.size());
+        }
+    }
+
+    private static boolean isClosed(Connection connection) {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException e) {
+            log.debug("Failure closing cached prepared statement: {}", e.getMessage());
+        }
+    }
+
+    public int getConnectionCount() {
+        return this.connectionStatements.size();
+    }
+
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    public long getInvalidations() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * Gets cache statistics.
+     *
+     * @return String describing cache statistics
+     */
+    public String getStats() {
+        long hitCount = this.hits.get();
+        long total = hitCount + this.misses.get();
+        return String.format("Prepared statement cache: Connections=%d, Hits=%d (%.1f%%), Misses=%d, Evictions=%d, "
+                        + "Invalidations=%d", this.connectionStatements.size(), hitCount,
+                total > 0 ? 100.0 * hitCount / total : 0.0, this.misses.get(), this.evictions.get(),
+                this.invalidations.get());
+    }
+
+    /**
+     * Statements cached for one physical connection, least recently used first.
+     */
+    static final class ConnectionStatements {
+        private final Connection connection;
+        private final LinkedHashMap<StatementKey, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        private boolean invalidated;
+
+        ConnectionStatements(Connection connection) {
+            this.connection = connection;
+        }
+
+        synchronized PreparedStatement take(StatementKey key) {
+            return this.statements.remove(key);
+        }
+
+        /**
+         * Caches a statement and returns the statements that no longer fit and have to be closed.
+         */
+        synchronized List<PreparedStatement> put(StatementKey key, PreparedStatement ps, int maxStatements) {
+            List<PreparedStatement> removed = new ArrayList<>(1);
+            if (this.invalidated) {
+                removed.add(ps);
+                return removed;
+            }
+            PreparedStatement previous = this.statements.put(key, ps);
+            if (previous != null && previous != ps) {
+                // The same SQL was borrowed twice at the same time, only one statement is kept
+                removed.add(previous);
+            }
+            while (this.statements.size() > maxStatements) {
+                Map.Entry<StatementKey, PreparedStatement> eldest = this.statements.entrySet().iterator().next();
+                removed.add(eldest.getValue());
+                this.statements.remove(eldest.getKey());
+            }
+            return removed;
+        }
+
+        synchronized List<PreparedStatement> invalidate() {
+            this.invalidated = true;
+            List<PreparedStatement> removed = new ArrayList<>(this.statements.values());
+            this.statements.clear();
+            return removed;
+        }
+    }
+
+    /**
+     * Identifies a cached statement by its SQL and the result set options it was prepared with.
+     */
+    static final class StatementKey {
+        private final String sql;
+        private final Integer resultSetType;
+        private final Integer resultSetConcurrency;
+        private final Integer resultSetHoldability;
+        private final int hash;
+
+        StatementKey(String sql, Integer resultSetType, Integer resultSetConcurrency, Integer resultSetHoldability) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+            this.hash = Objects.hash(sql, resultSetType, resultSetConcurrency, resultSetHoldability);
+        }
+
+        /**
+         * Tells if result sets of the statement can only be read forward, so nothing is done on them once all rows
+         * have been read.
+         */
+        boolean isForwardOnlyReadOnly() {
+            return (this.resultSetType == null || this.resultSetType == ResultSet.TYPE_FORWARD_ONLY)
+                    && (this.resultSetConcurrency == null || this.resultSetConcurrency == ResultSet.CONCUR_READ_ONLY);
+        }
+
+        PreparedStatement prepare(Connection connection) throws SQLException {
+            if (this.resultSetType == null || this.resultSetConcurrency == null) {
+                return connection.prepareStatement(this.sql);
+            }
+            if (this.resultSetHoldability == null) {
+                return connection.prepareStatement(this.sql, this.resultSetType, this.resultSetConcurrency);
+            }
+            return connection.prepareStatement(this.sql, this.resultSetType, this.resultSetConcurrency,
+                    this.resultSetHoldability);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatementKey other)) {
+                return false;
+            }
+            return this.hash == other.hash && this.sql.equals(other.sql)
+                    && Objects.equals(this.resultSetType, other.resultSetType)
+                    && Objects.equals(this.resultSetConcurrency, other.resultSetConcurrency)
+                    && Objects.equals(this.resultSetHoldability, other.resultSetHoldability);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
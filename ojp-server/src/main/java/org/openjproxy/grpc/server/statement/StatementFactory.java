@@ -1,5 +1,6 @@
 package org.openjproxy.grpc.server.statement;
 
+import com.openjproxy.grpc.PropertyEntry;
 import com.openjproxy.grpc.StatementRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.openjproxy.constants.CommonConstants;
@@ -8,10 +9,12 @@ import org.openjproxy.grpc.dto.Parameter;
 import org.openjproxy.grpc.server.ConnectionSessionDTO;
 import org.openjproxy.grpc.server.SessionManager;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -41,7 +44,12 @@ public class StatementFactory {
             if (request.getPropertiesList().isEmpty()) {
                 return connection.createStatement();
             }
-            Map<String, Object> properties = ProtoConverter.propertiesFromProto(request.getPropertiesList());
+            Map<String, Object> properties = new HashMap<>(
+                    ProtoConverter.propertiesFromProto(request.getPropertiesList()));
+            // Generated keys are asked for when executing the update, see executeUpdate
+            properties.remove(CommonConstants.STATEMENT_AUTO_GENERATED_KEYS_KEY);
+            properties.remove(CommonConstants.STATEMENT_COLUMN_INDEXES_KEY);
+            properties.remove(CommonConstants.STATEMENT_COLUMN_NAMES_KEY);
 
             if (properties.isEmpty() ||
                     (properties.size() == 1 && properties.get(CommonConstants.PREPARED_STATEMENT_SQL_KEY) != null)) {
@@ -64,6 +72,33 @@ public class StatementFactory {
         }
     }
 
+    /**
+     * Executes the update of the request with a statement created by createStatement, asking for the generated keys
+     * as the request properties say.
+     *
+     * @param stmt    The statement
+     * @param request The statement request
+     * @return the update count
+     * @throws SQLException if the update fails
+     */
+    public static int executeUpdate(Statement stmt, StatementRequest request) throws SQLException {
+        Map<String, Object> properties = EMPTY_MAP;
+        if (!request.getPropertiesList().isEmpty()) {
+            properties = ProtoConverter.propertiesFromProto(request.getPropertiesList());
+        }
+        int[] columnIndexes = (int[]) properties.get(CommonConstants.STATEMENT_COLUMN_INDEXES_KEY);
+        String[] columnNames = (String[]) properties.get(CommonConstants.STATEMENT_COLUMN_NAMES_KEY);
+        Integer autoGeneratedKeys = (Integer) properties.get(CommonConstants.STATEMENT_AUTO_GENERATED_KEYS_KEY);
+        if (columnIndexes != null) {
+            return stmt.executeUpdate(request.getSql(), columnIndexes);
+        } else if (columnNames != null) {
+            return stmt.executeUpdate(request.getSql(), columnNames);
+        } else if (autoGeneratedKeys != null) {
+            return stmt.executeUpdate(request.getSql(), autoGeneratedKeys);
+        }
+        return stmt.executeUpdate(request.getSql());
+    }
+
     /**
      * Creates a PreparedStatement with the given SQL and parameters.
      *
@@ -79,18 +114,36 @@ public class StatementFactory {
                                                           ConnectionSessionDTO dto, String sql, 
                                                           List<Parameter> params, StatementRequest request)
             throws SQLException {
+        return createPreparedStatement(sessionManager, dto, sql, params, request.getPropertiesList());
+    }
+
+    /**
+     * Creates a PreparedStatement with the given SQL, parameters and statement properties.
+     *
+     * @param sessionManager The session manager
+     * @param dto           The connection session DTO
+     * @param sql           The SQL statement
+     * @param params        The parameters
+     * @param propertyEntries The statement properties sent by the client
+     * @return Created PreparedStatement
+     * @throws SQLException if prepared statement creation fails
+     */
+    public static PreparedStatement createPreparedStatement(SessionManager sessionManager,
+                                                          ConnectionSessionDTO dto, String sql,
+                                                          List<Parameter> params, List<PropertyEntry> propertyEntries)
+            throws SQLException {
 
         PreparedStatement ps = null;
         Map<String, Object> properties = EMPTY_MAP;
-        if (!request.getPropertiesList().isEmpty()) {
-            properties = ProtoConverter.propertiesFromProto(request.getPropertiesList());
+        if (!propertyEntries.isEmpty()) {
+            properties = ProtoConverter.propertiesFromProto(propertyEntries);
         }
         if (properties.isEmpty()) {
             ps = dto.getConnection().prepareStatement(sql);
         }
         if (properties.size() == 1) {
             int[] columnIndexes = (int[]) properties.get(CommonConstants.STATEMENT_COLUMN_INDEXES_KEY);
-            String[] columnNames = (String[]) properties.get(CommonConstants.STATEMENT_COLUMN_INDEXES_KEY);
+            String[] columnNames = (String[]) properties.get(CommonConstants.STATEMENT_COLUMN_NAMES_KEY);
             Boolean isAddBatch = (Boolean) properties.get(CommonConstants.PREPARED_STATEMENT_ADD_BATCH_FLAG);
             Integer autoGeneratedKeys = (Integer) properties.get(CommonConstants.STATEMENT_AUTO_GENERATED_KEYS_KEY);
             if (columnIndexes != null) {
@@ -120,4 +173,57 @@ public class StatementFactory {
         ParameterHandler.addParametersPreparedStatement(sessionManager, dto.getSession(), ps, params);
         return ps;
     }
+
+    /**
+     * Borrows a PreparedStatement from the prepared statement cache and sets its parameters. Only statements created
+     * with the default options or with a result set type, concurrency and holdability are cached.
+     *
+     * @param sessionManager  The session manager
+     * @param cache           The prepared statement cache
+     * @param pool            The pool the connection of the session was borrowed from
+     * @param dto             The connection session DTO
+     * @param sql             The SQL statement
+     * @param params          The parameters
+     * @param propertyEntries The statement properties sent by the client
+     * @return Borrowed statement, or null if the statement cannot be cached
+     * @throws SQLException if prepared statement creation fails
+     */
+    public static CachedPreparedStatement borrowPreparedStatement(SessionManager sessionManager,
+                                                                  PreparedStatementCache cache, DataSource pool,
+                                                                  ConnectionSessionDTO dto, String sql,
+                                                                  List<Parameter> params,
+                                                                  List<PropertyEntry> propertyEntries)
+            throws SQLException {
+        if (!cache.isEnabled() || (dto.getSession() != null && dto.getSession().getIsXA())) {
+            return null;
+        }
+        Map<String, Object> properties = EMPTY_MAP;
+        if (!propertyEntries.isEmpty()) {
+            properties = ProtoConverter.propertiesFromProto(propertyEntries);
+        }
+        Integer resultSetType = (Integer) properties.get(CommonConstants.STATEMENT_RESULT_SET_TYPE_KEY);
+        Integer resultSetConcurrency = (Integer) properties.get(CommonConstants.STATEMENT_RESULT_SET_CONCURRENCY_KEY);
+        Integer resultSetHoldability = (Integer) properties.get(CommonConstants.STATEMENT_RESULT_SET_HOLDABILITY_KEY);
+        int resultSetOptions = (resultSetType != null ? 1 : 0) + (resultSetConcurrency != null ? 1 : 0)
+                + (resultSetHoldability != null ? 1 : 0);
+        // Statements returning generated keys, added to batches or with partial options are not cached
+        if (properties.size() != resultSetOptions || (resultSetType == null) != (resultSetConcurrency == null)
+                || (resultSetHoldability != null && resultSetType == null)) {
+            return null;
+        }
+
+        CachedPreparedStatement cached = cache.borrow(pool, dto.getConnection(), sql, resultSetType, resultSetConcurrency,
+                resultSetHoldability);
+        if (cached == null) {
+            return null;
+        }
+        try {
+            ParameterHandler.addParametersPreparedStatement(sessionManager, dto.getSession(),
+                    cached.getPreparedStatement(), params);
+        } catch (SQLException | RuntimeException e) {
+            cached.discard();
+            throw e;
+        }
+        return cached;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package org.openjproxy.grpc.server.utils;
+
+import com.openjproxy.grpc.SessionInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Utility class for the connection state shadowed by the driver: the catalog, schema, transaction isolation,
+ * holdability, client info and auto commit of a connection.
+ * <p>
+ * The driver answers the getters of this state locally and sends the changes made by the setters with the session of
+ * the next request resolving the connection of the session (see {@code SessionInfo.connectionState}), which applies
+ * them before doing anything else. Switching auto commit off is sent the same way, so a transaction begins with its
+ * first request instead of a startTransaction call.
+ * </p>
+ */
+@Slf4j
+public final class ConnectionStateUtils {
+
+    private ConnectionStateUtils() {
+    }
+
+    /**
+     * Tells if the session carries connection state changes to apply.
+     */
+    public static boolean hasState(SessionInfo sessionInfo) {
+        return sessionInfo != null && sessionInfo.getConnectionStateCount() > 0;
+    }
+
+    /**
+     * Tells if the connection state changes carried by the session switch auto commit off, beginning a transaction.
+     */
+    public static boolean beginsTransaction(SessionInfo sessionInfo) {
+        return hasState(sessionInfo) && sessionInfo.getConnectionStateList().stream()
+                .anyMatch(entry -> CommonConstants.CONNECTION_AUTO_COMMIT_KEY.equals(entry.getKey())
+                        && !entry.getBoolValue());
+    }
+
+    /**
+     * Returns the session without the connection state changes it carries, so they are never sent back to the client.
+     */
+    public static SessionInfo withoutState(SessionInfo sessionInfo) {
+        if (!hasState(sessionInfo)) {
+            return sessionInfo;
+        }
+        return sessionInfo.toBuilder().clearConnectionState().build();
+    }
+
+    /**
+     * Applies the connection state changes carried by the session to the connection. The catalog is set before the
+     * schema as some databases reset the schema when the catalog changes, and auto commit is set last so the other
+     * changes are in place when a transaction begins.
+     *
+     * @param conn        connection of the session
+     * @param sessionInfo session carrying the changes
+     * @throws SQLException if the connection rejects a change or a change is unknown
+     */
+    public static void applyState(Connection conn, SessionInfo sessionInfo) throws SQLException {
+        if (!hasState(sessionInfo)) {
+            return;
+        }
+        Map<String, Object> state = ProtoConverter.propertiesFromProto(sessionInfo.getConnectionStateList());
+        log.debug("Applying connection state {}", state.keySet());
+        if (state.containsKey(CommonConstants.CONNECTION_CATALOG_KEY)) {
+            conn.setCatalog((String) state.remove(CommonConstants.CONNECTION_CATALOG_KEY));
+        }
+        if (state.containsKey(CommonConstants.CONNECTION_SCHEMA_KEY)) {
+            conn.setSchema((String) state.remove(CommonConstants.CONNECTION_SCHEMA_KEY));
+        }
+        if (state.containsKey(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY)) {
+            conn.setTransactionIsolation((Integer) state.remove(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY));
+        }
+        if (state.containsKey(CommonConstants.CONNECTION_HOLDABILITY_KEY)) {
+            conn.setHoldability((Integer) state.remove(CommonConstants.CONNECTION_HOLDABILITY_KEY));
+        }
+        Boolean autoCommit = (Boolean) state.remove(CommonConstants.CONNECTION_AUTO_COMMIT_KEY);
+        for (Map.Entry<String, Object> entry : state.entrySet()) {
+            if (!entry.getKey().startsWith(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX)) {
+                throw new SQLException("Unknown connection state " + entry.getKey());
+            }
+            conn.setClientInfo(entry.getKey().substring(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX.length()),
+                    (String) entry.getValue());
+        }
+        if (autoCommit != null) {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Reads the catalog, schema, transaction isolation and holdability of the connection. Values the database driver fails to give are left out, the client then
+     * reads them through callResource and gets the failure.
+     *
+     * @param conn connection freshly borrowed from the datasource
+     * @return the state keyed by the CONNECTION_*_KEY constants
+     */
+    public static Map<String, Object> readState(Connection conn) {
+        Map<String, Object> state = new HashMap<>();
+        readValue(state, CommonConstants.CONNECTION_CATALOG_KEY, conn::getCatalog);
+        readValue(state, CommonConstants.CONNECTION_SCHEMA_KEY, conn::getSchema);
+        readValue(state, CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY, conn::getTransactionIsolation);
+        readValue(state, CommonConstants.CONNECTION_HOLDABILITY_KEY, conn::getHoldability);
+        return state;
+    }
+
+    private static void readValue(Map<String, Object> state, String key, StateGetter getter) {
+        try {
+            state.put(key, getter.get());
+        } catch (SQLException | RuntimeException | AbstractMethodError e) {
+            log.debug("Connection state {} not read: {}", key, e.toString());
+        }
+    }
+
+    @FunctionalInterface
+    private interface StateGetter {
+        Object get() throws SQLException;
+    }
+}
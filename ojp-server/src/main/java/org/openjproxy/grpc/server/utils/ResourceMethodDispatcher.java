@@ -0,0 +1,250 @@
+package org.openjproxy.grpc.server.utils;
+
+import com.openjproxy.grpc.CallType;
+import com.openjproxy.grpc.TargetCall;
+import org.openjproxy.grpc.server.JavaSqlInterfacesConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dispatch table of the methods of the java.sql interfaces called through callResource, replacing the scan of the
+ * interface methods and the reflective invocation done by {@link MethodReflectionUtils} on every call.
+ *
+ * <p>The methods of an interface are indexed by call type, resource name and number of parameters, each bound to a
+ * {@link MethodHandle} taking the resource and the parameters as an array. The tables of the interfaces used by the
+ * drivers are built when the class is loaded, the tables of other interfaces the first time they are used.</p>
+ *
+ * <p>A call resolves to the same method as {@link MethodReflectionUtils#findMethodByName}: the first method of the
+ * interface whose name matches the call type prefix and the resource name ignoring case, with the number and types
+ * of the parameters received.</p>
+ */
+public final class ResourceMethodDispatcher {
+
+    private static final Class<?>[] JAVA_SQL_INTERFACES = {
+            Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class, ResultSet.class,
+            DatabaseMetaData.class, ResultSetMetaData.class, ParameterMetaData.class, Savepoint.class, Blob.class,
+            Clob.class, NClob.class, Array.class, SQLXML.class
+    };
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final Map<CallType, String> CALL_TYPE_PREFIXES = callTypePrefixes();
+
+    private static final ClassValue<Class<?>> RESOURCE_INTERFACES = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            return JavaSqlInterfacesConverter.interfaceClass(type);
+        }
+    };
+    private static final ClassValue<Map<DispatchKey, ResourceMethod[]>> DISPATCH_TABLES = new ClassValue<>() {
+        @Override
+        protected Map<DispatchKey, ResourceMethod[]> computeValue(Class<?> type) {
+            return dispatchTable(type);
+        }
+    };
+
+    static {
+        for (Class<?> javaSqlInterface : JAVA_SQL_INTERFACES) {
+            DISPATCH_TABLES.get(javaSqlInterface);
+        }
+    }
+
+    private ResourceMethodDispatcher() {
+    }
+
+    /**
+     * Finds the method of the java.sql interface implemented by the resource targeted by the call.
+     *
+     * @param resourceClass class of the resource
+     * @param target        call on the resource
+     * @param params        parameters received for the call
+     * @return the method to invoke
+     * @throws SQLException     if the call type is not supported
+     * @throws RuntimeException if no method matches the call
+     */
+    public static ResourceMethod find(Class<?> resourceClass, TargetCall target, List<Object> params)
+            throws SQLException {
+        Class<?> resourceInterface = RESOURCE_INTERFACES.get(resourceClass);
+        ResourceMethod[] candidates = DISPATCH_TABLES.get(resourceInterface)
+                .get(new DispatchKey(target.getCallType(), target.getResourceName(), params.size()));
+        if (candidates != null) {
+            for (ResourceMethod candidate : candidates) {
+                if (candidate.accepts(params)) {
+                    return candidate;
+                }
+            }
+        }
+        throw new RuntimeException("Method " + MethodNameGenerator.methodName(target) + " not found in class " +
+                resourceInterface.getName());
+    }
+
+    private static Map<CallType, String> callTypePrefixes() {
+        Map<CallType, String> prefixes = new EnumMap<>(CallType.class);
+        for (CallType callType : CallType.values()) {
+            if (callType == CallType.UNRECOGNIZED) {
+                continue;
+            }
+            try {
+                prefixes.put(callType, MethodNameGenerator.methodName(
+                        TargetCall.newBuilder().setCallType(callType).build()));
+            } catch (SQLException e) {
+                // Call type not supported by the server, calls with it keep failing in MethodNameGenerator
+            }
+        }
+        return prefixes;
+    }
+
+    private static Map<DispatchKey, ResourceMethod[]> dispatchTable(Class<?> resourceInterface) {
+        Map<DispatchKey, List<ResourceMethod>> methods = new HashMap<>();
+        for (Method method : resourceInterface.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String name = method.getName();
+            ResourceMethod resourceMethod = null;
+            // A method is registered under every call type whose prefix starts its name, e.g. nullsAreSortedHigh
+            // under CALL_NULLS/AreSortedHigh and CALL_NULL/sAreSortedHigh
+            for (Map.Entry<CallType, String> prefix : CALL_TYPE_PREFIXES.entrySet()) {
+                if (!name.regionMatches(true, 0, prefix.getValue(), 0, prefix.getValue().length())) {
+                    continue;
+                }
+                if (resourceMethod == null) {
+                    resourceMethod = new ResourceMethod(method);
+                }
+                DispatchKey key = new DispatchKey(prefix.getKey(), name.substring(prefix.getValue().length()),
+                        method.getParameterCount());
+                methods.computeIfAbsent(key, k -> new ArrayList<>()).add(resourceMethod);
+            }
+        }
+        Map<DispatchKey, ResourceMethod[]> table = new HashMap<>();
+        methods.forEach((key, candidates) -> table.put(key, candidates.toArray(new ResourceMethod[0])));
+        return Map.copyOf(table);
+    }
+
+    /**
+     * Method of a java.sql interface bound to a method handle.
+     */
+    public static final class ResourceMethod {
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+        private final MethodHandle invoker;
+
+        private ResourceMethod(Method method) {
+            this.method = method;
+            Class<?>[] types = method.getParameterTypes();
+            this.parameterTypes = new Class<?>[types.length];
+            for (int i = 0; i < types.length; i++) {
+                this.parameterTypes[i] = MethodReflectionUtils.getWrapperType(types[i]);
+            }
+            try {
+                this.invoker = MethodHandles.publicLookup().unreflect(method)
+                        .asSpreader(Object[].class, types.length)
+                        .asType(INVOKER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Method " + method + " is not accessible", e);
+            }
+        }
+
+        public Method getMethod() {
+            return this.method;
+        }
+
+        public int getParameterCount() {
+            return this.parameterTypes.length;
+        }
+
+        /**
+         * Tells if the parameters received can be passed to the method, a null parameter matching any type.
+         */
+        boolean accepts(List<Object> params) {
+            for (int i = 0; i < this.parameterTypes.length; i++) {
+                Object param = params.get(i);
+                if (param != null && !this.parameterTypes[i].isAssignableFrom(param.getClass())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Invokes the method on the resource. Exceptions thrown by the method are rethrown as they are, errors are
+         * wrapped in an {@link InvocationTargetException} as done by {@link Method#invoke}.
+         *
+         * @param resource resource implementing the interface of the method
+         * @param args     parameters of the method
+         * @return the value returned by the method, null for void methods
+         */
+        public Object invoke(Object resource, Object... args) throws Exception {
+            Object[] arguments = args == null ? NO_ARGUMENTS : args;
+            try {
+                return (Object) this.invoker.invokeExact(resource, arguments);
+            } catch (Exception e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+    }
+
+    /**
+     * Key of a method in a dispatch table, the resource name being compared ignoring case.
+     */
+    private static final class DispatchKey {
+        private final CallType callType;
+        private final String resourceName;
+        private final int arity;
+        private final int hash;
+
+        private DispatchKey(CallType callType, String resourceName, int arity) {
+            this.callType = callType;
+            this.resourceName = resourceName;
+            this.arity = arity;
+            int h = 31 * callType.ordinal() + arity;
+            for (int i = 0; i < resourceName.length(); i++) {
+                h = 31 * h + Character.toLowerCase(resourceName.charAt(i));
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DispatchKey other)) {
+                return false;
+            }
+            return this.hash == other.hash && this.callType == other.callType && this.arity == other.arity
+                    && this.resourceName.equalsIgnoreCase(other.resourceName);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
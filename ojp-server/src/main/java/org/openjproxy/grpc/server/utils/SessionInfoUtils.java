@@ -1,6 +1,10 @@
 package org.openjproxy.grpc.server.utils;
 
 import com.openjproxy.grpc.SessionInfo;
+import com.openjproxy.grpc.TransactionInfo;
+import com.openjproxy.grpc.TransactionStatus;
+
+import java.util.UUID;
 
 /**
  * Utility class for creating SessionInfo builders.
@@ -26,6 +30,20 @@ public class SessionInfoUtils {
                 .setClusterHealth(activeSessionInfo.getClusterHealth());
     }
     
+    /**
+     * Marks a new transaction as active in an existing SessionInfo.
+     *
+     * @param sessionInfo The source session info
+     * @return A new SessionInfo with an active transaction
+     */
+    public static SessionInfo withActiveTransaction(SessionInfo sessionInfo) {
+        TransactionInfo transactionInfo = TransactionInfo.newBuilder()
+                .setTransactionStatus(TransactionStatus.TRX_ACTIVE)
+                .setTransactionUUID(UUID.randomUUID().toString())
+                .build();
+        return newBuilderFrom(sessionInfo).setTransactionInfo(transactionInfo).build();
+    }
+
     /**
      * Adds targetServer to an existing SessionInfo.
      * If targetServer is already set, it is preserved. Otherwise, the provided targetServer is set.
@@ -1,10 +1,13 @@
 package org.openjproxy.grpc.server.utils;
 
+import com.openjproxy.grpc.BatchStatementRequest;
+import com.openjproxy.grpc.PropertyEntry;
 import com.openjproxy.grpc.StatementRequest;
 import org.openjproxy.constants.CommonConstants;
 import org.openjproxy.grpc.ProtoConverter;
 
 import java.sql.Statement;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,18 +17,35 @@ import java.util.Map;
 public class StatementRequestValidator {
 
     /**
-     * Checks if the request has auto-generated keys flag set.
+     * Checks if the request asks for the keys generated by the statement, with the auto-generated keys flag set to
+     * RETURN_GENERATED_KEYS or the indexes or names of the key columns.
      *
      * @param request The statement request
-     * @return true if auto-generated keys flag is set
+     * @return true if the generated keys are returned with the update count
      */
-    public static boolean hasAutoGeneratedKeysFlag(StatementRequest request) {
-        if (request.getPropertiesList().isEmpty()) {
+    public static boolean returnsGeneratedKeys(StatementRequest request) {
+        return returnsGeneratedKeys(request.getPropertiesList());
+    }
+
+    /**
+     * Checks if the batch request asks for the keys generated by the statement.
+     *
+     * @param request The batch statement request
+     * @return true if the generated keys are returned with the update counts
+     */
+    public static boolean returnsGeneratedKeys(BatchStatementRequest request) {
+        return returnsGeneratedKeys(request.getPropertiesList());
+    }
+
+    private static boolean returnsGeneratedKeys(List<PropertyEntry> propertyEntries) {
+        if (propertyEntries.isEmpty()) {
             return false;
         }
-        Map<String, Object> properties = ProtoConverter.propertiesFromProto(request.getPropertiesList());
+        Map<String, Object> properties = ProtoConverter.propertiesFromProto(propertyEntries);
         Integer autoGeneratedKeys = (Integer) properties.get(CommonConstants.STATEMENT_AUTO_GENERATED_KEYS_KEY);
-        return autoGeneratedKeys != null && autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS;
+        return (autoGeneratedKeys != null && autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS)
+                || properties.containsKey(CommonConstants.STATEMENT_COLUMN_INDEXES_KEY)
+                || properties.containsKey(CommonConstants.STATEMENT_COLUMN_NAMES_KEY);
     }
 
     /**
@@ -0,0 +1,247 @@
+package org.openjproxy.grpc.server;
+
+import com.google.protobuf.ByteString;
+import com.openjproxy.grpc.LobDataBlock;
+import org.junit.jupiter.api.Test;
+
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LobDataBlocksInputStreamTest {
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void testBlocksAreReadInOrderInBulk() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        LobDataBlocksInputStream is = store(Long.MAX_VALUE, 0).newStream(block(0, expected), "session");
+        // More blocks than the ring holds are received before the stream is read
+        for (int i = 1; i <= LobDataBlocksInputStream.RING_CAPACITY + 4; i++) {
+            is.addBlock(block(i, expected));
+        }
+        is.finish(true);
+
+        assertArrayEquals(expected.toByteArray(), readAll(is));
+        assertTrue(is.getConsumption().isDone());
+    }
+
+    @Test
+    void testBlocksPastTheMemoryThresholdAreSpilledToATempFile() throws Exception {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        LobStagingStore store = store(250, 10_000);
+        LobDataBlocksInputStream is = store.newStream(block(0, expected), "session");
+        for (int i = 1; i <= 10; i++) {
+            is.addBlock(block(i, expected));
+        }
+        is.finish(true);
+
+        // Two blocks fit in memory, the eight others are in the file
+        assertEquals(800, store.getSpilledBytes());
+
+        assertArrayEquals(expected.toByteArray(), readAll(is));
+        assertTrue(is.getConsumption().isDone());
+        assertEquals(0, store.getSpilledBytes());
+        assertEquals(0, spillFiles());
+    }
+
+    @Test
+    void testUploadFailsPastTheQuota() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        LobStagingStore store = store(0, 250);
+        LobDataBlocksInputStream is = store.newStream(block(0, data), "session");
+        is.addBlock(block(1, data));
+        is.addBlock(block(2, data));
+
+        assertThrows(SQLException.class, () -> is.addBlock(block(3, data)));
+        assertEquals(200, store.getSpilledBytes());
+        // The blocks staged are still read before the failure
+        assertEquals(300, is.read(new byte[1000]));
+        assertThrows(IOException.class, is::read);
+    }
+
+    @Test
+    void testStreamsOfSessionsGoneAreDiscarded() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        LobStagingStore store = store(0, 10_000);
+        LobDataBlocksInputStream live = store.newStream(block(0, data), "live");
+        LobDataBlocksInputStream orphan = store.newStream(block(0, data), "gone");
+        live.addBlock(block(1, data));
+        orphan.addBlock(block(1, data));
+        assertEquals(200, store.getSpilledBytes());
+
+        assertEquals(1, store.discardOrphans(Set.of("live")));
+        assertTrue(orphan.getConsumption().isDone());
+        assertFalse(live.getConsumption().isDone());
+        assertEquals(100, store.getSpilledBytes());
+        assertEquals(0, store.discardOrphans(Set.of("live")));
+    }
+
+    @Test
+    void testNextBlockIsRequestedOnceTheReaderFreesASlot() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        LobDataBlocksInputStream is = store(Long.MAX_VALUE, 0).newStream(block(0, data), "session");
+        AtomicInteger requests = new AtomicInteger();
+
+        // Blocks keep being requested while the stream is not read
+        is.whenSpaceAvailable(requests::incrementAndGet);
+        assertEquals(1, requests.get());
+
+        is.read();
+        for (int i = 1; i <= LobDataBlocksInputStream.RING_CAPACITY; i++) {
+            is.addBlock(block(i, data));
+        }
+        is.whenSpaceAvailable(requests::incrementAndGet);
+        assertEquals(1, requests.get());
+
+        // Reading the rest of the first block moves to the next one, freeing a slot
+        is.read(new byte[200], 0, 200);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testReaderWaitsForTheNextBlock() throws Exception {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        LobDataBlocksInputStream is = store(Long.MAX_VALUE, 0).newStream(LobDataBlock.getDefaultInstance(), "session");
+
+        CompletableFuture<Integer> read = CompletableFuture.supplyAsync(() -> read(is, new byte[500]));
+        Thread.sleep(50);
+        assertFalse(read.isDone());
+        is.addBlock(block(1, data));
+        assertEquals(100, read.get(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Integer> end = CompletableFuture.supplyAsync(() -> read(is, new byte[1]));
+        is.finish(true);
+        assertEquals(-1, end.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testClobsPastTheMemoryThresholdAreStagedInATempFile() throws Exception {
+        LobStagingStore store = store(1000, 1_000_000);
+        // Characters past the first chunk copied and a surrogate pair, both read back through the mapped file
+        String value = "\uD83D\uDE00".repeat(40_000) + "end";
+        Clob clob = mock(Clob.class);
+        when(clob.length()).thenReturn((long) value.length());
+        when(clob.getCharacterStream()).thenReturn(new StringReader(value));
+
+        StagedClob staged = store.hydrateClob(clob, mock(ResultSet.class), "session");
+        assertEquals(value.length(), staged.length());
+        assertEquals(value.length() * 2L, store.getSpilledBytes());
+        assertEquals("end", staged.getSubString(value.length() - 2, 3));
+        try (Reader reader = staged.getCharacterStream()) {
+            char[] chars = new char[value.length()];
+            int count = 0;
+            int read;
+            while ((read = reader.read(chars, count, chars.length - count)) > 0) {
+                count += read;
+            }
+            assertEquals(value, new String(chars, 0, count));
+        }
+
+        // The copy of a CLOB is dropped with its session
+        assertEquals(1, store.discardOrphans(Set.of()));
+        assertEquals(0, store.getSpilledBytes());
+    }
+
+    @Test
+    void testClobCopiesPastTheHydrationMemoryAreSpilled() throws Exception {
+        LobStagingStore store = new LobStagingStore(this.spillDirectory, 1000, 10_000, 100, 1000);
+        ResultSet rs = mock(ResultSet.class);
+
+        StagedClob inHeap = store.hydrateClob(clob("a".repeat(300)), rs, "session");
+        StagedClob spilled = store.hydrateClob(clob("b".repeat(300)), rs, "session");
+
+        assertEquals(600, store.getHydratedHeapBytes());
+        assertEquals(600, store.getSpilledBytes());
+        assertEquals("b".repeat(300), spilled.getSubString(1, 300));
+        inHeap.discard();
+        spilled.discard();
+        assertEquals(0, store.getHydratedHeapBytes());
+        assertEquals(0, store.getSpilledBytes());
+    }
+
+    @Test
+    void testClobCopiesAreDiscardedOnceTheirResultSetIsClosed() throws Exception {
+        LobStagingStore store = store(1000, 10_000);
+        ResultSet rs = mock(ResultSet.class);
+        Session session = new Session(mock(Connection.class), "hash", "client");
+        session.addLob("clob-1", store.hydrateClob(clob("a".repeat(300)), rs, session.getSessionUUID()));
+
+        session.releaseClosedResultSets();
+        assertNotNull(session.getLob("clob-1"));
+
+        when(rs.isClosed()).thenReturn(true);
+        session.releaseClosedResultSets();
+        assertNull(session.getLob("clob-1"));
+        assertEquals(0, store.getHydratedHeapBytes());
+        assertEquals(0, store.discardOrphans(Set.of()));
+    }
+
+    private static Clob clob(String value) throws SQLException {
+        Clob clob = mock(Clob.class);
+        when(clob.length()).thenReturn((long) value.length());
+        when(clob.getSubString(1, value.length())).thenReturn(value);
+        when(clob.getCharacterStream()).thenReturn(new StringReader(value));
+        return clob;
+    }
+
+    private LobStagingStore store(long memoryThresholdBytes, long quotaBytes) {
+        return new LobStagingStore(this.spillDirectory, memoryThresholdBytes, quotaBytes, 0, memoryThresholdBytes);
+    }
+
+    private long spillFiles() throws IOException {
+        try (var files = Files.list(this.spillDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        actual.write(is.read());
+        byte[] buffer = new byte[1000];
+        int read;
+        while ((read = is.read(buffer, 0, buffer.length)) != -1) {
+            actual.write(buffer, 0, read);
+        }
+        return actual.toByteArray();
+    }
+
+    private static int read(InputStream is, byte[] buffer) {
+        try {
+            return is.read(buffer, 0, buffer.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Block of 100 bytes all holding the given value, also written to the given stream.
+     */
+    private static LobDataBlock block(int value, ByteArrayOutputStream written) {
+        byte[] bytes = new byte[100];
+        Arrays.fill(bytes, (byte) value);
+        written.writeBytes(bytes);
+        return LobDataBlock.newBuilder().setData(ByteString.copyFrom(bytes)).build();
+    }
+}
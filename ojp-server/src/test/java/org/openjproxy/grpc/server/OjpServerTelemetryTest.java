@@ -1,15 +1,19 @@
 package org.openjproxy.grpc.server;
 
 import io.opentelemetry.instrumentation.grpc.v1_6.GrpcTelemetry;
+import org.openjproxy.grpc.server.statement.PreparedStatementCache;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class OjpServerTelemetryTest {
 
@@ -19,6 +23,7 @@ class OjpServerTelemetryTest {
 	static void setUp() {
 		OjpServerTelemetry instrument = new OjpServerTelemetry();
 		grpcTelemetry = instrument.createGrpcTelemetry(9191);
+		instrument.registerPreparedStatementCacheMetrics(new PreparedStatementCache(10));
 	}
 
 	@Test
@@ -39,4 +44,18 @@ class OjpServerTelemetryTest {
 		assertEquals("text/plain; version=0.0.4; charset=utf-8", connection.getContentType());
 	}
 
+	@Test
+	void shouldExportPreparedStatementCacheMetrics() throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) URI.create("http://localhost:9191/metrics").toURL().openConnection();
+		connection.setConnectTimeout(5000);
+		connection.setReadTimeout(5000);
+
+		try (InputStream in = connection.getInputStream()) {
+			String metrics = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertTrue(metrics.contains("ojp_prepared_statement_cache_hits"));
+			assertTrue(metrics.contains("ojp_prepared_statement_cache_misses"));
+			assertTrue(metrics.contains("ojp_prepared_statement_cache_evictions"));
+		}
+	}
+
 }
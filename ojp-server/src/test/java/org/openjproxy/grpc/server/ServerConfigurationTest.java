@@ -20,6 +20,7 @@ public class ServerConfigurationTest {
         System.clearProperty("ojp.opentelemetry.enabled");
         System.clearProperty("ojp.opentelemetry.endpoint");
         System.clearProperty("ojp.server.threadPoolSize");
+        System.clearProperty("ojp.server.executorMode");
         System.clearProperty("ojp.server.maxRequestSize");
         System.clearProperty("ojp.server.logLevel");
         System.clearProperty("ojp.server.allowedIps");
@@ -163,6 +164,23 @@ public class ServerConfigurationTest {
         assertEquals("/custom/path/to/libs", config.getDriversPath());
     }
 
+    @Test
+    public void testExecutorModeConfiguration() {
+        ServerConfiguration config = new ServerConfiguration();
+        assertEquals(ServerConfiguration.DEFAULT_EXECUTOR_MODE, config.getExecutorMode());
+        assertFalse(config.isVirtualThreadExecutor());
+
+        System.setProperty("ojp.server.executorMode", "Virtual");
+        config = new ServerConfiguration();
+        assertEquals(ServerConfiguration.EXECUTOR_MODE_VIRTUAL, config.getExecutorMode());
+        assertTrue(config.isVirtualThreadExecutor());
+
+        // Unknown modes fall back to the default
+        System.setProperty("ojp.server.executorMode", "carrier");
+        config = new ServerConfiguration();
+        assertEquals(ServerConfiguration.DEFAULT_EXECUTOR_MODE, config.getExecutorMode());
+    }
+
     @Test
     public void testDefaultSessionCleanupConfiguration() {
         ServerConfiguration config = new ServerConfiguration();
@@ -4,6 +4,7 @@ import com.openjproxy.grpc.SessionInfo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.openjproxy.grpc.server.statement.PreparedStatementCache;
 
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -194,6 +195,19 @@ class SessionCleanupTest {
         assertNotNull(sessionManager.getSession(sessionInfo));
     }
 
+    @Test
+    void testSessionCleanupTaskInvalidatesStatementsOfClosedConnections() {
+        PreparedStatementCache preparedStatementCache = mock(PreparedStatementCache.class);
+        when(preparedStatementCache.isEnabled()).thenReturn(true);
+        SessionCleanupTask cleanupTask = new SessionCleanupTask(sessionManager, TEST_TIMEOUT_MS,
+                preparedStatementCache);
+
+        cleanupTask.run();
+
+        verify(preparedStatementCache).invalidateClosedConnections();
+        verify(preparedStatementCache).getStats();
+    }
+
     @Test
     void testUpdateActivityOnNullSession() {
         // Should not throw exception with null or invalid session info
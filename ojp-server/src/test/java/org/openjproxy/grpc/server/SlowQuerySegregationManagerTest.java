@@ -72,6 +72,22 @@ public class SlowQuerySegregationManagerTest {
         assertTrue(disabledManager.getOperationAverageTime(operationHash) > 0);
     }
 
+    @Test
+    public void testStartedOperationHoldsItsSlotUntilEnded() throws Exception {
+        String operationHash = "streamed-query";
+
+        SlowQuerySegregationManager.SegregatedExecution execution = segregationManager.start(operationHash);
+
+        assertEquals(1, segregationManager.getSlotManager().getActiveFastOperations());
+        assertEquals(0, segregationManager.getPerformanceMonitor().getTotalExecutionCount());
+
+        execution.end();
+        execution.end();
+
+        assertEquals(0, segregationManager.getSlotManager().getActiveFastOperations());
+        assertEquals(1, segregationManager.getPerformanceMonitor().getTotalExecutionCount());
+    }
+
     @Test
     public void testSlowOperationClassification() throws Exception {
         String fastOp = "fast-operation";
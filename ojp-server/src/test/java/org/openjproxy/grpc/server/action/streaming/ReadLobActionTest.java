@@ -0,0 +1,129 @@
+package org.openjproxy.grpc.server.action.streaming;
+
+import com.google.protobuf.ByteString;
+import com.openjproxy.grpc.LobDataBlock;
+import com.openjproxy.grpc.LobReference;
+import com.openjproxy.grpc.LobType;
+import com.openjproxy.grpc.ReadLobRequest;
+import com.openjproxy.grpc.SessionInfo;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openjproxy.grpc.server.ServerConfiguration;
+import org.openjproxy.grpc.server.SessionManager;
+import org.openjproxy.grpc.server.action.ActionContext;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadLobActionTest {
+
+    private static final SessionInfo SESSION = SessionInfo.newBuilder().setSessionUUID("session").build();
+
+    private final SessionManager sessionManager = mock(SessionManager.class);
+    private final ServerConfiguration serverConfiguration = mock(ServerConfiguration.class);
+    private final ActionContext context = mock(ActionContext.class);
+    private final List<LobDataBlock> received = new ArrayList<>();
+    private boolean completed;
+
+    @BeforeEach
+    void setUp() {
+        when(this.context.getSessionManager()).thenReturn(this.sessionManager);
+        when(this.context.getServerConfiguration()).thenReturn(this.serverConfiguration);
+        when(this.serverConfiguration.getLobMaxBlockBytes()).thenReturn(2048);
+    }
+
+    @Test
+    void testBlobIsSentInBlocksOfTheRequestedSize() throws SQLException {
+        byte[] data = bytes(3000);
+        blob(data);
+
+        this.read(1024);
+
+        assertEquals(List.of(1024, 1024, 952), sizes());
+        assertEquals(3001, this.received.get(2).getPosition());
+        assertArrayEquals(data, concat());
+        assertTrue(this.completed);
+    }
+
+    @Test
+    void testBlockSizeIsBoundedByTheServer() throws SQLException {
+        byte[] data = bytes(5000);
+        blob(data);
+
+        this.read(1024 * 1024);
+
+        assertEquals(List.of(2048, 2048, 904), sizes());
+        assertArrayEquals(data, concat());
+    }
+
+    @Test
+    void testEmptyBlobIsSentAsOneEmptyBlock() throws SQLException {
+        blob(new byte[0]);
+
+        this.read(0);
+
+        assertEquals(List.of(0), sizes());
+        assertTrue(this.completed);
+    }
+
+    private void read(int blockSize) {
+        ReadLobRequest request = ReadLobRequest.newBuilder()
+                .setLobReference(LobReference.newBuilder().setSession(SESSION).setUuid("lob")
+                        .setLobType(LobType.LT_BLOB))
+                .setPosition(1)
+                .setLength(Integer.MAX_VALUE)
+                .setBlockSize(blockSize)
+                .build();
+        ReadLobAction.getInstance().execute(this.context, request, new StreamObserver<>() {
+            @Override
+            public void onNext(LobDataBlock block) {
+                received.add(block);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed = true;
+            }
+        });
+    }
+
+    private void blob(byte[] data) throws SQLException {
+        Blob blob = mock(Blob.class);
+        when(blob.length()).thenReturn((long) data.length);
+        when(blob.getBinaryStream(anyLong(), anyLong())).thenReturn(new ByteArrayInputStream(data));
+        when(this.sessionManager.<Blob>getLob(any(), any())).thenReturn(blob);
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    private List<Integer> sizes() {
+        return this.received.stream().map(b -> b.getData().size()).collect(Collectors.toList());
+    }
+
+    private byte[] concat() {
+        return this.received.stream().map(LobDataBlock::getData)
+                .reduce(ByteString.EMPTY, ByteString::concat).toByteArray();
+    }
+}
@@ -0,0 +1,289 @@
+package org.openjproxy.grpc.server.resultset;
+
+import com.openjproxy.grpc.DbName;
+import com.openjproxy.grpc.OpQueryResultProto;
+import com.openjproxy.grpc.OpResult;
+import com.openjproxy.grpc.ResultSetOptions;
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+import org.openjproxy.grpc.server.LobStagingStore;
+import org.openjproxy.grpc.server.SessionManager;
+import org.openjproxy.grpc.server.StagedClob;
+
+import java.io.ByteArrayInputStream;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ResultSetBlockReader reading rows through the column extractors built once per result set.
+ */
+public class ResultSetBlockReaderTest {
+
+    private static final SessionInfo SESSION = SessionInfo.newBuilder().setSessionUUID("session").build();
+    private static final int INLINE_THRESHOLD = 100;
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void testMetadataIsReadOncePerResultSet() throws SQLException {
+        ResultSet rs = mockResultSet("jdbc:postgresql://localhost/db", Types.INTEGER, Types.DATE);
+        when(rs.next()).thenReturn(true, true, true, false);
+        when(rs.getObject(1)).thenReturn(1, 2, 3);
+        Date date = Date.valueOf("2024-01-31");
+        when(rs.getDate(2)).thenReturn(date);
+        ResultSetMetaData metaData = rs.getMetaData();
+
+        List<Object[]> rows = this.readAll(rs);
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[]{3, date}, rows.get(2));
+        // Once to build the extractors and once to look for LOB columns, not once per row
+        verify(metaData, times(2)).getColumnType(1);
+        verify(metaData, times(2)).getColumnType(2);
+    }
+
+    @Test
+    void testYearColumnIsReadAsInteger() throws SQLException {
+        ResultSet rs = mockResultSet("jdbc:mysql://localhost/db", Types.DATE);
+        when(rs.getMetaData().getColumnTypeName(1)).thenReturn("YEAR");
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getDate(1)).thenReturn(Date.valueOf("2024-01-31"));
+
+        List<Object[]> rows = this.readAll(rs);
+
+        assertEquals(2024, rows.get(0)[0]);
+    }
+
+    @Test
+    void testSmallLobsInSqlServerAreSentInsideTheRows() throws Exception {
+        ResultSet rs = mockResultSet("jdbc:sqlserver://localhost;databaseName=db", Types.BLOB, Types.CLOB);
+        when(rs.next()).thenReturn(true, true, true, false);
+        Blob blob = mock(Blob.class);
+        when(blob.getBinaryStream()).thenAnswer(i -> new ByteArrayInputStream(new byte[]{1, 2}));
+        when(rs.getBlob(1)).thenReturn(blob);
+        Clob clob = clob("{\"id\": 1}");
+        when(rs.getClob(2)).thenReturn(clob);
+
+        ResultSetBlockReader reader = this.newReader(rs);
+        OpResult block = reader.nextBlock();
+
+        assertEquals("", block.getFlag());
+        List<Object[]> rows = ProtoConverter.fromProto(block.getQueryResult()).getRows();
+        assertEquals(3, rows.size());
+        assertArrayEquals(new byte[]{1, 2}, (byte[]) rows.get(2)[0]);
+        assertEquals("{\"id\": 1}", rows.get(2)[1]);
+        assertNull(reader.nextBlock());
+    }
+
+    @Test
+    void testLargeClobInSqlServerEndsTheBlockAndStartsRowByRow() throws Exception {
+        ResultSet rs = mockResultSet("jdbc:sqlserver://localhost;databaseName=db", Types.CLOB);
+        when(rs.next()).thenReturn(true, true, true, false);
+        Clob small = clob("small");
+        Clob large = clob("x".repeat(INLINE_THRESHOLD + 1));
+        when(rs.getClob(1)).thenReturn(small, large, small);
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getResultSet(SESSION, "rs")).thenReturn(rs);
+
+        ResultSetBlockReader reader = this.newReader(sessionManager);
+        OpResult block = reader.nextBlock();
+
+        // The cursor stops on the row holding the registered CLOB, the client then asks for every row
+        assertEquals(CommonConstants.RESULT_SET_ROW_BY_ROW_MODE, block.getFlag());
+        List<Object[]> rows = ProtoConverter.fromProto(block.getQueryResult()).getRows();
+        assertEquals(2, rows.size());
+        assertEquals("small", rows.get(0)[0]);
+        assertTrue(((String) rows.get(1)[0]).startsWith(CommonConstants.OJP_CLOB_PREFIX));
+        verify(sessionManager).registerLob(eq(SESSION), eq(large), anyString());
+        assertNull(reader.nextBlock());
+    }
+
+    @Test
+    void testFetchedBlocksGoOnFromTheRowByRowStopWithTheQueryOptions() throws Exception {
+        ResultSet rs = mockResultSet("jdbc:sqlserver://localhost;databaseName=db", Types.CLOB);
+        when(rs.next()).thenReturn(true, true, true, true, false);
+        Clob small = clob("small");
+        Clob large = clob("x".repeat(INLINE_THRESHOLD + 1));
+        when(rs.getClob(1)).thenReturn(small, large, small, small);
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getResultSet(SESSION, "rs")).thenReturn(rs);
+        ResultSetBlockReader reader = new ResultSetBlockReader(sessionManager, new HashMap<String, DbName>(),
+                SESSION, "rs", ResultSetOptions.newBuilder().setColumnar(true).build(),
+                new ResultSetBlockSizer(1024 * 1024, 1024 * 1024, 0), INLINE_THRESHOLD, false);
+
+        assertEquals(CommonConstants.RESULT_SET_ROW_BY_ROW_MODE, reader.nextBlock().getFlag());
+        assertTrue(reader.isFinished());
+        OpResult third = reader.fetchBlock(1);
+        OpResult fourth = reader.fetchBlock(1);
+        OpResult end = reader.fetchBlock(1);
+
+        assertTrue(third.getQueryResult().hasColumnarRows());
+        assertEquals("small", ProtoConverter.fromProto(third.getQueryResult()).getRows().get(0)[0]);
+        assertEquals(1, ProtoConverter.fromProto(fourth.getQueryResult()).getRows().size());
+        assertEquals(0, ProtoConverter.fromProto(end.getQueryResult()).getRows().size());
+        assertTrue(reader.isFinished());
+        // The cursor is not moved past its end and the extractors are built once
+        verify(rs, times(5)).next();
+        verify(rs.getMetaData(), times(2)).getColumnType(1);
+    }
+
+    @Test
+    void testLargeClobsInSqlServerAreStagedAndRowsSentInWindows() throws Exception {
+        ResultSet rs = mockResultSet("jdbc:sqlserver://localhost;databaseName=db", Types.CLOB);
+        when(rs.next()).thenReturn(true, true, true, false);
+        String value = "x".repeat(INLINE_THRESHOLD + 1);
+        Clob clob = clob(value);
+        when(rs.getClob(1)).thenReturn(clob);
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getResultSet(SESSION, "rs")).thenReturn(rs);
+        when(sessionManager.getLobStagingStore()).thenReturn(new LobStagingStore(this.spillDirectory, 1024, 1024, 2, 1024));
+
+        ResultSetBlockReader reader = this.newReader(sessionManager);
+        OpResult first = reader.nextBlock();
+        OpResult second = reader.nextBlock();
+
+        // The CLOBs are copied as the rows are read, the cursor moves on without the client asking for every row
+        assertEquals("", first.getFlag());
+        assertEquals(2, ProtoConverter.fromProto(first.getQueryResult()).getRows().size());
+        assertEquals(1, ProtoConverter.fromProto(second.getQueryResult()).getRows().size());
+        ArgumentCaptor<Object> staged = ArgumentCaptor.forClass(Object.class);
+        verify(sessionManager, times(3)).registerLob(eq(SESSION), staged.capture(), anyString());
+        StagedClob stagedClob = (StagedClob) staged.getValue();
+        assertEquals(value, stagedClob.getSubString(1, value.length()));
+        assertNull(reader.nextBlock());
+    }
+
+    @Test
+    void testGeneratedKeysAreReadFullyAndClosed() throws SQLException {
+        ResultSet rs = mockResultSet("jdbc:postgresql://localhost/db", Types.BIGINT);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getObject(1)).thenReturn(41L, 42L);
+
+        OpQueryResultProto keys = ResultSetBlockReader.readFully(rs, mock(SessionManager.class), SESSION,
+                new HashMap<String, DbName>(), INLINE_THRESHOLD);
+
+        assertEquals(List.of("C1"), keys.getLabelsList());
+        assertEquals(2, keys.getRowsCount());
+        assertEquals(42L, ProtoConverter.fromProto(keys).getRows().get(1)[0]);
+        verify(rs).close();
+    }
+
+    @Test
+    void testDatabaseMetaDataResultSetWithoutStatementIsRead() throws SQLException {
+        ResultSet rs = mockResultSet("jdbc:h2:mem:db", Types.VARCHAR);
+        when(rs.getStatement()).thenReturn(null);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getObject(1)).thenReturn("TABLE_1");
+
+        List<Object[]> rows = this.readAll(rs);
+
+        assertEquals("TABLE_1", rows.get(0)[0]);
+    }
+
+    @Test
+    void testOnlyForwardOnlyResultSetsWithoutLobsAreReadWithoutSession() throws SQLException {
+        ResultSet rs = mockResultSet("jdbc:postgresql://localhost/db", Types.INTEGER);
+        when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+        when(rs.getConcurrency()).thenReturn(ResultSet.CONCUR_READ_ONLY);
+        assertTrue(ResultSetBlockReader.canReadWithoutSession(rs));
+
+        when(rs.getType()).thenReturn(ResultSet.TYPE_SCROLL_INSENSITIVE);
+        assertFalse(ResultSetBlockReader.canReadWithoutSession(rs));
+
+        ResultSet lobs = mockResultSet("jdbc:postgresql://localhost/db", Types.INTEGER, Types.BLOB);
+        when(lobs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+        when(lobs.getConcurrency()).thenReturn(ResultSet.CONCUR_READ_ONLY);
+        assertFalse(ResultSetBlockReader.canReadWithoutSession(lobs));
+    }
+
+    @Test
+    void testBlocksAfterAttachCarryTheSession() throws SQLException {
+        ResultSet rs = mockResultSet("jdbc:postgresql://localhost/db", Types.INTEGER);
+        when(rs.next()).thenReturn(true, true, false);
+        when(rs.getObject(1)).thenReturn(1, 2);
+        SessionInfo noSession = SessionInfo.newBuilder().setConnHash("hash").build();
+        ResultSetBlockReader reader = new ResultSetBlockReader(mock(SessionManager.class),
+                new HashMap<String, DbName>(), noSession, rs, ResultSetOptions.getDefaultInstance(),
+                new ResultSetBlockSizer(1024 * 1024, 1024 * 1024, 1), INLINE_THRESHOLD, true);
+
+        OpResult first = reader.nextBlock();
+        assertEquals("", first.getQueryResult().getResultSetUUID());
+        assertFalse(reader.isFinished());
+
+        reader.attach(SESSION, "rs");
+        OpResult second = reader.nextBlock();
+        assertEquals("rs", second.getQueryResult().getResultSetUUID());
+        assertEquals(SESSION, second.getSession());
+    }
+
+    private List<Object[]> readAll(ResultSet rs) throws SQLException {
+        ResultSetBlockReader reader = this.newReader(rs);
+        OpResult block = reader.nextBlock();
+        assertNull(reader.nextBlock());
+        return ProtoConverter.fromProto(block.getQueryResult()).getRows();
+    }
+
+    private ResultSetBlockReader newReader(ResultSet rs) throws SQLException {
+        SessionManager sessionManager = mock(SessionManager.class);
+        when(sessionManager.getResultSet(SESSION, "rs")).thenReturn(rs);
+        return this.newReader(sessionManager);
+    }
+
+    private ResultSetBlockReader newReader(SessionManager sessionManager) throws SQLException {
+        return new ResultSetBlockReader(sessionManager, new HashMap<String, DbName>(), SESSION, "rs",
+                ResultSetOptions.getDefaultInstance(), new ResultSetBlockSizer(1024 * 1024, 1024 * 1024, 0),
+                INLINE_THRESHOLD, false);
+    }
+
+    private static Clob clob(String value) throws SQLException {
+        Clob clob = mock(Clob.class);
+        when(clob.length()).thenReturn((long) value.length());
+        when(clob.getSubString(1, value.length())).thenReturn(value);
+        return clob;
+    }
+
+    private static ResultSet mockResultSet(String url, int... columnTypes) throws SQLException {
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(metaData.getColumnCount()).thenReturn(columnTypes.length);
+        for (int i = 0; i < columnTypes.length; i++) {
+            when(metaData.getColumnType(i + 1)).thenReturn(columnTypes[i]);
+            when(metaData.getColumnName(i + 1)).thenReturn("C" + (i + 1));
+        }
+        when(metaData.getColumnTypeName(anyInt())).thenReturn("");
+        DatabaseMetaData databaseMetaData = mock(DatabaseMetaData.class);
+        when(databaseMetaData.getURL()).thenReturn(url);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(databaseMetaData);
+        Statement statement = mock(Statement.class);
+        when(statement.getConnection()).thenReturn(connection);
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getMetaData()).thenReturn(metaData);
+        when(rs.getStatement()).thenReturn(statement);
+        return rs;
+    }
+}
@@ -0,0 +1,70 @@
+package org.openjproxy.grpc.server.resultset;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ResultSetBlockSizer block boundaries.
+ */
+public class ResultSetBlockSizerTest {
+
+    private static final Object[] ROW = new Object[]{1, "0123456789012345678901234567890123456789"};
+
+    @Test
+    void testFirstBlockIsSmallAndLaterBlocksGrow() {
+        long rowSize = ResultSetBlockSizer.estimateRowSize(ROW);
+        ResultSetBlockSizer sizer = new ResultSetBlockSizer(1024, 8 * 1024, 0);
+
+        int firstBlockRows = rowsUntilFull(sizer);
+        sizer.blockSent();
+        int secondBlockRows = rowsUntilFull(sizer);
+        sizer.blockSent();
+        int thirdBlockRows = rowsUntilFull(sizer);
+
+        assertEquals((int) Math.ceil(1024d / rowSize), firstBlockRows);
+        assertTrue(secondBlockRows > firstBlockRows);
+        assertTrue(thirdBlockRows > secondBlockRows);
+    }
+
+    @Test
+    void testBudgetNeverExceedsMaxBlockBytes() {
+        ResultSetBlockSizer sizer = new ResultSetBlockSizer(1024, 4096, 0);
+        for (int i = 0; i < 10; i++) {
+            sizer.blockSent();
+        }
+        assertEquals(4096, sizer.getBlockBudgetBytes());
+
+        ResultSetBlockSizer misconfigured = new ResultSetBlockSizer(8192, 4096, 0);
+        assertEquals(4096, misconfigured.getBlockBudgetBytes());
+    }
+
+    @Test
+    void testFetchSizeDefinesRowsPerBlock() {
+        ResultSetBlockSizer sizer = new ResultSetBlockSizer(16, 1024 * 1024, 25);
+        assertEquals(25, rowsUntilFull(sizer));
+        sizer.blockSent();
+        assertEquals(25, rowsUntilFull(sizer));
+    }
+
+    @Test
+    void testFetchSizeBoundedByMaxBlockBytes() {
+        long rowSize = ResultSetBlockSizer.estimateRowSize(ROW);
+        ResultSetBlockSizer sizer = new ResultSetBlockSizer(1024, 2048, 1000);
+        assertEquals((int) Math.ceil(2048d / rowSize), rowsUntilFull(sizer));
+    }
+
+    @Test
+    void testRowLargerThanBudgetIsSentAlone() {
+        ResultSetBlockSizer sizer = new ResultSetBlockSizer(64, 128, 0);
+        assertTrue(sizer.addRow(new Object[]{new byte[1000]}));
+    }
+
+    private static int rowsUntilFull(ResultSetBlockSizer sizer) {
+        int rows = 1;
+        while (!sizer.addRow(ROW)) {
+            rows++;
+        }
+        return rows;
+    }
+}
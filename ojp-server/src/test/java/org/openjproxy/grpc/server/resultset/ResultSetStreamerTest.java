@@ -0,0 +1,228 @@
+package org.openjproxy.grpc.server.resultset;
+
+import com.openjproxy.grpc.OpResult;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ResultSetStreamer flow control.
+ */
+public class ResultSetStreamerTest {
+
+    private static final OpResult BLOCK = OpResult.newBuilder().setFlag("block").build();
+
+    @Test
+    void testBlocksAreOnlyReadWhileReady() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK, BLOCK, BLOCK, null);
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 1;
+
+        ResultSetStreamer.stream(observer, reader, e -> fail(e));
+
+        assertEquals(1, observer.received.size());
+        verify(reader, times(1)).nextBlock();
+        assertFalse(observer.completed);
+
+        observer.readyBlocks = 10;
+        observer.onReadyHandler.run();
+
+        assertEquals(3, observer.received.size());
+        assertTrue(observer.completed);
+        verify(reader, times(4)).nextBlock();
+    }
+
+    @Test
+    void testCancelStopsReading() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK);
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 2;
+
+        ResultSetStreamer.stream(observer, reader, e -> fail(e));
+        observer.onCancelHandler.run();
+        observer.readyBlocks = 10;
+        observer.onReadyHandler.run();
+
+        assertEquals(2, observer.received.size());
+        verify(reader, times(2)).nextBlock();
+    }
+
+    @Test
+    void testFailureAfterFirstBlocksGoesToErrorHandler() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        SQLException failure = new SQLException("cursor closed");
+        when(reader.nextBlock()).thenReturn(BLOCK).thenThrow(failure);
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 1;
+        List<SQLException> errors = new ArrayList<>();
+
+        ResultSetStreamer.stream(observer, reader, errors::add);
+        observer.readyBlocks = 1;
+        observer.onReadyHandler.run();
+
+        assertEquals(List.of(failure), errors);
+    }
+
+    @Test
+    void testEndHandlerRunsOnceTheLastBlockIsSent() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK, BLOCK, null);
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 1;
+        AtomicInteger ends = new AtomicInteger();
+
+        ResultSetStreamer.stream(observer, null, reader, e -> fail(e), ends::incrementAndGet);
+
+        assertEquals(0, ends.get());
+
+        observer.readyBlocks = 10;
+        observer.onReadyHandler.run();
+        observer.onReadyHandler.run();
+
+        assertEquals(1, ends.get());
+    }
+
+    @Test
+    void testEndHandlerRunsWhenTheClientCancels() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK);
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 1;
+        AtomicInteger ends = new AtomicInteger();
+
+        ResultSetStreamer.stream(observer, null, reader, e -> fail(e), ends::incrementAndGet);
+        observer.onCancelHandler.run();
+
+        assertEquals(1, ends.get());
+    }
+
+    @Test
+    void testEndHandlerDoesNotRunWhenStreamingFails() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK).thenThrow(new SQLException("cursor closed"));
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 1;
+        List<SQLException> errors = new ArrayList<>();
+        AtomicInteger ends = new AtomicInteger();
+
+        ResultSetStreamer.stream(observer, null, reader, errors::add, ends::incrementAndGet);
+        observer.readyBlocks = 1;
+        observer.onReadyHandler.run();
+        observer.onCancelHandler.run();
+
+        assertEquals(1, errors.size());
+        assertEquals(0, ends.get());
+    }
+
+    @Test
+    void testPlainObserverReceivesAllBlocks() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK, BLOCK, null);
+        @SuppressWarnings("unchecked")
+        StreamObserver<OpResult> observer = mock(StreamObserver.class);
+
+        ResultSetStreamer.stream(observer, reader, e -> fail(e));
+
+        verify(observer, times(2)).onNext(BLOCK);
+        verify(observer).onCompleted();
+    }
+
+    @Test
+    void testBlockAlreadyReadIsSentFirst() throws SQLException {
+        ResultSetBlockReader reader = mock(ResultSetBlockReader.class);
+        when(reader.nextBlock()).thenReturn(BLOCK).thenReturn(null);
+        OpResult firstBlock = OpResult.newBuilder().setFlag("first").build();
+        FakeServerCallStreamObserver observer = new FakeServerCallStreamObserver();
+        observer.readyBlocks = 1;
+
+        ResultSetStreamer.stream(observer, firstBlock, reader, e -> fail(e));
+
+        assertEquals(List.of(firstBlock), observer.received);
+        verify(reader, times(0)).nextBlock();
+
+        observer.readyBlocks = 10;
+        observer.onReadyHandler.run();
+
+        assertEquals(List.of(firstBlock, BLOCK), observer.received);
+        assertTrue(observer.completed);
+    }
+
+    /**
+     * Observer ready for a given number of blocks, simulating a client that stopped consuming.
+     */
+    private static class FakeServerCallStreamObserver extends ServerCallStreamObserver<OpResult> {
+        private final List<OpResult> received = new ArrayList<>();
+        private int readyBlocks;
+        private boolean cancelled;
+        private boolean completed;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+
+        @Override
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = () -> {
+                this.cancelled = true;
+                onCancelHandler.run();
+            };
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.readyBlocks > 0;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void onNext(OpResult value) {
+            this.readyBlocks--;
+            this.received.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+            this.completed = true;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package org.openjproxy.grpc.server.statement;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for PreparedStatementCache keeping statements per physical connection.
+ */
+public class PreparedStatementCacheTest {
+
+    private static final DataSource POOL = mock(DataSource.class);
+
+    @Test
+    void testReleasedStatementIsReusedByTheNextBorrower() throws SQLException {
+        Connection physical = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+
+        CachedPreparedStatement first = cache.borrow(POOL, pooledConnection(physical), "select 1", null, null, null);
+        first.executeUpdate();
+        // Another pooled connection proxy wrapping the same physical connection, as in a later session
+        CachedPreparedStatement second = cache.borrow(POOL, pooledConnection(physical), "select 1", null, null, null);
+
+        assertSame(first.getPreparedStatement(), second.getPreparedStatement());
+        verify(physical, times(1)).prepareStatement("select 1");
+        verify(first.getPreparedStatement()).clearParameters();
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void testBorrowedStatementIsNotSharedUntilReleased() throws SQLException {
+        Connection physical = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+
+        CachedPreparedStatement first = cache.borrow(POOL, pooledConnection(physical), "select 1", null, null, null);
+        CachedPreparedStatement second = cache.borrow(POOL, pooledConnection(physical), "select 1", null, null, null);
+
+        assertNotSame(first.getPreparedStatement(), second.getPreparedStatement());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testLeastRecentlyUsedStatementIsEvictedAndClosed() throws SQLException {
+        Connection physical = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(2);
+
+        PreparedStatement ps1 = borrowAndRelease(cache, physical, "select 1");
+        borrowAndRelease(cache, physical, "select 2");
+        borrowAndRelease(cache, physical, "select 1");
+        borrowAndRelease(cache, physical, "select 3");
+
+        assertEquals(1, cache.getEvictions());
+        verify(ps1, never()).close();
+        assertSame(ps1, borrowAndRelease(cache, physical, "select 1"));
+        borrowAndRelease(cache, physical, "select 2");
+        verify(physical, times(2)).prepareStatement("select 2");
+    }
+
+    @Test
+    void testResultSetOptionsArePartOfTheKey() throws SQLException {
+        Connection physical = physicalConnection();
+        when(physical.prepareStatement(anyString(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> mock(PreparedStatement.class));
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+
+        borrowAndRelease(cache, physical, "select 1");
+        cache.borrow(POOL, pooledConnection(physical), "select 1", ResultSet.TYPE_SCROLL_INSENSITIVE,
+                ResultSet.CONCUR_READ_ONLY, null).release();
+
+        assertEquals(2, cache.getMisses());
+        verify(physical).prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+    }
+
+    @Test
+    void testStatementsOfClosedConnectionsAreInvalidated() throws SQLException {
+        Connection evicted = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        PreparedStatement ps = borrowAndRelease(cache, evicted, "select 1");
+
+        when(evicted.isClosed()).thenReturn(true);
+        borrowAndRelease(cache, physicalConnection(), "select 1");
+
+        verify(ps).close();
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    void testStatementsOfClosedConnectionsAreInvalidatedWithoutAMiss() throws SQLException {
+        Connection evicted = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        PreparedStatement ps = borrowAndRelease(cache, evicted, "select 1");
+
+        when(evicted.isClosed()).thenReturn(true);
+        cache.invalidateClosedConnections();
+
+        verify(ps).close();
+        assertEquals(0, cache.getConnectionCount());
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    void testStatementsOfClosedConnectionsAreInvalidatedOnAnyMiss() throws SQLException {
+        Connection evicted = physicalConnection();
+        Connection other = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        PreparedStatement ps = borrowAndRelease(cache, evicted, "select 1");
+        borrowAndRelease(cache, other, "select 1");
+
+        when(evicted.isClosed()).thenReturn(true);
+        borrowAndRelease(cache, other, "select 1");
+
+        verify(ps, never()).close();
+        borrowAndRelease(cache, other, "select 2");
+
+        verify(ps).close();
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    @Test
+    void testBrokenConnectionIsEvictedFromItsPool() throws SQLException {
+        Connection physical = physicalConnection();
+        List<Connection> evicted = new ArrayList<>();
+        PreparedStatementCache cache = new PreparedStatementCache(10, (pool, connection) -> {
+            assertSame(POOL, pool);
+            return evicted.add(connection);
+        });
+        PreparedStatement cachedPs = borrowAndRelease(cache, physical, "select 1");
+        Connection pooled = pooledConnection(physical);
+        CachedPreparedStatement cached = cache.borrow(POOL, pooled, "update t", null, null, null);
+        when(cached.getPreparedStatement().executeUpdate()).thenThrow(new SQLException("I/O error", "08006"));
+
+        assertThrows(SQLException.class, cached::executeUpdate);
+
+        assertEquals(List.of(pooled), evicted);
+        verify(cachedPs).close();
+        assertEquals(1, cache.getInvalidations());
+        borrowAndRelease(cache, physical, "select 1");
+        verify(physical, times(2)).prepareStatement("select 1");
+    }
+
+    @Test
+    void testStatementErrorKeepsTheConnection() throws SQLException {
+        Connection physical = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10, (pool, connection) -> fail());
+        PreparedStatement cachedPs = borrowAndRelease(cache, physical, "select 1");
+        CachedPreparedStatement cached = cache.borrow(POOL, pooledConnection(physical), "update t", null, null, null);
+        when(cached.getPreparedStatement().executeUpdate()).thenThrow(new SQLException("duplicate key", "23505"));
+
+        assertThrows(SQLException.class, cached::executeUpdate);
+
+        verify(cachedPs, never()).close();
+        assertEquals(0, cache.getInvalidations());
+    }
+
+    @Test
+    void testFailedStatementIsDiscarded() throws SQLException {
+        Connection physical = physicalConnection();
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+        CachedPreparedStatement cached = cache.borrow(POOL, pooledConnection(physical), "update t", null, null, null);
+        when(cached.getPreparedStatement().executeUpdate()).thenThrow(new SQLException("failed"));
+
+        assertThrows(SQLException.class, cached::executeUpdate);
+
+        verify(cached.getPreparedStatement()).close();
+        cache.borrow(POOL, pooledConnection(physical), "update t", null, null, null);
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testConnectionsNotCachedAreSkipped() throws SQLException {
+        PreparedStatementCache cache = new PreparedStatementCache(10);
+
+        Connection inTransaction = pooledConnection(physicalConnection());
+        when(inTransaction.getAutoCommit()).thenReturn(false);
+        assertNull(cache.borrow(POOL, inTransaction, "select 1", null, null, null));
+
+        // Connections not wrapped by a pool unwrap to themselves
+        Connection unpooled = physicalConnection();
+        when(unpooled.isWrapperFor(Connection.class)).thenReturn(true);
+        when(unpooled.unwrap(Connection.class)).thenReturn(unpooled);
+        when(unpooled.getAutoCommit()).thenReturn(true);
+        assertNull(cache.borrow(POOL, unpooled, "select 1", null, null, null));
+
+        assertNull(new PreparedStatementCache(0).borrow(POOL, pooledConnection(physicalConnection()), "select 1",
+                null, null, null));
+    }
+
+    private static PreparedStatement borrowAndRelease(PreparedStatementCache cache, Connection physical, String sql)
+            throws SQLException {
+        CachedPreparedStatement cached = cache.borrow(POOL, pooledConnection(physical), sql, null, null, null);
+        cached.release();
+        return cached.getPreparedStatement();
+    }
+
+    private static Connection physicalConnection() throws SQLException {
+        Connection physical = mock(Connection.class);
+        when(physical.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        return physical;
+    }
+
+    private static Connection pooledConnection(Connection physical) throws SQLException {
+        Connection pooled = mock(Connection.class);
+        when(pooled.getAutoCommit()).thenReturn(true);
+        when(pooled.isWrapperFor(Connection.class)).thenReturn(true);
+        when(pooled.unwrap(Connection.class)).thenReturn(physical);
+        return pooled;
+    }
+}
@@ -0,0 +1,131 @@
+package org.openjproxy.grpc.server.utils;
+
+import com.openjproxy.grpc.CallType;
+import com.openjproxy.grpc.TargetCall;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjproxy.grpc.server.JavaSqlInterfacesConverter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective lookup and invocation previously done by CallResourceAction on every call with the
+ * {@link ResourceMethodDispatcher}, for a call on a connection, a two level call on the database metadata of a
+ * connection and a call on an overloaded result set method. Resources are JDK proxies returning constant values, so
+ * the difference measured is the cost of finding and invoking the methods.
+ *
+ * <p>Run with:
+ * {@code mvn -pl ojp-server test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjproxy.grpc.server.utils.CallResourceDispatchBenchmark"}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallResourceDispatchBenchmark {
+
+    private static final TargetCall GET_AUTO_COMMIT = target(CallType.CALL_GET, "AutoCommit");
+    private static final TargetCall GET_META_DATA = target(CallType.CALL_GET, "MetaData");
+    private static final TargetCall SUPPORTS_TRANSACTIONS = target(CallType.CALL_SUPPORTS, "Transactions");
+    private static final TargetCall GET_STRING = target(CallType.CALL_GET, "String");
+
+    private final List<Object> noParams = Collections.emptyList();
+    private final List<Object> columnIndex = List.of(1);
+    private DatabaseMetaData metaData;
+    private Connection connection;
+    private ResultSet resultSet;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CallResourceDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    @Setup
+    public void setUp() {
+        this.metaData = stub(DatabaseMetaData.class);
+        this.connection = stub(Connection.class);
+        this.resultSet = stub(ResultSet.class);
+    }
+
+    @Benchmark
+    public Object connectionCallReflection() throws Exception {
+        return reflectionCall(this.connection, GET_AUTO_COMMIT, this.noParams);
+    }
+
+    @Benchmark
+    public Object connectionCallDispatcher() throws Exception {
+        return dispatcherCall(this.connection, GET_AUTO_COMMIT, this.noParams);
+    }
+
+    @Benchmark
+    public Object metaDataCallReflection() throws Exception {
+        Object metaData = reflectionCall(this.connection, GET_META_DATA, this.noParams);
+        return reflectionCall(metaData, SUPPORTS_TRANSACTIONS, this.noParams);
+    }
+
+    @Benchmark
+    public Object metaDataCallDispatcher() throws Exception {
+        Object metaData = dispatcherCall(this.connection, GET_META_DATA, this.noParams);
+        return dispatcherCall(metaData, SUPPORTS_TRANSACTIONS, this.noParams);
+    }
+
+    @Benchmark
+    public Object overloadedCallReflection() throws Exception {
+        return reflectionCall(this.resultSet, GET_STRING, this.columnIndex);
+    }
+
+    @Benchmark
+    public Object overloadedCallDispatcher() throws Exception {
+        return dispatcherCall(this.resultSet, GET_STRING, this.columnIndex);
+    }
+
+    private static Object reflectionCall(Object resource, TargetCall target, List<Object> params) throws Exception {
+        Method method = MethodReflectionUtils.findMethodByName(
+                JavaSqlInterfacesConverter.interfaceClass(resource.getClass()),
+                MethodNameGenerator.methodName(target), params);
+        return method.invoke(resource, params.toArray());
+    }
+
+    private static Object dispatcherCall(Object resource, TargetCall target, List<Object> params) throws Exception {
+        return ResourceMethodDispatcher.find(resource.getClass(), target, params).invoke(resource, params.toArray());
+    }
+
+    private static TargetCall target(CallType callType, String resourceName) {
+        return TargetCall.newBuilder().setCallType(callType).setResourceName(resourceName).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T stub(Class<T> resourceInterface) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{resourceInterface},
+                (proxy, method, args) -> {
+                    Class<?> returnType = method.getReturnType();
+                    if (returnType == boolean.class) {
+                        return true;
+                    } else if (returnType == String.class) {
+                        return "value";
+                    } else if (returnType == DatabaseMetaData.class) {
+                        return this.metaData;
+                    }
+                    return null;
+                });
+    }
+}
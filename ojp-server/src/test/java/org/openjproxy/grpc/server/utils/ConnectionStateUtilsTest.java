@@ -0,0 +1,96 @@
+package org.openjproxy.grpc.server.utils;
+
+import com.openjproxy.grpc.SessionInfo;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.openjproxy.constants.CommonConstants;
+import org.openjproxy.grpc.ProtoConverter;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ConnectionStateUtils applying and reading the connection state shadowed by the driver.
+ */
+public class ConnectionStateUtilsTest {
+
+    @Test
+    void testAppliesStateCatalogBeforeSchemaAndAutoCommitLast() throws Exception {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, false);
+        state.put(CommonConstants.CONNECTION_CLIENT_INFO_KEY_PREFIX + "ApplicationName", "reports");
+        state.put(CommonConstants.CONNECTION_SCHEMA_KEY, "REPORTING");
+        state.put(CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY, Connection.TRANSACTION_SERIALIZABLE);
+        state.put(CommonConstants.CONNECTION_CATALOG_KEY, "OTHERDB");
+        Connection conn = mock(Connection.class);
+
+        ConnectionStateUtils.applyState(conn, session(state));
+
+        InOrder inOrder = inOrder(conn);
+        inOrder.verify(conn).setCatalog("OTHERDB");
+        inOrder.verify(conn).setSchema("REPORTING");
+        inOrder.verify(conn).setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        inOrder.verify(conn).setClientInfo("ApplicationName", "reports");
+        inOrder.verify(conn).setAutoCommit(false);
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void testAutoCommitSwitchedOffBeginsTransaction() {
+        assertTrue(ConnectionStateUtils.beginsTransaction(
+                session(Map.of(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, false))));
+        assertFalse(ConnectionStateUtils.beginsTransaction(
+                session(Map.of(CommonConstants.CONNECTION_AUTO_COMMIT_KEY, true))));
+        assertFalse(ConnectionStateUtils.beginsTransaction(
+                session(Map.of(CommonConstants.CONNECTION_SCHEMA_KEY, "REPORTING"))));
+    }
+
+    @Test
+    void testUnknownStateIsRejected() {
+        Connection conn = mock(Connection.class);
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> ConnectionStateUtils.applyState(conn, session(Map.of("AUTO_COMMIT", true))));
+        assertEquals("Unknown connection state AUTO_COMMIT", e.getMessage());
+    }
+
+    @Test
+    void testStateIsNotReturnedToTheClient() {
+        SessionInfo session = session(Map.of(CommonConstants.CONNECTION_SCHEMA_KEY, "REPORTING"));
+
+        assertTrue(ConnectionStateUtils.hasState(session));
+        SessionInfo returned = ConnectionStateUtils.withoutState(session);
+        assertFalse(ConnectionStateUtils.hasState(returned));
+        assertEquals(session.getSessionUUID(), returned.getSessionUUID());
+    }
+
+    @Test
+    void testReadStateLeavesOutValuesNotGiven() throws Exception {
+        Connection conn = mock(Connection.class);
+        when(conn.getCatalog()).thenReturn("TESTDB");
+        when(conn.getSchema()).thenThrow(new SQLFeatureNotSupportedException("getSchema"));
+        when(conn.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        when(conn.getHoldability()).thenReturn(1);
+
+        Map<String, Object> state = ConnectionStateUtils.readState(conn);
+
+        assertEquals(Map.of(CommonConstants.CONNECTION_CATALOG_KEY, "TESTDB",
+                CommonConstants.CONNECTION_TRANSACTION_ISOLATION_KEY, Connection.TRANSACTION_READ_COMMITTED,
+                CommonConstants.CONNECTION_HOLDABILITY_KEY, 1), state);
+    }
+
+    private static SessionInfo session(Map<String, Object> state) {
+        return SessionInfo.newBuilder()
+                .setSessionUUID("session-1")
+                .addAllConnectionState(ProtoConverter.propertiesToProto(state))
+                .build();
+    }
+}
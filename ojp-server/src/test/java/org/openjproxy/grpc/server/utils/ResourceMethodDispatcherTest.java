@@ -0,0 +1,96 @@
+package org.openjproxy.grpc.server.utils;
+
+import com.openjproxy.grpc.CallType;
+import com.openjproxy.grpc.TargetCall;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for ResourceMethodDispatcher resolving callResource targets to method handles.
+ */
+public class ResourceMethodDispatcherTest {
+
+    @Test
+    void testResolvesSameMethodsAsReflectionLookup() throws Exception {
+        assertSameMethod(Connection.class, CallType.CALL_SET, "AutoCommit", List.of(true));
+        assertSameMethod(Connection.class, CallType.CALL_GET, "MetaData", Collections.emptyList());
+        assertSameMethod(DatabaseMetaData.class, CallType.CALL_NULLS, "AreSortedHigh", Collections.emptyList());
+        assertSameMethod(DatabaseMetaData.class, CallType.CALL_SUPPORTS, "Convert", List.of(4, 12));
+        assertSameMethod(ResultSet.class, CallType.CALL_GET, "String", List.of(1));
+        assertSameMethod(ResultSet.class, CallType.CALL_GET, "String", List.of("NAME"));
+        // Resource names are matched ignoring case, as method names are
+        assertSameMethod(Connection.class, CallType.CALL_GET, "autocommit", Collections.emptyList());
+        // Null parameters match any type
+        assertSameMethod(DatabaseMetaData.class, CallType.CALL_GET, "Tables", Arrays.asList(null, null, "T", null));
+    }
+
+    @Test
+    void testInvokesImplementationOfTheInterface() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getString("NAME")).thenReturn("value");
+        when(resultSet.getInt(2)).thenReturn(7);
+
+        assertEquals("value", find(resultSet.getClass(), CallType.CALL_GET, "String", List.of("NAME"))
+                .invoke(resultSet, "NAME"));
+        assertEquals(7, find(resultSet.getClass(), CallType.CALL_GET, "Int", List.of(2)).invoke(resultSet, 2));
+    }
+
+    @Test
+    void testVoidMethodsReturnNull() throws Exception {
+        Connection connection = mock(Connection.class);
+
+        Object result = find(connection.getClass(), CallType.CALL_SET, "AutoCommit", List.of(false))
+                .invoke(connection, false);
+
+        assertNull(result);
+        verify(connection).setAutoCommit(false);
+    }
+
+    @Test
+    void testExceptionsOfTheMethodAreNotWrapped() throws Exception {
+        Connection connection = mock(Connection.class);
+        doThrow(new SQLException("read only")).when(connection).setReadOnly(true);
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> find(connection.getClass(), CallType.CALL_SET, "ReadOnly", List.of(true)).invoke(connection, true));
+        assertEquals("read only", e.getMessage());
+    }
+
+    @Test
+    void testUnknownMethodIsReported() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> find(Connection.class, CallType.CALL_GET, "Unknown", Collections.emptyList()));
+        assertEquals("Method getUnknown not found in class java.sql.Connection", e.getMessage());
+        assertThrows(RuntimeException.class,
+                () -> find(Connection.class, CallType.CALL_SET, "AutoCommit", List.of("true")));
+    }
+
+    private static void assertSameMethod(Class<?> resourceInterface, CallType callType, String resourceName,
+                                         List<Object> params) throws SQLException {
+        TargetCall target = TargetCall.newBuilder().setCallType(callType).setResourceName(resourceName).build();
+        assertEquals(MethodReflectionUtils.findMethodByName(resourceInterface, MethodNameGenerator.methodName(target),
+                        params),
+                ResourceMethodDispatcher.find(resourceInterface, target, new ArrayList<>(params)).getMethod());
+    }
+
+    private static ResourceMethodDispatcher.ResourceMethod find(Class<?> resourceClass, CallType callType,
+                                                                String resourceName, List<Object> params)
+            throws SQLException {
+        return ResourceMethodDispatcher.find(resourceClass,
+                TargetCall.newBuilder().setCallType(callType).setResourceName(resourceName).build(), params);
+    }
+}